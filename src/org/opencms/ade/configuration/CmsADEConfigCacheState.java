@@ -41,10 +41,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
@@ -80,6 +83,9 @@ public class CmsADEConfigCacheState {
     /** The list of module configurations. */
     private List<CmsADEConfigDataInternal> m_moduleConfigurations;
 
+    /** The merged (inherited) configuration values, by configuration sequence and value name. */
+    private Map<CmsADEConfigurationSequence, Map<String, Object>> m_mergedData = new ConcurrentHashMap<>();
+
     /** The map of sitemap configurations by structure id. */
     private Map<CmsUUID, CmsADEConfigDataInternal> m_siteConfigurations = new HashMap<CmsUUID, CmsADEConfigDataInternal>();
 
@@ -205,7 +211,16 @@ public class CmsADEConfigCacheState {
             newElementViews = elementViewUpdates;
         }
 
-        return new CmsADEConfigCacheState(m_cms, newSitemapConfigs, newModuleConfigs, newElementViews);
+        CmsADEConfigCacheState result = new CmsADEConfigCacheState(
+            m_cms,
+            newSitemapConfigs,
+            newModuleConfigs,
+            newElementViews);
+        if (moduleUpdates == null) {
+            // updated module configurations may be re-merged in place, so only keep merged data if they are unchanged
+            result.inheritMergedData(m_mergedData);
+        }
+        return result;
     }
 
     /**
@@ -371,6 +386,43 @@ public class CmsADEConfigCacheState {
         return Collections.unmodifiableList(result);
     }
 
+    /**
+     * Returns a merged configuration value for the given configuration sequence, computing it if necessary.<p>
+     *
+     * Since the configuration data of a cache state never changes, the merged value is computed only once and then
+     * shared by all threads. The value must not be null and must not be modified by the caller.<p>
+     *
+     * @param <T> the value type
+     * @param sequence the configuration sequence
+     * @param name the name of the merged value
+     * @param computation computes the merged value if it is not yet available
+     *
+     * @return the merged value
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T getMergedData(CmsADEConfigurationSequence sequence, String name, Supplier<T> computation) {
+
+        Map<String, Object> values = m_mergedData.get(sequence);
+        if (values == null) {
+            values = new ConcurrentHashMap<>();
+            // don't keep the child configurations referenced by the sequence
+            Map<String, Object> existing = m_mergedData.putIfAbsent(sequence.getTrimmedCopy(), values);
+            if (existing != null) {
+                values = existing;
+            }
+        }
+        Object result = values.get(name);
+        if (result == null) {
+            // computation may recursively ask for the merged values of the parent, so no computeIfAbsent here
+            result = computation.get();
+            Object existing = values.putIfAbsent(name, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return (T)result;
+    }
+
     /**
      * Gets the merged module configuration.<p>
      * @return the merged module configuration instance
@@ -514,6 +566,25 @@ public class CmsADEConfigCacheState {
         return result;
     }
 
+    /**
+     * Takes over the merged configuration values of a previous cache state for all configuration sequences
+     * which only consist of configuration data that is still used in this state.<p>
+     *
+     * @param previousMergedData the merged configuration values of the previous state
+     */
+    private void inheritMergedData(Map<CmsADEConfigurationSequence, Map<String, Object>> previousMergedData) {
+
+        Set<CmsADEConfigDataInternal> unchanged = Collections.newSetFromMap(
+            new IdentityHashMap<CmsADEConfigDataInternal, Boolean>());
+        unchanged.add(m_moduleConfiguration);
+        unchanged.addAll(m_siteConfigurations.values());
+        for (Map.Entry<CmsADEConfigurationSequence, Map<String, Object>> entry : previousMergedData.entrySet()) {
+            if (entry.getKey().isContainedIn(unchanged)) {
+                m_mergedData.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     /**
      * Wraps the internal config data into a bean which manages the lookup of inherited configurations.<p>
      *
@@ -64,6 +64,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.commons.logging.Log;
@@ -179,6 +180,33 @@ public class CmsADEConfigData {
     /** The log instance for this class. */
     private static final Log LOG = CmsLog.getLog(CmsADEConfigData.class);
 
+    /** Name of the merged detail page list. */
+    private static final String MERGED_DETAIL_PAGES = "detailPages";
+
+    /** Name of the merged dynamic function restrictions. */
+    private static final String MERGED_DYNAMIC_FUNCTIONS = "dynamicFunctions";
+
+    /** Name of the merged formatter change set list. */
+    private static final String MERGED_FORMATTER_CHANGE_SETS = "formatterChangeSets";
+
+    /** Name of the merged function reference list. */
+    private static final String MERGED_FUNCTION_REFERENCES = "functionReferences";
+
+    /** Name of the merged model page list. */
+    private static final String MERGED_MODEL_PAGES = "modelPages";
+
+    /** Name of the merged model page list including disabled model pages. */
+    private static final String MERGED_MODEL_PAGES_ALL = "modelPagesAll";
+
+    /** Name of the merged property configuration list. */
+    private static final String MERGED_PROPERTIES = "properties";
+
+    /** Name of the merged resource type list. */
+    private static final String MERGED_RESOURCE_TYPES = "resourceTypes";
+
+    /** Name of the merged resource type list including disabled types. */
+    private static final String MERGED_RESOURCE_TYPES_ALL = "resourceTypesAll";
+
     /** The wrapped configuration bean containing the actual data. */
     protected CmsADEConfigDataInternal m_data;
 
@@ -322,16 +350,20 @@ public class CmsADEConfigData {
      */
     public List<CmsDetailPageInfo> getAllDetailPages(boolean update) {
 
-        CmsADEConfigData parentData = parent();
-        List<CmsDetailPageInfo> parentDetailPages;
-        if (parentData != null) {
-            parentDetailPages = parentData.getAllDetailPages(false);
-        } else {
-            parentDetailPages = Collections.emptyList();
-        }
-        List<CmsDetailPageInfo> result = mergeDetailPages(parentDetailPages, m_data.getOwnDetailPages());
+        List<CmsDetailPageInfo> result = getMerged(MERGED_DETAIL_PAGES, () -> {
+            CmsADEConfigData parentData = parent();
+            List<CmsDetailPageInfo> parentDetailPages;
+            if (parentData != null) {
+                parentDetailPages = parentData.getAllDetailPages(false);
+            } else {
+                parentDetailPages = Collections.emptyList();
+            }
+            return mergeDetailPages(parentDetailPages, m_data.getOwnDetailPages());
+        });
         if (update) {
             result = updateUris(result);
+        } else {
+            result = new ArrayList<CmsDetailPageInfo>(result);
         }
         return result;
     }
@@ -527,36 +559,10 @@ public class CmsADEConfigData {
      */
     public Set<CmsUUID> getDynamicFunctions() {
 
-        CmsADEConfigData parentData = parent();
-
-        // null means no restrictions, while a set of structure ids means that the only allowed
-        // functions are those with the given ids.
-        Set<CmsUUID> restrictedFunctions = null;
-
-        // First, get the result of getDynamicFunctions for the parent. If there is no parent, there are no restrictions.
-        if (parentData != null) {
-            restrictedFunctions = parentData.getDynamicFunctions();
-        }
-
-        // Then, if 'remove all functions' is selected, set the restricted functions to the empty set.
-        if (m_data.isRemoveAllFunctions()) {
-            restrictedFunctions = new HashSet<>();
-        }
-
-        // If we are restricted, add ids of all functions configured here to restricted function set
-        // (since the restricted function set, if it's coming from the parent, is unmodifiable, we need to copy it.)
-        if (restrictedFunctions != null) {
-            restrictedFunctions = new HashSet<>(restrictedFunctions);
-            for (CmsUUID id : m_data.getDynamicFunctions()) {
-                restrictedFunctions.add(id);
-            }
-        }
-        // If we are restricted, wrap the result in an unmodifiable set
-        if (restrictedFunctions != null) {
-            return Collections.unmodifiableSet(restrictedFunctions);
-        } else {
-            return null;
-        }
+        Optional<Set<CmsUUID>> result = getMerged(
+            MERGED_DYNAMIC_FUNCTIONS,
+            () -> Optional.fromNullable(internalGetDynamicFunctions()));
+        return result.orNull();
     }
 
     /**
@@ -590,17 +596,20 @@ public class CmsADEConfigData {
      */
     public List<CmsFormatterChangeSet> getFormatterChangeSets() {
 
-        CmsADEConfigData currentConfig = this;
-        List<CmsFormatterChangeSet> result = Lists.newArrayList();
-        while (currentConfig != null) {
-            CmsFormatterChangeSet changes = currentConfig.getOwnFormatterChangeSet();
-            if (changes != null) {
-                result.add(changes);
+        List<CmsFormatterChangeSet> result = getMerged(MERGED_FORMATTER_CHANGE_SETS, () -> {
+            CmsADEConfigData currentConfig = this;
+            List<CmsFormatterChangeSet> changeSets = Lists.newArrayList();
+            while (currentConfig != null) {
+                CmsFormatterChangeSet changes = currentConfig.getOwnFormatterChangeSet();
+                if (changes != null) {
+                    changeSets.add(changes);
+                }
+                currentConfig = currentConfig.parent();
             }
-            currentConfig = currentConfig.parent();
-        }
-        Collections.reverse(result);
-        return result;
+            Collections.reverse(changeSets);
+            return changeSets;
+        });
+        return new ArrayList<CmsFormatterChangeSet>(result);
     }
 
     /**
@@ -739,19 +748,17 @@ public class CmsADEConfigData {
      */
     public List<CmsModelPageConfig> getModelPages(boolean includeDisable) {
 
-        CmsADEConfigData parentData = parent();
-        List<CmsModelPageConfig> parentModelPages;
-        if ((parentData != null) && !m_data.isDiscardInheritedModelPages()) {
-            parentModelPages = parentData.getModelPages();
-        } else {
-            parentModelPages = Collections.emptyList();
-        }
-
-        List<CmsModelPageConfig> result = combineConfigurationElements(
-            parentModelPages,
-            m_data.getOwnModelPageConfig(),
-            includeDisable);
-        return result;
+        List<CmsModelPageConfig> result = getMerged(includeDisable ? MERGED_MODEL_PAGES_ALL : MERGED_MODEL_PAGES, () -> {
+            CmsADEConfigData parentData = parent();
+            List<CmsModelPageConfig> parentModelPages;
+            if ((parentData != null) && !m_data.isDiscardInheritedModelPages()) {
+                parentModelPages = parentData.getModelPages();
+            } else {
+                parentModelPages = Collections.emptyList();
+            }
+            return combineConfigurationElements(parentModelPages, m_data.getOwnModelPageConfig(), includeDisable);
+        });
+        return new ArrayList<CmsModelPageConfig>(result);
     }
 
     /**
@@ -771,31 +778,33 @@ public class CmsADEConfigData {
      */
     public List<CmsPropertyConfig> getPropertyConfiguration() {
 
-        CmsADEConfigData parentData = parent();
-        List<CmsPropertyConfig> parentProperties;
-        if ((parentData != null) && !m_data.isDiscardInheritedProperties()) {
-            parentProperties = parentData.getPropertyConfiguration();
-        } else {
-            parentProperties = Collections.emptyList();
-        }
-        LinkedHashMap<String, CmsPropertyConfig> propMap = new LinkedHashMap<>();
-        for (CmsPropertyConfig conf : parentProperties) {
-            if (conf.isDisabled()) {
-                continue;
-            }
-            propMap.put(conf.getName(), conf);
-        }
-        for (CmsPropertyConfig conf : m_data.getOwnPropertyConfigurations()) {
-            if (conf.isDisabled()) {
-                propMap.remove(conf.getName());
-            } else if (propMap.containsKey(conf.getName())) {
-                propMap.put(conf.getName(), propMap.get(conf.getName()).merge(conf));
+        List<CmsPropertyConfig> result = getMerged(MERGED_PROPERTIES, () -> {
+            CmsADEConfigData parentData = parent();
+            List<CmsPropertyConfig> parentProperties;
+            if ((parentData != null) && !m_data.isDiscardInheritedProperties()) {
+                parentProperties = parentData.getPropertyConfiguration();
             } else {
+                parentProperties = Collections.emptyList();
+            }
+            LinkedHashMap<String, CmsPropertyConfig> propMap = new LinkedHashMap<>();
+            for (CmsPropertyConfig conf : parentProperties) {
+                if (conf.isDisabled()) {
+                    continue;
+                }
                 propMap.put(conf.getName(), conf);
             }
-        }
-        List<CmsPropertyConfig> result = new ArrayList<>(propMap.values());
-        return result;
+            for (CmsPropertyConfig conf : m_data.getOwnPropertyConfigurations()) {
+                if (conf.isDisabled()) {
+                    propMap.remove(conf.getName());
+                } else if (propMap.containsKey(conf.getName())) {
+                    propMap.put(conf.getName(), propMap.get(conf.getName()).merge(conf));
+                } else {
+                    propMap.put(conf.getName(), conf);
+                }
+            }
+            return new ArrayList<>(propMap.values());
+        });
+        return new ArrayList<CmsPropertyConfig>(result);
     }
 
     /**
@@ -1074,6 +1083,48 @@ public class CmsADEConfigData {
         }
     }
 
+    /**
+     * Computes the list of resource types by merging the resource types of this configuration with those of the parent.<p>
+     *
+     * @param filterDisabled true if disabled types should be filtered from the result
+     *
+     * @return the list of resource types
+     */
+    protected List<CmsResourceTypeConfig> computeResourceTypes(boolean filterDisabled) {
+
+        CmsADEConfigData parentData = parent();
+        List<CmsResourceTypeConfig> parentResourceTypes = null;
+        if (parentData == null) {
+            parentResourceTypes = Lists.newArrayList();
+        } else {
+            parentResourceTypes = Lists.newArrayList();
+            for (CmsResourceTypeConfig typeConfig : parentData.internalGetResourceTypes(false)) {
+                CmsResourceTypeConfig copiedType = typeConfig.copy(m_data.isDiscardInheritedTypes());
+                parentResourceTypes.add(copiedType);
+            }
+        }
+        List<CmsResourceTypeConfig> result = combineConfigurationElements(
+            parentResourceTypes,
+            m_data.getOwnResourceTypes(),
+            true);
+        if (m_data.isCreateContentsLocally()) {
+            for (CmsResourceTypeConfig typeConfig : result) {
+                typeConfig.updateBasePath(
+                    CmsStringUtil.joinPaths(m_data.getBasePath(), CmsADEManager.CONTENT_FOLDER_NAME));
+            }
+        }
+        if (filterDisabled) {
+            Iterator<CmsResourceTypeConfig> iter = result.iterator();
+            while (iter.hasNext()) {
+                CmsResourceTypeConfig typeConfig = iter.next();
+                if (typeConfig.isDisabled()) {
+                    iter.remove();
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Creates the content directory for this configuration node if possible.<p>
      *
@@ -1231,6 +1282,45 @@ public class CmsADEConfigData {
         }
     }
 
+    /**
+     * Internal method for computing the restricted dynamic functions.<p>
+     *
+     * @return the restricted dynamic functions, or <code>null</code> if there are no restrictions
+     */
+    protected Set<CmsUUID> internalGetDynamicFunctions() {
+
+        CmsADEConfigData parentData = parent();
+
+        // null means no restrictions, while a set of structure ids means that the only allowed
+        // functions are those with the given ids.
+        Set<CmsUUID> restrictedFunctions = null;
+
+        // First, get the result of getDynamicFunctions for the parent. If there is no parent, there are no restrictions.
+        if (parentData != null) {
+            restrictedFunctions = parentData.getDynamicFunctions();
+        }
+
+        // Then, if 'remove all functions' is selected, set the restricted functions to the empty set.
+        if (m_data.isRemoveAllFunctions()) {
+            restrictedFunctions = new HashSet<>();
+        }
+
+        // If we are restricted, add ids of all functions configured here to restricted function set
+        // (since the restricted function set, if it's coming from the parent, is unmodifiable, we need to copy it.)
+        if (restrictedFunctions != null) {
+            restrictedFunctions = new HashSet<>(restrictedFunctions);
+            for (CmsUUID id : m_data.getDynamicFunctions()) {
+                restrictedFunctions.add(id);
+            }
+        }
+        // If we are restricted, wrap the result in an unmodifiable set
+        if (restrictedFunctions != null) {
+            return Collections.unmodifiableSet(restrictedFunctions);
+        } else {
+            return null;
+        }
+    }
+
     /**
      * Internal method for getting the function references.<p>
      *
@@ -1238,17 +1328,20 @@ public class CmsADEConfigData {
      */
     protected List<CmsFunctionReference> internalGetFunctionReferences() {
 
-        CmsADEConfigData parentData = parent();
-        if ((parentData == null)) {
-            if (m_data.isModuleConfig()) {
-                return Collections.unmodifiableList(m_data.getFunctionReferences());
+        List<CmsFunctionReference> result = getMerged(MERGED_FUNCTION_REFERENCES, () -> {
+            CmsADEConfigData parentData = parent();
+            if ((parentData == null)) {
+                if (m_data.isModuleConfig()) {
+                    return Collections.unmodifiableList(m_data.getFunctionReferences());
+                } else {
+                    return Lists.newArrayList();
+                }
             } else {
-                return Lists.newArrayList();
-            }
-        } else {
-            return parentData.internalGetFunctionReferences();
+                return parentData.internalGetFunctionReferences();
 
-        }
+            }
+        });
+        return new ArrayList<CmsFunctionReference>(result);
     }
 
     /**
@@ -1260,37 +1353,10 @@ public class CmsADEConfigData {
      */
     protected List<CmsResourceTypeConfig> internalGetResourceTypes(boolean filterDisabled) {
 
-        CmsADEConfigData parentData = parent();
-        List<CmsResourceTypeConfig> parentResourceTypes = null;
-        if (parentData == null) {
-            parentResourceTypes = Lists.newArrayList();
-        } else {
-            parentResourceTypes = Lists.newArrayList();
-            for (CmsResourceTypeConfig typeConfig : parentData.internalGetResourceTypes(false)) {
-                CmsResourceTypeConfig copiedType = typeConfig.copy(m_data.isDiscardInheritedTypes());
-                parentResourceTypes.add(copiedType);
-            }
-        }
-        List<CmsResourceTypeConfig> result = combineConfigurationElements(
-            parentResourceTypes,
-            m_data.getOwnResourceTypes(),
-            true);
-        if (m_data.isCreateContentsLocally()) {
-            for (CmsResourceTypeConfig typeConfig : result) {
-                typeConfig.updateBasePath(
-                    CmsStringUtil.joinPaths(m_data.getBasePath(), CmsADEManager.CONTENT_FOLDER_NAME));
-            }
-        }
-        if (filterDisabled) {
-            Iterator<CmsResourceTypeConfig> iter = result.iterator();
-            while (iter.hasNext()) {
-                CmsResourceTypeConfig typeConfig = iter.next();
-                if (typeConfig.isDisabled()) {
-                    iter.remove();
-                }
-            }
-        }
-        return result;
+        List<CmsResourceTypeConfig> result = getMerged(
+            filterDisabled ? MERGED_RESOURCE_TYPES : MERGED_RESOURCE_TYPES_ALL,
+            () -> computeResourceTypes(filterDisabled));
+        return new ArrayList<CmsResourceTypeConfig>(result);
     }
 
     /**
@@ -1355,4 +1421,22 @@ public class CmsADEConfigData {
         }
         return result;
     }
+
+    /**
+     * Returns a merged configuration value, which is computed only once per configuration cache state.<p>
+     *
+     * @param <T> the value type
+     * @param name the name of the merged value
+     * @param computation computes the merged value
+     *
+     * @return the merged value
+     */
+    private <T> T getMerged(String name, Supplier<T> computation) {
+
+        if ((m_cache == null) || (m_configSequence == null)) {
+            // configuration data which is not part of a cache state (used for tests)
+            return computation.get();
+        }
+        return m_cache.getMergedData(m_configSequence, name, computation);
+    }
 }
@@ -27,15 +27,19 @@
 
 package org.opencms.ade.configuration;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.base.Optional;
 
 /**
  * Represents a sequence of inherited module/sitemap configurations, together with an index into that list.<p>
  *
- * Used for computing the configuration inheritance.
+ * Used for computing the configuration inheritance.<p>
  *
+ * Two sequences are equal if they contain the identical configuration data objects up to their current index,
+ * which makes sequences usable as keys for results computed from the inherited configurations.<p>
  */
 public class CmsADEConfigurationSequence {
 
@@ -69,6 +73,30 @@ public class CmsADEConfigurationSequence {
 
     }
 
+    /**
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof CmsADEConfigurationSequence)) {
+            return false;
+        }
+        CmsADEConfigurationSequence other = (CmsADEConfigurationSequence)obj;
+        if (other.m_configIndex != m_configIndex) {
+            return false;
+        }
+        for (int i = 0; i <= m_configIndex; i++) {
+            if (m_configDatas.get(i) != other.m_configDatas.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Gets the current configuration data.<p>
      *
@@ -94,4 +122,43 @@ public class CmsADEConfigurationSequence {
         return Optional.fromNullable(new CmsADEConfigurationSequence(m_configDatas, m_configIndex - 1));
     }
 
+    /**
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+
+        int result = 1;
+        for (int i = 0; i <= m_configIndex; i++) {
+            result = (31 * result) + System.identityHashCode(m_configDatas.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns an equal sequence which does not reference the configuration data after the current index.<p>
+     *
+     * @return the trimmed copy of this sequence
+     */
+    protected CmsADEConfigurationSequence getTrimmedCopy() {
+
+        return new CmsADEConfigurationSequence(new ArrayList<>(m_configDatas.subList(0, m_configIndex + 1)));
+    }
+
+    /**
+     * Checks if all configuration data objects of this sequence up to the current index are contained in the given set.<p>
+     *
+     * @param configDatas the set of configuration data objects (should use identity comparison)
+     *
+     * @return true if all configuration data objects of this sequence are contained in the set
+     */
+    protected boolean isContainedIn(Set<CmsADEConfigDataInternal> configDatas) {
+
+        for (int i = 0; i <= m_configIndex; i++) {
+            if (!configDatas.contains(m_configDatas.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
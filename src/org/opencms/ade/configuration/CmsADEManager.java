@@ -1049,6 +1049,11 @@ public class CmsADEManager {
                     m_configType,
                     m_moduleConfigType,
                     m_elementViewType);
+                boolean useSnapshots = Boolean.parseBoolean(m_parameters.get(CmsConfigurationSnapshot.PARAM_ENABLED));
+                if (useSnapshots) {
+                    m_onlineCache.setSnapshot(CmsConfigurationSnapshot.load("sitemap-config-online"));
+                    m_offlineCache.setSnapshot(CmsConfigurationSnapshot.load("sitemap-config-offline"));
+                }
                 CmsLog.INIT.info(". Reading online configuration...");
                 m_onlineCache.initialize();
                 CmsLog.INIT.info(". Reading offline configuration...");
@@ -1065,6 +1070,10 @@ public class CmsADEManager {
                 m_offlineContainerConfigurationCache.initialize();
                 m_offlineFormatterCache = new CmsFormatterConfigurationCache(m_offlineCms, "offline formatters");
                 m_onlineFormatterCache = new CmsFormatterConfigurationCache(m_onlineCms, "online formatters");
+                if (useSnapshots) {
+                    m_onlineFormatterCache.setSnapshot(CmsConfigurationSnapshot.load("formatters-online"));
+                    m_offlineFormatterCache.setSnapshot(CmsConfigurationSnapshot.load("formatters-offline"));
+                }
                 CmsLog.INIT.info(". Reading online formatter configurations...");
                 m_onlineFormatterCache.initialize();
                 CmsLog.INIT.info(". Reading offline formatter configurations...");
@@ -139,6 +139,9 @@ class CmsConfigurationCache implements I_CmsGlobalConfigurationCache {
     /** A cache which stores resources' paths by their structure IDs. */
     private ConcurrentHashMap<CmsUUID, String> m_pathCache = new ConcurrentHashMap<CmsUUID, String>();
 
+    /** The snapshot to read the configuration files from, may be null. */
+    private CmsConfigurationSnapshot m_snapshot;
+
     /** The current configuration state (immutable). */
     private volatile CmsADEConfigCacheState m_state;
 
@@ -286,6 +289,9 @@ class CmsConfigurationCache implements I_CmsGlobalConfigurationCache {
     public CmsADEConfigCacheState readCompleteConfiguration() {
 
         long beginTime = System.currentTimeMillis();
+        if (m_snapshot != null) {
+            m_snapshot.beginReload();
+        }
         Map<CmsUUID, CmsADEConfigDataInternal> siteConfigurations = Maps.newHashMap();
         if (m_cms.existsResource("/")) {
             try {
@@ -311,7 +317,7 @@ class CmsConfigurationCache implements I_CmsGlobalConfigurationCache {
                 for (CmsResource candidate : configFileCandidates) {
                     if (isSitemapConfiguration(candidate.getRootPath(), candidate.getTypeId())) {
                         try {
-                            CmsConfigurationReader reader = new CmsConfigurationReader(m_cms);
+                            CmsConfigurationReader reader = new CmsConfigurationReader(m_cms, m_snapshot);
                             String basePath = getBasePath(candidate.getRootPath());
                             CmsADEConfigDataInternal data = reader.parseSitemapConfiguration(basePath, candidate);
                             siteConfigurations.put(candidate.getStructureId(), data);
@@ -346,6 +352,9 @@ class CmsConfigurationCache implements I_CmsGlobalConfigurationCache {
             siteConfigurations,
             moduleConfigs,
             elementViews);
+        if (m_snapshot != null) {
+            m_snapshot.endReload();
+        }
         long endTime = System.currentTimeMillis();
         if (LOG.isDebugEnabled()) {
             LOG.debug("readCompleteConfiguration took " + (endTime - beginTime) + "ms");
@@ -374,6 +383,18 @@ class CmsConfigurationCache implements I_CmsGlobalConfigurationCache {
         remove(res.getStructureId(), res.getRootPath(), res.getTypeId());
     }
 
+    /**
+     * Sets the snapshot from which the configuration files should be read.<p>
+     *
+     * This must be called before the cache is initialized.<p>
+     *
+     * @param snapshot the snapshot
+     */
+    public void setSnapshot(CmsConfigurationSnapshot snapshot) {
+
+        m_snapshot = snapshot;
+    }
+
     /**
      * Updates the cache entry for the given published resource.<p>
      *
@@ -512,7 +533,7 @@ class CmsConfigurationCache implements I_CmsGlobalConfigurationCache {
     protected List<CmsADEConfigDataInternal> loadModuleConfiguration() {
 
         if (m_cms.existsResource("/")) {
-            CmsConfigurationReader reader = new CmsConfigurationReader(m_cms);
+            CmsConfigurationReader reader = new CmsConfigurationReader(m_cms, m_snapshot);
             List<CmsADEConfigDataInternal> moduleConfigs = reader.readModuleConfigurations();
             return moduleConfigs;
         } else {
@@ -573,6 +594,9 @@ class CmsConfigurationCache implements I_CmsGlobalConfigurationCache {
                         elementViews = loadElementViews();
                     }
                     m_state = oldState.createUpdatedCopy(updateMap, moduleConfigs, elementViews);
+                    if (m_snapshot != null) {
+                        m_snapshot.save();
+                    }
                 }
             }
 
@@ -662,7 +686,7 @@ class CmsConfigurationCache implements I_CmsGlobalConfigurationCache {
             CmsResource configResource = m_cms.readResource(id);
             // Path or type may have changed in the meantime, so need to check if it's still a sitemap configuration
             if (isSitemapConfiguration(configResource.getRootPath(), configResource.getTypeId())) {
-                CmsConfigurationReader reader = new CmsConfigurationReader(m_cms);
+                CmsConfigurationReader reader = new CmsConfigurationReader(m_cms, m_snapshot);
                 String basePath = getBasePath(configResource.getRootPath());
                 CmsADEConfigDataInternal result = reader.parseSitemapConfiguration(basePath, configResource);
                 return result;
@@ -0,0 +1,328 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.ade.configuration;
+
+import org.opencms.file.CmsFile;
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.main.CmsException;
+import org.opencms.main.CmsLog;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsUUID;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * An on-disk snapshot of the contents of the configuration files read by the ADE configuration caches.<p>
+ *
+ * The caches still list their configuration resources from the VFS, which only needs a few queries. A file
+ * whose structure id, resource id, content date and length match the snapshot entry is then created from the
+ * snapshot instead of being read from the database, so after a restart only the files which changed in the
+ * meantime are read one by one.<p>
+ *
+ * The snapshot is optional, and only used if the ADE parameter {@link #PARAM_ENABLED} is set to <code>true</code>.
+ * It is written whenever the cache using it has been updated.<p>
+ *
+ * @since 12.0.0
+ */
+public class CmsConfigurationSnapshot {
+
+    /**
+     * A snapshot entry, containing the file content together with the data used to validate it.<p>
+     */
+    private static class Entry {
+
+        /** The file content. */
+        byte[] m_content;
+
+        /** The content date of the file. */
+        long m_dateContent;
+
+        /** The resource id of the file. */
+        CmsUUID m_resourceId;
+
+        /**
+         * Creates a new entry.<p>
+         *
+         * @param resourceId the resource id
+         * @param dateContent the content date
+         * @param content the file content
+         */
+        Entry(CmsUUID resourceId, long dateContent, byte[] content) {
+
+            m_resourceId = resourceId;
+            m_dateContent = dateContent;
+            m_content = content;
+        }
+
+        /**
+         * Checks if this entry still contains the current content of the given resource.<p>
+         *
+         * @param resource the resource
+         *
+         * @return true if the entry is valid for the resource
+         */
+        boolean isValidFor(CmsResource resource) {
+
+            return m_resourceId.equals(resource.getResourceId())
+                && (m_dateContent == resource.getDateContent())
+                && (m_content.length == resource.getLength());
+        }
+    }
+
+    /** ADE parameter to enable the configuration snapshots. */
+    public static final String PARAM_ENABLED = "configurationSnapshot";
+
+    /** The folder for the snapshot files, relative to the WEB-INF folder. */
+    public static final String SNAPSHOT_FOLDER = "cache/ade/";
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsConfigurationSnapshot.class);
+
+    /** The format version written at the start of the snapshot files. */
+    private static final int VERSION = 1;
+
+    /** Flag indicating whether the snapshot has been changed since it was last written. */
+    private volatile boolean m_changed;
+
+    /** The snapshot entries, by structure id. */
+    private Map<CmsUUID, Entry> m_entries = new ConcurrentHashMap<CmsUUID, Entry>();
+
+    /** The snapshot file. */
+    private File m_file;
+
+    /** The number of files read from the snapshot since the last reload started. */
+    private AtomicInteger m_hits = new AtomicInteger();
+
+    /** The number of files read from the VFS since the last reload started. */
+    private AtomicInteger m_misses = new AtomicInteger();
+
+    /** The snapshot name. */
+    private String m_name;
+
+    /** The structure ids of the files read since the last reload started. */
+    private Set<CmsUUID> m_used = Collections.newSetFromMap(new ConcurrentHashMap<CmsUUID, Boolean>());
+
+    /**
+     * Creates a new snapshot stored in the given file.<p>
+     *
+     * @param name the snapshot name, used for log messages
+     * @param file the snapshot file
+     */
+    public CmsConfigurationSnapshot(String name, File file) {
+
+        m_name = name;
+        m_file = file;
+    }
+
+    /**
+     * Loads the snapshot with the given name from the snapshot folder.<p>
+     *
+     * If the snapshot file does not exist or can not be read, an empty snapshot is returned.<p>
+     *
+     * @param name the snapshot name, also used as the file name
+     *
+     * @return the snapshot
+     */
+    public static CmsConfigurationSnapshot load(String name) {
+
+        File file = new File(
+            OpenCms.getSystemInfo().getAbsoluteRfsPathRelativeToWebInf(SNAPSHOT_FOLDER + name + ".snapshot"));
+        return load(name, file);
+    }
+
+    /**
+     * Loads a snapshot from the given file.<p>
+     *
+     * If the snapshot file does not exist or can not be read, an empty snapshot is returned.<p>
+     *
+     * @param name the snapshot name, used for log messages
+     * @param file the snapshot file
+     *
+     * @return the snapshot
+     */
+    static CmsConfigurationSnapshot load(String name, File file) {
+
+        CmsConfigurationSnapshot snapshot = new CmsConfigurationSnapshot(name, file);
+        snapshot.read();
+        return snapshot;
+    }
+
+    /**
+     * Marks the start of a complete reload of the cache using this snapshot.<p>
+     */
+    public void beginReload() {
+
+        m_used.clear();
+        m_hits.set(0);
+        m_misses.set(0);
+    }
+
+    /**
+     * Marks the end of a complete reload of the cache using this snapshot.<p>
+     *
+     * Entries for files which have not been read during the reload are removed, and the snapshot is written.<p>
+     */
+    public void endReload() {
+
+        if (m_entries.keySet().retainAll(m_used)) {
+            m_changed = true;
+        }
+        LOG.info(
+            "Configuration snapshot "
+                + m_name
+                + ": "
+                + m_hits.get()
+                + " files read from the snapshot, "
+                + m_misses.get()
+                + " files read from the VFS.");
+        save();
+    }
+
+    /**
+     * Returns the number of entries in this snapshot.<p>
+     *
+     * @return the number of entries
+     */
+    public int getSize() {
+
+        return m_entries.size();
+    }
+
+    /**
+     * Reads the file for the given resource, from the snapshot if it is still up to date, else from the VFS.<p>
+     *
+     * @param cms the CMS context to use for reading from the VFS
+     * @param resource the resource to read
+     *
+     * @return the file
+     *
+     * @throws CmsException if reading the file from the VFS fails
+     */
+    public CmsFile readFile(CmsObject cms, CmsResource resource) throws CmsException {
+
+        CmsUUID structureId = resource.getStructureId();
+        m_used.add(structureId);
+        Entry entry = m_entries.get(structureId);
+        if ((entry != null) && entry.isValidFor(resource)) {
+            m_hits.incrementAndGet();
+            CmsFile file = new CmsFile(resource);
+            file.setContents(entry.m_content);
+            return file;
+        }
+        m_misses.incrementAndGet();
+        CmsFile file = cms.readFile(resource);
+        m_entries.put(structureId, new Entry(file.getResourceId(), file.getDateContent(), file.getContents()));
+        m_changed = true;
+        return file;
+    }
+
+    /**
+     * Writes the snapshot to its file, if it has been changed since it was last written.<p>
+     */
+    public synchronized void save() {
+
+        if (!m_changed) {
+            return;
+        }
+        m_changed = false;
+        List<Map.Entry<CmsUUID, Entry>> entries = new ArrayList<Map.Entry<CmsUUID, Entry>>(m_entries.entrySet());
+        File tempFile = new File(m_file.getPath() + ".tmp");
+        try {
+            m_file.getParentFile().mkdirs();
+            try (DataOutputStream out = new DataOutputStream(
+                new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))) {
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<CmsUUID, Entry> mapEntry : entries) {
+                    Entry entry = mapEntry.getValue();
+                    out.writeUTF(mapEntry.getKey().toString());
+                    out.writeUTF(entry.m_resourceId.toString());
+                    out.writeLong(entry.m_dateContent);
+                    out.writeInt(entry.m_content.length);
+                    out.write(entry.m_content);
+                }
+            }
+            Files.move(tempFile.toPath(), m_file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOG.error("Could not write configuration snapshot " + m_file + ": " + e.getLocalizedMessage(), e);
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Reads the snapshot entries from the snapshot file.<p>
+     */
+    private void read() {
+
+        if (!m_file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(
+            new GZIPInputStream(new BufferedInputStream(new FileInputStream(m_file))))) {
+            if (in.readInt() != VERSION) {
+                LOG.info("Ignoring configuration snapshot " + m_file + " written in a different format.");
+                return;
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                CmsUUID structureId = new CmsUUID(in.readUTF());
+                CmsUUID resourceId = new CmsUUID(in.readUTF());
+                long dateContent = in.readLong();
+                byte[] content = new byte[in.readInt()];
+                in.readFully(content);
+                m_entries.put(structureId, new Entry(resourceId, dateContent, content));
+            }
+            CmsLog.INIT.info(". Read " + size + " entries from configuration snapshot " + m_name + ".");
+        } catch (Exception e) {
+            // a broken snapshot only means that all files are read from the VFS
+            LOG.warn("Could not read configuration snapshot " + m_file + ": " + e.getLocalizedMessage(), e);
+            m_entries.clear();
+        }
+    }
+}
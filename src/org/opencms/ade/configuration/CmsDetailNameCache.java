@@ -38,27 +38,39 @@ import org.opencms.file.types.I_CmsResourceType;
 import org.opencms.loader.CmsLoaderException;
 import org.opencms.main.CmsLog;
 import org.opencms.main.OpenCms;
-import org.opencms.util.CmsManyToOneMap;
 import org.opencms.util.CmsUUID;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
 /**
  * A cache which stores structure ids for URL names.<p>
+ *
+ * The URL names of changed resources are updated in place: the URL name mappings of all changed resources are read
+ * in bulk, and only the entries for these resources are added to or removed from the index. Readers never block,
+ * and each lookup sees either the old or the new structure id for a URL name.<p>
  */
 public class CmsDetailNameCache implements I_CmsGlobalConfigurationCache {
 
     /** The delay between updates. */
     public static final int DELAY_MILLIS = 3000;
 
+    /** The maximum number of structure ids for which the URL name mappings are read with a single query. */
+    public static final int MAX_IDS_PER_QUERY = 500;
+
     /** The logger for this class. */
     private static final Log LOG = CmsLog.getLog(CmsDetailNameCache.class);
 
@@ -69,11 +81,17 @@ public class CmsDetailNameCache implements I_CmsGlobalConfigurationCache {
     private CmsObject m_cms;
 
     /** The internal map from URL names to structure ids. */
-    private CmsManyToOneMap<String, CmsUUID> m_detailIdCache = new CmsManyToOneMap<String, CmsUUID>();
+    private volatile ConcurrentHashMap<String, CmsUUID> m_detailIdCache = new ConcurrentHashMap<String, CmsUUID>();
+
+    /** The duration of the last update in milliseconds. */
+    private volatile long m_lastUpdateDuration;
 
     /** The set of structure ids for which the URL names have to be updated. */
     private Set<CmsUUID> m_updateSet = Sets.newHashSet();
 
+    /** The URL names for each structure id, only accessed while updating. */
+    private Map<CmsUUID, String[]> m_urlNamesById = new HashMap<CmsUUID, String[]>();
+
     /**
      * Creates a new instance.<p>
      *
@@ -104,6 +122,26 @@ public class CmsDetailNameCache implements I_CmsGlobalConfigurationCache {
         return m_detailIdCache.get(name);
     }
 
+    /**
+     * Returns the duration of the last update of the cache in milliseconds.<p>
+     *
+     * @return the duration of the last update
+     */
+    public long getLastUpdateDuration() {
+
+        return m_lastUpdateDuration;
+    }
+
+    /**
+     * Returns the number of URL names in the cache.<p>
+     *
+     * @return the number of URL names
+     */
+    public int getSize() {
+
+        return m_detailIdCache.size();
+    }
+
     /**
      * Initializes the cache by scheduling the update actions and loading the initial cache contents.<p>
      */
@@ -183,16 +221,21 @@ public class CmsDetailNameCache implements I_CmsGlobalConfigurationCache {
                 LOG.info("Updating detail name cache: reloading...");
                 reload();
             } else {
-                LOG.info("Updating detail name cache. Number of changed files: " + copiedIds.size());
-                CmsManyToOneMap<String, CmsUUID> cacheCopy = new CmsManyToOneMap<String, CmsUUID>(m_detailIdCache);
+                long start = System.currentTimeMillis();
+                Map<CmsUUID, Set<String>> urlNamesById = readUrlNames(copiedIds);
                 for (CmsUUID id : copiedIds) {
-                    Set<String> urlNames = getUrlNames(id);
-                    cacheCopy.removeValue(id);
-                    for (String urlName : urlNames) {
-                        cacheCopy.put(urlName, id);
-                    }
+                    Set<String> urlNames = urlNamesById.get(id);
+                    updateUrlNames(id, urlNames != null ? urlNames : Collections.<String> emptySet());
                 }
-                m_detailIdCache = cacheCopy;
+                m_lastUpdateDuration = System.currentTimeMillis() - start;
+                LOG.info(
+                    "Updated detail name cache. Number of changed files: "
+                        + copiedIds.size()
+                        + ", URL names: "
+                        + m_detailIdCache.size()
+                        + ", duration: "
+                        + m_lastUpdateDuration
+                        + "ms");
             }
         }
         synchronized (m_updateLock) {
@@ -224,49 +267,115 @@ public class CmsDetailNameCache implements I_CmsGlobalConfigurationCache {
     }
 
     /**
-     * Reads the URL names for the id.<p>
+     * Marks the structure id for updating.<p>
      *
-     * @param id the structure id of a resource
-     * @return the URL names for the resource
+     * @param id the structure id to update
      */
-    private Set<String> getUrlNames(CmsUUID id) {
+    private synchronized void markForUpdate(CmsUUID id) {
 
-        try {
-            CmsUrlNameMappingFilter filter = CmsUrlNameMappingFilter.ALL.filterStructureId(id);
-            Set<String> result = m_cms.readUrlNameMappings(filter).stream().map(entry -> entry.getName()).collect(
-                Collectors.toSet());
-            return result;
-        } catch (Exception e) {
-            LOG.error(e.getLocalizedMessage(), e);
-            return Collections.emptySet();
-        }
+        m_updateSet.add(id);
     }
 
     /**
-     * Marks the structure id for updating.<p>
+     * Reads the URL names for the given ids, using one query for each chunk of ids.<p>
      *
-     * @param id the structure id to update
+     * @param ids the structure ids of the resources
+     * @return the URL names, by structure id
      */
-    private synchronized void markForUpdate(CmsUUID id) {
+    private Map<CmsUUID, Set<String>> readUrlNames(Set<CmsUUID> ids) {
 
-        m_updateSet.add(id);
+        Map<CmsUUID, Set<String>> result = new HashMap<CmsUUID, Set<String>>();
+        for (List<CmsUUID> chunk : Iterables.partition(ids, MAX_IDS_PER_QUERY)) {
+            try {
+                CmsUrlNameMappingFilter filter = CmsUrlNameMappingFilter.ALL.filterStructureIds(chunk);
+                for (CmsUrlNameMappingEntry entry : m_cms.readUrlNameMappings(filter)) {
+                    Set<String> urlNames = result.get(entry.getStructureId());
+                    if (urlNames == null) {
+                        urlNames = new HashSet<String>();
+                        result.put(entry.getStructureId(), urlNames);
+                    }
+                    urlNames.add(entry.getName());
+                }
+            } catch (Exception e) {
+                LOG.error(e.getLocalizedMessage(), e);
+            }
+        }
+        return result;
     }
 
     /**
      * Loads the complete URL name data into the cache.<p>
      */
-    private void reload() {
+    private synchronized void reload() {
 
-        CmsManyToOneMap<String, CmsUUID> newMap = new CmsManyToOneMap<String, CmsUUID>();
         try {
+            long start = System.currentTimeMillis();
             List<CmsUrlNameMappingEntry> mappings = m_cms.readUrlNameMappings(CmsUrlNameMappingFilter.ALL);
             LOG.info("Initializing detail name cache with " + mappings.size() + " entries");
+            Map<CmsUUID, List<String>> urlNamesById = new HashMap<CmsUUID, List<String>>();
             for (CmsUrlNameMappingEntry entry : mappings) {
-                newMap.put(entry.getName(), entry.getStructureId());
+                List<String> urlNames = urlNamesById.get(entry.getStructureId());
+                if (urlNames == null) {
+                    urlNames = new ArrayList<String>(2);
+                    urlNamesById.put(entry.getStructureId(), urlNames);
+                }
+                urlNames.add(entry.getName());
+            }
+            mappings = null;
+            ConcurrentHashMap<String, CmsUUID> newCache = new ConcurrentHashMap<String, CmsUUID>(
+                (urlNamesById.size() * 4) / 3);
+            Map<CmsUUID, String[]> newUrlNamesById = new HashMap<CmsUUID, String[]>(urlNamesById.size());
+            for (Map.Entry<CmsUUID, List<String>> entry : urlNamesById.entrySet()) {
+                // use the same id instance for all URL names of a resource
+                CmsUUID id = entry.getKey();
+                String[] urlNames = new HashSet<String>(entry.getValue()).toArray(new String[0]);
+                for (String urlName : urlNames) {
+                    newCache.put(urlName, id);
+                }
+                newUrlNamesById.put(id, urlNames);
+            }
+            m_urlNamesById = newUrlNamesById;
+            m_detailIdCache = newCache;
+            m_lastUpdateDuration = System.currentTimeMillis() - start;
+            if (OpenCms.getMemoryMonitor() != null) {
+                OpenCms.getMemoryMonitor().register(
+                    getClass().getName()
+                        + (m_cms.getRequestContext().getCurrentProject().isOnlineProject()
+                        ? ".m_onlineDetailIdCache"
+                        : ".m_offlineDetailIdCache"),
+                    newCache);
             }
-            m_detailIdCache = newMap;
         } catch (Exception e) {
             LOG.error(e.getLocalizedMessage(), e);
         }
     }
+
+    /**
+     * Replaces the URL names of a single resource in the cache.<p>
+     *
+     * New URL names are added before the obsolete ones are removed, so URL names which are still valid stay visible
+     * during the update. URL names which have been taken over by another resource in the meantime are not removed.<p>
+     *
+     * @param id the structure id of the resource
+     * @param urlNames the current URL names of the resource
+     */
+    private void updateUrlNames(CmsUUID id, Set<String> urlNames) {
+
+        String[] oldUrlNames = m_urlNamesById.get(id);
+        for (String urlName : urlNames) {
+            m_detailIdCache.put(urlName, id);
+        }
+        if (oldUrlNames != null) {
+            for (String oldUrlName : oldUrlNames) {
+                if (!urlNames.contains(oldUrlName)) {
+                    m_detailIdCache.remove(oldUrlName, id);
+                }
+            }
+        }
+        if (urlNames.isEmpty()) {
+            m_urlNamesById.remove(id);
+        } else if ((oldUrlNames == null) || !urlNames.equals(new HashSet<String>(Arrays.asList(oldUrlNames)))) {
+            m_urlNamesById.put(id, urlNames.toArray(new String[0]));
+        }
+    }
 }
@@ -28,6 +28,7 @@
 package org.opencms.ade.configuration.formatters;
 
 import org.opencms.ade.configuration.CmsConfigurationReader;
+import org.opencms.ade.configuration.CmsConfigurationSnapshot;
 import org.opencms.ade.configuration.I_CmsGlobalConfigurationCache;
 import org.opencms.db.CmsPublishedResource;
 import org.opencms.file.CmsFile;
@@ -50,6 +51,7 @@ import org.opencms.xml.content.CmsXmlContentRootLocation;
 import org.opencms.xml.content.I_CmsXmlContentValueLocation;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -57,13 +59,21 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * A cache object which holds a collection of formatter configuration beans read from the VFS.<p>
@@ -97,6 +107,15 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
     /** The logger for this class. */
     private static final Log LOG = CmsLog.getLog(CmsFormatterConfigurationCache.class);
 
+    /** The minimum number of formatter configurations to be parsed by each parse thread. */
+    private static final int MIN_FORMATTERS_PER_THREAD = 16;
+
+    /** The maximum number of threads used to parse formatter configurations, reading their contents is mostly I/O. */
+    private static final int PARSE_THREADS = 4;
+
+    /** The thread pool used for parsing formatter configurations, shared by all cache instances. */
+    private static ThreadPoolExecutor m_parseExecutor;
+
     /** The future for the scheduled task. */
     private volatile ScheduledFuture<?> m_taskFuture;
 
@@ -106,12 +125,24 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
     /** The CMS context used by this cache. */
     private CmsObject m_cms;
 
+    /** The duration of the last complete reload in milliseconds. */
+    private volatile long m_lastReloadDuration;
+
+    /** The number of formatter configurations which could not be parsed during the last complete reload. */
+    private volatile long m_lastReloadErrors;
+
     /** The cache name. */
     private String m_name;
 
+    /** The total number of formatter configurations which could not be parsed. */
+    private AtomicLong m_parseErrors = new AtomicLong();
+
     /** Additional setting configurations. */
     private volatile Map<CmsUUID, List<CmsXmlContentProperty>> m_settingConfigs;
 
+    /** The snapshot to read the formatter configuration files from, may be null. */
+    private CmsConfigurationSnapshot m_snapshot;
+
     /** The current data contained in the formatter cache.<p> This field is reassigned when formatters are changed, but the objects pointed to by this  field are immutable.<p> **/
     private volatile CmsFormatterConfigurationCacheState m_state = new CmsFormatterConfigurationCacheState(
         Collections.<CmsUUID, I_CmsFormatterBean> emptyMap());
@@ -151,6 +182,26 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
         markForUpdate(RELOAD_MARKER);
     }
 
+    /**
+     * Returns the duration of the last complete reload in milliseconds.<p>
+     *
+     * @return the duration of the last complete reload
+     */
+    public long getLastReloadDuration() {
+
+        return m_lastReloadDuration;
+    }
+
+    /**
+     * Returns the number of formatter configurations which could not be parsed during the last complete reload.<p>
+     *
+     * @return the number of parse errors of the last complete reload
+     */
+    public long getLastReloadErrors() {
+
+        return m_lastReloadErrors;
+    }
+
     /**
      * Gets the cache instance name.<p>
      *
@@ -161,6 +212,19 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
         return m_name;
     }
 
+    /**
+     * Returns the total number of formatter configurations which could not be parsed since the cache was created.<p>
+     *
+     * This also counts parse tasks which failed as a whole. The formatters of such a task are parsed again
+     * in the calling thread, and are only counted separately if they can not be parsed there either.<p>
+     *
+     * @return the total number of parse errors
+     */
+    public long getParseErrors() {
+
+        return m_parseErrors.get();
+    }
+
     /**
      * Gets the collection of cached formatters.<p>
      *
@@ -210,15 +274,9 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
             if (copiedIds.contains(RELOAD_MARKER)) {
                 // clear cache event, reload all formatter configurations
                 reload();
-            } else {
+            } else if (!copiedIds.isEmpty()) {
                 // normal case: incremental update
-                Map<CmsUUID, I_CmsFormatterBean> formattersToUpdate = Maps.newHashMap();
-                for (CmsUUID structureId : copiedIds) {
-                    I_CmsFormatterBean formatterBean = readFormatter(structureId);
-                    // formatterBean may be null here
-                    formattersToUpdate.put(structureId, formatterBean);
-                }
-                m_state = m_state.createUpdatedCopy(formattersToUpdate);
+                update(copiedIds);
             }
             for (CmsWaitHandle handle : waitHandles) {
                 handle.release();
@@ -231,8 +289,13 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
     /**
      * Reloads the formatter cache.<p>
      */
-    public void reload() {
+    public synchronized void reload() {
 
+        long start = System.currentTimeMillis();
+        long errors = m_parseErrors.get();
+        if (m_snapshot != null) {
+            m_snapshot.beginReload();
+        }
         List<CmsResource> settingConfigResources = new ArrayList<>();
         try {
             I_CmsResourceType type = OpenCms.getResourceManager().getResourceType(TYPE_SETTINGS_CONFIG);
@@ -269,15 +332,36 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
         } catch (CmsException e) {
             LOG.warn(e.getLocalizedMessage(), e);
         }
-        Map<CmsUUID, I_CmsFormatterBean> newFormatters = Maps.newHashMap();
+        List<CmsResource> validFormatterResources = new ArrayList<CmsResource>();
+        long requestTime = m_cms.getRequestContext().getRequestTime();
         for (CmsResource formatterResource : formatterResources) {
-            I_CmsFormatterBean formatterBean = readFormatter(formatterResource.getStructureId());
-            if (formatterBean != null) {
-                newFormatters.put(formatterResource.getStructureId(), formatterBean);
+            // expired or unreleased formatters could not be read with the default filter
+            if (formatterResource.isReleasedAndNotExpired(requestTime)) {
+                validFormatterResources.add(formatterResource);
+            }
+        }
+        Map<CmsUUID, I_CmsFormatterBean> newFormatters = Maps.newHashMap();
+        for (Map.Entry<CmsUUID, I_CmsFormatterBean> entry : parseFormatters(validFormatterResources).entrySet()) {
+            if (entry.getValue() != null) {
+                newFormatters.put(entry.getKey(), entry.getValue());
             }
         }
         m_state = new CmsFormatterConfigurationCacheState(newFormatters);
-
+        if (m_snapshot != null) {
+            m_snapshot.endReload();
+        }
+        m_lastReloadErrors = m_parseErrors.get() - errors;
+        m_lastReloadDuration = System.currentTimeMillis() - start;
+        LOG.info(
+            "Reloaded "
+                + newFormatters.size()
+                + " formatter configurations for "
+                + m_name
+                + " in "
+                + m_lastReloadDuration
+                + " ms, "
+                + m_lastReloadErrors
+                + " could not be parsed.");
     }
 
     /**
@@ -312,6 +396,18 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
         checkIfUpdateIsNeeded(resource.getStructureId(), resource.getRootPath(), resource.getTypeId());
     }
 
+    /**
+     * Sets the snapshot from which the formatter configuration files should be read.<p>
+     *
+     * This must be called before the cache is initialized.<p>
+     *
+     * @param snapshot the snapshot
+     */
+    public void setSnapshot(CmsConfigurationSnapshot snapshot) {
+
+        m_snapshot = snapshot;
+    }
+
     /**
      * Waits until no update action is scheduled.<p>
      *
@@ -333,29 +429,37 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
      */
     protected I_CmsFormatterBean readFormatter(CmsUUID structureId) {
 
-        I_CmsFormatterBean formatterBean = null;
         CmsResource formatterRes = null;
         try {
             formatterRes = m_cms.readResource(structureId);
-            CmsFile formatterFile = m_cms.readFile(formatterRes);
-            CmsFormatterBeanParser parser = new CmsFormatterBeanParser(m_cms, m_settingConfigs);
-            CmsXmlContent content = CmsXmlContentFactory.unmarshal(m_cms, formatterFile);
-            formatterBean = parser.parse(content, formatterRes.getRootPath(), "" + formatterRes.getStructureId());
         } catch (Exception e) {
+            // normal case if resources get deleted, should not be written to the error channel
+            LOG.info("Could not read formatter with id " + structureId);
+            return null;
+        }
+        return parseFormatter(m_cms, formatterRes);
+    }
 
-            if (formatterRes == null) {
-                // normal case if resources get deleted, should not be written to the error channel
-                LOG.info("Could not read formatter with id " + structureId);
-            } else {
-                LOG.error(
-                    "Error while trying to read formatter configuration "
-                        + formatterRes.getRootPath()
-                        + ":    "
-                        + e.getLocalizedMessage(),
-                    e);
-            }
+    /**
+     * Returns the thread pool used for parsing formatter configurations, creating it if necessary.<p>
+     *
+     * @return the thread pool
+     */
+    private static synchronized ThreadPoolExecutor getParseExecutor() {
+
+        if (m_parseExecutor == null) {
+            m_parseExecutor = new ThreadPoolExecutor(
+                PARSE_THREADS,
+                PARSE_THREADS,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(PARSE_THREADS * 4),
+                new ThreadFactoryBuilder().setNameFormat("CmsFormatterConfigurationCache-parse-%d").setDaemon(
+                    true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+            m_parseExecutor.allowCoreThreadTimeOut(true);
         }
-        return formatterBean;
+        return m_parseExecutor;
     }
 
     /**
@@ -398,6 +502,100 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
         m_workQueue.add(structureId);
     }
 
+    /**
+     * Parses a formatter from the given resource and returns it, or null if the formatter couldn't be read.<p>
+     *
+     * @param cms the CMS context to use
+     * @param formatterRes the formatter configuration resource
+     *
+     * @return the formatter bean, or null if no formatter could be read for some reason
+     */
+    private I_CmsFormatterBean parseFormatter(CmsObject cms, CmsResource formatterRes) {
+
+        I_CmsFormatterBean formatterBean = null;
+        try {
+            CmsFile formatterFile = readFile(cms, formatterRes);
+            CmsFormatterBeanParser parser = new CmsFormatterBeanParser(cms, m_settingConfigs);
+            CmsXmlContent content = CmsXmlContentFactory.unmarshal(cms, formatterFile);
+            formatterBean = parser.parse(content, formatterRes.getRootPath(), "" + formatterRes.getStructureId());
+        } catch (Exception e) {
+            m_parseErrors.incrementAndGet();
+            LOG.error(
+                "Error while trying to read formatter configuration "
+                    + formatterRes.getRootPath()
+                    + ":    "
+                    + e.getLocalizedMessage(),
+                e);
+        }
+        return formatterBean;
+    }
+
+    /**
+     * Parses the formatters from the given resources.<p>
+     *
+     * Larger numbers of formatters are split into chunks which are parsed in parallel on the parse thread pool,
+     * each with its own copy of the CMS context. If a chunk can not be parsed on the thread pool, it is parsed
+     * again in the calling thread, so that no formatter is left out of the result.<p>
+     *
+     * @param formatterResources the formatter configuration resources
+     *
+     * @return the parsed formatters by structure id, with null values for formatters which couldn't be read
+     */
+    private Map<CmsUUID, I_CmsFormatterBean> parseFormatters(List<CmsResource> formatterResources) {
+
+        Map<CmsUUID, I_CmsFormatterBean> result = Maps.newHashMap();
+        int threads = Math.min(PARSE_THREADS, formatterResources.size() / MIN_FORMATTERS_PER_THREAD);
+        if (threads <= 1) {
+            for (CmsResource formatterRes : formatterResources) {
+                result.put(formatterRes.getStructureId(), parseFormatter(m_cms, formatterRes));
+            }
+            return result;
+        }
+        int chunkSize = ((formatterResources.size() + threads) - 1) / threads;
+        List<List<CmsResource>> chunks = Lists.partition(formatterResources, chunkSize);
+        List<Future<Map<CmsUUID, I_CmsFormatterBean>>> futures = new ArrayList<>();
+        for (List<CmsResource> chunk : chunks) {
+            Callable<Map<CmsUUID, I_CmsFormatterBean>> task = () -> {
+                CmsObject cms = OpenCms.initCmsObject(m_cms);
+                Map<CmsUUID, I_CmsFormatterBean> chunkResult = Maps.newHashMap();
+                for (CmsResource formatterRes : chunk) {
+                    chunkResult.put(formatterRes.getStructureId(), parseFormatter(cms, formatterRes));
+                }
+                return chunkResult;
+            };
+            futures.add(getParseExecutor().submit(task));
+        }
+        boolean interrupted = false;
+        for (int i = 0; i < futures.size(); i++) {
+            Future<Map<CmsUUID, I_CmsFormatterBean>> future = futures.get(i);
+            Map<CmsUUID, I_CmsFormatterBean> chunkResult = null;
+            if (!interrupted) {
+                try {
+                    chunkResult = future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    LOG.error(e.getLocalizedMessage(), e);
+                } catch (ExecutionException e) {
+                    LOG.error(e.getCause().getLocalizedMessage(), e.getCause());
+                }
+            }
+            if (chunkResult == null) {
+                // parse the chunk in this thread, otherwise its formatters would be missing from the new state
+                m_parseErrors.incrementAndGet();
+                future.cancel(false);
+                chunkResult = Maps.newHashMap();
+                for (CmsResource formatterRes : chunks.get(i)) {
+                    chunkResult.put(formatterRes.getStructureId(), parseFormatter(m_cms, formatterRes));
+                }
+            }
+            result.putAll(chunkResult);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
     /**
      * Helper method for parsing a settings configuration file.<p>
      *
@@ -409,7 +607,7 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
         List<CmsXmlContentProperty> settingConfig = new ArrayList<>();
 
         try {
-            CmsFile settingFile = m_cms.readFile(resource);
+            CmsFile settingFile = readFile(m_cms, resource);
             CmsXmlContent settingContent = CmsXmlContentFactory.unmarshal(m_cms, settingFile);
             CmsXmlContentRootLocation location = new CmsXmlContentRootLocation(settingContent, Locale.ENGLISH);
             for (I_CmsXmlContentValueLocation settingLoc : location.getSubValues(CmsFormatterBeanParser.N_SETTING)) {
@@ -423,4 +621,48 @@ public class CmsFormatterConfigurationCache implements I_CmsGlobalConfigurationC
             LOG.error(e.getLocalizedMessage(), e);
         }
     }
+
+    /**
+     * Reads a configuration file, from the snapshot if one is used.<p>
+     *
+     * @param cms the CMS context to use
+     * @param resource the resource to read
+     *
+     * @return the file
+     *
+     * @throws CmsException if something goes wrong
+     */
+    private CmsFile readFile(CmsObject cms, CmsResource resource) throws CmsException {
+
+        return m_snapshot != null ? m_snapshot.readFile(cms, resource) : cms.readFile(resource);
+    }
+
+    /**
+     * Updates the formatters with the given structure ids.<p>
+     *
+     * The formatter resources are read in bulk, formatters which can not be read anymore are removed.<p>
+     *
+     * @param structureIds the structure ids of the formatters to update
+     */
+    private synchronized void update(Collection<CmsUUID> structureIds) {
+
+        Map<CmsUUID, I_CmsFormatterBean> formattersToUpdate = Maps.newHashMap();
+        try {
+            for (CmsUUID structureId : structureIds) {
+                formattersToUpdate.put(structureId, null);
+            }
+            List<CmsResource> formatterResources = m_cms.readResourcesByIds(structureIds, CmsResourceFilter.DEFAULT);
+            formattersToUpdate.putAll(parseFormatters(formatterResources));
+        } catch (CmsException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            for (CmsUUID structureId : structureIds) {
+                // formatterBean may be null here
+                formattersToUpdate.put(structureId, readFormatter(structureId));
+            }
+        }
+        m_state = m_state.createUpdatedCopy(formattersToUpdate);
+        if (m_snapshot != null) {
+            m_snapshot.save();
+        }
+    }
 }
@@ -1466,15 +1466,12 @@ public class CmsGalleryService extends CmsGwtService implements I_CmsGalleryServ
      */
     protected List<CmsResource> readAll(Collection<CmsUUID> structureIds, CmsResourceFilter filter) {
 
-        List<CmsResource> result = new ArrayList<CmsResource>();
-        for (CmsUUID id : structureIds) {
-            try {
-                result.add(getCmsObject().readResource(id, filter));
-            } catch (CmsException e) {
-                LOG.info(e.getLocalizedMessage(), e);
-            }
+        try {
+            return getCmsObject().readResourcesByIds(structureIds, filter);
+        } catch (CmsException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            return new ArrayList<CmsResource>();
         }
-        return result;
     }
 
     /**
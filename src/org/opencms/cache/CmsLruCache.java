@@ -29,6 +29,10 @@ package org.opencms.cache;
 
 import org.opencms.main.CmsLog;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.apache.commons.logging.Log;
 
 /**
@@ -48,23 +52,71 @@ import org.apache.commons.logging.Log;
  * implement the methods defined in the interface I_CmsLruCacheObject to be notified when they
  * are added/removed from the CmsFlexLruCache.<p>
  *
+ * To allow concurrent access, the cached objects are distributed over a number of lock stripes,
+ * each of which keeps its own double linked LRU list. The costs of all cached objects are tracked globally,
+ * so the max. costs, avg. costs and max. costs per object limits apply to the cache as a whole.
+ * If the max. costs are exceeded, the last-recently-used objects of the stripes are removed in turn
+ * until the costs drop below the avg. costs.<p>
+ *
+ * Costs of data that objects keep outside of the Java heap are counted separately,
+ * see {@link I_CmsLruCacheObject#getLruCacheOffHeapCosts()}. If limits for the off-heap costs are set
+ * with {@link #setOffHeapCostLimits(long, long)}, exceeding the max. off-heap costs removes
+ * last-recently-used objects in the same way.<p>
+ *
  * @see org.opencms.cache.I_CmsLruCacheObject
  *
  * @since 6.0.0
  */
 public class CmsLruCache extends java.lang.Object {
 
+    /**
+     * A lock stripe of the cache, holding a double linked list of cached objects.<p>
+     *
+     * All fields are guarded by the monitor of the stripe.<p>
+     */
+    private static final class Stripe {
+
+        /** The head of the list of double linked LRU cache objects. */
+        I_CmsLruCacheObject m_listHead;
+
+        /** The tail of the list of double linked LRU cache objects. */
+        I_CmsLruCacheObject m_listTail;
+
+        /** The costs of the cached objects in this stripe. */
+        long m_objectCosts;
+
+        /** The off-heap costs of the cached objects in this stripe. */
+        long m_offHeapCosts;
+
+        /** The number of cached objects in this stripe. */
+        int m_objectCount;
+
+        /**
+         * Hidden constructor.<p>
+         */
+        Stripe() {
+
+            // empty
+        }
+    }
+
+    /** The default number of lock stripes. */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(CmsLruCache.class);
 
     /** The average sum of costs the cached objects. */
     private long m_avgCacheCosts;
 
-    /** The head of the list of double linked LRU cache objects. */
-    private I_CmsLruCacheObject m_listHead;
+    /** The average sum of off-heap costs the cached objects. */
+    private long m_avgOffHeapCosts;
 
-    /** The tail of the list of double linked LRU cache objects. */
-    private I_CmsLruCacheObject m_listTail;
+    /** The lock held while removing last-recently-used objects. */
+    private final ReentrantLock m_gcLock = new ReentrantLock();
+
+    /** The index of the next stripe to remove the last-recently-used object from, guarded by the gc lock. */
+    private int m_gcStripe;
 
     /** The maximum sum of costs the cached objects might reach. */
     private long m_maxCacheCosts;
@@ -72,11 +124,23 @@ public class CmsLruCache extends java.lang.Object {
     /** The maximum costs of cacheable objects. */
     private int m_maxObjectCosts;
 
+    /** The maximum sum of off-heap costs the cached objects might reach, 0 if off-heap costs are not limited. */
+    private long m_maxOffHeapCosts;
+
     /** The costs of all cached objects. */
-    private int m_objectCosts;
+    private final AtomicLong m_objectCosts = new AtomicLong();
 
     /** The sum of all cached objects. */
-    private int m_objectCount;
+    private final AtomicInteger m_objectCount = new AtomicInteger();
+
+    /** The off-heap costs of all cached objects. */
+    private final AtomicLong m_offHeapCosts = new AtomicLong();
+
+    /** The mask used to select a stripe for a cached object. */
+    private final int m_stripeMask;
+
+    /** The lock stripes. */
+    private final Stripe[] m_stripes;
 
     /**
      * The constructor with all options.<p>
@@ -87,9 +151,32 @@ public class CmsLruCache extends java.lang.Object {
      */
     public CmsLruCache(long theMaxCacheCosts, long theAvgCacheCosts, int theMaxObjectCosts) {
 
+        this(theMaxCacheCosts, theAvgCacheCosts, theMaxObjectCosts, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * The constructor with all options and the number of lock stripes.<p>
+     *
+     * @param theMaxCacheCosts the maximum cache costs of all cached objects
+     * @param theAvgCacheCosts the average cache costs of all cached objects
+     * @param theMaxObjectCosts the maximum allowed cache costs per object. Set theMaxObjectCosts to -1 if you don't want to limit the max. allowed cache costs per object
+     * @param concurrencyLevel the number of lock stripes, will be rounded up to the next power of 2
+     */
+    public CmsLruCache(long theMaxCacheCosts, long theAvgCacheCosts, int theMaxObjectCosts, int concurrencyLevel) {
+
         m_maxCacheCosts = theMaxCacheCosts;
         m_avgCacheCosts = theAvgCacheCosts;
         m_maxObjectCosts = theMaxObjectCosts;
+
+        int stripeCount = 1;
+        while (stripeCount < concurrencyLevel) {
+            stripeCount <<= 1;
+        }
+        m_stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            m_stripes[i] = new Stripe();
+        }
+        m_stripeMask = stripeCount - 1;
     }
 
     /**
@@ -101,7 +188,7 @@ public class CmsLruCache extends java.lang.Object {
      * @param theCacheObject the object being added to the cache
      * @return true if the object was added to the cache, false if the object was denied because its cache costs were higher than the allowed max. cache costs per object
      */
-    public synchronized boolean add(I_CmsLruCacheObject theCacheObject) {
+    public boolean add(I_CmsLruCacheObject theCacheObject) {
 
         if (theCacheObject == null) {
             // null can't be added or touched in the cache
@@ -109,26 +196,22 @@ public class CmsLruCache extends java.lang.Object {
         }
 
         // only objects with cache costs < the max. allowed object cache costs can be cached!
-        if ((m_maxObjectCosts != -1) && (theCacheObject.getLruCacheCosts() > m_maxObjectCosts)) {
-            if (LOG.isInfoEnabled()) {
-                LOG.info(
-                    Messages.get().getBundle().key(
-                        Messages.LOG_CACHE_COSTS_TOO_HIGH_2,
-                        new Integer(theCacheObject.getLruCacheCosts()),
-                        new Integer(m_maxObjectCosts)));
-            }
+        if (isTooCostly(theCacheObject)) {
             return false;
         }
 
-        if (!isCached(theCacheObject)) {
-            // add the object to the list of all cached objects in the cache
-            addHead(theCacheObject);
-        } else {
-            touch(theCacheObject);
+        Stripe stripe = getStripe(theCacheObject);
+        synchronized (stripe) {
+            if (!isCached(stripe, theCacheObject)) {
+                // add the object to the list of all cached objects in the cache
+                addHead(stripe, theCacheObject);
+            } else {
+                moveToHead(stripe, theCacheObject);
+            }
         }
 
-        // check if the cache has to trash the last-recently-used objects before adding a new object
-        if (m_objectCosts > m_maxCacheCosts) {
+        // check if the cache has to trash the last-recently-used objects after adding a new object
+        if (isAboveMaxCosts()) {
             gc();
         }
 
@@ -138,20 +221,24 @@ public class CmsLruCache extends java.lang.Object {
     /**
      * Removes all cached objects in this cache.<p>
      */
-    public synchronized void clear() {
-
-        // remove all objects from the linked list from the tail to the head:
-        I_CmsLruCacheObject currentObject = m_listTail;
-        while (currentObject != null) {
-            currentObject = currentObject.getNextLruObject();
-            removeTail();
+    public void clear() {
+
+        for (Stripe stripe : m_stripes) {
+            synchronized (stripe) {
+                // remove all objects from the linked list from the tail to the head:
+                while (stripe.m_listTail != null) {
+                    removeTail(stripe);
+                }
+
+                // reset the data structure, dropping costs of objects that changed while they were cached
+                m_objectCosts.addAndGet(-stripe.m_objectCosts);
+                m_objectCount.addAndGet(-stripe.m_objectCount);
+                m_offHeapCosts.addAndGet(-stripe.m_offHeapCosts);
+                stripe.m_objectCosts = 0;
+                stripe.m_objectCount = 0;
+                stripe.m_offHeapCosts = 0;
+            }
         }
-
-        // reset the data structure
-        m_objectCosts = 0;
-        m_objectCount = 0;
-        m_listHead = null;
-        m_listTail = null;
     }
 
     /**
@@ -164,6 +251,26 @@ public class CmsLruCache extends java.lang.Object {
         return m_avgCacheCosts;
     }
 
+    /**
+     * Returns the average off-heap costs of all cached objects.<p>
+     *
+     * @return the average off-heap costs of all cached objects
+     */
+    public long getAvgOffHeapCosts() {
+
+        return m_avgOffHeapCosts;
+    }
+
+    /**
+     * Returns the number of lock stripes of this cache.<p>
+     *
+     * @return the number of lock stripes
+     */
+    public int getConcurrencyLevel() {
+
+        return m_stripes.length;
+    }
+
     /**
      * Returns the max costs of all cached objects.<p>
      *
@@ -184,6 +291,16 @@ public class CmsLruCache extends java.lang.Object {
         return m_maxObjectCosts;
     }
 
+    /**
+     * Returns the max off-heap costs of all cached objects.<p>
+     *
+     * @return the max off-heap costs of all cached objects, 0 if off-heap costs are not limited
+     */
+    public long getMaxOffHeapCosts() {
+
+        return m_maxOffHeapCosts;
+    }
+
     /**
      * Returns the current costs of all cached objects.<p>
      *
@@ -191,7 +308,17 @@ public class CmsLruCache extends java.lang.Object {
      */
     public int getObjectCosts() {
 
-        return m_objectCosts;
+        return (int)Math.min(Integer.MAX_VALUE, m_objectCosts.get());
+    }
+
+    /**
+     * Returns the current off-heap costs of all cached objects.<p>
+     *
+     * @return the current off-heap costs of all cached objects
+     */
+    public long getOffHeapCosts() {
+
+        return m_offHeapCosts.get();
     }
 
     /**
@@ -201,40 +328,34 @@ public class CmsLruCache extends java.lang.Object {
      * @param theCacheObject the object being removed from the list of all cached objects
      * @return a reference to the object that was removed
      */
-    public synchronized I_CmsLruCacheObject remove(I_CmsLruCacheObject theCacheObject) {
+    public I_CmsLruCacheObject remove(I_CmsLruCacheObject theCacheObject) {
 
-        if (!isCached(theCacheObject)) {
-            // theCacheObject is null or not inside the cache
+        if (theCacheObject == null) {
             return null;
         }
-
-        // set the list pointers correct
-        boolean nextNull = (theCacheObject.getNextLruObject() == null);
-        boolean prevNull = (theCacheObject.getPreviousLruObject() == null);
-        if (prevNull && nextNull) {
-            m_listHead = null;
-            m_listTail = null;
-        } else if (nextNull) {
-            // remove the object from the head pos.
-            I_CmsLruCacheObject newHead = theCacheObject.getPreviousLruObject();
-            newHead.setNextLruObject(null);
-            m_listHead = newHead;
-        } else if (prevNull) {
-            // remove the object from the tail pos.
-            I_CmsLruCacheObject newTail = theCacheObject.getNextLruObject();
-            newTail.setPreviousLruObject(null);
-            m_listTail = newTail;
-        } else {
-            // remove the object from within the list
-            theCacheObject.getPreviousLruObject().setNextLruObject(theCacheObject.getNextLruObject());
-            theCacheObject.getNextLruObject().setPreviousLruObject(theCacheObject.getPreviousLruObject());
+        Stripe stripe = getStripe(theCacheObject);
+        synchronized (stripe) {
+            if (!isCached(stripe, theCacheObject)) {
+                // theCacheObject is not inside the cache
+                return null;
+            }
+            unlink(stripe, theCacheObject);
         }
-
-        // update cache stats. and notify the cached object
-        decreaseCache(theCacheObject);
         return theCacheObject;
     }
 
+    /**
+     * Sets the limits for the off-heap costs of all cached objects.<p>
+     *
+     * @param theMaxOffHeapCosts the maximum off-heap costs of all cached objects, 0 for no limit
+     * @param theAvgOffHeapCosts the average off-heap costs of all cached objects
+     */
+    public void setOffHeapCostLimits(long theMaxOffHeapCosts, long theAvgOffHeapCosts) {
+
+        m_maxOffHeapCosts = theMaxOffHeapCosts;
+        m_avgOffHeapCosts = theAvgOffHeapCosts;
+    }
+
     /**
      * Returns the count of all cached objects.<p>
      *
@@ -242,7 +363,7 @@ public class CmsLruCache extends java.lang.Object {
      */
     public int size() {
 
-        return m_objectCount;
+        return m_objectCount.get();
     }
 
     /**
@@ -257,8 +378,13 @@ public class CmsLruCache extends java.lang.Object {
         buf.append("max. costs: " + m_maxCacheCosts).append(", ");
         buf.append("avg. costs: " + m_avgCacheCosts).append(", ");
         buf.append("max. costs/object: " + m_maxObjectCosts).append(", ");
-        buf.append("costs: " + m_objectCosts).append(", ");
-        buf.append("count: " + m_objectCount);
+        buf.append("costs: " + m_objectCosts.get()).append(", ");
+        if (m_maxOffHeapCosts > 0) {
+            buf.append("max. off-heap costs: " + m_maxOffHeapCosts).append(", ");
+            buf.append("avg. off-heap costs: " + m_avgOffHeapCosts).append(", ");
+        }
+        buf.append("off-heap costs: " + m_offHeapCosts.get()).append(", ");
+        buf.append("count: " + m_objectCount.get());
         return buf.toString();
     }
 
@@ -269,191 +395,266 @@ public class CmsLruCache extends java.lang.Object {
      * @param theCacheObject the object being touched
      * @return true if an object was found and touched
      */
-    public synchronized boolean touch(I_CmsLruCacheObject theCacheObject) {
+    public boolean touch(I_CmsLruCacheObject theCacheObject) {
 
-        if (!isCached(theCacheObject)) {
+        if (theCacheObject == null) {
             return false;
         }
-
-        // only objects with cache costs < the max. allowed object cache costs can be cached!
-        if ((m_maxObjectCosts != -1) && (theCacheObject.getLruCacheCosts() > m_maxObjectCosts)) {
-            if (LOG.isInfoEnabled()) {
-                LOG.info(
-                    Messages.get().getBundle().key(
-                        Messages.LOG_CACHE_COSTS_TOO_HIGH_2,
-                        new Integer(theCacheObject.getLruCacheCosts()),
-                        new Integer(m_maxObjectCosts)));
+        Stripe stripe = getStripe(theCacheObject);
+        synchronized (stripe) {
+            if (!isCached(stripe, theCacheObject)) {
+                return false;
             }
-            remove(theCacheObject);
-            return false;
-        }
-
-        // set the list pointers correct
-        I_CmsLruCacheObject nextObj = theCacheObject.getNextLruObject();
-        if (nextObj == null) {
-            // case 1: the object is already at the head pos.
-            return true;
-        }
-        I_CmsLruCacheObject prevObj = theCacheObject.getPreviousLruObject();
-        if (prevObj == null) {
-            // case 2: the object at the tail pos., remove it from the tail to put it to the front as the new head
-            I_CmsLruCacheObject newTail = nextObj;
-            newTail.setPreviousLruObject(null);
-            m_listTail = newTail;
-        } else {
-            // case 3: the object is somewhere within the list, remove it to put it the front as the new head
-            prevObj.setNextLruObject(nextObj);
-            nextObj.setPreviousLruObject(prevObj);
-        }
-        // set the touched object as the new head in the linked list:
-        I_CmsLruCacheObject oldHead = m_listHead;
-        if (oldHead != null) {
-            oldHead.setNextLruObject(theCacheObject);
-            theCacheObject.setNextLruObject(null);
-            theCacheObject.setPreviousLruObject(oldHead);
+            // only objects with cache costs < the max. allowed object cache costs can be cached!
+            if (isTooCostly(theCacheObject)) {
+                unlink(stripe, theCacheObject);
+                return false;
+            }
+            moveToHead(stripe, theCacheObject);
         }
-        m_listHead = theCacheObject;
-
         return true;
     }
 
     /**
-     * Adds a cache object as the new haed to the list of all cached objects in this cache.<p>
+     * Adds a cache object as the new head to the list of cached objects in a stripe.<p>
      *
-     * @param theCacheObject the object being added as the new head to the list of all cached objects
+     * @param stripe the stripe the object belongs to
+     * @param theCacheObject the object being added as the new head to the list of cached objects
      */
-    private void addHead(I_CmsLruCacheObject theCacheObject) {
+    private void addHead(Stripe stripe, I_CmsLruCacheObject theCacheObject) {
 
         // set the list pointers correct
-        if (m_objectCount > 0) {
+        if (stripe.m_listHead != null) {
             // there is at least 1 object already in the list
-            I_CmsLruCacheObject oldHead = m_listHead;
+            I_CmsLruCacheObject oldHead = stripe.m_listHead;
             oldHead.setNextLruObject(theCacheObject);
             theCacheObject.setPreviousLruObject(oldHead);
-            m_listHead = theCacheObject;
+            stripe.m_listHead = theCacheObject;
         } else {
             // it is the first object to be added to the list
-            m_listTail = theCacheObject;
-            m_listHead = theCacheObject;
+            stripe.m_listTail = theCacheObject;
+            stripe.m_listHead = theCacheObject;
             theCacheObject.setPreviousLruObject(null);
         }
         theCacheObject.setNextLruObject(null);
 
-        // update cache stats. and notify the cached object
-        increaseCache(theCacheObject);
-    }
-
-    /**
-     * Decrease this caches statistics
-     * and notify the cached object that it was removed from this cache.<p>
-     *
-     * @param theCacheObject the object being notified that it was removed from the cache
-     */
-    private void decreaseCache(I_CmsLruCacheObject theCacheObject) {
-
-        // notify the object that it was now removed from the cache
-        //theCacheObject.notify();
-        theCacheObject.removeFromLruCache();
-
-        // set the list pointers to null
-        theCacheObject.setNextLruObject(null);
-        theCacheObject.setPreviousLruObject(null);
+        // notify the object that it was now added to the cache
+        theCacheObject.addToLruCache();
 
         // update the cache stats.
-        m_objectCosts -= theCacheObject.getLruCacheCosts();
-        m_objectCount--;
+        int costs = theCacheObject.getLruCacheCosts();
+        int offHeapCosts = theCacheObject.getLruCacheOffHeapCosts();
+        stripe.m_objectCosts += costs;
+        stripe.m_offHeapCosts += offHeapCosts;
+        stripe.m_objectCount++;
+        m_objectCosts.addAndGet(costs);
+        m_offHeapCosts.addAndGet(offHeapCosts);
+        m_objectCount.incrementAndGet();
     }
 
     /**
-     * Removes the last recently used objects from the list of all cached objects as long
+     * Removes the last recently used objects from the lists of all cached objects as long
      * as the costs of all cached objects are higher than the allowed avg. costs of the cache.<p>
+     *
+     * Only one thread at a time removes objects, other threads continue without waiting.
+     * The thread removing objects checks the costs again after releasing the lock, so objects
+     * added by other threads in the meantime are not missed.<p>
      */
     private void gc() {
 
-        I_CmsLruCacheObject currentObject = m_listTail;
-        while (currentObject != null) {
-            if (m_objectCosts < m_avgCacheCosts) {
+        while (m_gcLock.tryLock()) {
+            boolean removedAny = false;
+            try {
+                int emptyStripes = 0;
+                while (isAboveAvgCosts() && (emptyStripes < m_stripes.length)) {
+                    Stripe stripe = m_stripes[m_gcStripe];
+                    m_gcStripe = (m_gcStripe + 1) & m_stripeMask;
+                    boolean removed;
+                    synchronized (stripe) {
+                        removed = removeTail(stripe);
+                    }
+                    emptyStripes = removed ? 0 : emptyStripes + 1;
+                    removedAny |= removed;
+                }
+            } finally {
+                m_gcLock.unlock();
+            }
+            if (!removedAny || !isAboveMaxCosts()) {
                 break;
             }
-            currentObject = currentObject.getNextLruObject();
-            removeTail();
         }
     }
 
     /**
-     * Increase this caches statistics
-     * and notify the cached object that it was added to this cache.<p>
+     * Returns the lock stripe for a cache object.<p>
      *
-     * @param theCacheObject the object being notified that it was added to the cache
+     * @param theCacheObject the cache object
+     * @return the lock stripe
      */
-    private void increaseCache(I_CmsLruCacheObject theCacheObject) {
+    private Stripe getStripe(I_CmsLruCacheObject theCacheObject) {
 
-        // notify the object that it was now added to the cache
-        //theCacheObject.notify();
-        theCacheObject.addToLruCache();
+        int h = System.identityHashCode(theCacheObject);
+        return m_stripes[(h ^ (h >>> 16)) & m_stripeMask];
+    }
 
-        // update the cache stats.
-        m_objectCosts += theCacheObject.getLruCacheCosts();
-        m_objectCount++;
+    /**
+     * Checks if the costs or the off-heap costs of all cached objects are not below the avg. costs.<p>
+     *
+     * @return true if last-recently-used objects should be removed
+     */
+    private boolean isAboveAvgCosts() {
+
+        return (m_objectCosts.get() >= m_avgCacheCosts)
+            || ((m_maxOffHeapCosts > 0) && (m_offHeapCosts.get() >= m_avgOffHeapCosts));
+    }
+
+    /**
+     * Checks if the costs or the off-heap costs of all cached objects exceed the max. costs.<p>
+     *
+     * @return true if last-recently-used objects must be removed
+     */
+    private boolean isAboveMaxCosts() {
+
+        return (m_objectCosts.get() > m_maxCacheCosts)
+            || ((m_maxOffHeapCosts > 0) && (m_offHeapCosts.get() > m_maxOffHeapCosts));
     }
 
     /**
-     * Test if a given object resides inside the cache.<p>
+     * Test if a given object resides inside a stripe of the cache.<p>
      *
+     * @param stripe the stripe the object belongs to
      * @param theCacheObject the object to test
      * @return true if the object is inside the cache, false otherwise
      */
-    private boolean isCached(I_CmsLruCacheObject theCacheObject) {
+    private boolean isCached(Stripe stripe, I_CmsLruCacheObject theCacheObject) {
 
-        if ((theCacheObject == null) || (m_objectCount == 0)) {
-            // the cache is empty or the object is null (which is never cached)
+        if (stripe.m_objectCount == 0) {
+            // the stripe is empty
             return false;
         }
 
-        I_CmsLruCacheObject nextObj = theCacheObject.getNextLruObject();
-        I_CmsLruCacheObject prevObj = theCacheObject.getPreviousLruObject();
-
-        if ((nextObj != null) || (prevObj != null)) {
+        if ((theCacheObject.getNextLruObject() != null) || (theCacheObject.getPreviousLruObject() != null)) {
             // the object has either a predecessor or successor in the linked
             // list of all cached objects, so it is inside the cache
             return true;
         }
 
-        // both nextObj and preObj are null
-        if ((m_objectCount == 1)
-            && (m_listHead != null)
-            && (m_listTail != null)
-            && m_listHead.equals(theCacheObject)
-            && m_listTail.equals(theCacheObject)) {
-            // the object is the one and only object in the cache
+        // both nextObj and preObj are null, so the object is only cached if it is the one and only object in the stripe
+        return (stripe.m_listHead == theCacheObject) && (stripe.m_listTail == theCacheObject);
+    }
+
+    /**
+     * Checks if the costs of an object exceed the max. allowed costs per object.<p>
+     *
+     * @param theCacheObject the object to check
+     * @return true if the object is too costly to be cached
+     */
+    private boolean isTooCostly(I_CmsLruCacheObject theCacheObject) {
+
+        int costs = theCacheObject.getLruCacheCosts() + theCacheObject.getLruCacheOffHeapCosts();
+        if ((m_maxObjectCosts != -1) && (costs > m_maxObjectCosts)) {
+            if (LOG.isInfoEnabled()) {
+                LOG.info(
+                    Messages.get().getBundle().key(
+                        Messages.LOG_CACHE_COSTS_TOO_HIGH_2,
+                        new Integer(costs),
+                        new Integer(m_maxObjectCosts)));
+            }
             return true;
         }
-
         return false;
     }
 
     /**
-     * Removes the tailing object from the list of all cached objects.<p>
+     * Moves a cached object to the head of the list of cached objects in a stripe.<p>
+     *
+     * @param stripe the stripe the object belongs to
+     * @param theCacheObject the cached object
      */
-    private synchronized void removeTail() {
+    private void moveToHead(Stripe stripe, I_CmsLruCacheObject theCacheObject) {
 
-        I_CmsLruCacheObject oldTail = m_listTail;
-        if (oldTail != null) {
-            I_CmsLruCacheObject newTail = oldTail.getNextLruObject();
+        // set the list pointers correct
+        I_CmsLruCacheObject nextObj = theCacheObject.getNextLruObject();
+        if (nextObj == null) {
+            // case 1: the object is already at the head pos.
+            return;
+        }
+        I_CmsLruCacheObject prevObj = theCacheObject.getPreviousLruObject();
+        if (prevObj == null) {
+            // case 2: the object at the tail pos., remove it from the tail to put it to the front as the new head
+            nextObj.setPreviousLruObject(null);
+            stripe.m_listTail = nextObj;
+        } else {
+            // case 3: the object is somewhere within the list, remove it to put it the front as the new head
+            prevObj.setNextLruObject(nextObj);
+            nextObj.setPreviousLruObject(prevObj);
+        }
+        // set the touched object as the new head in the linked list:
+        I_CmsLruCacheObject oldHead = stripe.m_listHead;
+        oldHead.setNextLruObject(theCacheObject);
+        theCacheObject.setNextLruObject(null);
+        theCacheObject.setPreviousLruObject(oldHead);
+        stripe.m_listHead = theCacheObject;
+    }
 
-            // set the list pointers correct
-            if (newTail != null) {
-                // there are still objects remaining in the list
-                newTail.setPreviousLruObject(null);
-                m_listTail = newTail;
-            } else {
-                // we removed the last object from the list
-                m_listTail = null;
-                m_listHead = null;
-            }
+    /**
+     * Removes the tailing object from the list of cached objects in a stripe.<p>
+     *
+     * @param stripe the stripe
+     * @return true if an object was removed, false if the stripe was empty
+     */
+    private boolean removeTail(Stripe stripe) {
 
-            // update cache stats. and notify the cached object
-            decreaseCache(oldTail);
+        I_CmsLruCacheObject oldTail = stripe.m_listTail;
+        if (oldTail == null) {
+            return false;
+        }
+        unlink(stripe, oldTail);
+        return true;
+    }
+
+    /**
+     * Removes a cached object from the list of cached objects in a stripe,
+     * updates the cache statistics and notifies the object that it was removed.<p>
+     *
+     * @param stripe the stripe the object belongs to
+     * @param theCacheObject the cached object
+     */
+    private void unlink(Stripe stripe, I_CmsLruCacheObject theCacheObject) {
+
+        // set the list pointers correct
+        I_CmsLruCacheObject nextObj = theCacheObject.getNextLruObject();
+        I_CmsLruCacheObject prevObj = theCacheObject.getPreviousLruObject();
+        if ((prevObj == null) && (nextObj == null)) {
+            stripe.m_listHead = null;
+            stripe.m_listTail = null;
+        } else if (nextObj == null) {
+            // remove the object from the head pos.
+            prevObj.setNextLruObject(null);
+            stripe.m_listHead = prevObj;
+        } else if (prevObj == null) {
+            // remove the object from the tail pos.
+            nextObj.setPreviousLruObject(null);
+            stripe.m_listTail = nextObj;
+        } else {
+            // remove the object from within the list
+            prevObj.setNextLruObject(nextObj);
+            nextObj.setPreviousLruObject(prevObj);
         }
+        theCacheObject.setNextLruObject(null);
+        theCacheObject.setPreviousLruObject(null);
+
+        // notify the object that it was now removed from the cache
+        theCacheObject.removeFromLruCache();
+
+        // update the cache stats.
+        int costs = theCacheObject.getLruCacheCosts();
+        int offHeapCosts = theCacheObject.getLruCacheOffHeapCosts();
+        stripe.m_objectCosts -= costs;
+        stripe.m_offHeapCosts -= offHeapCosts;
+        stripe.m_objectCount--;
+        m_objectCosts.addAndGet(-costs);
+        m_offHeapCosts.addAndGet(-offHeapCosts);
+        m_objectCount.decrementAndGet();
     }
-}
\ No newline at end of file
+}
@@ -34,6 +34,11 @@ import org.opencms.util.CmsFileUtil;
 import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.logging.Log;
@@ -58,6 +63,9 @@ public class CmsVfsNameBasedDiskCache {
     /** Logger instance for this class. */
     private static final Log LOG = CmsLog.getLog(CmsVfsNameBasedDiskCache.class);
 
+    /** Pattern for the part of a cache file name that is appended to the resource name. */
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(-?[0-9]+)(_[0-9a-f]{32})?");
+
     /** The name of the cache base repository folder in the RFS. */
     private String m_rfsRepository;
 
@@ -84,13 +92,8 @@ public class CmsVfsNameBasedDiskCache {
     public byte[] getCacheContent(String rfsName) {
 
         try {
-            File f = new File(rfsName);
-            if (f.exists()) {
-                long age = f.lastModified();
-                if ((System.currentTimeMillis() - age) > 3600000) {
-                    // file has not been touched for 1 hour, touch the file with the current date
-                    f.setLastModified(System.currentTimeMillis());
-                }
+            File f = getCacheFile(rfsName);
+            if (f != null) {
                 return CmsFileUtil.readFile(f);
             }
         } catch (IOException e) {
@@ -100,6 +103,31 @@ public class CmsVfsNameBasedDiskCache {
         return null;
     }
 
+    /**
+     * Returns the requested file in the disk cache, or <code>null</code> if the
+     * file is not found in the cache.<p>
+     *
+     * Use this instead of {@link #getCacheContent(String)} to deliver the cached file
+     * without loading the complete content into memory.<p>
+     *
+     * @param rfsName the file RFS name to look up in the cache
+     *
+     * @return the requested file in the disk cache, or <code>null</code>
+     */
+    public File getCacheFile(String rfsName) {
+
+        File f = new File(rfsName);
+        if (f.exists()) {
+            long age = f.lastModified();
+            if ((System.currentTimeMillis() - age) > 3600000) {
+                // file has not been touched for 1 hour, touch the file with the current date
+                f.setLastModified(System.currentTimeMillis());
+            }
+            return f;
+        }
+        return null;
+    }
+
     /**
      * Returns the RFS name to use for caching the given VFS resource with parameters in the disk cache.<p>
      *
@@ -173,9 +201,56 @@ public class CmsVfsNameBasedDiskCache {
         return false;
     }
 
+    /**
+     * Removes the cached versions of the resource with the given root path from the disk cache,
+     * except for the versions of the given current resource state.<p>
+     *
+     * Use this to remove outdated versions of a changed resource,
+     * or all versions of a deleted resource by passing <code>null</code> as current resource.<p>
+     *
+     * @param rootPath the root path of the resource
+     * @param current the current state of the resource, or <code>null</code> if all versions should be removed
+     *
+     * @return the number of removed cache files
+     */
+    public int removeObsoleteCacheFiles(String rootPath, CmsResource current) {
+
+        String rfsName = m_rfsRepository + rootPath;
+        String extension = CmsFileUtil.getExtension(rfsName);
+        File base = new File(rfsName.substring(0, rfsName.length() - extension.length()));
+        File[] files = base.getParentFile().listFiles();
+        if (files == null) {
+            // nothing has been cached in this folder
+            return 0;
+        }
+        String prefix = base.getName() + "_";
+        String currentVersion = null;
+        if (current != null) {
+            String currentName = new File(getCacheName(current, null)).getName();
+            currentVersion = currentName.substring(prefix.length(), currentName.length() - extension.length());
+        }
+        int result = 0;
+        for (File f : files) {
+            String name = f.getName();
+            if (name.startsWith(prefix)
+                && name.endsWith(extension)
+                && (name.length() > (prefix.length() + extension.length()))) {
+                Matcher m = VERSION_PATTERN.matcher(
+                    name.substring(prefix.length(), name.length() - extension.length()));
+                if (m.matches() && !m.group(1).equals(currentVersion) && f.delete()) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Saves the given file content in the disk cache.<p>
      *
+     * The content is first written to a temporary file which is then moved to the target name,
+     * so readers never see a partially written cache file.<p>
+     *
      * @param rfsName the RFS name of the file to save the content in
      * @param content the content of the file to save
      *
@@ -183,6 +258,28 @@ public class CmsVfsNameBasedDiskCache {
      */
     public void saveCacheFile(String rfsName, byte[] content) throws IOException {
 
-        CmsVfsDiskCache.saveFile(rfsName, content);
+        File f = new File(rfsName);
+        File p = f.getParentFile();
+        if (!p.exists()) {
+            // create parent folders
+            p.mkdirs();
+        }
+        File tmp = File.createTempFile(f.getName(), ".tmp", p);
+        try {
+            Files.write(tmp.toPath(), content);
+            try {
+                Files.move(
+                    tmp.toPath(),
+                    f.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            if (tmp.exists()) {
+                tmp.delete();
+            }
+        }
     }
 }
\ No newline at end of file
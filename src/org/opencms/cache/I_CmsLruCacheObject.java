@@ -84,6 +84,19 @@ public interface I_CmsLruCacheObject {
      */
     int getLruCacheCosts();
 
+    /**
+     * Returns the off-heap cache costs of this object, as for example the byte size of data
+     * stored outside of the Java heap.<p>
+     *
+     * Off-heap costs are counted separately from the costs returned by {@link #getLruCacheCosts()}.<p>
+     *
+     * @return the off-heap cache costs of this object
+     */
+    default int getLruCacheOffHeapCosts() {
+
+        return 0;
+    }
+
     /**
      * Returns the Object value.<p>
      *
@@ -49,6 +49,7 @@ import org.opencms.main.I_CmsRequestHandler;
 import org.opencms.main.I_CmsResourceInit;
 import org.opencms.main.I_CmsSessionStorageProvider;
 import org.opencms.main.OpenCms;
+import org.opencms.monitor.CmsMemoryMonitor.CacheType;
 import org.opencms.monitor.CmsMemoryMonitorConfiguration;
 import org.opencms.publish.CmsPublishManager;
 import org.opencms.rmi.CmsRemoteShellConstants;
@@ -205,9 +206,13 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
     public static final String A_ERROR_PAGE = "errorPage";
     /** The "exclusive" attribute. */
     public static final String A_EXCLUSIVE = "exclusive";
+    /** The "expire-seconds" attribute. */
+    public static final String A_EXPIRE_SECONDS = "expire-seconds";
 
     /** The attribute name for the localization mode. */
     public static final String A_LOCALIZATION_MODE = "localizationMode";
+    /** The "maxmemory-kb" attribute. */
+    public static final String A_MAXMEMORY_KB = "maxmemory-kb";
     /** The "maxvisited" attribute. */
     public static final String A_MAXVISITED = "maxvisited";
     /** The "offline" attribute. */
@@ -243,12 +248,18 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
     /** The node name for the avgcachebytes node. */
     public static final String N_AVGCACHEBYTES = "avgcachebytes";
 
+    /** The node name for the avgoffheapbytes node. */
+    public static final String N_AVGOFFHEAPBYTES = "avgoffheapbytes";
+
     /** The node name for the browser-based node. */
     public static final String N_BROWSER_BASED = "browser-based";
 
     /** The node name for the cache-enabled node. */
     public static final String N_CACHE_ENABLED = "cache-enabled";
 
+    /** The node name for the cache-limit node. */
+    public static final String N_CACHE_LIMIT = "cache-limit";
+
     /** The node name for the cache-offline node. */
     public static final String N_CACHE_OFFLINE = "cache-offline";
 
@@ -375,9 +386,15 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
     /** The node name for the maxkeys node. */
     public static final String N_MAXKEYS = "maxkeys";
 
+    /** The node name for the maxoffheapbytes node. */
+    public static final String N_MAXOFFHEAPBYTES = "maxoffheapbytes";
+
     /** The node name for the maxusagepercent node. */
     public static final String N_MAXUSAGE_PERCENT = "maxusagepercent";
 
+    /** The node name for the max-parallel-jobs node. */
+    public static final String N_MAX_PARALLEL_JOBS = "max-parallel-jobs";
+
     /** The node name for the memorymonitor node. */
     public static final String N_MEMORYMONITOR = "memorymonitor";
 
@@ -402,6 +419,9 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
     /** The node name for the permission handler. */
     public static final String N_PERMISSIONHANDLER = "permissionhandler";
 
+    /** The node name for the precompress node. */
+    public static final String N_PRECOMPRESS = "precompress";
+
     /** The node name for the prevent-response-flush node. */
     public static final String N_PREVENTRESPONSEFLUSH = "prevent-response-flush";
 
@@ -567,6 +587,9 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
     /** The node name for the workflow configuration. */
     public static final String N_WORKFLOW = "workflow";
 
+    /** The xmlcontents node name. */
+    public static final String N_XMLCONTENTS = "xmlcontents";
+
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(CmsSystemConfiguration.class);
 
@@ -1060,13 +1083,16 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
 
         // add flexcache configuration rule
         digester.addObjectCreate("*/" + N_SYSTEM + "/" + N_FLEXCACHE, CmsFlexCacheConfiguration.class);
-        digester.addCallMethod("*/" + N_SYSTEM + "/" + N_FLEXCACHE, "initialize", 6);
+        digester.addCallMethod("*/" + N_SYSTEM + "/" + N_FLEXCACHE, "initialize", 9);
         digester.addCallParam("*/" + N_SYSTEM + "/" + N_FLEXCACHE + "/" + N_CACHE_ENABLED, 0);
         digester.addCallParam("*/" + N_SYSTEM + "/" + N_FLEXCACHE + "/" + N_CACHE_OFFLINE, 1);
         digester.addCallParam("*/" + N_SYSTEM + "/" + N_FLEXCACHE + "/" + N_MAXCACHEBYTES, 2);
         digester.addCallParam("*/" + N_SYSTEM + "/" + N_FLEXCACHE + "/" + N_AVGCACHEBYTES, 3);
         digester.addCallParam("*/" + N_SYSTEM + "/" + N_FLEXCACHE + "/" + N_MAXENTRYBYTES, 4);
         digester.addCallParam("*/" + N_SYSTEM + "/" + N_FLEXCACHE + "/" + N_MAXKEYS, 5);
+        digester.addCallParam("*/" + N_SYSTEM + "/" + N_FLEXCACHE + "/" + N_MAXOFFHEAPBYTES, 6);
+        digester.addCallParam("*/" + N_SYSTEM + "/" + N_FLEXCACHE + "/" + N_AVGOFFHEAPBYTES, 7);
+        digester.addCallParam("*/" + N_SYSTEM + "/" + N_FLEXCACHE + "/" + N_PRECOMPRESS, 8);
         // add flexcache device selector
         digester.addCallMethod(
             "*/" + N_SYSTEM + "/" + N_FLEXCACHE + "/" + N_DEVICESELECTOR,
@@ -1134,6 +1160,10 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
             "*/" + N_SYSTEM + "/" + N_RESULTCACHE + "/" + N_SIZE_CONTAINERPAGE_ONLINE,
             "setContainerPageOnlineSize",
             0);
+        digester.addCallMethod("*/" + N_SYSTEM + "/" + N_RESULTCACHE + "/" + N_CACHE_LIMIT, "addCacheLimit", 3);
+        digester.addCallParam("*/" + N_SYSTEM + "/" + N_RESULTCACHE + "/" + N_CACHE_LIMIT, 0, A_TYPE);
+        digester.addCallParam("*/" + N_SYSTEM + "/" + N_RESULTCACHE + "/" + N_CACHE_LIMIT, 1, A_MAXMEMORY_KB);
+        digester.addCallParam("*/" + N_SYSTEM + "/" + N_RESULTCACHE + "/" + N_CACHE_LIMIT, 2, A_EXPIRE_SECONDS);
         digester.addSetNext("*/" + N_SYSTEM + "/" + N_RESULTCACHE, "setCacheSettings");
 
         // set the notification time
@@ -1202,6 +1232,10 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
             "*/" + N_SYSTEM + "/" + N_PUBLISHMANAGER + "/" + N_AUTO_CLEANUP_HISTORY_ENTRIES,
             "setAutoCleanupHistoryEntries",
             0);
+        digester.addCallMethod(
+            "*/" + N_SYSTEM + "/" + N_PUBLISHMANAGER + "/" + N_MAX_PARALLEL_JOBS,
+            "setMaxParallelJobs",
+            0);
         digester.addSetNext("*/" + N_SYSTEM + "/" + N_PUBLISHMANAGER, "setPublishManager");
 
         // add rule for session storage provider
@@ -1244,6 +1278,9 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
         digester.addCallParam(adeCachePath + "/" + N_GROUPCONTAINERS, 0, A_OFFLINE);
         digester.addCallMethod(adeCachePath + "/" + N_GROUPCONTAINERS, "setGroupContainerOnlineSize", 1);
         digester.addCallParam(adeCachePath + "/" + N_GROUPCONTAINERS, 0, A_ONLINE);
+        // xml content cache
+        digester.addCallMethod(adeCachePath + "/" + N_XMLCONTENTS, "setXmlContentOnlineSize", 1);
+        digester.addCallParam(adeCachePath + "/" + N_XMLCONTENTS, 0, A_ONLINE);
         // set the settings
         digester.addSetNext(adeCachePath, "setAdeCacheSettings");
 
@@ -1540,6 +1577,15 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
         flexcacheElement.addElement(N_MAXENTRYBYTES).addText(
             String.valueOf(m_cmsFlexCacheConfiguration.getMaxEntryBytes()));
         flexcacheElement.addElement(N_MAXKEYS).addText(String.valueOf(m_cmsFlexCacheConfiguration.getMaxKeys()));
+        if (m_cmsFlexCacheConfiguration.getMaxOffHeapBytes() > 0) {
+            flexcacheElement.addElement(N_MAXOFFHEAPBYTES).addText(
+                String.valueOf(m_cmsFlexCacheConfiguration.getMaxOffHeapBytes()));
+            flexcacheElement.addElement(N_AVGOFFHEAPBYTES).addText(
+                String.valueOf(m_cmsFlexCacheConfiguration.getAvgOffHeapBytes()));
+        }
+        if (m_cmsFlexCacheConfiguration.isPrecompress()) {
+            flexcacheElement.addElement(N_PRECOMPRESS).addText(String.valueOf(true));
+        }
         if (m_cmsFlexCacheConfiguration.getDeviceSelectorConfiguration() != null) {
             Element flexcacheDeviceSelectorElement = flexcacheElement.addElement(N_DEVICESELECTOR);
             flexcacheDeviceSelectorElement.addAttribute(
@@ -1585,6 +1631,17 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
         }
         cacheElement.addElement(N_SIZE_ACLS).setText(Integer.toString(m_cacheSettings.getAclCacheSize()));
         cacheElement.addElement(N_SIZE_PERMISSIONS).setText(Integer.toString(m_cacheSettings.getPermissionCacheSize()));
+        for (CacheType type : m_cacheSettings.getCacheLimitTypes()) {
+            Element limitElement = cacheElement.addElement(N_CACHE_LIMIT).addAttribute(A_TYPE, type.name());
+            long maxMemory = m_cacheSettings.getCacheMaxMemory(type);
+            if (maxMemory > 0) {
+                limitElement.addAttribute(A_MAXMEMORY_KB, Long.toString(maxMemory / 1024));
+            }
+            long expire = m_cacheSettings.getCacheExpireAfterWrite(type);
+            if (expire > 0) {
+                limitElement.addAttribute(A_EXPIRE_SECONDS, Long.toString(expire));
+            }
+        }
 
         // content notification settings
         if ((m_notificationTime != null) || (m_notificationProject != null)) {
@@ -1621,6 +1678,8 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
                 String.valueOf(m_publishManager.getPublishQueueShutdowntime()));
             pubHistElement.addElement(N_AUTO_CLEANUP_HISTORY_ENTRIES).setText(
                 String.valueOf(m_publishManager.isAutoCleanupHistoryEntries()));
+            pubHistElement.addElement(N_MAX_PARALLEL_JOBS).setText(
+                String.valueOf(m_publishManager.getMaxParallelJobs()));
         }
 
         // session storage provider
@@ -1683,6 +1742,9 @@ public class CmsSystemConfiguration extends A_CmsXmlConfiguration {
                 groupContainerCacheElem.addAttribute(
                     A_ONLINE,
                     "" + getAdeCacheSettings().getGroupContainerOnlineSize());
+                // shared online xml content cache
+                Element xmlContentCacheElem = cacheElem.addElement(N_XMLCONTENTS);
+                xmlContentCacheElem.addAttribute(A_ONLINE, "" + getAdeCacheSettings().getXmlContentOnlineSize());
             }
         }
 
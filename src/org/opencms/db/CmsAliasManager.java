@@ -34,8 +34,11 @@ import org.opencms.gwt.shared.alias.CmsAliasImportStatus;
 import org.opencms.gwt.shared.alias.CmsAliasMode;
 import org.opencms.i18n.CmsEncoder;
 import org.opencms.lock.CmsLock;
+import org.opencms.main.CmsEvent;
 import org.opencms.main.CmsException;
+import org.opencms.main.CmsIllegalArgumentException;
 import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsEventListener;
 import org.opencms.main.OpenCms;
 import org.opencms.security.CmsRole;
 import org.opencms.util.CmsStringUtil;
@@ -52,7 +55,10 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.logging.Log;
 
@@ -64,14 +70,20 @@ import au.com.bytecode.opencsv.CSVParser;
 /**
  * The alias manager provides access to the aliases stored in the database.<p>
  */
-public class CmsAliasManager {
+public class CmsAliasManager implements I_CmsEventListener {
 
     /** The logger instance for this class. */
     private static final Log LOG = CmsLog.getLog(CmsAliasManager.class);
 
+    /** The cached rewrite alias matchers, by site root. */
+    protected Map<String, CmsRewriteAliasMatcher> m_rewriteAliasMatchers = new ConcurrentHashMap<>();
+
     /** The security manager for accessing the database. */
     protected CmsSecurityManager m_securityManager;
 
+    /** Counter which is incremented whenever cached rewrite alias matchers are invalidated. */
+    private long m_rewriteAliasGeneration;
+
     /**
      * Creates a new alias manager instance.<p>
      *
@@ -80,6 +92,17 @@ public class CmsAliasManager {
     public CmsAliasManager(CmsSecurityManager securityManager) {
 
         m_securityManager = securityManager;
+        OpenCms.addCmsEventListener(this, new int[] {I_CmsEventListener.EVENT_CLEAR_CACHES});
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        if (event.getType() == I_CmsEventListener.EVENT_CLEAR_CACHES) {
+            invalidateRewriteAliasMatcher(null);
+        }
     }
 
     /**
@@ -162,6 +185,8 @@ public class CmsAliasManager {
     /**
      * Gets the rewrite alias matcher for the given site.<p>
      *
+     * The matcher is cached per site root until the rewrite aliases of that site are changed.<p>
+     *
      * @param cms the CMS context to use
      * @param siteRoot the site root
      *
@@ -171,8 +196,22 @@ public class CmsAliasManager {
      */
     public CmsRewriteAliasMatcher getRewriteAliasMatcher(CmsObject cms, String siteRoot) throws CmsException {
 
-        List<CmsRewriteAlias> aliases = getRewriteAliases(cms, siteRoot);
-        return new CmsRewriteAliasMatcher(aliases);
+        CmsRewriteAliasMatcher matcher = m_rewriteAliasMatchers.get(siteRoot);
+        if (matcher == null) {
+            long generation;
+            synchronized (m_rewriteAliasMatchers) {
+                generation = m_rewriteAliasGeneration;
+            }
+            List<CmsRewriteAlias> aliases = getRewriteAliases(cms, siteRoot);
+            matcher = new CmsRewriteAliasMatcher(aliases);
+            synchronized (m_rewriteAliasMatchers) {
+                // don't cache the matcher if the aliases have been changed while we were reading them
+                if (generation == m_rewriteAliasGeneration) {
+                    m_rewriteAliasMatchers.put(siteRoot, matcher);
+                }
+            }
+        }
+        return matcher;
     }
 
     /**
@@ -257,7 +296,14 @@ public class CmsAliasManager {
     throws CmsException {
 
         checkPermissionsForMassEdit(cms, siteRoot);
-        m_securityManager.saveRewriteAliases(cms.getRequestContext(), siteRoot, newAliases);
+        for (CmsRewriteAlias alias : newAliases) {
+            checkRewriteAliasPattern(alias.getPatternString());
+        }
+        try {
+            m_securityManager.saveRewriteAliases(cms.getRequestContext(), siteRoot, newAliases);
+        } finally {
+            invalidateRewriteAliasMatcher(siteRoot);
+        }
     }
 
     /**
@@ -320,6 +366,26 @@ public class CmsAliasManager {
         OpenCms.getRoleManager().checkRoleForResource(cms, CmsRole.ADMINISTRATOR, "/");
     }
 
+    /**
+     * Checks that a rewrite alias pattern is a valid regular expression.<p>
+     *
+     * @param patternString the pattern to check
+     *
+     * @throws CmsIllegalArgumentException if the pattern is invalid
+     */
+    protected void checkRewriteAliasPattern(String patternString) throws CmsIllegalArgumentException {
+
+        PatternSyntaxException error = CmsRewriteAliasMatcher.validatePattern(patternString);
+        if (error != null) {
+            throw new CmsIllegalArgumentException(
+                Messages.get().container(
+                    Messages.ERR_INVALID_REWRITE_ALIAS_PATTERN_2,
+                    patternString,
+                    error.getDescription()),
+                error);
+        }
+    }
+
     /**
      * Imports a single alias.<p>
      *
@@ -395,6 +461,23 @@ public class CmsAliasManager {
         }
     }
 
+    /**
+     * Removes cached rewrite alias matchers.<p>
+     *
+     * @param siteRoot the site root whose matcher should be removed, or null to remove all cached matchers
+     */
+    protected void invalidateRewriteAliasMatcher(String siteRoot) {
+
+        synchronized (m_rewriteAliasMatchers) {
+            m_rewriteAliasGeneration += 1;
+            if (siteRoot == null) {
+                m_rewriteAliasMatchers.clear();
+            } else {
+                m_rewriteAliasMatchers.remove(siteRoot);
+            }
+        }
+    }
+
     /**
      * Processes a single alias import operation which has already been parsed into fields.<p>
      *
@@ -603,14 +686,18 @@ public class CmsAliasManager {
         CmsAliasMode mode) {
 
         try {
+            checkRewriteAliasPattern(source);
             return m_securityManager.importRewriteAlias(cms.getRequestContext(), siteRoot, source, target, mode);
-        } catch (CmsException e) {
+        } catch (CmsException | CmsIllegalArgumentException e) {
+            // an invalid pattern only fails the import of this line
             return new CmsAliasImportResult(
                 CmsAliasImportStatus.aliasImportError,
                 e.getLocalizedMessage(),
                 source,
                 target,
                 mode);
+        } finally {
+            invalidateRewriteAliasMatcher(siteRoot);
         }
 
     }
@@ -27,6 +27,17 @@
 
 package org.opencms.db;
 
+import org.opencms.main.CmsLog;
+import org.opencms.monitor.CmsMemoryMonitor.CacheType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.logging.Log;
+
 /**
  * The settings of the OpenCms memory monitor.<p>
  *
@@ -34,12 +45,21 @@ package org.opencms.db;
  */
 public class CmsCacheSettings {
 
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsCacheSettings.class);
+
     /** The size of the memory monitor's cache for ACLs. */
     private int m_aclCacheSize;
 
+    /** The times in seconds after which the entries of the memory monitor's caches expire, by cache type. */
+    private Map<CacheType, Long> m_cacheExpireAfterWrite = new EnumMap<CacheType, Long>(CacheType.class);
+
     /** The name of the class to generate cache keys. */
     private String m_cacheKeyGenerator;
 
+    /** The memory limits in bytes of the memory monitor's caches, by cache type. */
+    private Map<CacheType, Long> m_cacheMaxMemory = new EnumMap<CacheType, Long>(CacheType.class);
+
     /** The size of the memory monitor's cache for groups. */
     private int m_groupCacheSize;
 
@@ -84,6 +104,34 @@ public class CmsCacheSettings {
         super();
     }
 
+    /**
+     * Adds a memory limit and an expiration time for one of the memory monitor's caches.<p>
+     *
+     * If a memory limit is set, it replaces the configured number of entries as limit of the cache.<p>
+     *
+     * @param type the name of the cache type, see {@link CacheType}
+     * @param maxMemoryKb the maximum estimated memory size of the cache in kilobytes, may be <code>null</code>
+     * @param expireSeconds the time in seconds after which cache entries expire, may be <code>null</code>
+     */
+    public void addCacheLimit(String type, String maxMemoryKb, String expireSeconds) {
+
+        CacheType cacheType;
+        try {
+            cacheType = CacheType.valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            LOG.warn(Messages.get().getBundle().key(Messages.LOG_UNKNOWN_CACHE_TYPE_1, type));
+            return;
+        }
+        int maxMemory = getIntValue(maxMemoryKb, -1);
+        if (maxMemory > 0) {
+            m_cacheMaxMemory.put(cacheType, Long.valueOf(maxMemory * 1024L));
+        }
+        int expire = getIntValue(expireSeconds, -1);
+        if (expire > 0) {
+            m_cacheExpireAfterWrite.put(cacheType, Long.valueOf(expire));
+        }
+    }
+
     /**
      * Returns the size of the memory monitor's cache for ACLs.<p>
      *
@@ -94,6 +142,19 @@ public class CmsCacheSettings {
         return m_aclCacheSize;
     }
 
+    /**
+     * Returns the time after which the entries of the given cache expire.<p>
+     *
+     * @param type the cache type
+     *
+     * @return the time in seconds, or <code>-1</code> if the entries do not expire
+     */
+    public long getCacheExpireAfterWrite(CacheType type) {
+
+        Long expire = m_cacheExpireAfterWrite.get(type);
+        return expire != null ? expire.longValue() : -1;
+    }
+
     /**
      * Returns the name of the class to generate cache keys.<p>
      *
@@ -104,6 +165,31 @@ public class CmsCacheSettings {
         return m_cacheKeyGenerator;
     }
 
+    /**
+     * Returns the types of the caches with a configured memory limit or expiration time.<p>
+     *
+     * @return the cache types
+     */
+    public Set<CacheType> getCacheLimitTypes() {
+
+        Set<CacheType> types = new TreeSet<CacheType>(m_cacheMaxMemory.keySet());
+        types.addAll(m_cacheExpireAfterWrite.keySet());
+        return Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * Returns the memory limit of the given cache.<p>
+     *
+     * @param type the cache type
+     *
+     * @return the maximum estimated memory size in bytes, or <code>-1</code> if the number of entries is limited
+     */
+    public long getCacheMaxMemory(CacheType type) {
+
+        Long maxMemory = m_cacheMaxMemory.get(type);
+        return maxMemory != null ? maxMemory.longValue() : -1;
+    }
+
     /**
      * Returns the size of the memory monitor's cache for organizational units.<p>
      *
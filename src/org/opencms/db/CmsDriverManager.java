@@ -87,9 +87,11 @@ import org.opencms.main.CmsIllegalStateException;
 import org.opencms.main.CmsInitException;
 import org.opencms.main.CmsLog;
 import org.opencms.main.CmsMultiException;
+import org.opencms.main.CmsRuntimeException;
 import org.opencms.main.I_CmsEventListener;
 import org.opencms.main.OpenCms;
 import org.opencms.module.CmsModule;
+import org.opencms.monitor.CmsCacheDependencyIndex;
 import org.opencms.monitor.CmsMemoryMonitor;
 import org.opencms.publish.CmsPublishEngine;
 import org.opencms.publish.CmsPublishJobInfoBean;
@@ -142,6 +144,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -351,6 +354,9 @@ public final class CmsDriverManager implements I_CmsEventListener {
     /** The class used for cache key generation. */
     private I_CmsCacheKey m_keyGenerator;
 
+    /** The last publish tag handed out by this driver manager. */
+    private AtomicInteger m_lastPublishTag = new AtomicInteger();
+
     /** The lock manager. */
     private CmsLockManager m_lockManager;
 
@@ -721,9 +727,12 @@ public final class CmsDriverManager implements I_CmsEventListener {
 
         // flush the cache
         if (readRoles) {
-            m_monitor.flushCache(CmsMemoryMonitor.CacheType.HAS_ROLE, CmsMemoryMonitor.CacheType.ROLE_LIST);
+            flushRoleCaches(user);
         }
-        m_monitor.flushCache(CmsMemoryMonitor.CacheType.USERGROUPS, CmsMemoryMonitor.CacheType.USER_LIST);
+        m_monitor.flushCacheEntries(
+            CmsMemoryMonitor.CacheType.USERGROUPS,
+            CmsCacheDependencyIndex.getIdTag(user.getId()));
+        m_monitor.flushCache(CmsMemoryMonitor.CacheType.USER_LIST);
 
         if (!dbc.getProjectId().isNullUUID() && !CmsProject.ONLINE_PROJECT_ID.equals(dbc.getProjectId())) {
             // user modified event is not needed
@@ -1031,9 +1040,20 @@ public final class CmsDriverManager implements I_CmsEventListener {
                 m_monitor.clearCache();
                 break;
             case I_CmsEventListener.EVENT_CLEAR_PRINCIPAL_CACHES:
-            case I_CmsEventListener.EVENT_USER_MODIFIED:
                 m_monitor.clearPrincipalsCache();
                 break;
+            case I_CmsEventListener.EVENT_USER_MODIFIED:
+                // only the data cached for the modified user depends on the change, except for deleted users,
+                // whose access control entries are removed from all resources
+                String userId = (String)event.getData().get(I_CmsEventListener.KEY_USER_ID);
+                String userAction = (String)event.getData().get(I_CmsEventListener.KEY_USER_ACTION);
+                if (CmsUUID.isValidUUID(userId)
+                    && !I_CmsEventListener.VALUE_USER_MODIFIED_ACTION_DELETE_USER.equals(userAction)) {
+                    m_monitor.clearPrincipalsCache(new CmsUUID(userId));
+                } else {
+                    m_monitor.clearPrincipalsCache();
+                }
+                break;
             default:
                 // noop
         }
@@ -4049,7 +4069,7 @@ public final class CmsDriverManager implements I_CmsEventListener {
             // make group list unmodifiable for caching
             groups = Collections.unmodifiableList(new ArrayList<CmsGroup>(allGroups));
             if (dbc.getProjectId().isNullUUID()) {
-                m_monitor.cacheUserGroups(cacheKey, groups);
+                m_monitor.cacheUserGroups(cacheKey, groups, CmsCacheDependencyIndex.getIdTag(user.getId()));
             }
         }
 
@@ -4205,13 +4225,17 @@ public final class CmsDriverManager implements I_CmsEventListener {
     /**
      * Returns the next publish tag for the published historical resources.<p>
      *
+     * Since concurrently running publish jobs only write their history when they are done, the tags handed out
+     * before are remembered, so that each publish job gets a unique tag.<p>
+     *
      * @param dbc the current database context
      *
      * @return the next available publish tag
      */
     public int getNextPublishTag(CmsDbContext dbc) {
 
-        return getHistoryDriver(dbc).readNextPublishTag(dbc);
+        int nextPublishTag = getHistoryDriver(dbc).readNextPublishTag(dbc);
+        return m_lastPublishTag.updateAndGet(lastPublishTag -> Math.max(nextPublishTag, lastPublishTag + 1));
     }
 
     /**
@@ -4762,7 +4786,7 @@ public final class CmsDriverManager implements I_CmsEventListener {
         }
 
         result = Collections.unmodifiableList(result);
-        m_monitor.cacheRoleList(key, result);
+        m_monitor.cacheRoleList(key, result, CmsCacheDependencyIndex.getIdTag(user.getId()));
         return result;
     }
 
@@ -4806,7 +4830,7 @@ public final class CmsDriverManager implements I_CmsEventListener {
             }
         }
         result = Collections.unmodifiableList(result);
-        m_monitor.cacheRoleList(key, result);
+        m_monitor.cacheRoleList(key, result, CmsCacheDependencyIndex.getIdTag(user.getId()));
         return result;
     }
 
@@ -5456,7 +5480,7 @@ public final class CmsDriverManager implements I_CmsEventListener {
         }
 
         // we must also clear the permission cache
-        m_monitor.flushCache(CmsMemoryMonitor.CacheType.PERMISSION);
+        flushPermissionCache(resource);
 
         // fire resource modification event
         Map<String, Object> data = new HashMap<String, Object>(2);
@@ -5648,10 +5672,9 @@ public final class CmsDriverManager implements I_CmsEventListener {
             CmsMemoryMonitor.CacheType.ACL,
             CmsMemoryMonitor.CacheType.GROUP,
             CmsMemoryMonitor.CacheType.ORG_UNIT,
-            CmsMemoryMonitor.CacheType.USERGROUPS,
             CmsMemoryMonitor.CacheType.USER_LIST,
-            CmsMemoryMonitor.CacheType.PERMISSION,
             CmsMemoryMonitor.CacheType.RESOURCE_LIST);
+        flushUserCaches(newUser);
 
         // fire user modified event
         Map<String, Object> eventData = new HashMap<String, Object>();
@@ -7499,6 +7522,9 @@ public final class CmsDriverManager implements I_CmsEventListener {
         // check if we have the result already cached
         CmsUUID projectId = getProjectIdForContext(dbc);
         String cacheKey = getCacheKey(CACHE_ALL_PROPERTIES, search, projectId, resource.getRootPath());
+        // the resource is replaced by its parent folders while searching
+        CmsUUID resourceId = resource.getResourceId();
+        String rootPath = resource.getRootPath();
 
         List<CmsProperty> properties = m_monitor.getCachedPropertyList(cacheKey);
 
@@ -7545,7 +7571,12 @@ public final class CmsDriverManager implements I_CmsEventListener {
             CmsProperty.setFrozen(properties);
             if (dbc.getProjectId().isNullUUID()) {
                 // store the result in the cache if needed
-                m_monitor.cachePropertyList(cacheKey, properties);
+                // the list depends on the properties of all siblings, and with search on the parent folders
+                m_monitor.cachePropertyList(
+                    cacheKey,
+                    properties,
+                    CmsCacheDependencyIndex.getIdTag(resourceId),
+                    CmsCacheDependencyIndex.getPathTag(rootPath));
             }
         }
 
@@ -7721,6 +7752,69 @@ public final class CmsDriverManager implements I_CmsEventListener {
         return resource;
     }
 
+    /**
+     * Reads all resources below the given path matching the filter criteria,
+     * returning an iterator which reads the resources from the database while iterating.<p>
+     *
+     * In contrast to {@link #readResources(CmsDbContext, CmsResource, CmsResourceFilter, boolean)}, the result
+     * is never cached, and the permissions and the filter are checked for each resource during the iteration.
+     * The returned iterator must be closed.<p>
+     *
+     * @param dbc the current database context
+     * @param parent the parent path to read the resources from
+     * @param filter the filter
+     * @param readTree <code>true</code> to read all subresources
+     *
+     * @return an iterator over the resources matching the filter criteria
+     *
+     * @throws CmsDataAccessException if the bare reading of the resources fails
+     */
+    public I_CmsResourceIterator readResourceIterator(
+        final CmsDbContext dbc,
+        CmsResource parent,
+        final CmsResourceFilter filter,
+        boolean readTree)
+    throws CmsDataAccessException {
+
+        I_CmsResourceIterator cursor = getVfsDriver(dbc).readResourceTreeIterator(
+            dbc,
+            dbc.currentProject().getUuid(),
+            (readTree ? parent.getRootPath() : parent.getStructureId().toString()),
+            filter.getType(),
+            filter.getState(),
+            filter.getModifiedAfter(),
+            filter.getModifiedBefore(),
+            filter.getReleaseAfter(),
+            filter.getReleaseBefore(),
+            filter.getExpireAfter(),
+            filter.getExpireBefore(),
+            getReadTreeMode(filter, readTree));
+
+        // HACK: do not take care of permissions if reading organizational units
+        final boolean checkPermissions = !parent.getRootPath().startsWith("/system/orgunits/");
+        // never check time range here - this is done with the filter afterwards
+        final CmsResourceFilter permissionFilter = filter.requireTimerange() ? filter.addExcludeTimerange() : filter;
+        return new CmsFilteredResourceIterator(cursor, resource -> {
+            if (checkPermissions) {
+                try {
+                    if (!m_securityManager.hasPermissions(
+                        dbc,
+                        resource,
+                        CmsPermissionSet.ACCESS_READ,
+                        LockCheck.yes,
+                        permissionFilter).isAllowed()) {
+                        return false;
+                    }
+                } catch (CmsException e) {
+                    throw new CmsRuntimeException(e.getMessageContainer(), e);
+                }
+            }
+            // "invalid" resources must also be included in the update of context dates
+            updateContextDates(dbc, resource);
+            return filter.isValid(dbc.getRequestContext(), resource);
+        }, null);
+    }
+
     /**
      * Reads all resources below the given path matching the filter criteria,
      * including the full tree below the path only in case the <code>readTree</code>
@@ -7763,14 +7857,7 @@ public final class CmsDriverManager implements I_CmsEventListener {
                 filter.getReleaseBefore(),
                 filter.getExpireAfter(),
                 filter.getExpireBefore(),
-                (readTree ? CmsDriverManager.READMODE_INCLUDE_TREE : CmsDriverManager.READMODE_EXCLUDE_TREE)
-                    | (filter.excludeType() ? CmsDriverManager.READMODE_EXCLUDE_TYPE : 0)
-                    | (filter.excludeState() ? CmsDriverManager.READMODE_EXCLUDE_STATE : 0)
-                    | ((filter.getOnlyFolders() != null)
-                    ? (filter.getOnlyFolders().booleanValue()
-                    ? CmsDriverManager.READMODE_ONLY_FOLDERS
-                    : CmsDriverManager.READMODE_ONLY_FILES)
-                    : 0));
+                getReadTreeMode(filter, readTree));
 
             // HACK: do not take care of permissions if reading organizational units
             if (!parent.getRootPath().startsWith("/system/orgunits/")) {
@@ -7786,6 +7873,58 @@ public final class CmsDriverManager implements I_CmsEventListener {
         return updateContextDates(dbc, resourceList, filter);
     }
 
+    /**
+     * Reads the resources with the given structure IDs, using the specified resource filter.<p>
+     *
+     * The resources are read with a few bulk queries, and the read permissions are checked for all of
+     * them at once. Resources which don't exist, which don't match the filter or which the current
+     * user is not allowed to read are left out of the result.<p>
+     *
+     * @param dbc the current database context
+     * @param structureIds the structure IDs of the resources to read
+     * @param filter the resource filter to use while reading
+     *
+     * @return the resources that were read, in the order of the given structure IDs
+     *
+     * @throws CmsException if something goes wrong
+     *
+     * @see CmsObject#readResourcesByIds(Collection, CmsResourceFilter)
+     */
+    public List<CmsResource> readResourcesByIds(
+        CmsDbContext dbc,
+        Collection<CmsUUID> structureIds,
+        CmsResourceFilter filter)
+    throws CmsException {
+
+        CmsUUID projectId = getProjectIdForContext(dbc);
+        List<CmsResource> resources = getVfsDriver(dbc).readResourcesByIds(
+            dbc,
+            projectId,
+            structureIds,
+            filter.includeDeleted());
+        if (dbc.getProjectId().isNullUUID()) {
+            // fill the resource cache used for reading resources by path
+            for (CmsResource resource : resources) {
+                if (!resource.getState().isDeleted()) {
+                    m_monitor.cacheResource(getCacheKey(null, false, projectId, resource.getRootPath()), resource);
+                }
+            }
+        }
+        Map<CmsUUID, CmsResource> resourcesById = new HashMap<CmsUUID, CmsResource>();
+        for (CmsResource resource : filterPermissions(dbc, resources, filter)) {
+            resourcesById.put(resource.getStructureId(), resource);
+        }
+        List<CmsResource> result = new ArrayList<CmsResource>(resourcesById.size());
+        for (CmsUUID structureId : structureIds) {
+            CmsResource resource = resourcesById.remove(structureId);
+            if (resource != null) {
+                result.add(resource);
+            }
+        }
+        // we must always apply the result filter and update the context dates
+        return updateContextDates(dbc, result, filter);
+    }
+
     /**
      * Returns the resources that were visited by a user set in the filter.<p>
      *
@@ -8390,9 +8529,12 @@ public final class CmsDriverManager implements I_CmsEventListener {
 
         // flush relevant caches
         if (readRoles) {
-            m_monitor.flushCache(CmsMemoryMonitor.CacheType.HAS_ROLE, CmsMemoryMonitor.CacheType.ROLE_LIST);
+            flushRoleCaches(user);
         }
-        m_monitor.flushCache(CmsMemoryMonitor.CacheType.USERGROUPS, CmsMemoryMonitor.CacheType.USER_LIST);
+        m_monitor.flushCacheEntries(
+            CmsMemoryMonitor.CacheType.USERGROUPS,
+            CmsCacheDependencyIndex.getIdTag(user.getId()));
+        m_monitor.flushCache(CmsMemoryMonitor.CacheType.USER_LIST);
 
         if (!dbc.getProjectId().isNullUUID()) {
             // user modified event is not needed
@@ -9279,7 +9421,7 @@ public final class CmsDriverManager implements I_CmsEventListener {
         m_lockManager.removeResource(dbc, resource, force, removeSystemLock);
 
         // we must also clear the permission cache
-        m_monitor.flushCache(CmsMemoryMonitor.CacheType.PERMISSION);
+        flushPermissionCache(resource);
 
         // fire resource modification event
         Map<String, Object> data = new HashMap<String, Object>(2);
@@ -9463,10 +9605,9 @@ public final class CmsDriverManager implements I_CmsEventListener {
             CmsMemoryMonitor.CacheType.ACL,
             CmsMemoryMonitor.CacheType.GROUP,
             CmsMemoryMonitor.CacheType.ORG_UNIT,
-            CmsMemoryMonitor.CacheType.USERGROUPS,
             CmsMemoryMonitor.CacheType.USER_LIST,
-            CmsMemoryMonitor.CacheType.PERMISSION,
             CmsMemoryMonitor.CacheType.RESOURCE_LIST);
+        flushUserCaches(user);
 
         // fire user modified event
         Map<String, Object> eventData = new HashMap<String, Object>();
@@ -10068,7 +10209,8 @@ public final class CmsDriverManager implements I_CmsEventListener {
         } finally {
             // update the driver manager cache
             m_monitor.clearResourceCache();
-            m_monitor.flushCache(CmsMemoryMonitor.CacheType.PROPERTY, CmsMemoryMonitor.CacheType.PROPERTY_LIST);
+            m_monitor.flushCache(CmsMemoryMonitor.CacheType.PROPERTY);
+            flushPropertyListCache(resource);
 
             // fire an event that a property of a resource has been modified
             Map<String, Object> data = new HashMap<String, Object>();
@@ -10152,7 +10294,8 @@ public final class CmsDriverManager implements I_CmsEventListener {
         } finally {
             // update the driver manager cache
             m_monitor.clearResourceCache();
-            m_monitor.flushCache(CmsMemoryMonitor.CacheType.PROPERTY, CmsMemoryMonitor.CacheType.PROPERTY_LIST);
+            m_monitor.flushCache(CmsMemoryMonitor.CacheType.PROPERTY);
+            flushPropertyListCache(resource);
 
             // fire an event that the properties of a resource have been modified
             OpenCms.fireCmsEvent(
@@ -10299,7 +10442,10 @@ public final class CmsDriverManager implements I_CmsEventListener {
         CmsUser oldUser = readUser(dbc, user.getId());
         m_monitor.clearUserCache(oldUser);
         getUserDriver(dbc).writeUser(dbc, user);
-        m_monitor.flushCache(CmsMemoryMonitor.CacheType.USERGROUPS, CmsMemoryMonitor.CacheType.USER_LIST);
+        m_monitor.flushCacheEntries(
+            CmsMemoryMonitor.CacheType.USERGROUPS,
+            CmsCacheDependencyIndex.getIdTag(user.getId()));
+        m_monitor.flushCache(CmsMemoryMonitor.CacheType.USER_LIST);
 
         if (!dbc.getProjectId().isNullUUID()) {
             // user modified event is not needed
@@ -11125,6 +11271,69 @@ public final class CmsDriverManager implements I_CmsEventListener {
         return result;
     }
 
+    /**
+     * Removes the cached permission check results depending on the lock state of the given resource.<p>
+     *
+     * This includes the results for all siblings of the resource, and for all resources below a folder.<p>
+     *
+     * @param resource the resource
+     */
+    private void flushPermissionCache(CmsResource resource) {
+
+        m_monitor.flushCacheEntries(
+            CmsMemoryMonitor.CacheType.PERMISSION,
+            CmsCacheDependencyIndex.getIdTag(resource.getResourceId()));
+        if (resource.isFolder()) {
+            m_monitor.flushCacheSubtree(
+                CmsMemoryMonitor.CacheType.PERMISSION,
+                CmsFileUtil.addTrailingSeparator(resource.getRootPath()));
+        }
+    }
+
+    /**
+     * Removes the cached property lists depending on the properties of the given resource.<p>
+     *
+     * This includes the lists of all siblings of the resource,
+     * and for folders the searched property lists of all resources below.<p>
+     *
+     * @param resource the resource
+     */
+    private void flushPropertyListCache(CmsResource resource) {
+
+        m_monitor.flushCacheEntries(
+            CmsMemoryMonitor.CacheType.PROPERTY_LIST,
+            CmsCacheDependencyIndex.getIdTag(resource.getResourceId()));
+        if (resource.isFolder()) {
+            m_monitor.flushCacheSubtree(
+                CmsMemoryMonitor.CacheType.PROPERTY_LIST,
+                CmsFileUtil.addTrailingSeparator(resource.getRootPath()));
+        }
+    }
+
+    /**
+     * Removes the cached roles of the given user.<p>
+     *
+     * @param user the user
+     */
+    private void flushRoleCaches(CmsUser user) {
+
+        String tag = CmsCacheDependencyIndex.getIdTag(user.getId());
+        m_monitor.flushCacheEntries(CmsMemoryMonitor.CacheType.HAS_ROLE, tag);
+        m_monitor.flushCacheEntries(CmsMemoryMonitor.CacheType.ROLE_LIST, tag);
+    }
+
+    /**
+     * Removes the cached groups and permission check results of the given user.<p>
+     *
+     * @param user the user
+     */
+    private void flushUserCaches(CmsUser user) {
+
+        String tag = CmsCacheDependencyIndex.getIdTag(user.getId());
+        m_monitor.flushCacheEntries(CmsMemoryMonitor.CacheType.USERGROUPS, tag);
+        m_monitor.flushCacheEntries(CmsMemoryMonitor.CacheType.PERMISSION, tag);
+    }
+
     /**
      * Returns the access control list of a given resource.<p>
      *
@@ -11188,12 +11397,11 @@ public final class CmsDriverManager implements I_CmsEventListener {
                 }
             }
             if (parentResource != null) {
-                acl = (CmsAccessControlList)getAccessControlList(
-                    dbc,
-                    parentResource,
-                    inheritedOnly,
-                    forFolder,
-                    depth + 1).clone();
+                acl = getAccessControlList(dbc, parentResource, inheritedOnly, forFolder, depth + 1);
+                if (!aces.isEmpty() && !((depth == 0) && inheritedOnly)) {
+                    // only copy the inherited list if entries are added, otherwise it is shared with the parent
+                    acl = (CmsAccessControlList)acl.clone();
+                }
             }
         }
         if (acl == null) {
@@ -11310,6 +11518,26 @@ public final class CmsDriverManager implements I_CmsEventListener {
         return projectId;
     }
 
+    /**
+     * Returns the driver read mode flags for reading the resources below a folder with the given filter.<p>
+     *
+     * @param filter the resource filter
+     * @param readTree <code>true</code> to read all subresources
+     *
+     * @return the read mode flags
+     */
+    private int getReadTreeMode(CmsResourceFilter filter, boolean readTree) {
+
+        return (readTree ? CmsDriverManager.READMODE_INCLUDE_TREE : CmsDriverManager.READMODE_EXCLUDE_TREE)
+            | (filter.excludeType() ? CmsDriverManager.READMODE_EXCLUDE_TYPE : 0)
+            | (filter.excludeState() ? CmsDriverManager.READMODE_EXCLUDE_STATE : 0)
+            | ((filter.getOnlyFolders() != null)
+            ? (filter.getOnlyFolders().booleanValue()
+            ? CmsDriverManager.READMODE_ONLY_FOLDERS
+            : CmsDriverManager.READMODE_ONLY_FILES)
+            : 0);
+    }
+
     /**
      * Returns if and what state needs to be updated.<p>
      *
@@ -0,0 +1,118 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.db;
+
+import org.opencms.file.CmsResource;
+
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Resource iterator which only returns the resources of another resource iterator that match a predicate.<p>
+ *
+ * @since 12.0.0
+ */
+public class CmsFilteredResourceIterator implements I_CmsResourceIterator {
+
+    /** The action to run after the wrapped iterator has been closed, may be <code>null</code>. */
+    private Runnable m_closeAction;
+
+    /** Flag which indicates whether the iterator has already been closed. */
+    private boolean m_closed;
+
+    /** The wrapped iterator. */
+    private I_CmsResourceIterator m_iterator;
+
+    /** The next matching resource, or <code>null</code> if it has not been read yet. */
+    private CmsResource m_next;
+
+    /** The predicate used to select resources. */
+    private Predicate<CmsResource> m_predicate;
+
+    /**
+     * Creates a new instance.<p>
+     *
+     * @param iterator the iterator to wrap
+     * @param predicate the predicate used to select resources
+     * @param closeAction the action to run after the wrapped iterator has been closed, may be <code>null</code>
+     */
+    public CmsFilteredResourceIterator(
+        I_CmsResourceIterator iterator,
+        Predicate<CmsResource> predicate,
+        Runnable closeAction) {
+
+        m_iterator = iterator;
+        m_predicate = predicate;
+        m_closeAction = closeAction;
+    }
+
+    /**
+     * @see org.opencms.util.I_CmsCloseable#close()
+     */
+    public void close() {
+
+        if (!m_closed) {
+            m_closed = true;
+            m_next = null;
+            try {
+                m_iterator.close();
+            } finally {
+                if (m_closeAction != null) {
+                    m_closeAction.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * @see java.util.Iterator#hasNext()
+     */
+    public boolean hasNext() {
+
+        while ((m_next == null) && !m_closed && m_iterator.hasNext()) {
+            CmsResource resource = m_iterator.next();
+            if (m_predicate.test(resource)) {
+                m_next = resource;
+            }
+        }
+        return m_next != null;
+    }
+
+    /**
+     * @see java.util.Iterator#next()
+     */
+    public CmsResource next() {
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        CmsResource result = m_next;
+        m_next = null;
+        return result;
+    }
+}
@@ -31,7 +31,13 @@ import org.opencms.main.CmsLog;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -40,6 +46,10 @@ import org.apache.commons.logging.Log;
 
 /**
  * Helper class used for matching rewrite aliases to incoming request URIs.<p>
+ *
+ * The patterns are compiled when the matcher is created and grouped by their literal prefix, so that
+ * matching a path only needs to test the aliases which can possibly match it. Instances are immutable
+ * and can be shared between threads.<p>
  */
 public class CmsRewriteAliasMatcher {
 
@@ -89,45 +99,212 @@ public class CmsRewriteAliasMatcher {
 
     }
 
+    /**
+     * A rewrite alias together with its precompiled pattern.<p>
+     */
+    private static class CompiledAlias {
+
+        /** The rewrite alias. */
+        final CmsRewriteAlias m_alias;
+
+        /** The position of the alias in the configured alias list. */
+        final int m_index;
+
+        /** The compiled pattern of the alias. */
+        final Pattern m_pattern;
+
+        /**
+         * Creates a new instance.<p>
+         *
+         * @param alias the rewrite alias
+         * @param pattern the compiled pattern
+         * @param index the position of the alias in the configured alias list
+         */
+        CompiledAlias(CmsRewriteAlias alias, Pattern pattern, int index) {
+
+            m_alias = alias;
+            m_pattern = pattern;
+            m_index = index;
+        }
+    }
+
+    /** Characters which end the literal prefix of a pattern. */
+    private static final String PATTERN_META_CHARS = "\\^$.|?*+()[]{}";
+
+    /** Quantifiers which make the preceding literal character optional. */
+    private static final String PATTERN_OPTIONAL_QUANTIFIERS = "?*{";
+
     /** The logger instance for this class. */
     private static final Log LOG = CmsLog.getLog(CmsRewriteAliasMatcher.class);
 
     /** The list of rewrite aliases to use for matching. */
     private List<CmsRewriteAlias> m_aliases;
 
+    /** The compiled aliases with a non-empty literal prefix, grouped by that prefix. */
+    private Map<String, List<CompiledAlias>> m_aliasesByPrefix = new HashMap<String, List<CompiledAlias>>();
+
+    /** The distinct lengths of the literal prefixes in ascending order. */
+    private int[] m_prefixLengths;
+
+    /** The compiled aliases without a literal prefix, which have to be tested for every path. */
+    private List<CompiledAlias> m_unprefixedAliases = new ArrayList<CompiledAlias>();
+
     /**
      * Creates a new matcher instance for the given list of rewrite aliases.<p>
      *
+     * The patterns of the aliases are compiled once here; aliases with invalid patterns are ignored.<p>
+     *
      * @param aliases the list of rewrite aliases to be used for matching
      */
     public CmsRewriteAliasMatcher(Collection<CmsRewriteAlias> aliases) {
 
         m_aliases = new ArrayList<CmsRewriteAlias>(aliases);
+        SortedSet<Integer> prefixLengths = new TreeSet<Integer>();
+        int index = 0;
+        for (CmsRewriteAlias alias : m_aliases) {
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(alias.getPatternString());
+            } catch (PatternSyntaxException e) {
+                LOG.warn(e.getLocalizedMessage(), e);
+                continue;
+            }
+            CompiledAlias compiledAlias = new CompiledAlias(alias, pattern, index);
+            index += 1;
+            String prefix = getLiteralPrefix(alias.getPatternString());
+            if (prefix.length() == 0) {
+                m_unprefixedAliases.add(compiledAlias);
+            } else {
+                List<CompiledAlias> group = m_aliasesByPrefix.get(prefix);
+                if (group == null) {
+                    group = new ArrayList<CompiledAlias>();
+                    m_aliasesByPrefix.put(prefix, group);
+                }
+                group.add(compiledAlias);
+                prefixLengths.add(Integer.valueOf(prefix.length()));
+            }
+        }
+        m_prefixLengths = new int[prefixLengths.size()];
+        int i = 0;
+        for (Integer length : prefixLengths) {
+            m_prefixLengths[i++] = length.intValue();
+        }
+    }
+
+    /**
+     * Computes the literal prefix of a rewrite alias pattern, i.e. the longest string every path matched by the pattern has to start with.<p>
+     *
+     * The result is conservative: for patterns which can't be analyzed easily, the empty string is returned.<p>
+     *
+     * @param patternString the pattern string
+     *
+     * @return the literal prefix of the pattern
+     */
+    public static String getLiteralPrefix(String patternString) {
+
+        if (patternString.indexOf('|') >= 0) {
+            // top level alternatives may not share a common prefix
+            return "";
+        }
+        // match() always matches the whole path, so a leading anchor is redundant
+        int start = patternString.startsWith("^") ? 1 : 0;
+        int end = start;
+        while ((end < patternString.length()) && (PATTERN_META_CHARS.indexOf(patternString.charAt(end)) < 0)) {
+            end += 1;
+        }
+        if ((end > start)
+            && (end < patternString.length())
+            && (PATTERN_OPTIONAL_QUANTIFIERS.indexOf(patternString.charAt(end)) >= 0)) {
+            // the last literal character is optional
+            end -= 1;
+        }
+        return patternString.substring(start, end);
+    }
+
+    /**
+     * Checks whether the given string is a valid rewrite alias pattern.<p>
+     *
+     * @param patternString the pattern string to check
+     *
+     * @return the syntax error, or null if the pattern is valid
+     */
+    public static PatternSyntaxException validatePattern(String patternString) {
+
+        try {
+            Pattern.compile(patternString);
+            return null;
+        } catch (PatternSyntaxException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Gets the rewrite aliases used by this matcher.<p>
+     *
+     * @return the rewrite aliases
+     */
+    public List<CmsRewriteAlias> getAliases() {
+
+        return Collections.unmodifiableList(m_aliases);
     }
 
     /**
      * Tries to rewrite a given path, and either returns the rewrite result or null if no
      * rewrite alias matched the path.<p>
      *
+     * Only the aliases whose literal prefix is a prefix of the path are tested, in the order in which they were configured.<p>
+     *
      * @param path the path to match
      * @return the rewrite result or null if no rewrite alias matched
      */
     public RewriteResult match(String path) {
 
-        for (CmsRewriteAlias alias : m_aliases) {
+        for (CompiledAlias candidate : getCandidates(path)) {
             try {
-                Pattern pattern = Pattern.compile(alias.getPatternString());
-                Matcher matcher = pattern.matcher(path);
+                Matcher matcher = candidate.m_pattern.matcher(path);
                 if (matcher.matches()) {
-                    String newPath = matcher.replaceFirst(alias.getReplacementString());
-                    return new RewriteResult(newPath, alias);
+                    String newPath = matcher.replaceFirst(candidate.m_alias.getReplacementString());
+                    return new RewriteResult(newPath, candidate.m_alias);
                 }
-            } catch (PatternSyntaxException e) {
-                LOG.warn(e.getLocalizedMessage(), e);
             } catch (IndexOutOfBoundsException e) {
                 LOG.warn(e.getLocalizedMessage(), e);
             }
         }
         return null;
     }
+
+    /**
+     * Collects the compiled aliases which may match the given path, in configuration order.<p>
+     *
+     * @param path the path
+     *
+     * @return the candidate aliases
+     */
+    private List<CompiledAlias> getCandidates(String path) {
+
+        List<CompiledAlias> result = null;
+        for (int length : m_prefixLengths) {
+            if (length > path.length()) {
+                break;
+            }
+            List<CompiledAlias> group = m_aliasesByPrefix.get(path.substring(0, length));
+            if (group != null) {
+                if (result == null) {
+                    result = new ArrayList<CompiledAlias>(m_unprefixedAliases);
+                }
+                result.addAll(group);
+            }
+        }
+        if (result == null) {
+            return m_unprefixedAliases;
+        }
+        Collections.sort(result, new Comparator<CompiledAlias>() {
+
+            public int compare(CompiledAlias first, CompiledAlias second) {
+
+                return Integer.compare(first.m_index, second.m_index);
+            }
+        });
+        return result;
+    }
 }
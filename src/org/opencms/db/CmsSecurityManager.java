@@ -71,6 +71,7 @@ import org.opencms.main.CmsLog;
 import org.opencms.main.CmsMultiException;
 import org.opencms.main.I_CmsEventListener;
 import org.opencms.main.OpenCms;
+import org.opencms.monitor.CmsCacheDependencyIndex;
 import org.opencms.publish.CmsPublishEngine;
 import org.opencms.relations.CmsLink;
 import org.opencms.relations.CmsRelation;
@@ -3120,7 +3121,10 @@ public final class CmsSecurityManager {
         }
 
         result = Boolean.valueOf(hasRole);
-        OpenCms.getMemoryMonitor().cacheRole(key, result.booleanValue());
+        OpenCms.getMemoryMonitor().cacheRole(
+            key,
+            result.booleanValue(),
+            CmsCacheDependencyIndex.getIdTag(user.getId()));
         return result.booleanValue();
     }
 
@@ -3234,7 +3238,10 @@ public final class CmsSecurityManager {
         if (result == null) {
             result = Boolean.FALSE;
         }
-        OpenCms.getMemoryMonitor().cacheRole(key, result.booleanValue());
+        OpenCms.getMemoryMonitor().cacheRole(
+            key,
+            result.booleanValue(),
+            CmsCacheDependencyIndex.getIdTag(user.getId()));
         return result.booleanValue();
     }
 
@@ -5151,6 +5158,50 @@ public final class CmsSecurityManager {
         return result;
     }
 
+    /**
+     * Reads all resources below the given path matching the filter criteria,
+     * returning an iterator which reads the resources from the database while iterating.<p>
+     *
+     * The returned iterator must be closed, preferably with the try-with-resources syntax.<p>
+     *
+     * @param context the current request context
+     * @param parent the parent path to read the resources from
+     * @param filter the filter
+     * @param readTree <code>true</code> to read all subresources
+     *
+     * @return an iterator over the resources matching the filter criteria
+     *
+     * @throws CmsSecurityException if the user has insufficient permission for the given resource (read is required)
+     * @throws CmsException if something goes wrong
+     */
+    public I_CmsResourceIterator readResourceIterator(
+        CmsRequestContext context,
+        CmsResource parent,
+        CmsResourceFilter filter,
+        boolean readTree)
+    throws CmsException, CmsSecurityException {
+
+        I_CmsResourceIterator result = null;
+        final CmsDbContext dbc = m_dbContextFactory.getDbContext(context);
+        try {
+            // check the access permissions
+            checkPermissions(dbc, parent, CmsPermissionSet.ACCESS_READ, true, CmsResourceFilter.ALL);
+            I_CmsResourceIterator cursor = m_driverManager.readResourceIterator(dbc, parent, filter, readTree);
+            // the database context is needed for the permission checks until the iterator is closed
+            result = new CmsFilteredResourceIterator(cursor, resource -> true, () -> dbc.clear());
+        } catch (Exception e) {
+            dbc.report(
+                null,
+                Messages.get().container(Messages.ERR_READ_RESOURCES_1, context.removeSiteRoot(parent.getRootPath())),
+                e);
+        } finally {
+            if (result == null) {
+                dbc.clear();
+            }
+        }
+        return result;
+    }
+
     /**
      * Reads all resources below the given path matching the filter criteria,
      * including the full tree below the path only in case the <code>readTree</code>
@@ -5191,6 +5242,43 @@ public final class CmsSecurityManager {
         return result;
     }
 
+    /**
+     * Reads the resources with the given structure IDs, using the specified resource filter.<p>
+     *
+     * Resources which don't exist, which don't match the filter or which the current user
+     * is not allowed to read are left out of the result.<p>
+     *
+     * @param context the current request context
+     * @param structureIds the structure IDs of the resources to read
+     * @param filter the resource filter to use while reading
+     *
+     * @return the resources that were read, in the order of the given structure IDs
+     *
+     * @throws CmsException if something goes wrong
+     *
+     * @see CmsObject#readResourcesByIds(Collection, CmsResourceFilter)
+     */
+    public List<CmsResource> readResourcesByIds(
+        CmsRequestContext context,
+        Collection<CmsUUID> structureIds,
+        CmsResourceFilter filter)
+    throws CmsException {
+
+        List<CmsResource> result = null;
+        CmsDbContext dbc = m_dbContextFactory.getDbContext(context);
+        try {
+            result = m_driverManager.readResourcesByIds(dbc, structureIds, filter);
+        } catch (Exception e) {
+            dbc.report(
+                null,
+                Messages.get().container(Messages.ERR_READ_RESOURCES_FOR_IDS_1, Integer.valueOf(structureIds.size())),
+                e);
+        } finally {
+            dbc.clear();
+        }
+        return result;
+    }
+
     /**
      * Returns the resources that were visited by a user set in the filter.<p>
      *
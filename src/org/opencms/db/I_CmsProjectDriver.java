@@ -698,6 +698,18 @@ public interface I_CmsProjectDriver {
     void writePublishHistory(CmsDbContext dbc, CmsUUID publishId, CmsPublishedResource resource)
     throws CmsDataAccessException;
 
+    /**
+     * Inserts the publish history entries for several published VFS resources with a single JDBC batch.<p>
+     *
+     * @param dbc the current database context
+     * @param publishId the ID of the current publishing process
+     * @param resources the states of the resources *before* they were published
+     *
+     * @throws CmsDataAccessException if something goes wrong
+     */
+    void writePublishHistory(CmsDbContext dbc, CmsUUID publishId, List<CmsPublishedResource> resources)
+    throws CmsDataAccessException;
+
     /**
      * Writes a publish job.<p>
      *
@@ -627,6 +627,28 @@ public interface I_CmsVfsDriver {
     List<CmsResource> readResources(CmsDbContext dbc, CmsUUID currentProject, CmsResourceState state, int mode)
     throws CmsDataAccessException;
 
+    /**
+     * Reads the resources with the given structure IDs.<p>
+     *
+     * The resources are read in chunks, using one query per chunk instead of one query per resource.
+     * IDs for which no resource exists are ignored.<p>
+     *
+     * @param dbc the current database context
+     * @param projectId the Id of the project
+     * @param structureIds the structure IDs of the resources to read
+     * @param includeDeleted true if already deleted files are included
+     *
+     * @return the resources that were read, in no particular order
+     *
+     * @throws CmsDataAccessException if something goes wrong
+     */
+    List<CmsResource> readResourcesByIds(
+        CmsDbContext dbc,
+        CmsUUID projectId,
+        Collection<CmsUUID> structureIds,
+        boolean includeDeleted)
+    throws CmsDataAccessException;
+
     /**
      * Returns all resources associated to a given principal via an ACE.<p>
      *
@@ -732,6 +754,44 @@ public interface I_CmsVfsDriver {
         long expiredBefore,
         int mode) throws CmsDataAccessException;
 
+    /**
+     * Reads all resources inside a given project matching the criteria specified by parameter values,
+     * returning an iterator which reads the resources from the database while iterating.<p>
+     *
+     * The parameters have the same meaning as for {@link #readResourceTree(CmsDbContext, CmsUUID, String, int, CmsResourceState, long, long, long, long, long, long, int)}.
+     * The returned iterator holds a database connection until it is exhausted or closed.<p>
+     *
+     * @param dbc the current database context
+     * @param projectId the project id for matching resources
+     * @param parent the path to the resource used as root of the searched subtree, or the UUID of the parent folder
+     * @param type the resource type of matching resources
+     * @param state the state of matching resources or <code>null</code> to ignore
+     * @param startTime the start of the time range for the last modification date of matching resources
+     * @param endTime the end of the time range for the last modification date of matching resources
+     * @param releasedAfter the start of the time range for the release date of matching resources
+     * @param releasedBefore the end of the time range for the release date of matching resources
+     * @param expiredAfter the start of the time range for the expire date of matching resources
+     * @param expiredBefore the end of the time range for the expire date of matching resources
+     * @param mode additional mode flags
+     *
+     * @return an iterator over the CmsResource objects matching the given criteria
+     *
+     * @throws CmsDataAccessException if something goes wrong
+     */
+    I_CmsResourceIterator readResourceTreeIterator(
+        CmsDbContext dbc,
+        CmsUUID projectId,
+        String parent,
+        int type,
+        CmsResourceState state,
+        long startTime,
+        long endTime,
+        long releasedAfter,
+        long releasedBefore,
+        long expiredAfter,
+        long expiredBefore,
+        int mode) throws CmsDataAccessException;
+
     /**
      * Reads the rewrite aliases matching a given filter.<p>
      *
@@ -1021,4 +1081,28 @@ public interface I_CmsVfsDriver {
         int changed,
         boolean isPublishing) throws CmsDataAccessException;
 
+    /**
+     * Writes the file states of several resources, using one JDBC batch per updated table.<p>
+     *
+     * This has the same effect as calling {@link #writeResourceState(CmsDbContext, CmsProject, CmsResource, int, boolean)}
+     * for every given resource, but needs far less database round trips if many resources are updated,
+     * e.g. while publishing.<p>
+     *
+     * @param dbc the current database context
+     * @param project the current project
+     * @param resources the resources to be updated
+     * @param changed determines whether the structure or resource state, or none of them, is set to "changed"
+     * @param isPublishing if this method is called during publishing to version numbers are updated
+     *
+     * @throws CmsDataAccessException if something goes wrong
+     *
+     * @see #writeResourceState(CmsDbContext, CmsProject, CmsResource, int, boolean)
+     */
+    void writeResourceStates(
+        CmsDbContext dbc,
+        CmsProject project,
+        List<CmsResource> resources,
+        int changed,
+        boolean isPublishing) throws CmsDataAccessException;
+
 }
\ No newline at end of file
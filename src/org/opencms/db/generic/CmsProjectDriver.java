@@ -188,15 +188,27 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
 
     }
 
+    /** Attribute name for the batch collecting the pending writes of the current publish process. */
+    public static final String DBC_ATTR_PUBLISH_BATCH = "DBC_ATTR_PUBLISH_BATCH";
+
     /** Attribute name for reading the project of a resource. */
     public static final String DBC_ATTR_READ_PROJECT_FOR_RESOURCE = "DBC_ATTR_READ_PROJECT_FOR_RESOURCE";
 
+    /** The default number of resources whose publish writes are sent to the database in one batch. */
+    public static final int DEFAULT_PUBLISH_BATCH_SIZE = 500;
+
+    /** The configuration parameter for the number of resources whose publish writes are sent in one batch. */
+    public static final String PARAM_PUBLISH_BATCH_SIZE = "db.project.publish.batchsize";
+
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(org.opencms.db.generic.CmsProjectDriver.class);
 
     /** The driver manager. */
     protected CmsDriverManager m_driverManager;
 
+    /** The number of resources whose publish writes are sent to the database in one batch, values below 2 disable batching. */
+    protected int m_publishBatchSize = DEFAULT_PUBLISH_BATCH_SIZE;
+
     /** The SQL manager. */
     protected CmsSqlManager m_sqlManager;
 
@@ -914,11 +926,16 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
         String classname = configuration.get("db.project.sqlmanager");
         m_sqlManager = initSqlManager(classname);
         m_sqlManager.init(I_CmsProjectDriver.DRIVER_TYPE_ID, poolUrl);
+        m_publishBatchSize = configuration.getInteger(PARAM_PUBLISH_BATCH_SIZE, DEFAULT_PUBLISH_BATCH_SIZE);
 
         m_driverManager = driverManager;
 
         if (CmsLog.INIT.isInfoEnabled()) {
             CmsLog.INIT.info(Messages.get().getBundle().key(Messages.INIT_ASSIGNED_POOL_1, poolUrl));
+            CmsLog.INIT.info(
+                Messages.get().getBundle().key(
+                    Messages.INIT_PUBLISH_BATCH_SIZE_1,
+                    String.valueOf(m_publishBatchSize)));
         }
 
         if ((successiveDrivers != null) && !successiveDrivers.isEmpty()) {
@@ -1688,6 +1705,13 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
         Set<CmsUUID> publishedContentIds = new HashSet<CmsUUID>();
         Set<CmsUUID> publishedIds = new HashSet<CmsUUID>();
 
+        // collect the publish history entries and state resets to send them in chunks
+        CmsPublishBatch batch = null;
+        if (m_publishBatchSize > 1) {
+            batch = new CmsPublishBatch(publishList.getPublishHistoryId(), m_publishBatchSize);
+            dbc.setAttribute(DBC_ATTR_PUBLISH_BATCH, batch);
+        }
+
         try {
 
             ////////////////////////////////////////////////////////////////////////////////////////
@@ -1803,7 +1827,11 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
                         Messages.get().container(Messages.ERR_ERROR_PUBLISHING_FOLDER_1, currentFolder.getRootPath()),
                         t);
                 }
+                if ((batch != null) && batch.isFull()) {
+                    internalFlushPublishBatch(dbc, report, batch);
+                }
             }
+            internalFlushPublishBatch(dbc, report, batch);
 
             if (foldersSize > 0) {
                 report.println(
@@ -1882,7 +1910,11 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
                         Messages.get().container(Messages.ERR_ERROR_PUBLISHING_FILE_1, currentResource.getRootPath()),
                         t);
                 }
+                if ((batch != null) && batch.isFull()) {
+                    internalFlushPublishBatch(dbc, report, batch);
+                }
             }
+            internalFlushPublishBatch(dbc, report, batch);
 
             if (filesSize > 0) {
                 report.println(Messages.get().container(Messages.RPT_PUBLISH_FILES_END_0), I_CmsReport.FORMAT_HEADLINE);
@@ -1950,7 +1982,11 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
                             currentFolder.getRootPath()),
                         t);
                 }
+                if ((batch != null) && batch.isFull()) {
+                    internalFlushPublishBatch(dbc, report, batch);
+                }
             }
+            internalFlushPublishBatch(dbc, report, batch);
 
             if (deletedFoldersSize > 0) {
                 report.println(
@@ -1968,6 +2004,15 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
             }
             throw new CmsDataAccessException(message, o);
         } finally {
+            if (batch != null) {
+                dbc.removeAttribute(DBC_ATTR_PUBLISH_BATCH);
+                try {
+                    // write what has been collected for the resources published before an error occurred
+                    internalFlushPublishBatch(dbc, report, batch);
+                } catch (CmsException e) {
+                    LOG.error(e.getLocalizedMessage(), e);
+                }
+            }
             // reset vfs driver internal info after publishing
             m_driverManager.getVfsDriver(dbc).publishVersions(dbc, null, false);
             Object[] msgArgs = new Object[] {
@@ -2834,6 +2879,42 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
         }
     }
 
+    /**
+     * @see org.opencms.db.I_CmsProjectDriver#writePublishHistory(org.opencms.db.CmsDbContext, org.opencms.util.CmsUUID, java.util.List)
+     */
+    public void writePublishHistory(CmsDbContext dbc, CmsUUID publishId, List<CmsPublishedResource> resources)
+    throws CmsDataAccessException {
+
+        if (resources.isEmpty()) {
+            return;
+        }
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = m_sqlManager.getConnection(dbc);
+            stmt = m_sqlManager.getPreparedStatement(conn, "C_RESOURCES_WRITE_PUBLISH_HISTORY");
+            for (CmsPublishedResource resource : resources) {
+                stmt.setInt(1, resource.getPublishTag());
+                stmt.setString(2, resource.getStructureId().toString());
+                stmt.setString(3, resource.getResourceId().toString());
+                stmt.setString(4, resource.getRootPath());
+                stmt.setInt(5, resource.getMovedState().getState());
+                stmt.setInt(6, resource.getType());
+                stmt.setString(7, publishId.toString());
+                stmt.setInt(8, resource.getSiblingCount());
+                stmt.addBatch();
+            }
+            m_sqlManager.executeBatches(conn, stmt);
+        } catch (SQLException e) {
+            throw new CmsDbSqlException(
+                Messages.get().container(Messages.ERR_GENERIC_SQL_1, CmsDbSqlException.getErrorQuery(stmt)),
+                e);
+        } finally {
+            m_sqlManager.closeAll(dbc, conn, stmt, null);
+        }
+    }
+
     /**
      * @see org.opencms.db.I_CmsProjectDriver#writePublishJob(org.opencms.db.CmsDbContext, org.opencms.publish.CmsPublishJobInfoBean)
      */
@@ -3177,6 +3258,76 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
         return (CmsPublishList)oin.readObject();
     }
 
+    /**
+     * Sends the pending writes of the given publish batch to the database.<p>
+     *
+     * If a batch fails, its entries are written one by one, so that the failing resource is reported.<p>
+     *
+     * @param dbc the current database context
+     * @param report the report to write errors to
+     * @param batch the publish batch, may be <code>null</code>
+     *
+     * @throws CmsException if something goes wrong
+     */
+    protected void internalFlushPublishBatch(CmsDbContext dbc, I_CmsReport report, CmsPublishBatch batch)
+    throws CmsException {
+
+        if ((batch == null) || batch.isEmpty()) {
+            return;
+        }
+        List<CmsPublishedResource> publishedResources = batch.removePublishedResources();
+        try {
+            m_driverManager.getProjectDriver(dbc).writePublishHistory(
+                dbc,
+                batch.getPublishHistoryId(),
+                publishedResources);
+        } catch (CmsDataAccessException e) {
+            LOG.warn(
+                Messages.get().getBundle().key(
+                    Messages.LOG_PUBLISH_BATCH_FAILED_1,
+                    String.valueOf(publishedResources.size())),
+                e);
+            for (CmsPublishedResource publishedResource : publishedResources) {
+                try {
+                    m_driverManager.getProjectDriver(dbc).writePublishHistory(
+                        dbc,
+                        batch.getPublishHistoryId(),
+                        publishedResource);
+                } catch (Throwable t) {
+                    dbc.report(
+                        report,
+                        Messages.get().container(
+                            Messages.LOG_WRITING_PUBLISHING_HISTORY_1,
+                            publishedResource.getRootPath()),
+                        t);
+                }
+            }
+        }
+        List<CmsResource> resetResources = batch.removeResetResources();
+        I_CmsVfsDriver vfsDriver = m_driverManager.getVfsDriver(dbc);
+        try {
+            vfsDriver.writeResourceStates(dbc, dbc.currentProject(), resetResources, CmsDriverManager.UPDATE_ALL, true);
+        } catch (CmsDataAccessException e) {
+            LOG.warn(
+                Messages.get().getBundle().key(
+                    Messages.LOG_PUBLISH_BATCH_FAILED_1,
+                    String.valueOf(resetResources.size())),
+                e);
+            for (CmsResource resource : resetResources) {
+                try {
+                    vfsDriver.writeResourceState(dbc, dbc.currentProject(), resource, CmsDriverManager.UPDATE_ALL, true);
+                } catch (Throwable t) {
+                    dbc.report(
+                        report,
+                        Messages.get().container(
+                            Messages.LOG_ERROR_RESETTING_RESOURCE_STATE_1,
+                            resource.getRootPath()),
+                        t);
+                }
+            }
+        }
+    }
+
     /**
      * Creates a new {@link CmsLogEntry} object from the given result set entry.<p>
      *
@@ -3209,6 +3360,13 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
         try {
             // reset the resource state
             resource.setState(CmsResource.STATE_UNCHANGED);
+            CmsPublishBatch batch = (CmsPublishBatch)dbc.getAttribute(DBC_ATTR_PUBLISH_BATCH);
+            if ((batch != null) && (resource.getSiblingCount() <= 1)) {
+                // written together with the other resources of the current chunk, siblings are reset immediately
+                // since their shared resource state is evaluated while the other siblings are published
+                batch.addResetResource(resource);
+                return;
+            }
             m_driverManager.getVfsDriver(
                 dbc).writeResourceState(dbc, dbc.currentProject(), resource, CmsDriverManager.UPDATE_ALL, true);
         } catch (CmsDataAccessException e) {
@@ -3273,10 +3431,14 @@ public class CmsProjectDriver implements I_CmsDriver, I_CmsProjectDriver {
                 m_driverManager.getHistoryDriver(dbc).writeResource(dbc, resource, properties, publishTag);
             }
             // write the resource to the publish history
-            m_driverManager.getProjectDriver(dbc).writePublishHistory(
-                dbc,
-                publishHistoryId,
-                new CmsPublishedResource(resource, publishTag, state));
+            CmsPublishedResource publishedResource = new CmsPublishedResource(resource, publishTag, state);
+            CmsPublishBatch batch = (CmsPublishBatch)dbc.getAttribute(DBC_ATTR_PUBLISH_BATCH);
+            if ((batch != null) && publishHistoryId.equals(batch.getPublishHistoryId())) {
+                // written together with the other resources of the current chunk
+                batch.addPublishedResource(publishedResource);
+            } else {
+                m_driverManager.getProjectDriver(dbc).writePublishHistory(dbc, publishHistoryId, publishedResource);
+            }
         } catch (CmsDataAccessException e) {
             if (LOG.isErrorEnabled()) {
                 LOG.error(
@@ -0,0 +1,148 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.db.generic;
+
+import org.opencms.db.CmsPublishedResource;
+import org.opencms.file.CmsResource;
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the per-resource database writes of a publish process which can be sent to the database
+ * in JDBC batches, i.e. the publish history entries and the resets of the offline resource states.<p>
+ *
+ * The pending writes are flushed by {@link CmsProjectDriver} whenever a chunk of the configured batch size
+ * has been collected, and at the end of each publish phase.<p>
+ *
+ * @since 12.0.0
+ */
+public class CmsPublishBatch {
+
+    /** The number of resources collected before the pending writes are flushed. */
+    private final int m_batchSize;
+
+    /** The pending publish history entries. */
+    private List<CmsPublishedResource> m_publishedResources;
+
+    /** The id of the current publish process. */
+    private final CmsUUID m_publishHistoryId;
+
+    /** The resources whose offline state is pending to be reset. */
+    private List<CmsResource> m_resetResources;
+
+    /**
+     * Creates a new publish batch.<p>
+     *
+     * @param publishHistoryId the id of the current publish process
+     * @param batchSize the number of resources collected before the pending writes are flushed
+     */
+    public CmsPublishBatch(CmsUUID publishHistoryId, int batchSize) {
+
+        m_publishHistoryId = publishHistoryId;
+        m_batchSize = batchSize;
+        m_publishedResources = new ArrayList<CmsPublishedResource>(batchSize);
+        m_resetResources = new ArrayList<CmsResource>(batchSize);
+    }
+
+    /**
+     * Adds a publish history entry to write.<p>
+     *
+     * @param resource the state of the resource *before* it was published
+     */
+    public void addPublishedResource(CmsPublishedResource resource) {
+
+        m_publishedResources.add(resource);
+    }
+
+    /**
+     * Adds a resource whose offline state should be reset.<p>
+     *
+     * @param resource the resource, with the state already set to unchanged
+     */
+    public void addResetResource(CmsResource resource) {
+
+        m_resetResources.add(resource);
+    }
+
+    /**
+     * Returns the id of the current publish process.<p>
+     *
+     * @return the id of the current publish process
+     */
+    public CmsUUID getPublishHistoryId() {
+
+        return m_publishHistoryId;
+    }
+
+    /**
+     * Returns true if no writes are pending.<p>
+     *
+     * @return true if no writes are pending
+     */
+    public boolean isEmpty() {
+
+        return m_publishedResources.isEmpty() && m_resetResources.isEmpty();
+    }
+
+    /**
+     * Returns true if a full chunk has been collected and the pending writes should be flushed.<p>
+     *
+     * @return true if the pending writes should be flushed
+     */
+    public boolean isFull() {
+
+        return (m_publishedResources.size() >= m_batchSize) || (m_resetResources.size() >= m_batchSize);
+    }
+
+    /**
+     * Returns the pending publish history entries and removes them from this batch.<p>
+     *
+     * @return the pending publish history entries
+     */
+    public List<CmsPublishedResource> removePublishedResources() {
+
+        List<CmsPublishedResource> result = m_publishedResources;
+        m_publishedResources = new ArrayList<CmsPublishedResource>(m_batchSize);
+        return result;
+    }
+
+    /**
+     * Returns the resources whose offline state is pending to be reset and removes them from this batch.<p>
+     *
+     * @return the resources whose offline state is pending to be reset
+     */
+    public List<CmsResource> removeResetResources() {
+
+        List<CmsResource> result = m_resetResources;
+        m_resetResources = new ArrayList<CmsResource>(m_batchSize);
+        return result;
+    }
+}
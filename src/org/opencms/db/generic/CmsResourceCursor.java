@@ -0,0 +1,152 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.db.generic;
+
+import org.opencms.db.CmsDbContext;
+import org.opencms.db.CmsDbSqlException;
+import org.opencms.db.I_CmsResourceIterator;
+import org.opencms.file.CmsResource;
+import org.opencms.main.CmsRuntimeException;
+import org.opencms.util.CmsUUID;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+
+/**
+ * Resource iterator backed by an open forward-only result set.<p>
+ *
+ * The resources are created from the result set rows one by one while iterating. The connection,
+ * statement and result set are released as soon as the last row has been read, or when the iterator is closed.<p>
+ *
+ * @since 12.0.0
+ */
+public class CmsResourceCursor implements I_CmsResourceIterator {
+
+    /** The auto-commit mode of the connection before the statement was prepared. */
+    private boolean m_autoCommit;
+
+    /** The database connection. */
+    private Connection m_conn;
+
+    /** The current database context. */
+    private CmsDbContext m_dbc;
+
+    /** The VFS driver used to create the resources. */
+    private CmsVfsDriver m_driver;
+
+    /** The next resource, or <code>null</code> if it has not been read yet. */
+    private CmsResource m_next;
+
+    /** The id of the project the resources are read from. */
+    private CmsUUID m_projectId;
+
+    /** The result set, <code>null</code> after the cursor has been closed. */
+    private ResultSet m_res;
+
+    /** The statement. */
+    private PreparedStatement m_stmt;
+
+    /**
+     * Creates a new cursor for an already executed statement.<p>
+     *
+     * @param driver the VFS driver used to create the resources
+     * @param dbc the current database context
+     * @param projectId the id of the project the resources are read from
+     * @param conn the database connection
+     * @param autoCommit the auto-commit mode of the connection before the statement was prepared
+     * @param stmt the statement
+     * @param res the result set
+     */
+    protected CmsResourceCursor(
+        CmsVfsDriver driver,
+        CmsDbContext dbc,
+        CmsUUID projectId,
+        Connection conn,
+        boolean autoCommit,
+        PreparedStatement stmt,
+        ResultSet res) {
+
+        m_driver = driver;
+        m_dbc = dbc;
+        m_projectId = projectId;
+        m_conn = conn;
+        m_autoCommit = autoCommit;
+        m_stmt = stmt;
+        m_res = res;
+    }
+
+    /**
+     * @see org.opencms.util.I_CmsCloseable#close()
+     */
+    public void close() {
+
+        if (m_res != null) {
+            m_driver.closeStreamingStatement(m_dbc, m_conn, m_autoCommit, m_stmt, m_res);
+            m_res = null;
+            m_stmt = null;
+            m_conn = null;
+        }
+    }
+
+    /**
+     * @see java.util.Iterator#hasNext()
+     */
+    public boolean hasNext() {
+
+        if ((m_next == null) && (m_res != null)) {
+            try {
+                if (m_res.next()) {
+                    m_next = m_driver.createResource(m_res, m_projectId);
+                } else {
+                    close();
+                }
+            } catch (SQLException e) {
+                String query = CmsDbSqlException.getErrorQuery(m_stmt);
+                close();
+                throw new CmsRuntimeException(Messages.get().container(Messages.ERR_GENERIC_SQL_1, query), e);
+            }
+        }
+        return m_next != null;
+    }
+
+    /**
+     * @see java.util.Iterator#next()
+     */
+    public CmsResource next() {
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        CmsResource result = m_next;
+        m_next = null;
+        return result;
+    }
+}
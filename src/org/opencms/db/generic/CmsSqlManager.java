@@ -46,6 +46,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 
@@ -62,6 +63,9 @@ public class CmsSqlManager extends org.opencms.db.CmsSqlManager {
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(CmsSqlManager.class);
 
+    /** The number of statements prepared by all SQL managers. */
+    private static final AtomicLong PREPARED_STATEMENT_COUNT = new AtomicLong();
+
     /** The filename/path of the SQL query properties. */
     private static final String QUERY_PROPERTIES = "org/opencms/db/generic/query.properties";
 
@@ -114,6 +118,16 @@ public class CmsSqlManager extends org.opencms.db.CmsSqlManager {
 
     }
 
+    /**
+     * Returns the number of statements prepared by all SQL managers since OpenCms was started.<p>
+     *
+     * @return the number of prepared statements
+     */
+    public static long getPreparedStatementCount() {
+
+        return PREPARED_STATEMENT_COUNT.get();
+    }
+
     /**
      * Replaces the project search pattern in SQL queries by the pattern _ONLINE_ or _OFFLINE_ depending on the
      * specified project ID.<p>
@@ -185,6 +199,48 @@ public class CmsSqlManager extends org.opencms.db.CmsSqlManager {
 
     }
 
+    /**
+     * Executes the batches of the given statements in a single transaction.<p>
+     *
+     * If the connection is in auto-commit mode, auto-commit is disabled while the batches are executed
+     * and the transaction is committed afterwards, or rolled back if one of the batches fails.
+     * Otherwise the batches just take part in the transaction which is already running.<p>
+     *
+     * @param con the JDBC connection the statements have been prepared with
+     * @param statements the statements with their batches already added
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    public void executeBatches(Connection con, PreparedStatement... statements) throws SQLException {
+
+        boolean autoCommit = con.getAutoCommit();
+        if (autoCommit) {
+            con.setAutoCommit(false);
+        }
+        boolean success = false;
+        try {
+            for (PreparedStatement stmt : statements) {
+                if (stmt != null) {
+                    stmt.executeBatch();
+                }
+            }
+            if (autoCommit) {
+                con.commit();
+            }
+            success = true;
+        } finally {
+            if (autoCommit) {
+                try {
+                    if (!success) {
+                        con.rollback();
+                    }
+                } finally {
+                    con.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
     /**
      * Retrieves the value of the designated column in the current row of this ResultSet object as
      * a byte array in the Java programming language.<p>
@@ -287,6 +343,7 @@ public class CmsSqlManager extends org.opencms.db.CmsSqlManager {
 
         // unfortunately, this wrapper is essential, because some JDBC driver
         // implementations don't accept the delegated objects of DBCP's connection pool.
+        PREPARED_STATEMENT_COUNT.incrementAndGet();
         return con.prepareStatement(query);
     }
 
@@ -46,6 +46,7 @@ import org.opencms.db.CmsVfsOnlineResourceAlreadyExistsException;
 import org.opencms.db.I_CmsDriver;
 import org.opencms.db.I_CmsPreparedStatementParameter;
 import org.opencms.db.I_CmsProjectDriver;
+import org.opencms.db.I_CmsResourceIterator;
 import org.opencms.db.I_CmsVfsDriver;
 import org.opencms.db.urlname.CmsUrlNameMappingEntry;
 import org.opencms.db.urlname.CmsUrlNameMappingFilter;
@@ -64,6 +65,7 @@ import org.opencms.file.I_CmsResource;
 import org.opencms.file.history.I_CmsHistoryResource;
 import org.opencms.file.types.CmsResourceTypeJsp;
 import org.opencms.gwt.shared.alias.CmsAliasMode;
+import org.opencms.i18n.CmsMessageContainer;
 import org.opencms.main.CmsEvent;
 import org.opencms.main.CmsException;
 import org.opencms.main.CmsLog;
@@ -90,12 +92,15 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.logging.Log;
 
+import com.google.common.collect.Lists;
+
 /**
  * Generic (ANSI-SQL) database server implementation of the VFS driver methods.<p>
  *
@@ -109,6 +114,12 @@ public class CmsVfsDriver implements I_CmsDriver, I_CmsVfsDriver {
     /** Contains the macro replacement value for the online project. */
     protected static final String ONLINE = "ONLINE";
 
+    /** The JDBC fetch size used for statements whose results are streamed to a resource iterator. */
+    protected static final int STREAMING_FETCH_SIZE = 200;
+
+    /** The maximum number of structure IDs used in a single query when reading resources by their IDs. */
+    protected static final int READ_BY_IDS_CHUNK_SIZE = 500;
+
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(org.opencms.db.generic.CmsVfsDriver.class);
 
@@ -147,6 +158,15 @@ public class CmsVfsDriver implements I_CmsDriver, I_CmsVfsDriver {
             parameters.add(new CmsPreparedStatementStringParameter(filter.getStructureId().toString()));
         }
 
+        if (filter.getStructureIds() != null) {
+            List<String> placeholders = new ArrayList<String>();
+            for (CmsUUID structureId : filter.getStructureIds()) {
+                placeholders.add("?");
+                parameters.add(new CmsPreparedStatementStringParameter(structureId.toString()));
+            }
+            sqlConditions.add("STRUCTURE_ID IN (" + CmsStringUtil.listAsString(placeholders, ", ") + ")");
+        }
+
         if (filter.getNamePattern() != null) {
             sqlConditions.add(" NAME LIKE ? ");
             parameters.add(new CmsPreparedStatementStringParameter(filter.getNamePattern()));
@@ -2457,6 +2477,55 @@ public class CmsVfsDriver implements I_CmsDriver, I_CmsVfsDriver {
         return result;
     }
 
+    /**
+     * @see org.opencms.db.I_CmsVfsDriver#readResourcesByIds(org.opencms.db.CmsDbContext, org.opencms.util.CmsUUID, java.util.Collection, boolean)
+     */
+    public List<CmsResource> readResourcesByIds(
+        CmsDbContext dbc,
+        CmsUUID projectId,
+        Collection<CmsUUID> structureIds,
+        boolean includeDeleted)
+    throws CmsDataAccessException {
+
+        List<CmsResource> result = new ArrayList<CmsResource>(structureIds.size());
+        List<CmsUUID> ids = new ArrayList<CmsUUID>(new LinkedHashSet<CmsUUID>(structureIds));
+        for (List<CmsUUID> chunk : Lists.partition(ids, READ_BY_IDS_CHUNK_SIZE)) {
+            ResultSet res = null;
+            PreparedStatement stmt = null;
+            Connection conn = null;
+
+            try {
+                conn = m_sqlManager.getConnection(dbc);
+                StringBuffer queryBuf = new StringBuffer(256);
+                queryBuf.append(m_sqlManager.readQuery(projectId, "C_RESOURCES_READ_BY_IDS"));
+                queryBuf.append(" IN (");
+                for (int i = 0; i < chunk.size(); i++) {
+                    queryBuf.append(i == 0 ? "?" : ", ?");
+                }
+                queryBuf.append(")");
+                stmt = m_sqlManager.getPreparedStatementForSql(conn, queryBuf.toString());
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i).toString());
+                }
+                res = stmt.executeQuery();
+                while (res.next()) {
+                    CmsResource resource = createResource(res, projectId);
+                    // skip deleted resources if they are not requested
+                    if (includeDeleted || !resource.getState().isDeleted()) {
+                        result.add(resource);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new CmsDbSqlException(
+                    Messages.get().container(Messages.ERR_GENERIC_SQL_1, CmsDbSqlException.getErrorQuery(stmt)),
+                    e);
+            } finally {
+                m_sqlManager.closeAll(dbc, conn, stmt, res);
+            }
+        }
+        return result;
+    }
+
     /**
      * @see org.opencms.db.I_CmsVfsDriver#readResourcesForPrincipalACE(org.opencms.db.CmsDbContext, org.opencms.file.CmsProject, org.opencms.util.CmsUUID)
      */
@@ -2597,19 +2666,6 @@ public class CmsVfsDriver implements I_CmsDriver, I_CmsVfsDriver {
 
         List<CmsResource> result = new ArrayList<CmsResource>();
 
-        StringBuffer conditions = new StringBuffer();
-        List<Object> params = new ArrayList<Object>(5);
-
-        // prepare the selection criteria
-        prepareProjectCondition(projectId, mode, conditions, params);
-        prepareResourceCondition(projectId, mode, conditions);
-        prepareTypeCondition(projectId, type, mode, conditions, params);
-        prepareTimeRangeCondition(projectId, lastModifiedAfter, lastModifiedBefore, conditions, params);
-        prepareReleasedTimeRangeCondition(projectId, releasedAfter, releasedBefore, conditions, params);
-        prepareExpiredTimeRangeCondition(projectId, expiredAfter, expiredBefore, conditions, params);
-        preparePathCondition(projectId, parentPath, mode, conditions, params);
-        prepareStateCondition(projectId, state, mode, conditions, params);
-
         // now read matching resources within the subtree
         ResultSet res = null;
         PreparedStatement stmt = null;
@@ -2617,23 +2673,19 @@ public class CmsVfsDriver implements I_CmsDriver, I_CmsVfsDriver {
 
         try {
             conn = m_sqlManager.getConnection(dbc);
-            StringBuffer queryBuf = new StringBuffer(256);
-            queryBuf.append(m_sqlManager.readQuery(projectId, "C_RESOURCES_READ_TREE"));
-            queryBuf.append(conditions);
-            queryBuf.append(" ");
-            queryBuf.append(m_sqlManager.readQuery(projectId, "C_RESOURCES_ORDER_BY_PATH"));
-            stmt = m_sqlManager.getPreparedStatementForSql(conn, queryBuf.toString());
-
-            for (int i = 0; i < params.size(); i++) {
-                if (params.get(i) instanceof Integer) {
-                    stmt.setInt(i + 1, ((Integer)params.get(i)).intValue());
-                } else if (params.get(i) instanceof Long) {
-                    stmt.setLong(i + 1, ((Long)params.get(i)).longValue());
-                } else {
-                    stmt.setString(i + 1, (String)params.get(i));
-                }
-            }
-
+            stmt = prepareResourceTreeStatement(
+                conn,
+                projectId,
+                parentPath,
+                type,
+                state,
+                lastModifiedAfter,
+                lastModifiedBefore,
+                releasedAfter,
+                releasedBefore,
+                expiredAfter,
+                expiredBefore,
+                mode);
             res = stmt.executeQuery();
             while (res.next()) {
                 CmsResource resource = createResource(res, projectId);
@@ -2651,6 +2703,58 @@ public class CmsVfsDriver implements I_CmsDriver, I_CmsVfsDriver {
         return result;
     }
 
+    /**
+     * @see org.opencms.db.I_CmsVfsDriver#readResourceTreeIterator(org.opencms.db.CmsDbContext, CmsUUID, java.lang.String, int, CmsResourceState, long, long, long, long, long, long, int)
+     */
+    public I_CmsResourceIterator readResourceTreeIterator(
+        CmsDbContext dbc,
+        CmsUUID projectId,
+        String parentPath,
+        int type,
+        CmsResourceState state,
+        long lastModifiedAfter,
+        long lastModifiedBefore,
+        long releasedAfter,
+        long releasedBefore,
+        long expiredAfter,
+        long expiredBefore,
+        int mode)
+    throws CmsDataAccessException {
+
+        ResultSet res = null;
+        PreparedStatement stmt = null;
+        Connection conn = null;
+        boolean autoCommit = true;
+
+        try {
+            conn = m_sqlManager.getConnection(dbc);
+            autoCommit = conn.getAutoCommit();
+            stmt = prepareResourceTreeStatement(
+                conn,
+                projectId,
+                parentPath,
+                type,
+                state,
+                lastModifiedAfter,
+                lastModifiedBefore,
+                releasedAfter,
+                releasedBefore,
+                expiredAfter,
+                expiredBefore,
+                mode);
+            prepareStreamingStatement(stmt);
+            res = stmt.executeQuery();
+            // the cursor is now responsible for releasing the database resources
+            return new CmsResourceCursor(this, dbc, projectId, conn, autoCommit, stmt, res);
+        } catch (SQLException e) {
+            CmsMessageContainer message = Messages.get().container(
+                Messages.ERR_GENERIC_SQL_1,
+                CmsDbSqlException.getErrorQuery(stmt));
+            closeStreamingStatement(dbc, conn, autoCommit, stmt, res);
+            throw new CmsDbSqlException(message, e);
+        }
+    }
+
     /**
      * @see org.opencms.db.I_CmsVfsDriver#readRewriteAliases(org.opencms.db.CmsDbContext, org.opencms.db.CmsRewriteAliasFilter)
      */
@@ -3576,6 +3680,158 @@ public class CmsVfsDriver implements I_CmsDriver, I_CmsVfsDriver {
         }
     }
 
+    /**
+     * @see org.opencms.db.I_CmsVfsDriver#writeResourceStates(org.opencms.db.CmsDbContext, org.opencms.file.CmsProject, java.util.List, int, boolean)
+     */
+    public void writeResourceStates(
+        CmsDbContext dbc,
+        CmsProject project,
+        List<CmsResource> resources,
+        int changed,
+        boolean isPublishing)
+    throws CmsDataAccessException {
+
+        if (resources.isEmpty() || project.getUuid().equals(CmsProject.ONLINE_PROJECT_ID)) {
+            return;
+        }
+
+        // read the online version numbers before the offline ones are reset
+        List<Map<String, Integer>> onlineVersions = null;
+        if (isPublishing && (dbc.getRequestContext() != null) && !dbc.currentProject().isOnlineProject()) {
+            onlineVersions = new ArrayList<Map<String, Integer>>(resources.size());
+            for (CmsResource resource : resources) {
+                onlineVersions.add(
+                    readVersions(dbc, CmsProject.ONLINE_PROJECT_ID, resource.getResourceId(), resource.getStructureId()));
+            }
+        }
+
+        Connection conn = null;
+        PreparedStatement stmtResourceProject = null;
+        PreparedStatement stmtResource = null;
+        PreparedStatement stmtResourceState = null;
+        PreparedStatement stmtStructureState = null;
+        PreparedStatement stmtReleaseExpired = null;
+        PreparedStatement stmtResourceVersion = null;
+        PreparedStatement stmtStructureVersion = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = m_sqlManager.getConnection(dbc);
+
+            if (changed == CmsDriverManager.UPDATE_RESOURCE_PROJECT) {
+                stmt = stmtResourceProject = m_sqlManager.getPreparedStatement(
+                    conn,
+                    project,
+                    "C_RESOURCES_UPDATE_RESOURCE_PROJECT");
+                for (CmsResource resource : resources) {
+                    stmt.setInt(1, resource.getFlags());
+                    stmt.setString(2, project.getUuid().toString());
+                    stmt.setString(3, resource.getResourceId().toString());
+                    stmt.addBatch();
+                }
+            }
+
+            if (changed == CmsDriverManager.UPDATE_RESOURCE) {
+                stmt = stmtResource = m_sqlManager.getPreparedStatement(
+                    conn,
+                    project,
+                    "C_RESOURCES_UPDATE_RESOURCE_STATELASTMODIFIED");
+                for (CmsResource resource : resources) {
+                    stmt.setInt(1, resource.getState().getState());
+                    stmt.setLong(2, resource.getDateLastModified());
+                    stmt.setString(3, resource.getUserLastModified().toString());
+                    stmt.setString(4, project.getUuid().toString());
+                    stmt.setString(5, resource.getResourceId().toString());
+                    stmt.addBatch();
+                }
+            }
+
+            if ((changed == CmsDriverManager.UPDATE_RESOURCE_STATE) || (changed == CmsDriverManager.UPDATE_ALL)) {
+                stmt = stmtResourceState = m_sqlManager.getPreparedStatement(
+                    conn,
+                    project,
+                    "C_RESOURCES_UPDATE_RESOURCE_STATE");
+                for (CmsResource resource : resources) {
+                    stmt.setInt(1, resource.getState().getState());
+                    stmt.setString(2, project.getUuid().toString());
+                    stmt.setString(3, resource.getResourceId().toString());
+                    stmt.addBatch();
+                }
+            }
+
+            if ((changed == CmsDriverManager.UPDATE_STRUCTURE)
+                || (changed == CmsDriverManager.UPDATE_ALL)
+                || (changed == CmsDriverManager.UPDATE_STRUCTURE_STATE)) {
+                stmt = stmtStructureState = m_sqlManager.getPreparedStatement(
+                    conn,
+                    project,
+                    "C_RESOURCES_UPDATE_STRUCTURE_STATE");
+                for (CmsResource resource : resources) {
+                    stmt.setInt(1, resource.getState().getState());
+                    stmt.setString(2, resource.getStructureId().toString());
+                    stmt.addBatch();
+                }
+            }
+
+            if ((changed == CmsDriverManager.UPDATE_STRUCTURE) || (changed == CmsDriverManager.UPDATE_ALL)) {
+                stmt = stmtReleaseExpired = m_sqlManager.getPreparedStatement(
+                    conn,
+                    project,
+                    "C_RESOURCES_UPDATE_RELEASE_EXPIRED");
+                for (CmsResource resource : resources) {
+                    stmt.setLong(1, resource.getDateReleased());
+                    stmt.setLong(2, resource.getDateExpired());
+                    stmt.setString(3, resource.getStructureId().toString());
+                    stmt.addBatch();
+                }
+            }
+
+            if (onlineVersions != null) {
+                // update the offline version numbers to the online ones
+                stmtResourceVersion = m_sqlManager.getPreparedStatement(
+                    conn,
+                    dbc.currentProject(),
+                    "C_RESOURCES_UPDATE_RESOURCE_VERSION");
+                stmtStructureVersion = m_sqlManager.getPreparedStatement(
+                    conn,
+                    dbc.currentProject(),
+                    "C_RESOURCES_UPDATE_STRUCTURE_VERSION");
+                for (int i = 0; i < resources.size(); i++) {
+                    CmsResource resource = resources.get(i);
+                    Map<String, Integer> versions = onlineVersions.get(i);
+                    stmtResourceVersion.setInt(1, versions.get(I_CmsEventListener.KEY_RESOURCE).intValue());
+                    stmtResourceVersion.setString(2, resource.getResourceId().toString());
+                    stmtResourceVersion.addBatch();
+                    stmtStructureVersion.setInt(1, versions.get("structure").intValue());
+                    stmtStructureVersion.setString(2, resource.getStructureId().toString());
+                    stmtStructureVersion.addBatch();
+                }
+            }
+
+            m_sqlManager.executeBatches(
+                conn,
+                stmtResourceProject,
+                stmtResource,
+                stmtResourceState,
+                stmtStructureState,
+                stmtReleaseExpired,
+                stmtResourceVersion,
+                stmtStructureVersion);
+        } catch (SQLException e) {
+            throw new CmsDbSqlException(
+                Messages.get().container(Messages.ERR_GENERIC_SQL_1, CmsDbSqlException.getErrorQuery(stmt)),
+                e);
+        } finally {
+            m_sqlManager.closeAll(dbc, null, stmtResourceProject, null);
+            m_sqlManager.closeAll(dbc, null, stmtResource, null);
+            m_sqlManager.closeAll(dbc, null, stmtResourceState, null);
+            m_sqlManager.closeAll(dbc, null, stmtStructureState, null);
+            m_sqlManager.closeAll(dbc, null, stmtReleaseExpired, null);
+            m_sqlManager.closeAll(dbc, null, stmtResourceVersion, null);
+            m_sqlManager.closeAll(dbc, conn, stmtStructureVersion, null);
+        }
+    }
+
     /**
      * Checks that the current user has write permissions for all subresources of the given folder.<p>
      *
@@ -3657,6 +3913,38 @@ public class CmsVfsDriver implements I_CmsDriver, I_CmsVfsDriver {
         }
     }
 
+    /**
+     * Releases the database resources of a statement prepared with {@link #prepareStreamingStatement(PreparedStatement)}.<p>
+     *
+     * If the connection was switched to manual commit mode while preparing the statement, its auto-commit mode
+     * is restored after the result set and the statement have been closed and before the connection is released.<p>
+     *
+     * @param dbc the current database context
+     * @param conn the database connection
+     * @param autoCommit the auto-commit mode of the connection before the statement was prepared
+     * @param stmt the statement
+     * @param res the result set
+     */
+    protected void closeStreamingStatement(
+        CmsDbContext dbc,
+        Connection conn,
+        boolean autoCommit,
+        PreparedStatement stmt,
+        ResultSet res) {
+
+        m_sqlManager.closeAll(dbc, null, stmt, res);
+        try {
+            if (autoCommit && (conn != null) && !conn.isClosed() && !conn.getAutoCommit()) {
+                // this also ends the read only transaction used for streaming
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+        } finally {
+            m_sqlManager.closeAll(dbc, conn, null, null);
+        }
+    }
+
     /**
      * Returns the count of properties for a property definition.<p>
      *
@@ -4400,6 +4688,75 @@ public class CmsVfsDriver implements I_CmsDriver, I_CmsVfsDriver {
         }
     }
 
+    /**
+     * Creates the prepared statement for reading a resource tree, with all parameters already set.<p>
+     *
+     * @param conn the database connection
+     * @param projectId the project id for matching resources
+     * @param parentPath the path to the resource used as root of the searched subtree
+     * @param type the resource type of matching resources
+     * @param state the state of matching resources
+     * @param lastModifiedAfter the start of the time range for the last modification date of matching resources
+     * @param lastModifiedBefore the end of the time range for the last modification date of matching resources
+     * @param releasedAfter the start of the time range for the release date of matching resources
+     * @param releasedBefore the end of the time range for the release date of matching resources
+     * @param expiredAfter the start of the time range for the expire date of matching resources
+     * @param expiredBefore the end of the time range for the expire date of matching resources
+     * @param mode additional mode flags
+     *
+     * @return the prepared statement
+     *
+     * @throws SQLException if something goes wrong
+     *
+     * @see #readResourceTree(CmsDbContext, CmsUUID, String, int, CmsResourceState, long, long, long, long, long, long, int)
+     */
+    protected PreparedStatement prepareResourceTreeStatement(
+        Connection conn,
+        CmsUUID projectId,
+        String parentPath,
+        int type,
+        CmsResourceState state,
+        long lastModifiedAfter,
+        long lastModifiedBefore,
+        long releasedAfter,
+        long releasedBefore,
+        long expiredAfter,
+        long expiredBefore,
+        int mode)
+    throws SQLException {
+
+        StringBuffer conditions = new StringBuffer();
+        List<Object> params = new ArrayList<Object>(5);
+
+        // prepare the selection criteria
+        prepareProjectCondition(projectId, mode, conditions, params);
+        prepareResourceCondition(projectId, mode, conditions);
+        prepareTypeCondition(projectId, type, mode, conditions, params);
+        prepareTimeRangeCondition(projectId, lastModifiedAfter, lastModifiedBefore, conditions, params);
+        prepareReleasedTimeRangeCondition(projectId, releasedAfter, releasedBefore, conditions, params);
+        prepareExpiredTimeRangeCondition(projectId, expiredAfter, expiredBefore, conditions, params);
+        preparePathCondition(projectId, parentPath, mode, conditions, params);
+        prepareStateCondition(projectId, state, mode, conditions, params);
+
+        StringBuffer queryBuf = new StringBuffer(256);
+        queryBuf.append(m_sqlManager.readQuery(projectId, "C_RESOURCES_READ_TREE"));
+        queryBuf.append(conditions);
+        queryBuf.append(" ");
+        queryBuf.append(m_sqlManager.readQuery(projectId, "C_RESOURCES_ORDER_BY_PATH"));
+        PreparedStatement stmt = m_sqlManager.getPreparedStatementForSql(conn, queryBuf.toString());
+
+        for (int i = 0; i < params.size(); i++) {
+            if (params.get(i) instanceof Integer) {
+                stmt.setInt(i + 1, ((Integer)params.get(i)).intValue());
+            } else if (params.get(i) instanceof Long) {
+                stmt.setLong(i + 1, ((Long)params.get(i)).longValue());
+            } else {
+                stmt.setString(i + 1, (String)params.get(i));
+            }
+        }
+        return stmt;
+    }
+
     /**
      * Appends the appropriate selection criteria related with the resource state.<p>
      *
@@ -4431,6 +4788,22 @@ public class CmsVfsDriver implements I_CmsDriver, I_CmsVfsDriver {
         }
     }
 
+    /**
+     * Prepares a statement whose results are streamed to a resource iterator instead of being read at once.<p>
+     *
+     * The default implementation sets the fetch size, so rows are transferred from the database in batches.
+     * Implementations may also switch the connection of the statement to manual commit mode, the auto-commit mode
+     * is restored by {@link #closeStreamingStatement(CmsDbContext, Connection, boolean, PreparedStatement, ResultSet)}.<p>
+     *
+     * @param stmt the statement to prepare
+     *
+     * @throws SQLException if something goes wrong
+     */
+    protected void prepareStreamingStatement(PreparedStatement stmt) throws SQLException {
+
+        stmt.setFetchSize(STREAMING_FETCH_SIZE);
+    }
+
     /**
      * Appends the appropriate selection criteria related with the date of the last modification.<p>
      *
@@ -295,6 +295,9 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String INIT_FILL_DEFAULTS_0 = "INIT_FILL_DEFAULTS_0";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String INIT_PUBLISH_BATCH_SIZE_1 = "INIT_PUBLISH_BATCH_SIZE_1";
+
     /** Message constant for key in the resource bundle. */
     public static final String INIT_ROOT_ORGUNIT_DEFAULTS_INITIALIZED_0 = "INIT_ROOT_ORGUNIT_DEFAULTS_INITIALIZED_0";
 
@@ -367,6 +370,9 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String LOG_NULL_DB_CONTEXT_0 = "LOG_NULL_DB_CONTEXT_0";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_PUBLISH_BATCH_FAILED_1 = "LOG_PUBLISH_BATCH_FAILED_1";
+
     /** Message constant for key in the resource bundle. */
     public static final String LOG_PUBLISHING_ACL_1 = "LOG_PUBLISHING_ACL_1";
 
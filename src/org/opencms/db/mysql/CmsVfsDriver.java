@@ -29,6 +29,9 @@ package org.opencms.db.mysql;
 
 import org.opencms.db.generic.CmsSqlManager;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
 /**
  * MySQL implementation of the VFS driver methods.<p>
  *
@@ -44,4 +47,21 @@ public class CmsVfsDriver extends org.opencms.db.generic.CmsVfsDriver {
 
         return CmsSqlManager.getInstance(classname);
     }
+
+    /**
+     * Enables row by row streaming of the result set.<p>
+     *
+     * Note that while a streaming result set is open, the MySQL server aborts the query if the client does not
+     * read the next rows within <code>net_write_timeout</code> seconds (default 60). Callers which do slow work
+     * for each resource while iterating, like the search indexer extracting document content, require a
+     * <code>net_write_timeout</code> larger than the longest time spent on a single resource.<p>
+     *
+     * @see org.opencms.db.generic.CmsVfsDriver#prepareStreamingStatement(java.sql.PreparedStatement)
+     */
+    @Override
+    protected void prepareStreamingStatement(PreparedStatement stmt) throws SQLException {
+
+        // MySQL only streams result rows instead of reading them all into memory with this special fetch size
+        stmt.setFetchSize(Integer.MIN_VALUE);
+    }
 }
\ No newline at end of file
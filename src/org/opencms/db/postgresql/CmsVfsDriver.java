@@ -29,6 +29,9 @@ package org.opencms.db.postgresql;
 
 import org.opencms.db.generic.CmsSqlManager;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
 /**
  * PostgreSql implementation of the VFS driver methods.<p>
  *
@@ -44,4 +47,16 @@ public class CmsVfsDriver extends org.opencms.db.generic.CmsVfsDriver {
 
         return CmsSqlManager.getInstance(classname);
     }
+
+    /**
+     * @see org.opencms.db.generic.CmsVfsDriver#prepareStreamingStatement(java.sql.PreparedStatement)
+     */
+    @Override
+    protected void prepareStreamingStatement(PreparedStatement stmt) throws SQLException {
+
+        // PostgreSQL ignores the fetch size and reads all result rows into memory if the connection is in auto-commit mode,
+        // the auto-commit mode is restored when the statement is closed
+        stmt.getConnection().setAutoCommit(false);
+        super.prepareStreamingStatement(stmt);
+    }
 }
\ No newline at end of file
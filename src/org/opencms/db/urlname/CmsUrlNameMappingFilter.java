@@ -31,6 +31,8 @@ import org.opencms.util.CmsStringUtil;
 import org.opencms.util.CmsUUID;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -61,6 +63,9 @@ public class CmsUrlNameMappingFilter {
     /** The structure id which should be matched. */
     private CmsUUID m_structureId;
 
+    /** The structure ids of which one should be matched. */
+    private List<CmsUUID> m_structureIds;
+
     /**
      * The default constructor.<p>
      */
@@ -78,6 +83,7 @@ public class CmsUrlNameMappingFilter {
 
         m_name = filter.m_name;
         m_structureId = filter.m_structureId;
+        m_structureIds = filter.m_structureIds;
         m_rejectStructureId = filter.m_rejectStructureId;
         m_states = filter.m_states;
         m_namePattern = filter.m_namePattern;
@@ -187,6 +193,25 @@ public class CmsUrlNameMappingFilter {
         return result;
     }
 
+    /**
+     * Creates a new filter from the current filter which also has to match one of the given structure ids.<p>
+     *
+     * This allows to read the URL name mappings of many resources with a single query.<p>
+     *
+     * @param structureIds the structure ids of which one should be matched
+     *
+     * @return the new filter
+     */
+    public CmsUrlNameMappingFilter filterStructureIds(Collection<CmsUUID> structureIds) {
+
+        if ((structureIds == null) || structureIds.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        CmsUrlNameMappingFilter result = new CmsUrlNameMappingFilter(this);
+        result.m_structureIds = Collections.unmodifiableList(new ArrayList<CmsUUID>(structureIds));
+        return result;
+    }
+
     /**
      * Returns the locale which should be matched by the filter.<p>
      *
@@ -248,6 +273,16 @@ public class CmsUrlNameMappingFilter {
         return m_structureId;
     }
 
+    /**
+     * Returns the structure ids of which one should be matched by the filter.<p>
+     *
+     * @return the structure ids, or null if the filter does not match a set of structure ids
+     */
+    public List<CmsUUID> getStructureIds() {
+
+        return m_structureIds;
+    }
+
     /**
      * Checks whether this is a filter which only filters by structure id.<p>
      *
@@ -256,6 +291,7 @@ public class CmsUrlNameMappingFilter {
     public boolean isIdFilter() {
 
         return (m_structureId != null)
+            && (m_structureIds == null)
             && (m_name == null)
             && (m_namePattern == null)
             && (m_states == null)
@@ -271,6 +307,7 @@ public class CmsUrlNameMappingFilter {
     public boolean isNameFilter() {
 
         return (m_structureId == null)
+            && (m_structureIds == null)
             && (m_name != null)
             && (m_namePattern == null)
             && (m_states == null)
@@ -292,6 +329,9 @@ public class CmsUrlNameMappingFilter {
         if (m_structureId != null) {
             resultParts.add("id=" + m_structureId);
         }
+        if (m_structureIds != null) {
+            resultParts.add("ids=" + m_structureIds);
+        }
         if (m_states != null) {
             resultParts.add("states=" + m_states);
         }
@@ -31,6 +31,7 @@ import org.opencms.db.CmsDbEntryNotFoundException;
 import org.opencms.db.CmsPublishedResource;
 import org.opencms.db.CmsResourceState;
 import org.opencms.db.CmsSecurityManager;
+import org.opencms.db.I_CmsResourceIterator;
 import org.opencms.db.log.CmsLogEntry;
 import org.opencms.db.log.CmsLogFilter;
 import org.opencms.db.urlname.CmsUrlNameMappingEntry;
@@ -68,6 +69,7 @@ import org.opencms.util.CmsUUID;
 import org.opencms.xml.content.CmsNumberSuffixNameSequence;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -3241,6 +3243,49 @@ public final class CmsObject {
         return m_securityManager.readResource(m_context, addSiteRoot(resourcename), filter);
     }
 
+    /**
+     * Reads all resources below the given resource matching the filter criteria,
+     * returning an iterator which reads the resources from the database while iterating.<p>
+     *
+     * Use this instead of {@link #readResources(CmsResource, CmsResourceFilter, boolean)} for large subtrees,
+     * since the resources are not all kept in memory at the same time. The iterator holds a database connection
+     * until it is exhausted or closed, so it should always be used with the try-with-resources syntax.<p>
+     *
+     * @param resource the parent resource
+     * @param filter the filter
+     * @param readTree <code>true</code> to read all sub resources
+     *
+     * @return an iterator over the resources matching the filter criteria
+     *
+     * @throws CmsException if something goes wrong
+     */
+    public I_CmsResourceIterator readResourceIterator(CmsResource resource, CmsResourceFilter filter, boolean readTree)
+    throws CmsException {
+
+        return m_securityManager.readResourceIterator(m_context, resource, filter, readTree);
+    }
+
+    /**
+     * Reads all resources below the given path matching the filter criteria,
+     * returning an iterator which reads the resources from the database while iterating.<p>
+     *
+     * @param resourcename the parent path to read the resources from
+     * @param filter the filter
+     * @param readTree <code>true</code> to read all sub resources
+     *
+     * @return an iterator over the resources matching the filter criteria
+     *
+     * @throws CmsException if something goes wrong
+     *
+     * @see #readResourceIterator(CmsResource, CmsResourceFilter, boolean)
+     */
+    public I_CmsResourceIterator readResourceIterator(String resourcename, CmsResourceFilter filter, boolean readTree)
+    throws CmsException {
+
+        CmsResource resource = readResource(resourcename, CmsResourceFilter.ALL);
+        return readResourceIterator(resource, filter, readTree);
+    }
+
     /**
      * Reads all resources below the given resource matching the filter criteria,
      * including the full tree below the path only in case the <code>readTree</code>
@@ -3302,6 +3347,29 @@ public final class CmsObject {
         return m_securityManager.readResources(m_context, resource, filter, readTree);
     }
 
+    /**
+     * Reads the resources with the given structure IDs, using the specified resource filter.<p>
+     *
+     * This is much faster than reading the resources one by one with {@link #readResource(CmsUUID, CmsResourceFilter)},
+     * since only a few database queries are needed for all of them.<p>
+     *
+     * In contrast to {@link #readResource(CmsUUID, CmsResourceFilter)}, no exception is thrown for single resources
+     * which don't exist, which don't match the filter or which the current user is not allowed to read;
+     * these resources are simply left out of the result.<p>
+     *
+     * @param structureIds the structure IDs of the resources to read
+     * @param filter the resource filter to use while reading
+     *
+     * @return the resources that were read, in the order of the given structure IDs
+     *
+     * @throws CmsException if something goes wrong
+     */
+    public List<CmsResource> readResourcesByIds(Collection<CmsUUID> structureIds, CmsResourceFilter filter)
+    throws CmsException {
+
+        return m_securityManager.readResourcesByIds(m_context, structureIds, filter);
+    }
+
     /**
      * Reads all resources that have a value set for the specified property.<p>
      *
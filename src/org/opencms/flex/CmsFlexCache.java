@@ -38,24 +38,24 @@ import org.opencms.main.CmsLog;
 import org.opencms.main.I_CmsEventListener;
 import org.opencms.main.OpenCms;
 import org.opencms.security.CmsRole;
-import org.opencms.util.CmsCollectionsGenericWrapper;
 import org.opencms.util.CmsStringUtil;
 import org.opencms.util.CmsUUID;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.apache.commons.collections.map.LRUMap;
 import org.apache.commons.logging.Log;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.collect.Lists;
 
 /**
@@ -126,61 +126,46 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
         public CmsFlexCacheVariation(CmsFlexCacheKey theKey) {
 
             m_key = theKey;
-            m_map = new Hashtable<String, I_CmsLruCacheObject>(INITIAL_CAPACITY_VARIATIONS);
+            m_map = new ConcurrentHashMap<String, I_CmsLruCacheObject>(INITIAL_CAPACITY_VARIATIONS);
         }
     }
 
     /**
-     * Extended LRUMap that handles the variations in case a key is removed.<p>
+     * Removal listener for the key cache that handles the variations in case a key is evicted.<p>
      */
-    class CmsFlexKeyMap extends LRUMap {
-
-        /** Serial version UID required for safe serialization. */
-        private static final long serialVersionUID = 6931995916013396902L;
-
-        /**
-         * Initialize the map with the given size.<p>
-         *
-         * @param maxSize the maximum number of key to cache
-         */
-        public CmsFlexKeyMap(int maxSize) {
-
-            super(maxSize);
-        }
+    class CmsFlexKeyRemovalListener implements RemovalListener<String, CmsFlexCacheVariation> {
 
         /**
          * Ensures that all variations that referenced by this key are released
-         * if the key is released.<p>
+         * if the key is evicted from the key cache.<p>
          *
-         * @param entry the entry to remove
+         * @param notification the removal notification
          *
-         * @return <code>true</code> to actually delete the entry
-         *
-         * @see LRUMap#removeLRU(LinkEntry)
+         * @see RemovalListener#onRemoval(RemovalNotification)
          */
-        @Override
-        protected boolean removeLRU(LinkEntry entry) {
+        public void onRemoval(RemovalNotification<String, CmsFlexCacheVariation> notification) {
 
-            CmsFlexCacheVariation v = (CmsFlexCacheVariation)entry.getValue();
+            if (!notification.wasEvicted()) {
+                // explicitly removed keys are cleaned up by the code removing them
+                return;
+            }
+            CmsFlexCacheVariation v = notification.getValue();
             if (v == null) {
-                return true;
+                return;
             }
             Map<String, I_CmsLruCacheObject> m = v.m_map;
             if ((m == null) || (m.size() == 0)) {
-                return true;
+                return;
             }
 
             // make a copy to safely iterate over because the line "m_variationCache.remove(e)" modifies the variation map for the key
             Collection<I_CmsLruCacheObject> entries = new ArrayList<I_CmsLruCacheObject>(m.values());
-            synchronized (m_variationCache) {
-                for (I_CmsLruCacheObject e : entries) {
-                    m_variationCache.remove(e);
-                }
-                v.m_map.clear();
-                v.m_map = null;
-                v.m_key = null;
+            for (I_CmsLruCacheObject e : entries) {
+                m_variationCache.remove(e);
             }
-            return true;
+            m.clear();
+            v.m_map = null;
+            v.m_key = null;
         }
     }
 
@@ -220,6 +205,9 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
     /** Initial size for variation lists, should be a power of 2. */
     public static final int INITIAL_CAPACITY_VARIATIONS = 8;
 
+    /** The concurrency level of the key cache. */
+    private static final int KEY_CACHE_CONCURRENCY_LEVEL = 16;
+
     /** Offline repository constant. */
     public static final String REPOSITORY_OFFLINE = "offline";
 
@@ -247,6 +235,12 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
     /** Map to store the entries for fast lookup. */
     private Map<String, CmsFlexCacheVariation> m_keyCache;
 
+    /** Indicates if the output of cache entries is stored outside of the Java heap. */
+    private boolean m_offHeap;
+
+    /** Indicates if a gzip compressed copy of the output of cache entries without includes is stored. */
+    private boolean m_precompress;
+
     /** Counter for the size. */
     private int m_size;
 
@@ -272,13 +266,20 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
         int maxKeys = configuration.getMaxKeys();
 
         m_variationCache = new CmsLruCache(maxCacheBytes, avgCacheBytes, maxEntryBytes);
+        m_offHeap = configuration.getMaxOffHeapBytes() > 0;
+        m_precompress = configuration.isPrecompress();
+        if (m_offHeap) {
+            m_variationCache.setOffHeapCostLimits(
+                configuration.getMaxOffHeapBytes(),
+                configuration.getAvgOffHeapBytes());
+        }
         OpenCms.getMemoryMonitor().register(getClass().getName() + ".m_entryLruCache", m_variationCache);
 
         if (m_enabled) {
-            CmsFlexKeyMap flexKeyMap = new CmsFlexKeyMap(maxKeys);
-            m_keyCache = Collections.synchronizedMap(
-                CmsCollectionsGenericWrapper.<String, CmsFlexCacheVariation> map(flexKeyMap));
-            OpenCms.getMemoryMonitor().register(getClass().getName() + ".m_resourceMap", flexKeyMap);
+            CacheBuilder<String, CmsFlexCacheVariation> builder = CacheBuilder.newBuilder().concurrencyLevel(
+                KEY_CACHE_CONCURRENCY_LEVEL).maximumSize(maxKeys).removalListener(new CmsFlexKeyRemovalListener());
+            m_keyCache = builder.build().asMap();
+            OpenCms.getMemoryMonitor().register(getClass().getName() + ".m_resourceMap", m_keyCache);
 
             OpenCms.addCmsEventListener(
                 this,
@@ -299,37 +300,31 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
     }
 
     /**
-     * Copies the key set of a map while synchronizing on the map.<p>
+     * Copies the key set of a concurrent map.<p>
      *
      * @param map the map whose key set should be copied
      * @return the copied key set
      */
-    private static <K, V> Set<K> synchronizedCopyKeys(Map<K, V> map) {
+    private static <K, V> Set<K> copyKeys(Map<K, V> map) {
 
         if (map == null) {
             return new HashSet<K>();
         }
-        synchronized (map) {
-            return new HashSet<K>(map.keySet());
-        }
+        return new HashSet<K>(map.keySet());
     }
 
     /**
-     * Copies a map while synchronizing on it.<p>
+     * Copies a concurrent map.<p>
      *
      * @param map the map to copy
      * @return the copied map
      */
-    private static <K, V> Map<K, V> synchronizedCopyMap(Map<K, V> map) {
+    private static <K, V> Map<K, V> copyMap(Map<K, V> map) {
 
         if (map == null) {
             return new HashMap<K, V>();
         }
-
-        synchronized (map) {
-
-            return new HashMap<K, V>(map);
-        }
+        return new HashMap<K, V>(map);
     }
 
     /**
@@ -471,7 +466,7 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
     public void dumpKeys(StringBuffer buffer) {
 
         synchronized (this) {
-            for (Map.Entry<String, CmsFlexCacheVariation> entry : synchronizedCopyMap(m_keyCache).entrySet()) {
+            for (Map.Entry<String, CmsFlexCacheVariation> entry : copyMap(m_keyCache).entrySet()) {
                 String key = entry.getKey();
                 CmsFlexCacheVariation variations = entry.getValue();
                 Map<String, I_CmsLruCacheObject> variationMap = variations.m_map;
@@ -534,7 +529,7 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
         if (!isEnabled() || !OpenCms.getRoleManager().hasRole(cms, CmsRole.WORKPLACE_MANAGER)) {
             return null;
         }
-        return synchronizedCopyKeys(m_keyCache);
+        return copyKeys(m_keyCache);
     }
 
     /**
@@ -558,7 +553,7 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
         }
         Object o = m_keyCache.get(key);
         if (o != null) {
-            return synchronizedCopyKeys(((CmsFlexCacheVariation)o).m_map);
+            return copyKeys(((CmsFlexCacheVariation)o).m_map);
         }
         return null;
     }
@@ -650,13 +645,19 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
         if (o != null) {
             // found a matching key in the cache
             CmsFlexCacheVariation v = (CmsFlexCacheVariation)o;
-            String variation = v.m_key.matchRequestKey(key);
+            CmsFlexCacheKey cacheKey = v.m_key;
+            Map<String, I_CmsLruCacheObject> m = v.m_map;
+            if ((cacheKey == null) || (m == null)) {
+                // the key has just been removed from the cache
+                return null;
+            }
+            String variation = cacheKey.matchRequestKey(key);
 
             if (CmsStringUtil.isEmpty(variation)) {
                 // requested resource is not cacheable
                 return null;
             }
-            CmsFlexCacheEntry entry = (CmsFlexCacheEntry)v.m_map.get(variation);
+            CmsFlexCacheEntry entry = (CmsFlexCacheEntry)m.get(variation);
             if (entry == null) {
                 // no cache entry available for variation
                 return null;
@@ -783,7 +784,7 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
         if (o == null) {
             // No variation map for this resource yet, so create one
             CmsFlexCacheVariation variationMap = new CmsFlexCacheVariation(key);
-            m_keyCache.put(key.getResource(), variationMap);
+            m_keyCache.putIfAbsent(key.getResource(), variationMap);
             if (LOG.isDebugEnabled()) {
                 LOG.debug(Messages.get().getBundle().key(Messages.LOG_FLEXCACHE_ADD_KEY_1, key.getResource()));
             }
@@ -823,12 +824,16 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
      */
     private synchronized void clearAccordingToSuffix(String suffix, boolean entriesOnly) {
 
-        Set<String> keys = synchronizedCopyKeys(m_keyCache);
+        Set<String> keys = copyKeys(m_keyCache);
         Iterator<String> i = keys.iterator();
         while (i.hasNext()) {
             String s = i.next();
             if (s.endsWith(suffix)) {
                 CmsFlexCacheVariation v = m_keyCache.get(s);
+                if ((v == null) || (v.m_map == null)) {
+                    // the key has been evicted in the meantime
+                    continue;
+                }
                 if (entriesOnly) {
                     // Clear only entry
                     m_size -= v.m_map.size();
@@ -838,7 +843,7 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
                         allEntries.remove();
                         m_variationCache.remove(nextObject);
                     }
-                    v.m_map = new Hashtable<String, I_CmsLruCacheObject>(INITIAL_CAPACITY_VARIATIONS);
+                    v.m_map = new ConcurrentHashMap<String, I_CmsLruCacheObject>(INITIAL_CAPACITY_VARIATIONS);
                 } else {
                     // Clear key and entry
                     m_size -= v.m_map.size();
@@ -900,14 +905,14 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
                 }
                 synchronized (this) {
                     List<CmsFlexCacheEntry> entriesToDelete = Lists.newArrayList();
-                    for (Map.Entry<String, CmsFlexCacheVariation> entry : synchronizedCopyMap(m_keyCache).entrySet()) {
+                    for (Map.Entry<String, CmsFlexCacheVariation> entry : copyMap(m_keyCache).entrySet()) {
                         CmsFlexCacheVariation variation = entry.getValue();
                         if (LOG.isDebugEnabled()) {
                             LOG.debug(p + "Processing entries for " + entry.getKey());
                         }
                         entriesToDelete.clear();
 
-                        for (Map.Entry<String, I_CmsLruCacheObject> variationEntry : synchronizedCopyMap(
+                        for (Map.Entry<String, I_CmsLruCacheObject> variationEntry : copyMap(
                             variation.m_map).entrySet()) {
                             CmsFlexCacheEntry flexEntry = (CmsFlexCacheEntry)(variationEntry.getValue());
                             totalEntries += 1;
@@ -964,17 +969,21 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
             LOG.info(Messages.get().getBundle().key(Messages.LOG_FLEXCACHE_CLEAR_ALL_0));
         }
         // create new set to avoid ConcurrentModificationExceptions
-        Set<String> cacheKeys = synchronizedCopyKeys(m_keyCache);
+        Set<String> cacheKeys = copyKeys(m_keyCache);
         Iterator<String> i = cacheKeys.iterator();
         while (i.hasNext()) {
             CmsFlexCacheVariation v = m_keyCache.get(i.next());
+            if ((v == null) || (v.m_map == null)) {
+                // the key has been evicted in the meantime
+                continue;
+            }
             Iterator<I_CmsLruCacheObject> allEntries = v.m_map.values().iterator();
             while (allEntries.hasNext()) {
                 I_CmsLruCacheObject nextObject = allEntries.next();
                 allEntries.remove();
                 m_variationCache.remove(nextObject);
             }
-            v.m_map = new Hashtable<String, I_CmsLruCacheObject>(INITIAL_CAPACITY_VARIATIONS);
+            v.m_map = new ConcurrentHashMap<String, I_CmsLruCacheObject>(INITIAL_CAPACITY_VARIATIONS);
         }
         m_size = 0;
     }
@@ -1095,17 +1104,25 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
         if (key.getTimeout() > 0) {
             theCacheEntry.setDateExpiresToNextTimeout(key.getTimeout());
         }
-        if (o != null) {
+        if (m_precompress) {
+            theCacheEntry.precompress();
+        }
+        if (m_offHeap) {
+            // the entry is not yet visible to other requests, so its output can be moved safely
+            theCacheEntry.moveToOffHeap();
+        }
+        Map<String, I_CmsLruCacheObject> m = (o != null) ? o.m_map : null;
+        if (m != null) {
             // We already have a variation map for this resource
-            Map<String, I_CmsLruCacheObject> m = o.m_map;
-            boolean wasAdded = true;
             if (!m.containsKey(variation)) {
-                wasAdded = m_variationCache.add(theCacheEntry);
-            } else {
-                wasAdded = m_variationCache.touch(theCacheEntry);
-            }
-
-            if (wasAdded) {
+                // the entry is put in the variation map before adding it to the LRU cache,
+                // so an immediate eviction from the LRU cache also removes it from the variation map
+                theCacheEntry.setVariationData(variation, m);
+                m.put(variation, theCacheEntry);
+                if (!m_variationCache.add(theCacheEntry)) {
+                    m.remove(variation, theCacheEntry);
+                }
+            } else if (m_variationCache.touch(theCacheEntry)) {
                 theCacheEntry.setVariationData(variation, m);
                 m.put(variation, theCacheEntry);
             }
@@ -1113,11 +1130,9 @@ public class CmsFlexCache extends Object implements I_CmsEventListener {
             // No variation map for this resource yet, so create one
             CmsFlexCacheVariation list = new CmsFlexCacheVariation(key);
 
-            boolean wasAdded = m_variationCache.add(theCacheEntry);
-
-            if (wasAdded) {
-                theCacheEntry.setVariationData(variation, list.m_map);
-                list.m_map.put(variation, theCacheEntry);
+            theCacheEntry.setVariationData(variation, list.m_map);
+            list.m_map.put(variation, theCacheEntry);
+            if (m_variationCache.add(theCacheEntry)) {
                 m_keyCache.put(key.getResource(), list);
             }
         }
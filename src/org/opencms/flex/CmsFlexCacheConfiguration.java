@@ -46,6 +46,9 @@ public class CmsFlexCacheConfiguration {
     /** The average cache bytes. */
     private long m_avgCacheBytes;
 
+    /** The average bytes of cached output stored outside of the Java heap. */
+    private long m_avgOffHeapBytes;
+
     /** Indicates if the cache is enabled or not. */
     private boolean m_cacheEnabled;
 
@@ -74,6 +77,12 @@ public class CmsFlexCacheConfiguration {
     /** The maximum key. */
     private int m_maxKeys;
 
+    /** The maximum bytes of cached output stored outside of the Java heap, 0 to keep all output on the heap. */
+    private long m_maxOffHeapBytes;
+
+    /** Indicates if a gzip compressed copy of cached output without includes should be stored. */
+    private boolean m_precompress;
+
     /**
      * Empty public constructor for the digester.
      */
@@ -92,6 +101,16 @@ public class CmsFlexCacheConfiguration {
         return m_avgCacheBytes;
     }
 
+    /**
+     * Returns the average bytes of cached output stored outside of the Java heap.<p>
+     *
+     * @return the average off-heap bytes
+     */
+    public long getAvgOffHeapBytes() {
+
+        return m_avgOffHeapBytes;
+    }
+
     /**
      * Returns the deviceSelector.<p>
      *
@@ -145,6 +164,16 @@ public class CmsFlexCacheConfiguration {
         return m_maxKeys;
     }
 
+    /**
+     * Returns the maximum bytes of cached output stored outside of the Java heap.<p>
+     *
+     * @return the maximum off-heap bytes, 0 if the output of cache entries is kept on the heap
+     */
+    public long getMaxOffHeapBytes() {
+
+        return m_maxOffHeapBytes;
+    }
+
     /**
      * Initializes the flex cache configuration with required parameters.<p>
      *
@@ -154,6 +183,9 @@ public class CmsFlexCacheConfiguration {
      * @param avgCacheBytes the average bytes for cache
      * @param maxEntryBytes the max bytes for entry
      * @param maxKeys the max keys
+     * @param maxOffHeapBytes the max bytes of output stored outside of the Java heap, may be <code>null</code>
+     * @param avgOffHeapBytes the average bytes of output stored outside of the Java heap, may be <code>null</code>
+     * @param precompress enables storing gzip compressed output, may be <code>null</code>
      */
     public void initialize(
         String enabled,
@@ -161,7 +193,10 @@ public class CmsFlexCacheConfiguration {
         String maxCacheBytes,
         String avgCacheBytes,
         String maxEntryBytes,
-        String maxKeys) {
+        String maxKeys,
+        String maxOffHeapBytes,
+        String avgOffHeapBytes,
+        String precompress) {
 
         setCacheEnabled(Boolean.valueOf(enabled).booleanValue());
         setCacheOffline(Boolean.valueOf(offline).booleanValue());
@@ -169,6 +204,18 @@ public class CmsFlexCacheConfiguration {
         setAvgCacheBytes(Long.parseLong(avgCacheBytes));
         setMaxEntryBytes(Integer.parseInt(maxEntryBytes));
         setMaxKeys(Integer.parseInt(maxKeys));
+        // the off-heap storage tier is optional
+        if (maxOffHeapBytes != null) {
+            setMaxOffHeapBytes(Long.parseLong(maxOffHeapBytes.trim()));
+        }
+        if (avgOffHeapBytes != null) {
+            setAvgOffHeapBytes(Long.parseLong(avgOffHeapBytes.trim()));
+        } else {
+            setAvgOffHeapBytes((getMaxOffHeapBytes() / 4) * 3);
+        }
+        if (precompress != null) {
+            setPrecompress(Boolean.valueOf(precompress.trim()).booleanValue());
+        }
     }
 
     /**
@@ -201,6 +248,26 @@ public class CmsFlexCacheConfiguration {
         m_avgCacheBytes = avgCacheBytes;
     }
 
+    /**
+     * Checks if a gzip compressed copy of cached output without includes should be stored.<p>
+     *
+     * @return true if a gzip compressed copy of cached output should be stored
+     */
+    public boolean isPrecompress() {
+
+        return m_precompress;
+    }
+
+    /**
+     * Sets the average bytes of cached output stored outside of the Java heap.<p>
+     *
+     * @param avgOffHeapBytes the average off-heap bytes to set
+     */
+    public void setAvgOffHeapBytes(long avgOffHeapBytes) {
+
+        m_avgOffHeapBytes = avgOffHeapBytes;
+    }
+
     /**
      * Sets the enabled.<p>
      *
@@ -287,4 +354,24 @@ public class CmsFlexCacheConfiguration {
 
         m_maxKeys = maxKeys;
     }
+
+    /**
+     * Sets the maximum bytes of cached output stored outside of the Java heap.<p>
+     *
+     * @param maxOffHeapBytes the maximum off-heap bytes to set, 0 to keep all output on the heap
+     */
+    public void setMaxOffHeapBytes(long maxOffHeapBytes) {
+
+        m_maxOffHeapBytes = maxOffHeapBytes;
+    }
+
+    /**
+     * Sets if a gzip compressed copy of cached output without includes should be stored.<p>
+     *
+     * @param precompress true if a gzip compressed copy of cached output should be stored
+     */
+    public void setPrecompress(boolean precompress) {
+
+        m_precompress = precompress;
+    }
 }
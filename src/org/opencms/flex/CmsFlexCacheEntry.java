@@ -36,8 +36,11 @@ import org.opencms.main.CmsLog;
 import org.opencms.monitor.CmsMemoryMonitor;
 import org.opencms.monitor.I_CmsMemoryMonitorable;
 import org.opencms.util.CmsCollectionsGenericWrapper;
+import org.opencms.util.CmsRequestUtil;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -45,6 +48,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.ServletException;
 
@@ -62,6 +66,10 @@ import org.apache.commons.logging.Log;
  * nothing else will be cached.<p>
  *
  * The pre-generated output is saved in <code>byte[]</code> arrays.
+ * Once the entry is put in a Flex cache with an off-heap storage tier, these arrays are moved to
+ * read-only direct <code>{@link ByteBuffer}</code> segments, see {@link #moveToOffHeap()}.
+ * Entries without include calls can additionally keep a gzip compressed copy of their output,
+ * see {@link #precompress()}.
  * The include() calls are saved as Strings of the included resource name,
  * the parameters for the calls are saved in a HashMap.
  * The headers are saved in a HashMap.
@@ -79,6 +87,9 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
     /** Initial size for lists. */
     public static final int INITIAL_CAPACITY_LISTS = 10;
 
+    /** The minimum output size in bytes for which a gzip compressed copy is stored. */
+    public static final int PRECOMPRESS_MIN_BYTES = 1024;
+
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(CmsFlexCacheEntry.class);
 
@@ -100,12 +111,18 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
     /** The list of items for this resource. */
     private List<Object> m_elements;
 
+    /** The gzip compressed output of this entry, or <code>null</code> if no compressed copy is stored. */
+    private byte[] m_gzipBytes;
+
     /** A Map of cached headers for this resource. */
     private Map<String, List<String>> m_headers;
 
     /** Pointer to the next cache entry in the LRU cache. */
     private I_CmsLruCacheObject m_next;
 
+    /** The size of the output stored outside of the Java heap in bytes. */
+    private int m_offHeapSize;
+
     /** Pointer to the previous cache entry in the LRU cache. */
     private I_CmsLruCacheObject m_previous;
 
@@ -120,7 +137,6 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
 
     /** The variation map where this cache entry is stored. */
     private Map<String, I_CmsLruCacheObject> m_variationMap;
-
     /**
      * Constructor for class CmsFlexCacheEntry.<p>
      *
@@ -243,7 +259,7 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
     /**
      * Returns the list of data entries of this cache entry.<p>
      *
-     * Data entries are byte arrays representing some kind of output
+     * Data entries are byte arrays or byte buffers representing some kind of output
      * or Strings representing include calls to other resources.<p>
      *
      * @return the list of data elements of this cache entry
@@ -284,6 +300,18 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
         return m_dateLastModified;
     }
 
+    /**
+     * Returns the gzip compressed output of this entry.<p>
+     *
+     * @return the gzip compressed output, or <code>null</code> if this entry has no compressed copy
+     *
+     * @see #precompress()
+     */
+    public byte[] getGzipBytes() {
+
+        return m_gzipBytes;
+    }
+
     /**
      * @see org.opencms.cache.I_CmsLruCacheObject#getLruCacheCosts()
      */
@@ -292,6 +320,14 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
         return m_byteSize;
     }
 
+    /**
+     * @see org.opencms.cache.I_CmsLruCacheObject#getLruCacheOffHeapCosts()
+     */
+    public int getLruCacheOffHeapCosts() {
+
+        return m_offHeapSize;
+    }
+
     /**
      * @see org.opencms.monitor.I_CmsMemoryMonitorable#getMemorySize()
      */
@@ -308,6 +344,26 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
         return m_next;
     }
 
+    /**
+     * Returns the size in bytes of the output stored in this entry, not counting the output of included resources.<p>
+     *
+     * @return the size of the output stored in this entry
+     */
+    public int getOutputSize() {
+
+        int size = 0;
+        if (m_elements != null) {
+            for (Object o : m_elements) {
+                if (o instanceof byte[]) {
+                    size += ((byte[])o).length;
+                } else if (o instanceof ByteBuffer) {
+                    size += ((ByteBuffer)o).remaining();
+                }
+            }
+        }
+        return size;
+    }
+
     /**
      * @see org.opencms.cache.I_CmsLruCacheObject#getPreviousLruObject()
      */
@@ -324,6 +380,99 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
         return m_elements;
     }
 
+    /**
+     * Moves the output of this completed cache entry to a direct buffer outside of the Java heap.<p>
+     *
+     * All byte arrays of the entry are copied into one direct buffer, and replaced with read-only
+     * segments of that buffer. Afterwards, the size of the output is no longer counted in the
+     * heap costs of this entry, but in the off-heap costs.<p>
+     *
+     * This must be called before the entry is added to the LRU cache, since the costs of
+     * a cached entry must not change. Entries that are not completed, describe a redirect
+     * or have already been moved are left unchanged.<p>
+     */
+    public void moveToOffHeap() {
+
+        if (!m_completed || (m_redirectTarget != null) || (m_elements == null) || (m_offHeapSize > 0)) {
+            return;
+        }
+        int size = 0;
+        for (Object o : m_elements) {
+            if (o instanceof byte[]) {
+                size += ((byte[])o).length;
+            }
+        }
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer slab = ByteBuffer.allocateDirect(size);
+        List<Object> elements = new ArrayList<Object>(m_elements.size());
+        for (Object o : m_elements) {
+            if (o instanceof byte[]) {
+                byte[] bytes = (byte[])o;
+                int start = slab.position();
+                slab.put(bytes);
+                ByteBuffer segment = slab.duplicate();
+                segment.position(start);
+                segment.limit(start + bytes.length);
+                elements.add(segment.slice().asReadOnlyBuffer());
+                m_byteSize -= CmsMemoryMonitor.getMemorySize(bytes);
+            } else {
+                elements.add(o);
+            }
+        }
+        m_elements = Collections.unmodifiableList(elements);
+        m_offHeapSize = size;
+    }
+
+    /**
+     * Stores a gzip compressed copy of the output of this completed cache entry.<p>
+     *
+     * This is only done for entries that consist of a single output element without include calls
+     * and without a "Content-Encoding" header, since only such entries can be delivered as a whole.
+     * Output smaller than {@link #PRECOMPRESS_MIN_BYTES} is not compressed.
+     * The compressed copy is counted in the heap costs of this entry.<p>
+     *
+     * This must be called before the entry is added to the LRU cache, since the costs of
+     * a cached entry must not change.<p>
+     */
+    public void precompress() {
+
+        if (!m_completed
+            || (m_redirectTarget != null)
+            || (m_elements == null)
+            || (m_elements.size() != 1)
+            || !(m_elements.get(0) instanceof byte[])
+            || (m_gzipBytes != null)) {
+            return;
+        }
+        if (m_headers != null) {
+            for (String header : m_headers.keySet()) {
+                if (CmsRequestUtil.HEADER_CONTENT_ENCODING.equalsIgnoreCase(header)) {
+                    return;
+                }
+            }
+        }
+        byte[] bytes = (byte[])m_elements.get(0);
+        if (bytes.length < PRECOMPRESS_MIN_BYTES) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            }
+            byte[] gzipBytes = out.toByteArray();
+            if (gzipBytes.length < bytes.length) {
+                m_gzipBytes = gzipBytes;
+                m_byteSize += CmsMemoryMonitor.getMemorySize(gzipBytes);
+            }
+        } catch (IOException e) {
+            // should not happen when writing to a byte array
+            LOG.error(e.getLocalizedMessage(), e);
+        }
+    }
+
     /**
      * @see org.opencms.cache.I_CmsLruCacheObject#removeFromLruCache()
      */
@@ -405,7 +554,11 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
                     }
                 } else {
                     try {
-                        res.writeToOutputStream((byte[])o, hasNoSubElements);
+                        if (o instanceof ByteBuffer) {
+                            res.writeToOutputStream((ByteBuffer)o, hasNoSubElements);
+                        } else {
+                            res.writeToOutputStream((byte[])o, hasNoSubElements);
+                        }
                     } catch (IOException e) {
                         CmsMessageContainer message = Messages.get().container(
                             Messages.LOG_FLEXCACHEKEY_NOT_FOUND_1,
@@ -566,7 +719,13 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
 
         String str = null;
         if (m_redirectTarget == null) {
-            str = "CmsFlexCacheEntry [" + m_elements.size() + " Elements/" + getLruCacheCosts() + " bytes]\n";
+            str = "CmsFlexCacheEntry ["
+                + m_elements.size()
+                + " Elements/"
+                + getLruCacheCosts()
+                + " bytes/"
+                + m_offHeapSize
+                + " off-heap bytes]\n";
             Iterator<Object> i = m_elements.iterator();
             int count = 0;
             while (i.hasNext()) {
@@ -576,6 +735,10 @@ public class CmsFlexCacheEntry implements I_CmsLruCacheObject, I_CmsMemoryMonito
                     str += "" + count + " - <cms:include target=" + o + ">\n";
                 } else if (o instanceof byte[]) {
                     str += "" + count + " - <![CDATA[" + new String((byte[])o) + "]]>\n";
+                } else if (o instanceof ByteBuffer) {
+                    byte[] bytes = new byte[((ByteBuffer)o).remaining()];
+                    ((ByteBuffer)o).duplicate().get(bytes);
+                    str += "" + count + " - <![CDATA[" + new String(bytes) + "]]>\n";
                 } else {
                     str += "<!--[" + o.toString() + "]-->";
                 }
@@ -80,6 +80,9 @@ public class CmsFlexController {
     /** Indicates if this controller is currently in "forward" mode. */
     private boolean m_forwardMode;
 
+    /** The cache entry with a precompressed version of the complete top level output, if any. */
+    private CmsFlexCacheEntry m_precompressedEntry;
+
     /** Wrapped top request. */
     private HttpServletRequest m_req;
 
@@ -120,6 +123,7 @@ public class CmsFlexController {
         m_flexResponseList = base.m_flexResponseList;
         m_flexContextInfoList = base.m_flexContextInfoList;
         m_forwardMode = base.m_forwardMode;
+        m_precompressedEntry = base.m_precompressedEntry;
         m_throwableResourceUri = base.m_throwableResourceUri;
     }
 
@@ -489,6 +493,19 @@ public class CmsFlexController {
         return (m_flexContextInfoList.get(pos)).getDateLastModified();
     }
 
+    /**
+     * Returns the cache entry that delivered the complete output of the top level request,
+     * if that entry has a precompressed version of its output.<p>
+     *
+     * @return the cache entry with the precompressed output, or <code>null</code>
+     *
+     * @see CmsFlexCacheEntry#getGzipBytes()
+     */
+    public CmsFlexCacheEntry getPrecompressedEntry() {
+
+        return m_precompressedEntry;
+    }
+
     /**
      * Returns the size of the response stack.<p>
      *
@@ -647,6 +664,17 @@ public class CmsFlexController {
         m_forwardMode = value;
     }
 
+    /**
+     * Sets the cache entry that delivered the complete output of the top level request
+     * and has a precompressed version of its output.<p>
+     *
+     * @param entry the cache entry with the precompressed output
+     */
+    public void setPrecompressedEntry(CmsFlexCacheEntry entry) {
+
+        m_precompressedEntry = entry;
+    }
+
     /**
      * Sets an exception (Throwable) that was caught during inclusion of sub elements.<p>
      *
@@ -317,6 +317,12 @@ public class CmsFlexRequestDispatcher implements RequestDispatcher {
                                     m_vfsTarget));
                         }
                         controller.updateDates(entry.getDateLastModified(), entry.getDateExpires());
+                        if ((entry.getGzipBytes() != null)
+                            && controller.isTop()
+                            && (controller.getResponseStackSize() == 2)) {
+                            // this entry delivers the complete output of the top level request
+                            controller.setPrecompressedEntry(entry);
+                        }
                         entry.service(w_req, w_res);
                     } catch (CmsException e) {
                         Throwable t;
@@ -37,10 +37,13 @@ import org.opencms.util.CmsRequestUtil;
 import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -603,6 +606,16 @@ public class CmsFlexResponse extends HttpServletResponseWrapper {
         return m_out.getBytes();
     }
 
+    /**
+     * Returns <code>true</code> if the output of this response is recorded for a Flex cache entry.<p>
+     *
+     * @return <code>true</code> if the output of this response is recorded for a Flex cache entry
+     */
+    public boolean isCachingRequired() {
+
+        return m_cachingRequired;
+    }
+
     /**
      * This flag indicates if the response is suspended or not.<p>
      *
@@ -1057,6 +1070,41 @@ public class CmsFlexResponse extends HttpServletResponseWrapper {
         }
     }
 
+    /**
+     * Writes the content of an off-heap buffer to the current output stream,
+     * this method should be called from CmsFlexCacheEntry.service() only.<p>
+     *
+     * @param buffer the buffer with the output, its position and limit are not changed
+     * @param useArray indicates that the content may be used as the only content of this response
+     *
+     * @throws IOException in case something goes wrong while writing to the stream
+     */
+    void writeToOutputStream(ByteBuffer buffer, boolean useArray) throws IOException {
+
+        if (isSuspended()) {
+            return;
+        }
+        if (m_writeOnlyToBuffer) {
+            if (useArray) {
+                // a "leaf" entry, the copied bytes are used as the buffered result directly
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.duplicate().get(bytes);
+                m_cacheBytes = bytes;
+            } else {
+                if (m_out == null) {
+                    initStream();
+                }
+                writeBuffer(m_out, buffer);
+            }
+        } else {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(Messages.get().getBundle().key(Messages.LOG_FLEXRESPONSE_ERROR_WRITING_TO_OUTPUT_STREAM_0));
+            }
+            writeBuffer(m_res.getOutputStream(), buffer);
+            m_res.getOutputStream().flush();
+        }
+    }
+
     /**
      * Helper method to add a value in the internal header list.<p>
      *
@@ -1202,6 +1250,25 @@ public class CmsFlexResponse extends HttpServletResponseWrapper {
         headers.put(name, values);
     }
 
+    /**
+     * Writes the remaining content of the given buffer to an output stream,
+     * without changing the position of the buffer.<p>
+     *
+     * @param out the output stream to write to
+     * @param buffer the buffer to write
+     *
+     * @throws IOException in case something goes wrong writing to the stream
+     */
+    private void writeBuffer(OutputStream out, ByteBuffer buffer) throws IOException {
+
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            // the channel wrapper copies the off-heap content in chunks, there is no need for a full heap copy
+            Channels.newChannel(out).write(buffer.duplicate());
+        }
+    }
+
     /**
      * This delivers cached sub-elements back to the stream.
      * Needed to overcome JSP buffering.<p>
@@ -1219,6 +1286,8 @@ public class CmsFlexResponse extends HttpServletResponseWrapper {
                 Object o = elements.get(i);
                 if (o instanceof byte[]) {
                     res.getOutputStream().write((byte[])o);
+                } else if (o instanceof ByteBuffer) {
+                    writeBuffer(res.getOutputStream(), (ByteBuffer)o);
                 } else {
                     if ((m_includeResults != null) && (m_includeResults.size() > count)) {
                         // make sure that we don't run behind end of list (should never happen, though)
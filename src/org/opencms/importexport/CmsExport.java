@@ -29,6 +29,7 @@ package org.opencms.importexport;
 
 import org.opencms.db.CmsDefaultUsers;
 import org.opencms.db.CmsResourceState;
+import org.opencms.db.I_CmsResourceIterator;
 import org.opencms.file.CmsFile;
 import org.opencms.file.CmsFolder;
 import org.opencms.file.CmsGroup;
@@ -247,37 +248,16 @@ public class CmsExport {
         try {
             // get all subFolders
             List<CmsResource> subFolders = getCms().getSubFolders(folderName, CmsResourceFilter.IGNORE_EXPIRATION);
-            // get all files in folder
-            List<CmsResource> subFiles = getCms().getFilesInFolder(folderName, CmsResourceFilter.IGNORE_EXPIRATION);
 
-            // walk through all files and export them
-            for (int i = 0; i < subFiles.size(); i++) {
-                CmsResource file = subFiles.get(i);
-                CmsResourceState state = file.getState();
-                long age = file.getDateLastModified() < file.getDateCreated()
-                ? file.getDateCreated()
-                : file.getDateLastModified();
-
-                if (getCms().getRequestContext().getCurrentProject().isOnlineProject()
-                    || (m_parameters.isIncludeUnchangedResources())
-                    || state.isNew()
-                    || state.isChanged()) {
-                    if (!state.isDeleted()
-                        && !CmsWorkplace.isTemporaryFile(file)
-                        && (age >= m_parameters.getContentAge())) {
-                        String export = getCms().getSitePath(file);
-                        if (checkExportResource(export)) {
-                            if (isInExportableProject(file)) {
-                                exportFile(getCms().readFile(export, CmsResourceFilter.IGNORE_EXPIRATION));
-                            }
-                        }
-                    }
+            // walk through all files in the folder and export them, while they are read from the database
+            try (I_CmsResourceIterator subFiles = getCms().readResourceIterator(
+                folderName,
+                CmsResourceFilter.IGNORE_EXPIRATION.addRequireFile(),
+                false)) {
+                while (subFiles.hasNext()) {
+                    exportChildFile(subFiles.next());
                 }
-                // release file header memory
-                subFiles.set(i, null);
             }
-            // all files are exported, release memory
-            subFiles = null;
 
             // walk through all subfolders and export them
             for (int i = 0; i < subFolders.size(); i++) {
@@ -888,6 +868,39 @@ public class CmsExport {
         m_resourceNode = null;
     }
 
+    /**
+     * Exports a file found in a folder that is exported, if it matches the export parameters.<p>
+     *
+     * @param file the file to export
+     *
+     * @throws CmsException if the file could not be read
+     * @throws CmsImportExportException if something goes wrong
+     * @throws SAXException if something goes wrong processing the manifest.xml
+     * @throws IOException if the ZIP entry for the file could be appended to the ZIP archive
+     */
+    protected void exportChildFile(CmsResource file)
+    throws CmsException, CmsImportExportException, SAXException, IOException {
+
+        CmsResourceState state = file.getState();
+        long age = file.getDateLastModified() < file.getDateCreated()
+        ? file.getDateCreated()
+        : file.getDateLastModified();
+
+        if (getCms().getRequestContext().getCurrentProject().isOnlineProject()
+            || (m_parameters.isIncludeUnchangedResources())
+            || state.isNew()
+            || state.isChanged()) {
+            if (!state.isDeleted() && !CmsWorkplace.isTemporaryFile(file) && (age >= m_parameters.getContentAge())) {
+                String export = getCms().getSitePath(file);
+                if (checkExportResource(export)) {
+                    if (isInExportableProject(file)) {
+                        exportFile(getCms().readFile(export, CmsResourceFilter.IGNORE_EXPIRATION));
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Exports one single file with all its data and content.<p>
      *
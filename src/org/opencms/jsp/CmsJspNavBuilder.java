@@ -37,6 +37,7 @@ import org.opencms.file.types.I_CmsResourceType;
 import org.opencms.main.CmsException;
 import org.opencms.main.CmsLog;
 import org.opencms.main.OpenCms;
+import org.opencms.security.CmsPermissionSet;
 import org.opencms.util.CmsFileUtil;
 
 import java.util.ArrayList;
@@ -59,6 +60,9 @@ import org.apache.commons.logging.Log;
  * of all items in the navigation of the current folder. Then use a simple scriptlet to
  * iterate over these items and create a HTML navigation.<p>
  *
+ * In the online project, the navigation data is served from the {@link CmsJspNavIndex}, so only the
+ * permission and release / expiration checks for the current user are performed per request.<p>
+ *
  * @since 6.0.0
  *
  * @see org.opencms.jsp.CmsJspNavElement
@@ -545,7 +549,7 @@ public class CmsJspNavBuilder {
         List<CmsResource> resources = null;
         try {
 
-            resources = m_cms.getResourcesInFolder(folder, resourceFilter);
+            resources = getResourcesInFolder(folder, resourceFilter);
         } catch (Exception e) {
             // should never happen
             LOG.error(e.getLocalizedMessage(), e);
@@ -782,6 +786,48 @@ public class CmsJspNavBuilder {
         m_requestUriFolder = CmsResource.getFolderPath(m_requestUri);
     }
 
+    /**
+     * Returns the default file of a folder from the navigation index, if it is accessible with the given filter.<p>
+     *
+     * @param indexEntry the navigation index entry of the folder
+     * @param resourceFilter the resource filter
+     *
+     * @return the default file, or <code>null</code>
+     */
+    private CmsResource getIndexDefaultFile(CmsJspNavIndex.Entry indexEntry, CmsResourceFilter resourceFilter) {
+
+        CmsResource defaultFile = indexEntry.getDefaultFile();
+        if ((defaultFile != null) && isReadable(defaultFile, resourceFilter)) {
+            return defaultFile;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the navigation index entry for the given resource.<p>
+     *
+     * Returns <code>null</code> if the index is not available for the current project, or if the resource
+     * is not accessible with the given filter. In that case the resource should be read from the VFS,
+     * which leads to the appropriate error.<p>
+     *
+     * @param sitePath the site path of the resource
+     * @param resourceFilter the resource filter
+     *
+     * @return the navigation index entry, or <code>null</code>
+     */
+    private CmsJspNavIndex.Entry getIndexEntry(String sitePath, CmsResourceFilter resourceFilter) {
+
+        if (!isNavIndexAvailable()) {
+            return null;
+        }
+        CmsJspNavIndex.Entry entry = CmsJspNavIndex.getInstance().getEntry(
+            m_cms.getRequestContext().addSiteRoot(sitePath));
+        if ((entry == null) || !isReadable(entry.getResource(), resourceFilter)) {
+            return null;
+        }
+        return entry;
+    }
+
     /**
      * Collect all navigation elements from the files in the given folder.<p>
     *
@@ -803,7 +849,7 @@ public class CmsJspNavBuilder {
 
         List<CmsResource> resources;
         try {
-            resources = m_cms.getResourcesInFolder(folder, resourceFilter);
+            resources = getResourcesInFolder(folder, resourceFilter);
         } catch (Exception e) {
             // should never happen
             LOG.error(e.getLocalizedMessage(), e);
@@ -842,15 +888,23 @@ public class CmsJspNavBuilder {
             level--;
         }
         try {
-            resource = m_cms.readResource(sitePath, resourceFilter);
-            List<CmsProperty> properties = m_cms.readPropertyObjects(resource, false);
-            propertiesMap = CmsProperty.toMap(properties);
+            CmsJspNavIndex.Entry indexEntry = getIndexEntry(sitePath, resourceFilter);
+            if (indexEntry != null) {
+                resource = indexEntry.getResource();
+                propertiesMap = indexEntry.getProperties();
+            } else {
+                resource = m_cms.readResource(sitePath, resourceFilter);
+                List<CmsProperty> properties = m_cms.readPropertyObjects(resource, false);
+                propertiesMap = CmsProperty.toMap(properties);
+            }
             if (resource.isFolder()) {
                 if (resourceFilter.equals(CmsResourceFilter.DEFAULT)
                     && !NAVIGATION_LEVEL_FOLDER.equals(
                         propertiesMap.get(CmsPropertyDefinition.PROPERTY_DEFAULT_FILE))) {
                     try {
-                        CmsResource defaultFile = m_cms.readDefaultFile(resource, resourceFilter);
+                        CmsResource defaultFile = indexEntry != null
+                        ? getIndexDefaultFile(indexEntry, resourceFilter)
+                        : m_cms.readDefaultFile(resource, resourceFilter);
                         if ((defaultFile != null)
                             && !defaultFile.isReleasedAndNotExpired(m_cms.getRequestContext().getRequestTime())) {
                             // do not show navigation entries for unreleased or expired resources
@@ -883,4 +937,63 @@ public class CmsJspNavBuilder {
 
         return new CmsJspNavElement(sitePath, resource, propertiesMap, level, m_locale);
     }
+
+    /**
+     * Returns the resources in the given folder, using the navigation index if available.<p>
+     *
+     * @param folder the site path of the folder
+     * @param resourceFilter the resource filter
+     *
+     * @return the resources in the folder
+     *
+     * @throws CmsException if something goes wrong reading the resources
+     */
+    private List<CmsResource> getResourcesInFolder(String folder, CmsResourceFilter resourceFilter)
+    throws CmsException {
+
+        if (isNavIndexAvailable()) {
+            List<CmsJspNavIndex.Entry> entries = CmsJspNavIndex.getInstance().getChildEntries(
+                m_cms.getRequestContext().addSiteRoot(folder));
+            if (entries != null) {
+                List<CmsResource> result = new ArrayList<CmsResource>(entries.size());
+                for (CmsJspNavIndex.Entry entry : entries) {
+                    if (isReadable(entry.getResource(), resourceFilter)) {
+                        result.add(entry.getResource());
+                    }
+                }
+                return result;
+            }
+        }
+        return m_cms.getResourcesInFolder(folder, resourceFilter);
+    }
+
+    /**
+     * Checks whether the navigation index can be used for the current project.<p>
+     *
+     * @return <code>true</code> if the navigation index can be used
+     */
+    private boolean isNavIndexAvailable() {
+
+        return (CmsJspNavIndex.getInstance() != null)
+            && m_cms.getRequestContext().getCurrentProject().isOnlineProject();
+    }
+
+    /**
+     * Checks whether the current user may read the given resource with the given filter.<p>
+     *
+     * @param resource the resource
+     * @param resourceFilter the resource filter
+     *
+     * @return <code>true</code> if the resource is readable
+     */
+    private boolean isReadable(CmsResource resource, CmsResourceFilter resourceFilter) {
+
+        try {
+            return resourceFilter.isValid(m_cms.getRequestContext(), resource)
+                && m_cms.hasPermissions(resource, CmsPermissionSet.ACCESS_READ, false, resourceFilter);
+        } catch (CmsException e) {
+            LOG.debug(e.getLocalizedMessage(), e);
+            return false;
+        }
+    }
 }
@@ -0,0 +1,377 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.jsp;
+
+import org.opencms.db.CmsPublishedResource;
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsProject;
+import org.opencms.file.CmsProperty;
+import org.opencms.file.CmsPropertyDefinition;
+import org.opencms.file.CmsResource;
+import org.opencms.file.CmsResourceFilter;
+import org.opencms.file.CmsVfsResourceNotFoundException;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsException;
+import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.monitor.CmsMemoryMonitor;
+import org.opencms.security.CmsRole;
+import org.opencms.util.CmsFileUtil;
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * In-memory index of the online navigation data used by the {@link CmsJspNavBuilder}.<p>
+ *
+ * For every folder that has been requested, the index keeps the children of the folder together with
+ * their (non-inherited) properties and, for sub folders, their default file. The data is read once with
+ * an administrative context and is then shared between all requests in the online project.
+ * Permission and release / expiration checks are not part of the index, they are still evaluated
+ * for the current user on every request.<p>
+ *
+ * The index is maintained incrementally: after a publish operation only the folder listings affected
+ * by the published resources are dropped, and are read again the next time they are requested.<p>
+ *
+ * @since 12.0.0
+ */
+public final class CmsJspNavIndex implements I_CmsEventListener {
+
+    /**
+     * The cached navigation data of a single resource.<p>
+     */
+    public static final class Entry {
+
+        /** The default file of the resource, if it is a folder. */
+        private CmsResource m_defaultFile;
+
+        /** The non-inherited properties of the resource. */
+        private Map<String, String> m_properties;
+
+        /** The resource. */
+        private CmsResource m_resource;
+
+        /**
+         * Creates a new entry.<p>
+         *
+         * @param resource the resource
+         * @param properties the non-inherited properties of the resource
+         * @param defaultFile the default file of the resource, or <code>null</code>
+         */
+        Entry(CmsResource resource, Map<String, String> properties, CmsResource defaultFile) {
+
+            m_resource = resource;
+            m_properties = Collections.unmodifiableMap(properties);
+            m_defaultFile = defaultFile;
+        }
+
+        /**
+         * Returns the default file of the resource.<p>
+         *
+         * This is <code>null</code> for files, for navigation level folders and for folders without a default file.<p>
+         *
+         * @return the default file of the resource
+         */
+        public CmsResource getDefaultFile() {
+
+            return m_defaultFile;
+        }
+
+        /**
+         * Returns the non-inherited properties of the resource.<p>
+         *
+         * @return the non-inherited properties of the resource
+         */
+        public Map<String, String> getProperties() {
+
+            return m_properties;
+        }
+
+        /**
+         * Returns the resource.<p>
+         *
+         * @return the resource
+         */
+        public CmsResource getResource() {
+
+            return m_resource;
+        }
+    }
+
+    /** The maximum number of folders kept in the index. */
+    private static final int CACHE_SIZE = 2048;
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsJspNavIndex.class);
+
+    /** The index instance. */
+    private static CmsJspNavIndex m_instance;
+
+    /** The admin CMS context used to read the navigation data. */
+    private CmsObject m_cms;
+
+    /** The cached folder listings, by folder root path. */
+    private Map<String, Map<String, Entry>> m_folders;
+
+    /** Incremented on each invalidation, used to prevent caching data read before the invalidation. */
+    private AtomicLong m_generation = new AtomicLong();
+
+    /**
+     * Creates a new navigation index.<p>
+     *
+     * @param cms the admin CMS context, set to the online project and the root site
+     */
+    private CmsJspNavIndex(CmsObject cms) {
+
+        m_cms = cms;
+        m_folders = CmsMemoryMonitor.createLRUCacheMap(CACHE_SIZE);
+    }
+
+    /**
+     * Returns the navigation index, or <code>null</code> if it has not been initialized.<p>
+     *
+     * @return the navigation index
+     */
+    public static CmsJspNavIndex getInstance() {
+
+        return m_instance;
+    }
+
+    /**
+     * Initializes the navigation index.<p>
+     *
+     * @param cms a CMS context with the administrator role
+     *
+     * @throws CmsException in case the initialization fails
+     */
+    public static void initialize(CmsObject cms) throws CmsException {
+
+        OpenCms.getRoleManager().checkRole(cms, CmsRole.ADMINISTRATOR);
+        CmsObject adminCms = OpenCms.initCmsObject(cms);
+        adminCms.getRequestContext().setSiteRoot("");
+        adminCms.getRequestContext().setCurrentProject(adminCms.readProject(CmsProject.ONLINE_PROJECT_ID));
+        CmsJspNavIndex index = new CmsJspNavIndex(adminCms);
+        OpenCms.addCmsEventListener(
+            index,
+            new int[] {
+                I_CmsEventListener.EVENT_PUBLISH_PROJECT,
+                I_CmsEventListener.EVENT_CLEAR_CACHES,
+                I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES});
+        if (OpenCms.getMemoryMonitor() != null) {
+            OpenCms.getMemoryMonitor().register(CmsJspNavIndex.class.getName() + ".folders", index.m_folders);
+        }
+        m_instance = index;
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        switch (event.getType()) {
+            case I_CmsEventListener.EVENT_PUBLISH_PROJECT:
+                String publishIdStr = (String)event.getData().get(I_CmsEventListener.KEY_PUBLISHID);
+                if (publishIdStr == null) {
+                    clear();
+                    break;
+                }
+                try {
+                    List<CmsPublishedResource> publishedResources = m_cms.readPublishedResources(
+                        new CmsUUID(publishIdStr));
+                    if (publishedResources.isEmpty()) {
+                        // not coming from a normal publish process, so be on the safe side
+                        clear();
+                        break;
+                    }
+                    for (CmsPublishedResource res : publishedResources) {
+                        if (res.isMoved() || (res.getSiblingCount() > 1)) {
+                            // the old path of moved resources and the paths of siblings are not known here
+                            clear();
+                            break;
+                        }
+                        invalidate(res.getRootPath(), res.isFolder());
+                    }
+                } catch (CmsException e) {
+                    LOG.error(e.getLocalizedMessage(), e);
+                    clear();
+                }
+                break;
+            case I_CmsEventListener.EVENT_CLEAR_CACHES:
+            case I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES:
+                clear();
+                break;
+            default:
+                // noop
+                break;
+        }
+    }
+
+    /**
+     * Returns the cached navigation data of the children of the given folder.<p>
+     *
+     * The children are returned in the order in which they are read from the VFS, without
+     * any filtering or permission checks.<p>
+     *
+     * @param folderRootPath the root path of the folder
+     *
+     * @return the navigation data of the children, or <code>null</code> if the folder could not be read
+     */
+    public List<Entry> getChildEntries(String folderRootPath) {
+
+        Map<String, Entry> entries = getFolderEntries(folderRootPath);
+        if (entries == null) {
+            return null;
+        }
+        return Collections.unmodifiableList(new ArrayList<Entry>(entries.values()));
+    }
+
+    /**
+     * Returns the cached navigation data of the resource with the given root path.<p>
+     *
+     * @param rootPath the root path of the resource, with or without trailing separator
+     *
+     * @return the navigation data, or <code>null</code> if the resource is not part of the index
+     */
+    public Entry getEntry(String rootPath) {
+
+        String path = CmsFileUtil.removeTrailingSeparator(rootPath);
+        String parent = CmsResource.getParentFolder(path);
+        if (parent == null) {
+            return null;
+        }
+        Map<String, Entry> entries = getFolderEntries(parent);
+        return entries != null ? entries.get(path) : null;
+    }
+
+    /**
+     * Clears the whole index.<p>
+     */
+    private synchronized void clear() {
+
+        m_generation.incrementAndGet();
+        m_folders.clear();
+    }
+
+    /**
+     * Returns the navigation data of the children of a folder, reading it if it is not cached.<p>
+     *
+     * @param folderRootPath the root path of the folder
+     *
+     * @return the navigation data by resource root path without trailing separator,
+     *      or <code>null</code> if the folder could not be read
+     */
+    private Map<String, Entry> getFolderEntries(String folderRootPath) {
+
+        String folder = CmsFileUtil.addTrailingSeparator(folderRootPath);
+        Map<String, Entry> entries = m_folders.get(folder);
+        if (entries != null) {
+            return entries;
+        }
+        long generation = m_generation.get();
+        try {
+            entries = readFolderEntries(folder);
+        } catch (CmsVfsResourceNotFoundException e) {
+            LOG.debug(e.getLocalizedMessage(), e);
+            return null;
+        } catch (CmsException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+            return null;
+        }
+        synchronized (this) {
+            if (generation == m_generation.get()) {
+                m_folders.put(folder, entries);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Removes the folder listings affected by a change of the given resource.<p>
+     *
+     * These are the listing of the parent folder, the listing of the grand parent folder
+     * (since the resource may be the default file of its parent folder), and for folders all listings
+     * of the folder itself and its sub folders.<p>
+     *
+     * @param rootPath the root path of the changed resource
+     * @param isFolder <code>true</code> if the changed resource is a folder
+     */
+    private synchronized void invalidate(String rootPath, boolean isFolder) {
+
+        m_generation.incrementAndGet();
+        String path = CmsFileUtil.removeTrailingSeparator(rootPath);
+        String parent = CmsResource.getParentFolder(path);
+        if (parent != null) {
+            m_folders.remove(parent);
+            String grandParent = CmsResource.getParentFolder(parent);
+            if (grandParent != null) {
+                m_folders.remove(grandParent);
+            }
+        }
+        if (isFolder) {
+            String prefix = CmsFileUtil.addTrailingSeparator(path);
+            m_folders.keySet().removeIf(folder -> folder.startsWith(prefix));
+        }
+    }
+
+    /**
+     * Reads the navigation data of the children of a folder from the VFS.<p>
+     *
+     * @param folder the root path of the folder, with trailing separator
+     *
+     * @return the navigation data by resource root path without trailing separator
+     *
+     * @throws CmsException if reading the folder fails
+     */
+    private Map<String, Entry> readFolderEntries(String folder) throws CmsException {
+
+        List<CmsResource> children = m_cms.getResourcesInFolder(folder, CmsResourceFilter.ALL);
+        Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+        for (CmsResource child : children) {
+            Map<String, String> properties = CmsProperty.toMap(m_cms.readPropertyObjects(child, false));
+            CmsResource defaultFile = null;
+            if (child.isFolder()
+                && !CmsJspNavBuilder.NAVIGATION_LEVEL_FOLDER.equals(
+                    properties.get(CmsPropertyDefinition.PROPERTY_DEFAULT_FILE))) {
+                defaultFile = m_cms.readDefaultFile(child, CmsResourceFilter.IGNORE_EXPIRATION);
+            }
+            entries.put(
+                CmsFileUtil.removeTrailingSeparator(child.getRootPath()),
+                new Entry(child, properties, defaultFile));
+        }
+        return Collections.unmodifiableMap(entries);
+    }
+}
@@ -0,0 +1,1086 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.jsp;
+
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsResource;
+import org.opencms.flex.CmsFlexCache;
+import org.opencms.flex.CmsFlexController;
+import org.opencms.flex.CmsFlexRequest;
+import org.opencms.flex.CmsFlexResponse;
+import org.opencms.jsp.util.CmsJspStandardContextBean;
+import org.opencms.main.CmsException;
+import org.opencms.main.CmsLog;
+import org.opencms.main.CmsRuntimeException;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsCollectionsGenericWrapper;
+import org.opencms.util.CmsRequestUtil;
+import org.opencms.util.CmsStringUtil;
+import org.opencms.xml.containerpage.CmsContainerElementBean;
+import org.opencms.xml.containerpage.I_CmsFormatterBean;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletRequestWrapper;
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponseWrapper;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.servlet.http.HttpSession;
+
+import org.apache.commons.logging.Log;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Renders container elements on a bounded thread pool, used by the {@link CmsJspTagContainer}.<p>
+ *
+ * Parallel rendering is opt-in on two levels: the thread pool is only created if the ADE parameter
+ * {@link #PARAM_THREADS} is set to a positive number, and only elements with a formatter that has the
+ * attribute {@link #FORMATTER_ATTR_PARALLEL} set to <code>true</code> are rendered in parallel.
+ * Formatters marked this way must not depend on request attributes set by other elements of the page,
+ * and must not write response headers.<p>
+ *
+ * Each element is rendered with a copy of the CMS context and of the standard context bean, into a
+ * separate buffering {@link CmsFlexResponse}. The output is then written by the container tag in
+ * document order. The element formatters themselves are still cached in the Flex cache as usual.<p>
+ *
+ * The rendering tasks include the formatters with the request dispatcher of the servlet container from the
+ * rendering threads. Each task uses its own {@link IsolatedRequest} and {@link IsolatedResponse}, created in the
+ * request thread, which take a snapshot of the request state and never pass changes to the request and response
+ * of the servlet container. The Servlet specification does not define include calls from threads other than
+ * the request thread, so the servlet container must support them for requests wrapped this way. Apache Tomcat
+ * does, since it keeps the state of an include in a wrapper it inserts into the wrapper chain of the include call.
+ * Parallel rendering should only be enabled after it has been tested on the servlet container in use.<p>
+ *
+ * The rendering tasks still refer to the request and response of the servlet container, so no task may outlive
+ * the request. The container tag therefore waits for all tasks it has started, see {@link Batch#finish()}.<p>
+ *
+ * @since 12.0.0
+ */
+public final class CmsJspParallelElementRenderer {
+
+    /**
+     * The rendering tasks started for the elements of a single container.<p>
+     *
+     * Waiting for a result fails hard with a {@link CmsRuntimeException} if the task does not finish within
+     * the configured timeout, or if the request thread is interrupted. All other tasks of the batch are
+     * cancelled in this case, and all further calls fail with the same exception.<p>
+     */
+    public static final class Batch {
+
+        /** The rendering executor. */
+        private ExecutorService m_executor;
+
+        /** The error that ended waiting for the results, or <code>null</code>. */
+        private CmsRuntimeException m_failure;
+
+        /** The pending results by element. */
+        private Map<CmsContainerElementBean, Future<Result>> m_results;
+
+        /** The maximum time to wait for the results in milliseconds. */
+        private long m_timeout;
+
+        /**
+         * Creates a new batch.<p>
+         *
+         * @param executor the rendering executor
+         * @param timeout the maximum time to wait for the results in milliseconds
+         */
+        Batch(ExecutorService executor, long timeout) {
+
+            m_executor = executor;
+            m_timeout = timeout;
+            m_results = new IdentityHashMap<CmsContainerElementBean, Future<Result>>();
+        }
+
+        /**
+         * Waits until all rendering tasks of this batch that have not been taken have finished.<p>
+         *
+         * This must be called before the container tag is left, also if the results are not needed,
+         * e.g. because the container is full or rendering an element failed.<p>
+         *
+         * @throws CmsRuntimeException if a task does not finish within the timeout
+         */
+        public void finish() throws CmsRuntimeException {
+
+            checkFailure();
+            long deadline = System.currentTimeMillis() + m_timeout;
+            for (Future<Result> future : new ArrayList<Future<Result>>(m_results.values())) {
+                waitFor(future, deadline);
+            }
+            m_results.clear();
+        }
+
+        /**
+         * Starts rendering an element with the given formatter.<p>
+         *
+         * The element settings must already be initialized. This method must be called from the request thread,
+         * since it takes a snapshot of the current request state.<p>
+         *
+         * @param req the current request
+         * @param element the element to render
+         * @param formatter the site path of the formatter JSP
+         *
+         * @throws CmsException if creating the CMS context for rendering fails
+         */
+        public void submit(ServletRequest req, CmsContainerElementBean element, String formatter)
+        throws CmsException {
+
+            submit(element, createTask(req, element, formatter));
+        }
+
+        /**
+         * Waits for the rendering result of the given element and removes it from this batch.<p>
+         *
+         * @param element the element
+         *
+         * @return the rendering result, or <code>null</code> if the element has not been submitted
+         *
+         * @throws CmsRuntimeException if the task does not finish within the timeout
+         */
+        public Result take(CmsContainerElementBean element) throws CmsRuntimeException {
+
+            checkFailure();
+            Future<Result> future = m_results.remove(element);
+            return future != null ? waitFor(future, System.currentTimeMillis() + m_timeout) : null;
+        }
+
+        /**
+         * Starts a rendering task for the given element.<p>
+         *
+         * @param element the element
+         * @param task the rendering task
+         */
+        void submit(CmsContainerElementBean element, Callable<Result> task) {
+
+            m_results.put(element, m_executor.submit(task));
+        }
+
+        /**
+         * Throws the error that ended waiting for the results again.<p>
+         *
+         * @throws CmsRuntimeException if waiting for a result has failed before
+         */
+        private void checkFailure() throws CmsRuntimeException {
+
+            if (m_failure != null) {
+                throw m_failure;
+            }
+        }
+
+        /**
+         * Cancels all pending tasks and remembers the error for further calls.<p>
+         *
+         * @param failure the error
+         *
+         * @return the error
+         */
+        private CmsRuntimeException fail(CmsRuntimeException failure) {
+
+            for (Future<Result> future : m_results.values()) {
+                future.cancel(true);
+            }
+            m_results.clear();
+            m_failure = failure;
+            return failure;
+        }
+
+        /**
+         * Waits for a rendering result.<p>
+         *
+         * @param future the future result
+         * @param deadline the time until which to wait
+         *
+         * @return the rendering result
+         *
+         * @throws CmsRuntimeException if the task does not finish until the deadline
+         */
+        private Result waitFor(Future<Result> future, long deadline) throws CmsRuntimeException {
+
+            try {
+                return future.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                Result result = new Result();
+                result.m_error = e.getCause();
+                return result;
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                throw fail(
+                    new CmsRuntimeException(
+                        Messages.get().container(Messages.ERR_PARALLEL_RENDERING_TIMEOUT_1, Long.valueOf(m_timeout)),
+                        e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                throw fail(
+                    new CmsRuntimeException(Messages.get().container(Messages.ERR_PARALLEL_RENDERING_INTERRUPTED_0), e));
+            }
+        }
+    }
+
+    /**
+     * The result of rendering a single element.<p>
+     */
+    public static final class Result {
+
+        /** The "expires" date of the rendered element. */
+        private long m_dateExpires;
+
+        /** The "last modified" date of the rendered element. */
+        private long m_dateLastModified;
+
+        /** The error that occurred while rendering, or <code>null</code>. */
+        private Throwable m_error;
+
+        /** The formatter site path. */
+        private String m_formatter;
+
+        /** The rendered output. */
+        private String m_output;
+
+        /** The rendering time in milliseconds. */
+        private long m_renderTime;
+
+        /**
+         * Creates an empty result.<p>
+         */
+        Result() {
+
+            // NOOP
+        }
+
+        /**
+         * Creates a result with the given output.<p>
+         *
+         * @param formatter the formatter site path
+         * @param output the rendered output
+         */
+        Result(String formatter, String output) {
+
+            m_formatter = formatter;
+            m_output = output;
+        }
+
+        /**
+         * Returns the "expires" date of the rendered element.<p>
+         *
+         * @return the "expires" date of the rendered element
+         */
+        public long getDateExpires() {
+
+            return m_dateExpires;
+        }
+
+        /**
+         * Returns the "last modified" date of the rendered element.<p>
+         *
+         * @return the "last modified" date of the rendered element
+         */
+        public long getDateLastModified() {
+
+            return m_dateLastModified;
+        }
+
+        /**
+         * Returns the error that occurred while rendering, or <code>null</code>.<p>
+         *
+         * @return the error that occurred while rendering
+         */
+        public Throwable getError() {
+
+            return m_error;
+        }
+
+        /**
+         * Returns the site path of the formatter used to render the element.<p>
+         *
+         * @return the formatter site path
+         */
+        public String getFormatter() {
+
+            return m_formatter;
+        }
+
+        /**
+         * Returns the rendered output.<p>
+         *
+         * @return the rendered output
+         */
+        public String getOutput() {
+
+            return m_output;
+        }
+
+        /**
+         * Returns the time it took to render the element in milliseconds.<p>
+         *
+         * This does not include the time the element was waiting for a free rendering thread.<p>
+         *
+         * @return the rendering time
+         */
+        public long getRenderTime() {
+
+            return m_renderTime;
+        }
+    }
+
+    /**
+     * Request wrapper isolating the request state of a single rendering task.<p>
+     *
+     * The wrapper must be created in the request thread, it takes a snapshot of the attributes of the wrapped
+     * request. Attributes set during rendering are kept in the wrapper. Only the attributes the servlet container
+     * sets for include calls, see {@link #CONTAINER_ATTRIBUTE_PREFIXES}, are read from the wrapped request,
+     * since the container keeps them in the wrapper it inserts for each include call.<p>
+     *
+     * The session can not be created from a rendering task, and the character encoding is only changed for
+     * the wrapper.<p>
+     */
+    static class IsolatedRequest extends HttpServletRequestWrapper {
+
+        /** The local attributes. */
+        private Map<String, Object> m_attributes;
+
+        /** The character encoding set for this request, or <code>null</code>. */
+        private String m_characterEncoding;
+
+        /** The parameters. */
+        private Map<String, String[]> m_parameters;
+
+        /** Names of the attributes removed from this request. */
+        private Set<String> m_removedAttributes = new HashSet<String>();
+
+        /** The session, or <code>null</code>. */
+        private HttpSession m_session;
+
+        /**
+         * Creates a new request wrapper.<p>
+         *
+         * @param req the request to wrap
+         * @param session the session of the request, or <code>null</code>
+         * @param attributes the attributes, these replace the attributes of the wrapped request
+         * @param parameters the parameters
+         */
+        IsolatedRequest(
+            HttpServletRequest req,
+            HttpSession session,
+            Map<String, Object> attributes,
+            Map<String, String[]> parameters) {
+
+            super(req);
+            m_session = session;
+            m_attributes = new HashMap<String, Object>(CmsRequestUtil.getAttributeMap(req));
+            m_attributes.putAll(attributes);
+            m_parameters = parameters;
+        }
+
+        /**
+         * @see javax.servlet.ServletRequestWrapper#getAttribute(java.lang.String)
+         */
+        @Override
+        public Object getAttribute(String name) {
+
+            Object result = m_attributes.get(name);
+            if ((result == null) && !m_removedAttributes.contains(name) && isContainerAttribute(name)) {
+                result = super.getAttribute(name);
+            }
+            return result;
+        }
+
+        /**
+         * @see javax.servlet.ServletRequestWrapper#getAttributeNames()
+         */
+        @Override
+        public Enumeration<String> getAttributeNames() {
+
+            return Collections.enumeration(m_attributes.keySet());
+        }
+
+        /**
+         * @see javax.servlet.ServletRequestWrapper#getCharacterEncoding()
+         */
+        @Override
+        public String getCharacterEncoding() {
+
+            return m_characterEncoding != null ? m_characterEncoding : super.getCharacterEncoding();
+        }
+
+        /**
+         * @see javax.servlet.ServletRequestWrapper#getParameter(java.lang.String)
+         */
+        @Override
+        public String getParameter(String name) {
+
+            String[] values = m_parameters.get(name);
+            return values != null ? values[0] : null;
+        }
+
+        /**
+         * @see javax.servlet.ServletRequestWrapper#getParameterMap()
+         */
+        @Override
+        public Map<String, String[]> getParameterMap() {
+
+            return m_parameters;
+        }
+
+        /**
+         * @see javax.servlet.ServletRequestWrapper#getParameterNames()
+         */
+        @Override
+        public Enumeration<String> getParameterNames() {
+
+            return Collections.enumeration(m_parameters.keySet());
+        }
+
+        /**
+         * @see javax.servlet.ServletRequestWrapper#getParameterValues(java.lang.String)
+         */
+        @Override
+        public String[] getParameterValues(String name) {
+
+            return m_parameters.get(name);
+        }
+
+        /**
+         * Returns the session of the request, a session can not be created from a rendering task.<p>
+         *
+         * @see javax.servlet.http.HttpServletRequestWrapper#getSession()
+         */
+        @Override
+        public HttpSession getSession() {
+
+            return m_session;
+        }
+
+        /**
+         * Returns the session of the request, a session can not be created from a rendering task.<p>
+         *
+         * @see javax.servlet.http.HttpServletRequestWrapper#getSession(boolean)
+         */
+        @Override
+        public HttpSession getSession(boolean create) {
+
+            return m_session;
+        }
+
+        /**
+         * @see javax.servlet.ServletRequestWrapper#removeAttribute(java.lang.String)
+         */
+        @Override
+        public void removeAttribute(String name) {
+
+            m_attributes.remove(name);
+            m_removedAttributes.add(name);
+        }
+
+        /**
+         * @see javax.servlet.ServletRequestWrapper#setAttribute(java.lang.String, java.lang.Object)
+         */
+        @Override
+        public void setAttribute(String name, Object value) {
+
+            if (value == null) {
+                removeAttribute(name);
+                return;
+            }
+            m_attributes.put(name, value);
+            m_removedAttributes.remove(name);
+        }
+
+        /**
+         * @see javax.servlet.ServletRequestWrapper#setCharacterEncoding(java.lang.String)
+         */
+        @Override
+        public void setCharacterEncoding(String env) {
+
+            m_characterEncoding = env;
+        }
+
+        /**
+         * Checks whether the given attribute is set by the servlet container for include calls.<p>
+         *
+         * @param name the attribute name
+         *
+         * @return <code>true</code> if the given attribute is set by the servlet container
+         */
+        private boolean isContainerAttribute(String name) {
+
+            for (String prefix : CONTAINER_ATTRIBUTE_PREFIXES) {
+                if (name.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Response wrapper isolating the response of the servlet container from a single rendering task.<p>
+     *
+     * The rendering task writes its output to a buffering {@link CmsFlexResponse}, so this wrapper provides
+     * no output stream. All changes of headers or of the response status are ignored, formatters rendered in
+     * parallel must not write them anyway.<p>
+     */
+    static class IsolatedResponse extends HttpServletResponseWrapper {
+
+        /**
+         * Creates a new response wrapper.<p>
+         *
+         * @param res the response to wrap
+         */
+        IsolatedResponse(HttpServletResponse res) {
+
+            super(res);
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#addCookie(javax.servlet.http.Cookie)
+         */
+        @Override
+        public void addCookie(Cookie cookie) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#addDateHeader(java.lang.String, long)
+         */
+        @Override
+        public void addDateHeader(String name, long date) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#addHeader(java.lang.String, java.lang.String)
+         */
+        @Override
+        public void addHeader(String name, String value) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#addIntHeader(java.lang.String, int)
+         */
+        @Override
+        public void addIntHeader(String name, int value) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#flushBuffer()
+         */
+        @Override
+        public void flushBuffer() {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#getOutputStream()
+         */
+        @Override
+        public ServletOutputStream getOutputStream() {
+
+            throw new IllegalStateException();
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#getWriter()
+         */
+        @Override
+        public PrintWriter getWriter() {
+
+            throw new IllegalStateException();
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#reset()
+         */
+        @Override
+        public void reset() {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#resetBuffer()
+         */
+        @Override
+        public void resetBuffer() {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#sendError(int)
+         */
+        @Override
+        public void sendError(int sc) throws IOException {
+
+            throw new IOException(
+                Messages.get().getBundle().key(Messages.ERR_PARALLEL_RENDERING_STATUS_1, Integer.valueOf(sc)));
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#sendError(int, java.lang.String)
+         */
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+
+            sendError(sc);
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#sendRedirect(java.lang.String)
+         */
+        @Override
+        public void sendRedirect(String location) throws IOException {
+
+            sendError(SC_FOUND);
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#setBufferSize(int)
+         */
+        @Override
+        public void setBufferSize(int size) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#setCharacterEncoding(java.lang.String)
+         */
+        @Override
+        public void setCharacterEncoding(String charset) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#setContentLength(int)
+         */
+        @Override
+        public void setContentLength(int len) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#setContentLengthLong(long)
+         */
+        @Override
+        public void setContentLengthLong(long len) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#setContentType(java.lang.String)
+         */
+        @Override
+        public void setContentType(String type) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#setDateHeader(java.lang.String, long)
+         */
+        @Override
+        public void setDateHeader(String name, long date) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#setHeader(java.lang.String, java.lang.String)
+         */
+        @Override
+        public void setHeader(String name, String value) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#setIntHeader(java.lang.String, int)
+         */
+        @Override
+        public void setIntHeader(String name, int value) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.ServletResponseWrapper#setLocale(java.util.Locale)
+         */
+        @Override
+        public void setLocale(Locale loc) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#setStatus(int)
+         */
+        @Override
+        public void setStatus(int sc) {
+
+            // ignored
+        }
+
+        /**
+         * @see javax.servlet.http.HttpServletResponseWrapper#setStatus(int, java.lang.String)
+         */
+        @Deprecated
+        @Override
+        public void setStatus(int sc, String sm) {
+
+            // ignored
+        }
+    }
+
+    /**
+     * The task rendering a single element.<p>
+     */
+    private static class RenderTask implements Callable<Result> {
+
+        /** The Flex cache. */
+        private CmsFlexCache m_cache;
+
+        /** The CMS context. */
+        private CmsObject m_cms;
+
+        /** The standard context bean for the element. */
+        private CmsJspStandardContextBean m_contextBean;
+
+        /** The formatter site path. */
+        private String m_formatter;
+
+        /** The request wrapper for this task. */
+        private IsolatedRequest m_request;
+
+        /** The resource of the page. */
+        private CmsResource m_resource;
+
+        /** The response wrapper for this task. */
+        private IsolatedResponse m_response;
+
+        /**
+         * @see java.util.concurrent.Callable#call()
+         */
+        public Result call() {
+
+            Result result = new Result();
+            result.m_formatter = m_formatter;
+            long start = System.currentTimeMillis();
+            try {
+                CmsFlexController controller = new CmsFlexController(
+                    m_cms,
+                    m_resource,
+                    m_cache,
+                    m_request,
+                    m_response,
+                    false,
+                    false);
+                CmsFlexController.setController(m_request, controller);
+                CmsFlexRequest flexReq = new CmsFlexRequest(m_request, controller);
+                CmsFlexResponse flexRes = new CmsFlexResponse(m_response, controller, false, false);
+                controller.push(flexReq, flexRes);
+                // this updates the standard context bean with the CMS context and request of this task
+                flexReq.addAttributeMap(
+                    Collections.<String, Object> singletonMap(CmsJspStandardContextBean.ATTRIBUTE_NAME, m_contextBean));
+                flexReq.getRequestDispatcher(m_formatter).include(flexReq, flexRes);
+                result.m_error = controller.getThrowable();
+                result.m_output = new String(flexRes.getWriterBytes(), flexRes.getEncoding());
+                result.m_dateLastModified = controller.getDateLastModified();
+                result.m_dateExpires = controller.getDateExpires();
+            } catch (Throwable t) {
+                result.m_error = t;
+            }
+            result.m_renderTime = System.currentTimeMillis() - start;
+            return result;
+        }
+    }
+
+    /** Request attribute marking requests used for parallel rendering, nested containers are rendered sequentially. */
+    public static final String ATTR_RENDER_TASK = CmsJspParallelElementRenderer.class.getName() + ".task";
+
+    /**
+     * Formatter attribute which must be set to <code>true</code> to allow parallel rendering of a formatter.<p>
+     *
+     * The formatter is included from a rendering thread, so the servlet container must support include calls
+     * from other threads than the request thread, see the class description.<p>
+     */
+    public static final String FORMATTER_ATTR_PARALLEL = "parallelRendering";
+
+    /**
+     * ADE parameter for the number of rendering threads, parallel rendering is disabled if not set.<p>
+     *
+     * This must only be set if the servlet container supports include calls from other threads than the
+     * request thread, as Apache Tomcat does, see the class description.<p>
+     */
+    public static final String PARAM_THREADS = "parallelRenderingThreads";
+
+    /** ADE parameter for the maximum time in seconds the container tag waits for a rendering result. */
+    public static final String PARAM_TIMEOUT = "parallelRenderingTimeout";
+
+    /** Prefixes of the request attributes the servlet container sets for include calls. */
+    static final String[] CONTAINER_ATTRIBUTE_PREFIXES = {"javax.servlet.", "org.apache.catalina."};
+
+    /** The default maximum time in seconds to wait for a rendering result. */
+    private static final int DEFAULT_TIMEOUT = 60;
+
+    /** The number of queued rendering tasks per rendering thread. */
+    private static final int QUEUE_SIZE_PER_THREAD = 16;
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsJspParallelElementRenderer.class);
+
+    /** The rendering executor, <code>null</code> if parallel rendering is disabled. */
+    private static ExecutorService m_executor;
+
+    /** Flag indicating whether the executor has been initialized. */
+    private static boolean m_initialized;
+
+    /** The maximum time to wait for a rendering result in milliseconds. */
+    private static long m_timeout = DEFAULT_TIMEOUT * 1000L;
+
+    /**
+     * Hidden constructor.<p>
+     */
+    private CmsJspParallelElementRenderer() {
+
+        // NOOP
+    }
+
+    /**
+     * Creates a new batch for rendering the elements of a container.<p>
+     *
+     * Must only be called if {@link #isAvailable(ServletRequest)} returns <code>true</code>.<p>
+     *
+     * @return the new batch
+     */
+    public static Batch createBatch() {
+
+        return new Batch(getExecutor(), m_timeout);
+    }
+
+    /**
+     * Checks whether parallel rendering can be used for container elements in the given request.<p>
+     *
+     * This is only the case for the Online project, if parallel rendering is enabled, if the current
+     * Flex response is not recorded for the Flex cache, and if the request is not itself used for
+     * parallel rendering.<p>
+     *
+     * @param req the current request
+     *
+     * @return <code>true</code> if parallel rendering can be used
+     */
+    public static boolean isAvailable(ServletRequest req) {
+
+        if ((getExecutor() == null) || (req.getAttribute(ATTR_RENDER_TASK) != null)) {
+            return false;
+        }
+        CmsFlexController controller = CmsFlexController.getController(req);
+        return (controller != null)
+            && controller.getCmsObject().getRequestContext().getCurrentProject().isOnlineProject()
+            && !controller.getCurrentResponse().isCachingRequired();
+    }
+
+    /**
+     * Checks whether the given formatter allows parallel rendering.<p>
+     *
+     * @param formatter the formatter configuration
+     *
+     * @return <code>true</code> if the formatter allows parallel rendering
+     */
+    public static boolean isParallelFormatter(I_CmsFormatterBean formatter) {
+
+        return (formatter != null)
+            && (formatter.getAttributes() != null)
+            && Boolean.parseBoolean(formatter.getAttributes().get(FORMATTER_ATTR_PARALLEL));
+    }
+
+
+    /**
+     * Creates the task for rendering an element with the given formatter.<p>
+     *
+     * @param req the current request
+     * @param element the element to render
+     * @param formatter the site path of the formatter JSP
+     *
+     * @return the rendering task
+     *
+     * @throws CmsException if creating the CMS context for rendering fails
+     */
+    private static RenderTask createTask(ServletRequest req, CmsContainerElementBean element, String formatter)
+    throws CmsException {
+
+        CmsFlexController controller = CmsFlexController.getController(req);
+        CmsObject cms = controller.getCmsObject();
+        RenderTask task = new RenderTask();
+        task.m_cms = OpenCms.initCmsObject(cms);
+        task.m_cms.getRequestContext().setRequestTime(cms.getRequestContext().getRequestTime());
+        task.m_resource = controller.getCmsResource();
+        task.m_cache = controller.getCmsCache();
+        task.m_formatter = formatter;
+        Map<String, Object> attributes = new HashMap<String, Object>(CmsRequestUtil.getAttributeMap(req));
+        attributes.remove(CmsFlexController.ATTRIBUTE_NAME);
+        attributes.put(ATTR_RENDER_TASK, Boolean.TRUE);
+        CmsJspStandardContextBean contextBean = CmsJspStandardContextBean.getInstance(req).createCopy();
+        // the tag keeps working on the original element, so use a copy to render it
+        contextBean.setElement(element.clone());
+        task.m_contextBean = contextBean;
+        attributes.put(CmsJspStandardContextBean.ATTRIBUTE_NAME, contextBean);
+        Map<String, String[]> parameters = new HashMap<String, String[]>(
+            CmsCollectionsGenericWrapper.<String, String[]> map(req.getParameterMap()));
+        // prevent Flex cache commands from being executed again
+        parameters.remove(CmsFlexRequest.PARAMETER_FLEX);
+        // the wrappers take their snapshot of the request state here, in the request thread
+        HttpServletRequest request = (HttpServletRequest)unwrap(controller.getTopRequest());
+        task.m_request = new IsolatedRequest(request, request.getSession(false), attributes, parameters);
+        task.m_response = new IsolatedResponse((HttpServletResponse)unwrap(controller.getTopResponse()));
+        return task;
+    }
+
+    /**
+     * Returns the rendering executor, creating it on first use.<p>
+     *
+     * @return the rendering executor, or <code>null</code> if parallel rendering is disabled
+     */
+    private static synchronized ExecutorService getExecutor() {
+
+        if (!m_initialized && (OpenCms.getADEManager() != null) && OpenCms.getADEManager().isInitialized()) {
+            m_initialized = true;
+            Map<String, String> params = OpenCms.getADEManager().getParameters(null);
+            int threads = getIntParameter(params, PARAM_THREADS, 0);
+            m_timeout = getIntParameter(params, PARAM_TIMEOUT, DEFAULT_TIMEOUT) * 1000L;
+            if (threads > 0) {
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    threads,
+                    threads,
+                    60,
+                    TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<Runnable>(threads * QUEUE_SIZE_PER_THREAD),
+                    new ThreadFactoryBuilder().setNameFormat("CmsJspParallelElementRenderer-%d").setDaemon(
+                        true).build(),
+                    // if all threads are busy, render in the request thread instead of waiting
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+                executor.allowCoreThreadTimeOut(true);
+                m_executor = executor;
+            }
+        }
+        return m_executor;
+    }
+
+    /**
+     * Reads an integer ADE parameter.<p>
+     *
+     * @param params the ADE parameters
+     * @param name the parameter name
+     * @param defaultValue the value to use if the parameter is not set or invalid
+     *
+     * @return the parameter value
+     */
+    private static int getIntParameter(Map<String, String> params, String name, int defaultValue) {
+
+        String value = params.get(name);
+        if (CmsStringUtil.isNotEmptyOrWhitespaceOnly(value)) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOG.error(e.getLocalizedMessage(), e);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Removes all wrappers from a request.<p>
+     *
+     * The servlet container modifies the wrapper chain on include calls, so rendering tasks must not
+     * share wrappers with the request thread.<p>
+     *
+     * @param req the request
+     *
+     * @return the request without wrappers
+     */
+    private static ServletRequest unwrap(ServletRequest req) {
+
+        while (req instanceof ServletRequestWrapper) {
+            req = ((ServletRequestWrapper)req).getRequest();
+        }
+        return req;
+    }
+
+    /**
+     * Removes all wrappers from a response.<p>
+     *
+     * @param res the response
+     *
+     * @return the response without wrappers
+     *
+     * @see #unwrap(ServletRequest)
+     */
+    private static ServletResponse unwrap(ServletResponse res) {
+
+        while (res instanceof ServletResponseWrapper) {
+            res = ((ServletResponseWrapper)res).getResponse();
+        }
+        return res;
+    }
+}
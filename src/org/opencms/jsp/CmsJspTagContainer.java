@@ -149,6 +149,9 @@ public class CmsJspTagContainer extends BodyTagSupport implements TryCatchFinall
      **/
     private String m_namePrefix;
 
+    /** The elements rendered in parallel. */
+    private CmsJspParallelElementRenderer.Batch m_parallelBatch;
+
     /** The optional container parameter. */
     private String m_param;
 
@@ -567,6 +570,9 @@ public class CmsJspTagContainer extends BodyTagSupport implements TryCatchFinall
                 } else {
                     allElements.addAll(container.getElements());
                 }
+                if (!m_editableRequest && CmsJspParallelElementRenderer.isAvailable(req)) {
+                    startParallelRendering((HttpServletRequest)req, cms, allElements, locale, maxElements);
+                }
                 // iterate over elements to render
                 int numRenderedElements = 0;
                 boolean first = true;
@@ -606,6 +612,11 @@ public class CmsJspTagContainer extends BodyTagSupport implements TryCatchFinall
                         }
                     }
                 }
+                if (m_parallelBatch != null) {
+                    // wait for elements which have not been used, e.g. because the container is full
+                    m_parallelBatch.finish();
+                    m_parallelBatch = null;
+                }
                 if ((numRenderedElements == 0) && (m_bodyContent != null) && CmsJspTagEditable.isEditableRequest(req)) {
                     // the container is empty, print the evaluated body content
                     pageContext.getOut().print(m_bodyContent);
@@ -633,6 +644,12 @@ public class CmsJspTagContainer extends BodyTagSupport implements TryCatchFinall
             m_paramState.undoChanges();
             m_paramState = null;
         }
+        if (m_parallelBatch != null) {
+            // the tag was left with an error, the rendering tasks must not outlive the request
+            CmsJspParallelElementRenderer.Batch batch = m_parallelBatch;
+            m_parallelBatch = null;
+            batch.finish();
+        }
     }
 
     /**
@@ -1344,6 +1361,43 @@ public class CmsJspTagContainer extends BodyTagSupport implements TryCatchFinall
         }
     }
 
+    /**
+     * Prints the output of an element that has been rendered in parallel.<p>
+     *
+     * @param element the element
+     * @param formatter the site path of the formatter to use
+     *
+     * @return <code>false</code> if the element was not rendered in parallel with the given formatter,
+     *      and must be rendered sequentially
+     *
+     * @throws Exception if rendering the element failed
+     */
+    private boolean printParallelRenderingResult(CmsContainerElementBean element, String formatter)
+    throws Exception {
+
+        CmsJspParallelElementRenderer.Result result = m_parallelBatch != null
+        ? m_parallelBatch.take(element)
+        : null;
+        if ((result == null) || !formatter.equals(result.getFormatter())) {
+            return false;
+        }
+        CmsFlexController controller = CmsFlexController.getController(pageContext.getRequest());
+        controller.updateDates(result.getDateLastModified(), result.getDateExpires());
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(
+                Messages.get().getBundle().key(
+                    Messages.LOG_PARALLEL_ELEMENT_RENDERED_3,
+                    element.getSitePath(),
+                    formatter,
+                    Long.valueOf(result.getRenderTime())));
+        }
+        if (result.getError() != null) {
+            throw new JspException(controller.setThrowable(result.getError(), formatter));
+        }
+        pageContext.getOut().print(result.getOutput());
+        return true;
+    }
+
     /**
      * Renders a container element.<p>
      *
@@ -1577,7 +1631,7 @@ public class CmsJspTagContainer extends BodyTagSupport implements TryCatchFinall
                         // write invisible dummy element
                         pageContext.getOut().print(DUMMY_ELEMENT);
                         result = false;
-                    } else {
+                    } else if (!printParallelRenderingResult(element, formatter)) {
                         // execute the formatter jsp for the given element uri
                         CmsJspTagInclude.includeTagAction(
                             pageContext,
@@ -1677,4 +1731,61 @@ public class CmsJspTagContainer extends BodyTagSupport implements TryCatchFinall
         }
         return true;
     }
+
+    /**
+     * Starts rendering the elements with a formatter that allows parallel rendering.<p>
+     *
+     * The elements are checked like in {@link #renderContainerElement(HttpServletRequest, CmsObject,
+     * CmsJspStandardContextBean, CmsContainerElementBean, Locale, boolean)}, elements which can not be
+     * rendered in parallel are left for sequential rendering.<p>
+     *
+     * @param request the current request
+     * @param cms the CMS context
+     * @param elements the container elements
+     * @param locale the requested locale
+     * @param maxElements the maximum number of elements to render
+     */
+    private void startParallelRendering(
+        HttpServletRequest request,
+        CmsObject cms,
+        List<CmsContainerElementBean> elements,
+        Locale locale,
+        int maxElements) {
+
+        m_parallelBatch = CmsJspParallelElementRenderer.createBatch();
+        CmsTemplateContext context = (CmsTemplateContext)(request.getAttribute(
+            CmsTemplateContextManager.ATTR_TEMPLATE_CONTEXT));
+        String contextKey = context != null ? context.getKey() : null;
+        CmsADEConfigData adeConfig = OpenCms.getADEManager().lookupConfiguration(
+            cms,
+            cms.getRequestContext().getRootUri());
+        int containerWidth = getContainerWidth();
+        for (CmsContainerElementBean element : elements.subList(0, Math.min(maxElements, elements.size()))) {
+            try {
+                element.initResource(cms);
+                if (!element.isReleasedAndNotExpired()
+                    || !shouldShowInContext(element, contextKey)
+                    || element.isGroupContainer(cms)
+                    || element.isInheritedContainer(cms)) {
+                    continue;
+                }
+                I_CmsFormatterBean formatterConfig = ensureValidFormatterSettings(
+                    cms,
+                    element,
+                    adeConfig,
+                    getName(),
+                    getType(),
+                    containerWidth);
+                if (!CmsJspParallelElementRenderer.isParallelFormatter(formatterConfig)) {
+                    continue;
+                }
+                element.initSettings(cms, formatterConfig, locale, request, m_settingPresets);
+                String formatter = cms.getSitePath(cms.readResource(formatterConfig.getJspStructureId()));
+                m_parallelBatch.submit(request, element, formatter);
+            } catch (Exception e) {
+                // the element is rendered sequentially, which will report the error
+                LOG.debug(e.getLocalizedMessage(), e);
+            }
+        }
+    }
 }
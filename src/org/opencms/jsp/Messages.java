@@ -97,6 +97,15 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String ERR_NO_CUSTOM_BEAN_1 = "ERR_NO_CUSTOM_BEAN_1";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String ERR_PARALLEL_RENDERING_INTERRUPTED_0 = "ERR_PARALLEL_RENDERING_INTERRUPTED_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String ERR_PARALLEL_RENDERING_STATUS_1 = "ERR_PARALLEL_RENDERING_STATUS_1";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String ERR_PARALLEL_RENDERING_TIMEOUT_1 = "ERR_PARALLEL_RENDERING_TIMEOUT_1";
+
     /** Message constant for key in the resource bundle. */
     public static final String ERR_PARENTLESS_TAG_1 = "ERR_PARENTLESS_TAG_1";
 
@@ -229,6 +238,9 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String LOG_MAXELEMENTS_NOT_SET_2 = "LOG_MAXELEMENTS_NOT_SET_2";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_PARALLEL_ELEMENT_RENDERED_3 = "LOG_PARALLEL_ELEMENT_RENDERED_3";
+
     /** Message constant for key in the resource bundle. */
     public static final String LOG_TAG_SEARCH_SEARCH_FAILED_0 = "LOG_TAG_SEARCH_SEARCH_FAILED_0";
 
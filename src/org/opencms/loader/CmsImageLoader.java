@@ -30,25 +30,46 @@ package org.opencms.loader;
 import org.opencms.ade.galleries.CmsPreviewService;
 import org.opencms.cache.CmsVfsNameBasedDiskCache;
 import org.opencms.configuration.CmsParameterConfiguration;
+import org.opencms.configuration.I_CmsNeedsAdminCmsObject;
 import org.opencms.file.CmsFile;
 import org.opencms.file.CmsObject;
 import org.opencms.file.CmsResource;
 import org.opencms.main.CmsEvent;
 import org.opencms.main.CmsException;
 import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsAsyncEventListener;
 import org.opencms.main.I_CmsEventListener;
 import org.opencms.main.OpenCms;
 import org.opencms.scheduler.jobs.CmsImageCacheCleanupJob;
+import org.opencms.util.CmsRequestUtil;
 import org.opencms.util.CmsStringUtil;
+import org.opencms.workplace.CmsWorkplaceManager;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.logging.Log;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * Loader for images from the OpenCms VSF with integrated image scaling and processing capabilities.<p>
  *
@@ -59,9 +80,21 @@ import org.apache.commons.logging.Log;
  * For example, to scale an image to exact 800x600 pixel with center fitting and a background color of grey,
  * the following parameter String can be used: <code>w:800,h:600,t:0,c:c0c0c0</code>.<p>
  *
+ * Cleaning up the image cache on a clear caches event is done asynchronously,
+ * so the thread firing the event does not wait for the scaled images to be deleted.<p>
+ *
+ * Concurrent requests for the same uncached image variant are coalesced, so the variant is scaled only once.
+ * Scaling is done by a bounded pool of scaling threads, configured with {@link #CONFIGURATION_SCALING_THREADS}
+ * and {@link #CONFIGURATION_SCALING_QUEUE_SIZE}. Requests that exceed the queue are answered with
+ * "503 - service unavailable". Cached variants are streamed directly from the disk cache
+ * with a strong "ETag" header derived from the cache name.<p>
+ *
+ * Scaled variants of published images can be generated in advance for configured presets,
+ * see {@link CmsImageVariantGenerator}.<p>
+ *
  * @since 6.2.0
  */
-public class CmsImageLoader extends CmsDumpLoader implements I_CmsEventListener {
+public class CmsImageLoader extends CmsDumpLoader implements I_CmsAsyncEventListener, I_CmsNeedsAdminCmsObject {
 
     /** The configuration parameter for the OpenCms XML configuration to set the image down scale operation. */
     public static final String CONFIGURATION_DOWNSCALE = "image.scaling.downscale";
@@ -75,9 +108,24 @@ public class CmsImageLoader extends CmsDumpLoader implements I_CmsEventListener
     /** The configuration parameter for the OpenCms XML configuration to set the maximum image scale size. */
     public static final String CONFIGURATION_MAX_SCALE_SIZE = "image.scaling.maxsize";
 
+    /** The configuration parameter for the OpenCms XML configuration to set the image variant presets. */
+    public static final String CONFIGURATION_PREGENERATE_PRESETS = "image.pregenerate.presets";
+
+    /** The configuration parameter for the OpenCms XML configuration to set the number of pre-generating threads. */
+    public static final String CONFIGURATION_PREGENERATE_THREADS = "image.pregenerate.threads";
+
     /** The configuration parameter for the OpenCms XML configuration to enable the image scaling. */
     public static final String CONFIGURATION_SCALING_ENABLED = "image.scaling.enabled";
 
+    /** The configuration parameter for the OpenCms XML configuration to set the scaling queue size. */
+    public static final String CONFIGURATION_SCALING_QUEUE_SIZE = "image.scaling.queuesize";
+
+    /** The configuration parameter for the OpenCms XML configuration to set the number of image scaling threads. */
+    public static final String CONFIGURATION_SCALING_THREADS = "image.scaling.threads";
+
+    /** The default maximum number of queued scaling tasks. */
+    public static final int DEFAULT_SCALING_QUEUE_SIZE = 100;
+
     /** Default name for the image cache repository. */
     public static final String IMAGE_REPOSITORY_DEFAULT = "/WEB-INF/imagecache/";
 
@@ -99,6 +147,12 @@ public class CmsImageLoader extends CmsDumpLoader implements I_CmsEventListener
     /** The maximum image size (width * height) to apply image blurring when down scaling (setting this to high may cause "out of memory" errors). */
     protected static int m_maxBlurSize = CmsImageScaler.SCALE_DEFAULT_MAX_BLUR_SIZE;
 
+    /** The scaling operations currently in progress, with the cache name as key. */
+    protected static Map<String, CompletableFuture<byte[]>> m_pendingScalings = new ConcurrentHashMap<>();
+
+    /** The executor used to scale images. */
+    protected static ThreadPoolExecutor m_scalingExecutor;
+
     /** The disk cache to use for saving scaled image versions. */
     protected static CmsVfsNameBasedDiskCache m_vfsDiskCache;
 
@@ -108,6 +162,21 @@ public class CmsImageLoader extends CmsDumpLoader implements I_CmsEventListener
     /** The maximum image size (width or height) to allow when up scaling an image using request parameters. */
     protected int m_maxScaleSize = CmsImageScaler.SCALE_DEFAULT_MAX_SIZE;
 
+    /** The image variant presets generated on publish. */
+    protected String m_pregeneratePresets;
+
+    /** The number of threads generating image variants on publish. */
+    protected int m_pregenerateThreads = 1;
+
+    /** The maximum number of queued scaling tasks. */
+    protected int m_scalingQueueSize = DEFAULT_SCALING_QUEUE_SIZE;
+
+    /** The number of image scaling threads. */
+    protected int m_scalingThreads = Runtime.getRuntime().availableProcessors();
+
+    /** The generator for the image variant presets, only set if presets are configured. */
+    protected CmsImageVariantGenerator m_variantGenerator;
+
     /**
      * Creates a new image loader.<p>
      */
@@ -201,6 +270,22 @@ public class CmsImageLoader extends CmsDumpLoader implements I_CmsEventListener
             if (CONFIGURATION_DOWNSCALE.equals(paramName)) {
                 m_downScaleParams = paramValue.trim();
             }
+            if (CONFIGURATION_PREGENERATE_PRESETS.equals(paramName)) {
+                m_pregeneratePresets = paramValue.trim();
+            }
+            if (CONFIGURATION_PREGENERATE_THREADS.equals(paramName)) {
+                m_pregenerateThreads = Math.max(1, CmsStringUtil.getIntValue(paramValue, 1, paramName));
+            }
+            if (CONFIGURATION_SCALING_THREADS.equals(paramName)) {
+                m_scalingThreads = Math.max(
+                    1,
+                    CmsStringUtil.getIntValue(paramValue, Runtime.getRuntime().availableProcessors(), paramName));
+            }
+            if (CONFIGURATION_SCALING_QUEUE_SIZE.equals(paramName)) {
+                m_scalingQueueSize = Math.max(
+                    1,
+                    CmsStringUtil.getIntValue(paramValue, DEFAULT_SCALING_QUEUE_SIZE, paramName));
+            }
         }
         super.addConfigurationParameter(paramName, paramValue);
     }
@@ -245,6 +330,15 @@ public class CmsImageLoader extends CmsDumpLoader implements I_CmsEventListener
         m_enabled = false;
         m_imageRepositoryFolder = null;
         m_vfsDiskCache = null;
+        if (m_scalingExecutor != null) {
+            m_scalingExecutor.shutdown();
+            m_scalingExecutor = null;
+        }
+        if (m_variantGenerator != null) {
+            OpenCms.removeCmsEventListener(m_variantGenerator);
+            m_variantGenerator.shutdown();
+            m_variantGenerator = null;
+        }
     }
 
     /**
@@ -287,7 +381,18 @@ public class CmsImageLoader extends CmsDumpLoader implements I_CmsEventListener
                 OpenCms.getSystemInfo().getWebApplicationRfsPath(),
                 m_imageRepositoryFolder);
         }
-        OpenCms.addCmsEventListener(this);
+        // initialize the bounded scaling executor
+        if (m_scalingExecutor == null) {
+            m_scalingExecutor = new ThreadPoolExecutor(
+                m_scalingThreads,
+                m_scalingThreads,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(m_scalingQueueSize),
+                new ThreadFactoryBuilder().setNameFormat("CmsImageLoader-scaling-%d").setDaemon(true).build());
+            m_scalingExecutor.allowCoreThreadTimeOut(true);
+        }
+        OpenCms.addCmsEventListener(this, new int[] {I_CmsEventListener.EVENT_CLEAR_CACHES});
         // output setup information
         if (CmsLog.INIT.isInfoEnabled()) {
             CmsLog.INIT.info(
@@ -296,6 +401,11 @@ public class CmsImageLoader extends CmsDumpLoader implements I_CmsEventListener
                     m_vfsDiskCache.getRepositoryPath()));
             CmsLog.INIT.info(
                 Messages.get().getBundle().key(Messages.INIT_IMAGE_SCALING_ENABLED_1, Boolean.valueOf(m_enabled)));
+            CmsLog.INIT.info(
+                Messages.get().getBundle().key(
+                    Messages.INIT_IMAGE_SCALING_THREADS_2,
+                    Integer.valueOf(m_scalingThreads),
+                    Integer.valueOf(m_scalingQueueSize)));
         }
     }
 
@@ -313,16 +423,69 @@ public class CmsImageLoader extends CmsDumpLoader implements I_CmsEventListener
             }
             // get the scale information from the request
             CmsImageScaler scaler = new CmsImageScaler(req, m_maxScaleSize, m_maxBlurSize);
-            // load the file from the cache
-            CmsFile file = getScaledImage(cms, resource, scaler);
-            // now perform standard load operation inherited from dump loader
-            super.load(cms, file, req, res);
+            try {
+                if (resource instanceof CmsFile) {
+                    // the original file content must be modified (required e.g. for static export)
+                    CmsFile file = getScaledImage(cms, resource, scaler);
+                    // now perform standard load operation inherited from dump loader
+                    super.load(cms, file, req, res);
+                } else {
+                    // stream the image from the cache
+                    loadScaledImage(cms, resource, scaler, req, res);
+                }
+            } catch (RejectedExecutionException e) {
+                LOG.warn(
+                    Messages.get().getBundle().key(Messages.LOG_IMAGE_SCALING_QUEUE_FULL_1, resource.getRootPath()));
+                res.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            }
         } else {
             // scaling is disabled
             super.load(cms, resource, req, res);
         }
     }
 
+    /**
+     * @see org.opencms.configuration.I_CmsNeedsAdminCmsObject#setAdminCmsObject(org.opencms.file.CmsObject)
+     */
+    public void setAdminCmsObject(CmsObject adminCms) {
+
+        if (!m_enabled || CmsStringUtil.isEmptyOrWhitespaceOnly(m_pregeneratePresets) || (m_variantGenerator != null)) {
+            return;
+        }
+        try {
+            m_variantGenerator = new CmsImageVariantGenerator(
+                this,
+                adminCms,
+                m_pregeneratePresets,
+                m_pregenerateThreads);
+            OpenCms.addCmsEventListener(m_variantGenerator, new int[] {I_CmsEventListener.EVENT_PUBLISH_PROJECT});
+            if (CmsLog.INIT.isInfoEnabled()) {
+                CmsLog.INIT.info(
+                    Messages.get().getBundle().key(Messages.INIT_IMAGE_PREGENERATE_PRESETS_1, m_pregeneratePresets));
+            }
+        } catch (CmsException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the strong "ETag" value for the image variant with the given cache name.<p>
+     *
+     * @param cacheName the RFS cache name of the image variant
+     *
+     * @return the "ETag" value, including the quotes
+     */
+    protected String getETag(String cacheName) {
+
+        String name = cacheName;
+        String repositoryPath = m_vfsDiskCache.getRepositoryPath();
+        if (name.startsWith(repositoryPath)) {
+            // the ETag must not depend on the location of the repository
+            name = name.substring(repositoryPath.length());
+        }
+        return "\"" + DigestUtils.md5Hex(name) + "\"";
+    }
+
     /**
      * Returns a scaled version of the given OpenCms VFS image resource.<p>
      *
@@ -338,42 +501,306 @@ public class CmsImageLoader extends CmsDumpLoader implements I_CmsEventListener
      *
      * @throws IOException in case of errors accessing the disk based cache
      * @throws CmsException in case of errors accessing the OpenCms VFS
+     * @throws RejectedExecutionException in case the image scaling queue is full
      */
     protected CmsFile getScaledImage(CmsObject cms, CmsResource resource, CmsImageScaler scaler)
     throws IOException, CmsException {
 
-        String cacheParam = scaler.isValid() ? scaler.toString() : null;
-        String cacheName = m_vfsDiskCache.getCacheName(resource, cacheParam);
+        String cacheName = getScaledImageCacheName(resource, scaler);
         byte[] content = m_vfsDiskCache.getCacheContent(cacheName);
+        if (content == null) {
+            content = getScaledImageContent(cms, resource, scaler, cacheName);
+        }
 
         CmsFile file;
-        if (content != null) {
-            if (resource instanceof CmsFile) {
-                // the original file content must be modified (required e.g. for static export)
-                file = (CmsFile)resource;
-            } else {
-                // this is no file, but we don't want to use "upgrade" since we don't need to read the content from the VFS
-                file = new CmsFile(resource);
-            }
-            // save the content in the file
-            file.setContents(content);
+        if (resource instanceof CmsFile) {
+            // the original file content must be modified (required e.g. for static export)
+            file = (CmsFile)resource;
         } else {
+            // this is no file, but we don't want to use "upgrade" since we don't need to read the content from the VFS
+            file = new CmsFile(resource);
+        }
+        // save the content in the file
+        file.setContents(content);
+        return file;
+    }
+
+    /**
+     * Returns the RFS cache name for the given image variant.<p>
+     *
+     * @param resource the base VFS resource for the image
+     * @param scaler the configured image scaler
+     *
+     * @return the RFS cache name for the given image variant
+     */
+    protected String getScaledImageCacheName(CmsResource resource, CmsImageScaler scaler) {
+
+        String cacheParam = scaler.isValid() ? scaler.toString() : null;
+        return m_vfsDiskCache.getCacheName(resource, cacheParam);
+    }
+
+    /**
+     * Creates the content of the given image variant and saves it in the disk cache.<p>
+     *
+     * Concurrent calls for the same cache name are coalesced, so that the image is read from the VFS,
+     * scaled and written to the disk cache only once. The scaling itself is done by the bounded scaling executor.<p>
+     *
+     * @param cms the current users OpenCms context
+     * @param resource the base VFS resource for the image
+     * @param scaler the configured image scaler
+     * @param cacheName the RFS cache name of the image variant
+     *
+     * @return the content of the image variant
+     *
+     * @throws IOException in case of errors accessing the disk based cache
+     * @throws CmsException in case of errors accessing the OpenCms VFS
+     * @throws RejectedExecutionException in case the image scaling queue is full
+     */
+    protected byte[] getScaledImageContent(
+        CmsObject cms,
+        CmsResource resource,
+        CmsImageScaler scaler,
+        String cacheName)
+    throws IOException, CmsException {
+
+        return getScaledImageContent(cms, resource, scaler, cacheName, m_scalingExecutor);
+    }
+
+    /**
+     * Creates the content of the given image variant and saves it in the disk cache,
+     * using the given executor for the scaling.<p>
+     *
+     * @param cms the current users OpenCms context
+     * @param resource the base VFS resource for the image
+     * @param scaler the configured image scaler
+     * @param cacheName the RFS cache name of the image variant
+     * @param executor the executor for the scaling, or <code>null</code> to scale in the calling thread
+     *
+     * @return the content of the image variant
+     *
+     * @throws IOException in case of errors accessing the disk based cache
+     * @throws CmsException in case of errors accessing the OpenCms VFS
+     * @throws RejectedExecutionException in case the executor rejects the scaling
+     *
+     * @see #getScaledImageContent(CmsObject, CmsResource, CmsImageScaler, String)
+     */
+    protected byte[] getScaledImageContent(
+        CmsObject cms,
+        CmsResource resource,
+        CmsImageScaler scaler,
+        String cacheName,
+        Executor executor)
+    throws IOException, CmsException {
+
+        CompletableFuture<byte[]> future = new CompletableFuture<byte[]>();
+        CompletableFuture<byte[]> pending = m_pendingScalings.putIfAbsent(cacheName, future);
+        if (pending != null) {
+            // another request is already creating this variant
+            return waitForScaling(pending);
+        }
+        try {
+            // the variant may have been saved just before we registered
+            byte[] content = m_vfsDiskCache.getCacheContent(cacheName);
+            if (content != null) {
+                future.complete(content);
+                return content;
+            }
             // we must read the content from the VFS (if this has not been done yet)
-            file = cms.readFile(resource);
-            // upgrade the file (load the content)
-            if (scaler.isValid()) {
-                if (scaler.getType() == 8) {
-                    // only need the focal point for mode 8
-                    scaler.setFocalPoint(CmsPreviewService.readFocalPoint(cms, resource));
+            CmsFile file = cms.readFile(resource);
+            if (!scaler.isValid()) {
+                // no scaling required, just save the original content in the cache
+                m_vfsDiskCache.saveCacheFile(cacheName, file.getContents());
+                future.complete(file.getContents());
+                return file.getContents();
+            }
+            if (scaler.getType() == 8) {
+                // only need the focal point for mode 8
+                scaler.setFocalPoint(CmsPreviewService.readFocalPoint(cms, resource));
+            }
+            Runnable task = () -> {
+                try {
+                    // valid scaling parameters found, scale the content
+                    byte[] scaled = scaler.scaleImage(file);
+                    // save the scaled content in the cache
+                    m_vfsDiskCache.saveCacheFile(cacheName, scaled);
+                    future.complete(scaled);
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
                 }
-                // valid scaling parameters found, scale the content
-                content = scaler.scaleImage(file);
-                // exchange the content of the file with the scaled version
-                file.setContents(content);
+            };
+            if (executor != null) {
+                executor.execute(task);
+            } else {
+                task.run();
             }
-            // save the file content in the cache
-            m_vfsDiskCache.saveCacheFile(cacheName, file.getContents());
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        } finally {
+            future.whenComplete((content, error) -> m_pendingScalings.remove(cacheName, future));
+        }
+        return waitForScaling(future);
+    }
+
+    /**
+     * Checks if the given "If-None-Match" header value matches the given "ETag".<p>
+     *
+     * @param ifNoneMatch the value of the "If-None-Match" request header, may be <code>null</code>
+     * @param etag the "ETag" of the requested content
+     *
+     * @return <code>true</code> if the header matches the "ETag"
+     */
+    protected static boolean isETagMatch(String ifNoneMatch, String etag) {
+
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : CmsStringUtil.splitAsList(ifNoneMatch, ',', true)) {
+            if (tag.startsWith("W/")) {
+                // If-None-Match uses the weak comparison
+                tag = tag.substring(2);
+            }
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Delivers a scaled version of the given OpenCms VFS image resource.<p>
+     *
+     * If the scaled version is available in the disk cache, it is streamed directly from the cache file.
+     * Otherwise it is created with {@link #getScaledImageContent(CmsObject, CmsResource, CmsImageScaler, String)}.<p>
+     *
+     * @param cms the current users OpenCms context
+     * @param resource the base VFS resource for the image
+     * @param scaler the configured image scaler
+     * @param req the current request
+     * @param res the current response
+     *
+     * @throws IOException in case of errors accessing the disk based cache or writing the response
+     * @throws CmsException in case of errors accessing the OpenCms VFS
+     * @throws RejectedExecutionException in case the image scaling queue is full
+     */
+    protected void loadScaledImage(
+        CmsObject cms,
+        CmsResource resource,
+        CmsImageScaler scaler,
+        HttpServletRequest req,
+        HttpServletResponse res)
+    throws IOException, CmsException {
+
+        String cacheName = getScaledImageCacheName(resource, scaler);
+        String etag = null;
+        if (!CmsWorkplaceManager.isWorkplaceUser(req)) {
+            etag = getETag(cacheName);
+            if (isETagMatch(req.getHeader(CmsRequestUtil.HEADER_IF_NONE_MATCH), etag)) {
+                res.setHeader(CmsRequestUtil.HEADER_ETAG, etag);
+                res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        File cacheFile = m_vfsDiskCache.getCacheFile(cacheName);
+        if (cacheFile != null) {
+            try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                setResponseHeaders(resource, (int)size, req, res);
+                if (etag != null) {
+                    res.setHeader(CmsRequestUtil.HEADER_ETAG, etag);
+                }
+                WritableByteChannel out = Channels.newChannel(res.getOutputStream());
+                long position = 0;
+                while (position < size) {
+                    long count = channel.transferTo(position, size - position, out);
+                    if (count <= 0) {
+                        break;
+                    }
+                    position += count;
+                }
+                return;
+            } catch (NoSuchFileException e) {
+                // the cache file was removed in the meantime, so create it again
+            }
+        }
+        byte[] content = getScaledImageContent(cms, resource, scaler, cacheName);
+        setResponseHeaders(resource, content.length, req, res);
+        if (etag != null) {
+            res.setHeader(CmsRequestUtil.HEADER_ETAG, etag);
+        }
+        res.getOutputStream().write(content);
+    }
+
+    /**
+     * Generates the given variant of an image in the disk cache, unless it already exists.<p>
+     *
+     * The scaling is done in the calling thread, so the bounded scaling executor remains available for requests.<p>
+     *
+     * @param cms the OpenCms context used to read the image
+     * @param resource the image
+     * @param parameters the scale parameters of the variant
+     *
+     * @throws IOException in case of errors accessing the disk based cache
+     * @throws CmsException in case of errors accessing the OpenCms VFS
+     */
+    protected void pregenerateVariant(CmsObject cms, CmsResource resource, String parameters)
+    throws IOException, CmsException {
+
+        CmsImageScaler scaler = new CmsImageScaler(parameters);
+        scaler.setMaxBlurSize(m_maxBlurSize);
+        String cacheName = getScaledImageCacheName(resource, scaler);
+        if (!m_vfsDiskCache.hasCacheContent(cacheName)) {
+            getScaledImageContent(cms, resource, scaler, cacheName, null);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(Messages.get().getBundle().key(Messages.LOG_IMAGE_VARIANT_GENERATED_1, cacheName));
+            }
+        }
+    }
+
+    /**
+     * Removes the cached variants of the image with the given root path,
+     * except for the variants of the given current image state.<p>
+     *
+     * @param rootPath the root path of the image
+     * @param current the current state of the image, or <code>null</code> to remove all variants
+     */
+    protected void removeObsoleteVariants(String rootPath, CmsResource current) {
+
+        int count = m_vfsDiskCache.removeObsoleteCacheFiles(rootPath, current);
+        if ((count > 0) && LOG.isDebugEnabled()) {
+            LOG.debug(
+                Messages.get().getBundle().key(Messages.LOG_IMAGE_VARIANTS_REMOVED_2, String.valueOf(count), rootPath));
+        }
+    }
+
+    /**
+     * Waits for the given scaling operation to finish.<p>
+     *
+     * @param future the scaling operation
+     *
+     * @return the content of the scaled image
+     *
+     * @throws IOException in case of errors accessing the disk based cache
+     * @throws CmsException in case of errors accessing the OpenCms VFS
+     */
+    private byte[] waitForScaling(CompletableFuture<byte[]> future) throws IOException, CmsException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            } else if (cause instanceof CmsException) {
+                throw (CmsException)cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            } else if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause);
         }
-        return file;
     }
-}
\ No newline at end of file
+}
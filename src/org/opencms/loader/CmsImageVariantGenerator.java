@@ -0,0 +1,295 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.loader;
+
+import org.opencms.db.CmsPublishedResource;
+import org.opencms.file.CmsObject;
+import org.opencms.file.CmsProject;
+import org.opencms.file.CmsResource;
+import org.opencms.file.CmsResourceFilter;
+import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsException;
+import org.opencms.main.CmsLog;
+import org.opencms.main.I_CmsAsyncEventListener;
+import org.opencms.main.I_CmsEventListener;
+import org.opencms.main.OpenCms;
+import org.opencms.util.CmsStringUtil;
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Generates the configured scaled variants of images in the background after they have been published,
+ * so the first visitors requesting them do not have to wait for the image scaling.<p>
+ *
+ * The presets are configured with the {@link CmsImageLoader#CONFIGURATION_PREGENERATE_PRESETS} parameter
+ * of the image loader, as a list of <code>path=scale parameters</code> entries separated by <code>;</code>,
+ * for example <code>/sites/default/gallery/=w:800,h:600,t:1;/sites/default/=w:200,h:150,t:2</code>.
+ * A preset applies to all images below the given root path, so presets can be configured per site
+ * or per gallery folder.<p>
+ *
+ * Outdated variants of changed images, all variants of deleted images and all variants cached under the
+ * previous path of moved images are removed from the disk cache right after publishing, instead of waiting
+ * for the image cache cleanup job.<p>
+ *
+ * @since 12.0.0
+ */
+public class CmsImageVariantGenerator implements I_CmsAsyncEventListener {
+
+    /**
+     * A scaling preset for the images below a root path.<p>
+     */
+    private static final class Preset {
+
+        /** The scale parameters. */
+        final String m_parameters;
+
+        /** The root path the preset applies to. */
+        final String m_path;
+
+        /**
+         * Creates a new preset.<p>
+         *
+         * @param path the root path the preset applies to
+         * @param parameters the scale parameters
+         */
+        Preset(String path, String parameters) {
+
+            m_path = path;
+            m_parameters = parameters;
+        }
+    }
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsImageVariantGenerator.class);
+
+    /** The admin context in the online project used to read the published images. */
+    private CmsObject m_cms;
+
+    /** The executor generating the image variants. */
+    private ThreadPoolExecutor m_executor;
+
+    /** The image loader. */
+    private CmsImageLoader m_loader;
+
+    /** The configured presets. */
+    private List<Preset> m_presets;
+
+    /**
+     * Creates a new image variant generator.<p>
+     *
+     * @param loader the image loader
+     * @param cms the admin context used to read the published images, may be <code>null</code> for testing
+     * @param presets the preset configuration
+     * @param threads the number of threads generating image variants
+     *
+     * @throws CmsException if the online project can not be read
+     */
+    public CmsImageVariantGenerator(CmsImageLoader loader, CmsObject cms, String presets, int threads)
+    throws CmsException {
+
+        m_loader = loader;
+        m_presets = parsePresets(presets);
+        if (cms != null) {
+            m_cms = OpenCms.initCmsObject(cms);
+            m_cms.getRequestContext().setCurrentProject(m_cms.readProject(CmsProject.ONLINE_PROJECT_ID));
+            m_cms.getRequestContext().setSiteRoot("");
+        }
+        m_executor = new ThreadPoolExecutor(
+            Math.max(1, threads),
+            Math.max(1, threads),
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactoryBuilder().setNameFormat("CmsImageVariantGenerator-%d").setDaemon(true).setPriority(
+                Thread.MIN_PRIORITY).build());
+        m_executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @see org.opencms.main.I_CmsEventListener#cmsEvent(org.opencms.main.CmsEvent)
+     */
+    public void cmsEvent(CmsEvent event) {
+
+        if ((event.getType() != I_CmsEventListener.EVENT_PUBLISH_PROJECT) || (m_cms == null)) {
+            return;
+        }
+        String publishIdStr = (String)event.getData().get(I_CmsEventListener.KEY_PUBLISHID);
+        if (!CmsUUID.isValidUUID(publishIdStr)) {
+            return;
+        }
+        try {
+            // the online paths of the moved images before publishing, by structure id
+            Map<CmsUUID, String> previousPaths = new HashMap<CmsUUID, String>();
+            List<CmsPublishedResource> images = new ArrayList<CmsPublishedResource>();
+            for (CmsPublishedResource res : m_cms.readPublishedResources(new CmsUUID(publishIdStr))) {
+                if (res.isFile() && isImage(res.getType())) {
+                    if (res.getMovedState() == CmsPublishedResource.STATE_MOVED_SOURCE) {
+                        previousPaths.put(res.getStructureId(), res.getRootPath());
+                    } else {
+                        images.add(res);
+                    }
+                }
+            }
+            for (CmsPublishedResource res : images) {
+                String previousPath = previousPaths.remove(res.getStructureId());
+                m_executor.execute(() -> update(res, previousPath));
+            }
+            for (String previousPath : previousPaths.values()) {
+                // moved away without being published at the new path, so remove all variants
+                m_executor.execute(() -> m_loader.removeObsoleteVariants(previousPath, null));
+            }
+        } catch (CmsException e) {
+            LOG.error(e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the scale parameters of all presets that apply to the image with the given root path.<p>
+     *
+     * @param rootPath the root path of the image
+     *
+     * @return the scale parameters of the matching presets
+     */
+    public List<String> getPresets(String rootPath) {
+
+        List<String> result = Collections.emptyList();
+        for (Preset preset : m_presets) {
+            if (rootPath.startsWith(preset.m_path)) {
+                if (result.isEmpty()) {
+                    result = new ArrayList<String>();
+                }
+                if (!result.contains(preset.m_parameters)) {
+                    result.add(preset.m_parameters);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Shuts down the executor generating the image variants.<p>
+     */
+    public void shutdown() {
+
+        m_executor.shutdownNow();
+    }
+
+    /**
+     * Removes the outdated variants of the given published image and generates the configured variants.<p>
+     *
+     * @param published the published image
+     * @param previousPath the online root path of the image before it was moved, or <code>null</code> if it was not moved
+     */
+    protected void update(CmsPublishedResource published, String previousPath) {
+
+        if (previousPath != null) {
+            // moved, so remove all variants cached under the previous path
+            m_loader.removeObsoleteVariants(previousPath, null);
+        }
+        if (published.getState().isDeleted()) {
+            m_loader.removeObsoleteVariants(published.getRootPath(), null);
+            return;
+        }
+        CmsResource resource;
+        try {
+            resource = m_cms.readResource(published.getStructureId(), CmsResourceFilter.ALL);
+        } catch (CmsException e) {
+            // the image was deleted again in the meantime
+            LOG.debug(e.getLocalizedMessage(), e);
+            m_loader.removeObsoleteVariants(published.getRootPath(), null);
+            return;
+        }
+        m_loader.removeObsoleteVariants(resource.getRootPath(), resource);
+        for (String parameters : getPresets(resource.getRootPath())) {
+            try {
+                m_loader.pregenerateVariant(m_cms, resource, parameters);
+            } catch (Exception e) {
+                LOG.error(
+                    Messages.get().getBundle().key(
+                        Messages.LOG_IMAGE_PREGENERATE_FAILED_2,
+                        resource.getRootPath(),
+                        parameters),
+                    e);
+            }
+        }
+    }
+
+    /**
+     * Checks if resources of the given type are delivered by the image loader.<p>
+     *
+     * @param type the resource type id
+     *
+     * @return true if resources of the given type are images
+     */
+    private boolean isImage(int type) {
+
+        try {
+            return OpenCms.getResourceManager().getResourceType(
+                type).getLoaderId() == CmsImageLoader.RESOURCE_LOADER_ID_IMAGE_LOADER;
+        } catch (CmsLoaderException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parses the preset configuration.<p>
+     *
+     * Invalid entries are ignored.<p>
+     *
+     * @param presets the preset configuration
+     *
+     * @return the parsed presets
+     */
+    private static List<Preset> parsePresets(String presets) {
+
+        List<Preset> result = new ArrayList<Preset>();
+        for (String entry : CmsStringUtil.splitAsList(presets, ';', true)) {
+            int pos = entry.lastIndexOf('=');
+            String path = pos > 0 ? entry.substring(0, pos).trim() : "";
+            String parameters = entry.substring(pos + 1).trim();
+            if (path.startsWith("/") && new CmsImageScaler(parameters).isValid()) {
+                result.add(new Preset(path, parameters));
+            } else if (CmsStringUtil.isNotEmpty(entry)) {
+                LOG.warn(Messages.get().getBundle().key(Messages.LOG_INVALID_IMAGE_PRESET_1, entry));
+            }
+        }
+        return result;
+    }
+}
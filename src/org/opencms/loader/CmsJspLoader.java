@@ -37,6 +37,7 @@ import org.opencms.file.CmsResourceFilter;
 import org.opencms.file.CmsVfsResourceNotFoundException;
 import org.opencms.file.history.CmsHistoryResourceHandler;
 import org.opencms.flex.CmsFlexCache;
+import org.opencms.flex.CmsFlexCacheEntry;
 import org.opencms.flex.CmsFlexController;
 import org.opencms.flex.CmsFlexRequest;
 import org.opencms.flex.CmsFlexResponse;
@@ -1024,10 +1025,22 @@ public class CmsJspLoader implements I_CmsResourceLoader, I_CmsFlexCacheEnabledL
                             CmsRequestUtil.HEADER_OPENCMS_EXPORT,
                             new Long(controller.getDateLastModified()));
                     } else if (controller.isTop()) {
-                        // process headers and write output if this is the "top" request/response
-                        res.setContentLength(result.length);
                         // check for preset error code
                         Integer errorCode = (Integer)req.getAttribute(CmsRequestUtil.ATTRIBUTE_ERRORCODE);
+                        byte[] output = result;
+                        CmsFlexCacheEntry precompressed = controller.getPrecompressedEntry();
+                        if ((errorCode == null)
+                            && (precompressed != null)
+                            && (precompressed.getOutputSize() == result.length)) {
+                            // the complete output was delivered from a cache entry with a precompressed version
+                            res.addHeader(CmsRequestUtil.HEADER_VARY, CmsRequestUtil.HEADER_ACCEPT_ENCODING);
+                            if (CmsRequestUtil.isEncodingAccepted(req, CmsRequestUtil.HEADER_VALUE_GZIP)) {
+                                output = precompressed.getGzipBytes();
+                                res.setHeader(CmsRequestUtil.HEADER_CONTENT_ENCODING, CmsRequestUtil.HEADER_VALUE_GZIP);
+                            }
+                        }
+                        // process headers and write output if this is the "top" request/response
+                        res.setContentLength(output.length);
                         if (errorCode == null) {
                             // set last modified / no cache headers only if this is not an error page
                             if (isWorkplaceUser) {
@@ -1055,7 +1068,7 @@ public class CmsJspLoader implements I_CmsResourceLoader, I_CmsFlexCacheEnabledL
                         }
                         // process the headers
                         CmsFlexResponse.processHeaders(f_res.getHeaders(), res);
-                        res.getOutputStream().write(result);
+                        res.getOutputStream().write(output);
                         res.getOutputStream().flush();
                     }
                 }
@@ -172,12 +172,18 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String INIT_GET_RESTYPE_2 = "INIT_GET_RESTYPE_2";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String INIT_IMAGE_PREGENERATE_PRESETS_1 = "INIT_IMAGE_PREGENERATE_PRESETS_1";
+
     /** Message constant for key in the resource bundle. */
     public static final String INIT_IMAGE_REPOSITORY_PATH_1 = "INIT_IMAGE_REPOSITORY_PATH_1";
 
     /** Message constant for key in the resource bundle. */
     public static final String INIT_IMAGE_SCALING_ENABLED_1 = "INIT_IMAGE_SCALING_ENABLED_1";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String INIT_IMAGE_SCALING_THREADS_2 = "INIT_IMAGE_SCALING_THREADS_2";
+
     /** Message constant for key in the resource bundle. */
     public static final String INIT_JSP_CACHE_SIZE_1 = "INIT_JSP_CACHE_SIZE_1";
 
@@ -241,6 +247,21 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String LOG_IGNORING_EXC_1 = "LOG_IGNORING_EXC_1";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_IMAGE_PREGENERATE_FAILED_2 = "LOG_IMAGE_PREGENERATE_FAILED_2";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_IMAGE_SCALING_QUEUE_FULL_1 = "LOG_IMAGE_SCALING_QUEUE_FULL_1";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_IMAGE_VARIANTS_REMOVED_2 = "LOG_IMAGE_VARIANTS_REMOVED_2";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_IMAGE_VARIANT_GENERATED_1 = "LOG_IMAGE_VARIANT_GENERATED_1";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_INVALID_IMAGE_PRESET_1 = "LOG_INVALID_IMAGE_PRESET_1";
+
     /** Message constant for key in the resource bundle. */
     public static final String LOG_JSP_PERMCHECK_4 = "LOG_JSP_PERMCHECK_4";
 
@@ -0,0 +1,398 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.main;
+
+import org.opencms.db.generic.CmsSqlManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs the initialization phases of the OpenCms managers in dependency order.<p>
+ *
+ * Each phase declares the phases it depends on. Phases whose dependencies are all finished may run
+ * in parallel, otherwise the phases are executed one after another in the order they have been added.<p>
+ *
+ * For every phase the wall time, the executing thread, the number of SQL statements prepared and the change
+ * of the used heap are recorded and written to the init log as a boot report. When phases run in parallel,
+ * the SQL statement count and the heap delta of a phase also include the work of the phases running at the same time.<p>
+ *
+ * @since 12.0.0
+ */
+public final class CmsBootSequence {
+
+    /**
+     * The action of a boot phase.<p>
+     */
+    public interface I_Action {
+
+        /**
+         * Executes the boot phase.<p>
+         *
+         * @throws CmsException if something goes wrong
+         */
+        void run() throws CmsException;
+    }
+
+    /**
+     * A single phase of the boot sequence, together with the statistics recorded when it was executed.<p>
+     */
+    public static final class Phase {
+
+        /** The action to execute. */
+        private I_Action m_action;
+
+        /** The names of the phases this phase depends on. */
+        private Set<String> m_dependencies;
+
+        /** The execution time in milliseconds. */
+        private long m_duration;
+
+        /** The change of the used heap in bytes. */
+        private long m_heapDelta;
+
+        /** The phase name. */
+        private String m_name;
+
+        /** The number of SQL statements prepared while the phase was running. */
+        private long m_statementCount;
+
+        /** The name of the thread which executed the phase. */
+        private String m_threadName;
+
+        /**
+         * Creates a new phase.<p>
+         *
+         * @param name the phase name
+         * @param action the action to execute
+         * @param dependencies the names of the phases this phase depends on
+         */
+        Phase(String name, I_Action action, Set<String> dependencies) {
+
+            m_name = name;
+            m_action = action;
+            m_dependencies = dependencies;
+        }
+
+        /**
+         * Returns the names of the phases this phase depends on.<p>
+         *
+         * @return the names of the phases this phase depends on
+         */
+        public Set<String> getDependencies() {
+
+            return m_dependencies;
+        }
+
+        /**
+         * Returns the execution time in milliseconds.<p>
+         *
+         * @return the execution time in milliseconds
+         */
+        public long getDuration() {
+
+            return m_duration;
+        }
+
+        /**
+         * Returns the change of the used heap in bytes.<p>
+         *
+         * @return the change of the used heap in bytes
+         */
+        public long getHeapDelta() {
+
+            return m_heapDelta;
+        }
+
+        /**
+         * Returns the phase name.<p>
+         *
+         * @return the phase name
+         */
+        public String getName() {
+
+            return m_name;
+        }
+
+        /**
+         * Returns the number of SQL statements prepared while the phase was running.<p>
+         *
+         * @return the number of SQL statements
+         */
+        public long getStatementCount() {
+
+            return m_statementCount;
+        }
+
+        /**
+         * Returns the name of the thread which executed the phase.<p>
+         *
+         * @return the thread name
+         */
+        public String getThreadName() {
+
+            return m_threadName;
+        }
+
+        /**
+         * Executes the phase and records its statistics.<p>
+         *
+         * @throws CmsException if something goes wrong
+         */
+        void execute() throws CmsException {
+
+            Runtime runtime = Runtime.getRuntime();
+            long usedHeap = runtime.totalMemory() - runtime.freeMemory();
+            long statements = CmsSqlManager.getPreparedStatementCount();
+            long start = System.currentTimeMillis();
+            m_threadName = Thread.currentThread().getName();
+            try {
+                m_action.run();
+            } finally {
+                m_duration = System.currentTimeMillis() - start;
+                m_statementCount = CmsSqlManager.getPreparedStatementCount() - statements;
+                m_heapDelta = (runtime.totalMemory() - runtime.freeMemory()) - usedHeap;
+            }
+        }
+    }
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsBootSequence.class);
+
+    /** The phases finished so far, in the order of completion. */
+    private List<Phase> m_finishedPhases = new ArrayList<Phase>();
+
+    /** The name of the sequence, used for the names of the worker threads. */
+    private String m_name;
+
+    /** The phases, by name, in the order they have been added. */
+    private Map<String, Phase> m_phases = new LinkedHashMap<String, Phase>();
+
+    /** The maximum number of phases to run at the same time. */
+    private int m_threads;
+
+    /** The wall time of the last run in milliseconds. */
+    private long m_wallTime;
+
+    /**
+     * Creates a new boot sequence.<p>
+     *
+     * @param name the name of the sequence, used for the names of the worker threads
+     * @param threads the maximum number of phases to run at the same time, 1 or less runs all phases sequentially
+     */
+    public CmsBootSequence(String name, int threads) {
+
+        m_name = name;
+        m_threads = Math.max(1, threads);
+    }
+
+    /**
+     * Adds a phase to the sequence.<p>
+     *
+     * Dependencies must have been added before, so the order in which the phases are added is always
+     * a valid sequential execution order.<p>
+     *
+     * @param name the unique phase name
+     * @param action the action to execute
+     * @param dependencies the names of the phases which have to be finished before this phase can start
+     *
+     * @return this boot sequence
+     */
+    public CmsBootSequence addPhase(String name, I_Action action, String... dependencies) {
+
+        if (m_phases.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate boot phase: " + name);
+        }
+        for (String dependency : dependencies) {
+            if (!m_phases.containsKey(dependency)) {
+                throw new IllegalArgumentException("Boot phase " + name + " depends on unknown phase " + dependency);
+            }
+        }
+        m_phases.put(name, new Phase(name, action, new HashSet<String>(Arrays.asList(dependencies))));
+        return this;
+    }
+
+    /**
+     * Returns the phases finished in the last run, in the order of completion.<p>
+     *
+     * @return the finished phases
+     */
+    public List<Phase> getFinishedPhases() {
+
+        return Collections.unmodifiableList(m_finishedPhases);
+    }
+
+    /**
+     * Returns the wall time of the last run in milliseconds.<p>
+     *
+     * @return the wall time of the last run
+     */
+    public long getWallTime() {
+
+        return m_wallTime;
+    }
+
+    /**
+     * Writes the boot report of the last run to the init log.<p>
+     */
+    public void logReport() {
+
+        if (!CmsLog.INIT.isInfoEnabled()) {
+            return;
+        }
+        long phaseTime = 0;
+        long statements = 0;
+        for (Phase phase : m_finishedPhases) {
+            phaseTime += phase.getDuration();
+            statements += phase.getStatementCount();
+            CmsLog.INIT.info(
+                Messages.get().getBundle().key(
+                    Messages.INIT_BOOT_PHASE_5,
+                    new Object[] {
+                        phase.getName(),
+                        Long.valueOf(phase.getDuration()),
+                        phase.getThreadName(),
+                        Long.valueOf(phase.getStatementCount()),
+                        Long.valueOf(phase.getHeapDelta() / 1024)}));
+        }
+        CmsLog.INIT.info(
+            Messages.get().getBundle().key(
+                Messages.INIT_BOOT_REPORT_5,
+                new Object[] {
+                    Integer.valueOf(m_finishedPhases.size()),
+                    Integer.valueOf(m_threads),
+                    Long.valueOf(m_wallTime),
+                    Long.valueOf(phaseTime),
+                    Long.valueOf(statements)}));
+    }
+
+    /**
+     * Runs all phases of the sequence.<p>
+     *
+     * If a phase fails, no further phases are started. The phases already running are awaited, and the
+     * error of the first failed phase is thrown.<p>
+     *
+     * @throws CmsException if a phase fails with a checked exception
+     */
+    public void run() throws CmsException {
+
+        m_finishedPhases.clear();
+        long start = System.currentTimeMillis();
+        ExecutorService executor = m_threads > 1
+        ? Executors.newFixedThreadPool(
+            m_threads,
+            new ThreadFactoryBuilder().setNameFormat(m_name + "-%d").setDaemon(true).build())
+        : MoreExecutors.newDirectExecutorService();
+        try {
+            runPhases(new ExecutorCompletionService<Phase>(executor));
+        } finally {
+            executor.shutdown();
+            m_wallTime = System.currentTimeMillis() - start;
+        }
+    }
+
+    /**
+     * Starts the phases as soon as their dependencies are finished and waits for all of them.<p>
+     *
+     * @param completion the completion service to run the phases with
+     *
+     * @throws CmsException if a phase fails with a checked exception
+     */
+    private void runPhases(CompletionService<Phase> completion) throws CmsException {
+
+        Map<String, Phase> pending = new LinkedHashMap<String, Phase>(m_phases);
+        Set<String> finished = new HashSet<String>();
+        Throwable failure = null;
+        int running = 0;
+        while ((failure == null) ? (!pending.isEmpty() || (running > 0)) : (running > 0)) {
+            if (failure == null) {
+                Iterator<Phase> it = pending.values().iterator();
+                while (it.hasNext() && (running < m_threads)) {
+                    Phase phase = it.next();
+                    if (finished.containsAll(phase.getDependencies())) {
+                        it.remove();
+                        completion.submit(() -> {
+                            phase.execute();
+                            return phase;
+                        });
+                        running++;
+                    }
+                }
+            }
+            Future<Phase> future;
+            try {
+                future = completion.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CmsRuntimeException(Messages.get().container(Messages.ERR_BOOT_INTERRUPTED_0), e);
+            }
+            running--;
+            try {
+                Phase phase = future.get();
+                finished.add(phase.getName());
+                m_finishedPhases.add(phase);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CmsRuntimeException(Messages.get().container(Messages.ERR_BOOT_INTERRUPTED_0), e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                } else {
+                    // only the first error is thrown, make sure the others are not lost
+                    LOG.error(e.getCause().getLocalizedMessage(), e.getCause());
+                }
+            }
+        }
+        if (failure instanceof CmsException) {
+            throw (CmsException)failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException)failure;
+        } else if (failure instanceof Error) {
+            // phases only throw CmsExceptions or unchecked exceptions
+            throw (Error)failure;
+        }
+    }
+}
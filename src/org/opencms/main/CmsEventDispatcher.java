@@ -0,0 +1,313 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.main;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * Delivers events to an asynchronous event listener on a dedicated thread.<p>
+ *
+ * The events are kept in a bounded queue and delivered in the order they were fired.
+ * Events equal to an event that is still waiting in the queue are coalesced.
+ * The dispatcher also keeps statistics about the delivered events for monitoring.<p>
+ *
+ * @since 12.0.0
+ *
+ * @see I_CmsAsyncEventListener
+ */
+public class CmsEventDispatcher {
+
+    /**
+     * An event waiting in the queue, together with the time it was fired.<p>
+     */
+    private static class QueuedEvent {
+
+        /** The event. */
+        final CmsEvent m_event;
+
+        /** The time the event was fired, in nanoseconds. */
+        final long m_time;
+
+        /**
+         * Creates a new queued event.<p>
+         *
+         * @param event the event
+         */
+        QueuedEvent(CmsEvent event) {
+
+            m_event = event;
+            m_time = System.nanoTime();
+        }
+
+        /**
+         * Checks if this queued event is equal to the given event.<p>
+         *
+         * @param event the event to compare
+         *
+         * @return true if the events have the same type and equal data
+         */
+        boolean isDuplicate(CmsEvent event) {
+
+            return (m_event.getType() == event.getType()) && Objects.equals(m_event.getData(), event.getData());
+        }
+    }
+
+    /** The log object for this class. */
+    private static final Log LOG = CmsLog.getLog(CmsEventDispatcher.class);
+
+    /** The number of coalesced events. */
+    private final AtomicLong m_coalescedCount = new AtomicLong();
+
+    /** The number of delivered events. */
+    private final AtomicLong m_dispatchedCount = new AtomicLong();
+
+    /** The listener. */
+    private final I_CmsAsyncEventListener m_listener;
+
+    /** The maximum latency between firing and handling an event, in nanoseconds. */
+    private final AtomicLong m_maxLatency = new AtomicLong();
+
+    /** The queued events. */
+    private final BlockingQueue<QueuedEvent> m_queue;
+
+    /** Flag indicating whether the dispatcher has been shut down. */
+    private volatile boolean m_shutDown;
+
+    /** The dispatcher thread. */
+    private final Thread m_thread;
+
+    /** The sum of the latencies between firing and handling the events, in nanoseconds. */
+    private final AtomicLong m_totalLatency = new AtomicLong();
+
+    /**
+     * Creates a new dispatcher and starts its thread.<p>
+     *
+     * @param listener the listener to deliver the events to
+     */
+    public CmsEventDispatcher(I_CmsAsyncEventListener listener) {
+
+        m_listener = listener;
+        m_queue = new ArrayBlockingQueue<QueuedEvent>(Math.max(1, listener.getEventQueueCapacity()));
+        m_thread = new Thread(new Runnable() {
+
+            @SuppressWarnings("synthetic-access")
+            public void run() {
+
+                dispatchLoop();
+            }
+        }, "OpenCms-EventDispatcher-" + listener.getClass().getSimpleName());
+        m_thread.setDaemon(true);
+        m_thread.start();
+    }
+
+    /**
+     * Queues an event for delivery to the listener.<p>
+     *
+     * If the queue is full, this waits until the dispatcher thread has taken an event from the queue.
+     * If the dispatcher has been shut down, or the queue is full and the event is fired by the listener itself,
+     * the event is delivered on the calling thread.<p>
+     *
+     * The queue monitor is only held while checking for duplicates and offering the event, never while
+     * waiting for free space, since the dispatcher thread needs it to fire events itself.<p>
+     *
+     * @param event the event to deliver
+     */
+    public void dispatch(CmsEvent event) {
+
+        if (!m_shutDown) {
+            // the dispatcher thread must never wait for itself to take an event from the queue
+            boolean mayWait = Thread.currentThread() != m_thread;
+            QueuedEvent queuedEvent = new QueuedEvent(event);
+            synchronized (m_queue) {
+                if (m_listener.isCoalescable(event)) {
+                    for (QueuedEvent pending : m_queue) {
+                        if (pending.isDuplicate(event)) {
+                            m_coalescedCount.incrementAndGet();
+                            return;
+                        }
+                    }
+                }
+                if (m_queue.offer(queuedEvent)) {
+                    return;
+                }
+            }
+            if (mayWait) {
+                try {
+                    m_queue.put(queuedEvent);
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        deliver(new QueuedEvent(event));
+    }
+
+    /**
+     * Returns the average latency between firing and handling an event, in milliseconds.<p>
+     *
+     * @return the average latency
+     */
+    public double getAverageLatency() {
+
+        long count = m_dispatchedCount.get();
+        return count == 0 ? 0 : (m_totalLatency.get() / (double)count) / 1000000;
+    }
+
+    /**
+     * Returns the number of events dropped because an equal event was already queued.<p>
+     *
+     * @return the number of coalesced events
+     */
+    public long getCoalescedCount() {
+
+        return m_coalescedCount.get();
+    }
+
+    /**
+     * Returns the number of events delivered to the listener.<p>
+     *
+     * @return the number of delivered events
+     */
+    public long getDispatchedCount() {
+
+        return m_dispatchedCount.get();
+    }
+
+    /**
+     * Returns the listener.<p>
+     *
+     * @return the listener
+     */
+    public I_CmsAsyncEventListener getListener() {
+
+        return m_listener;
+    }
+
+    /**
+     * Returns the maximum latency between firing and handling an event, in milliseconds.<p>
+     *
+     * @return the maximum latency
+     */
+    public double getMaxLatency() {
+
+        return m_maxLatency.get() / 1000000.0;
+    }
+
+    /**
+     * Returns the number of events currently waiting in the queue.<p>
+     *
+     * @return the queue depth
+     */
+    public int getQueueSize() {
+
+        return m_queue.size();
+    }
+
+    /**
+     * Stops the dispatcher thread.<p>
+     *
+     * Events still waiting in the queue are discarded.<p>
+     */
+    public void shutDown() {
+
+        m_shutDown = true;
+        m_thread.interrupt();
+        int discarded = m_queue.size();
+        m_queue.clear();
+        if (LOG.isInfoEnabled()) {
+            LOG.info(
+                Messages.get().getBundle().key(
+                    Messages.LOG_EVENT_DISPATCHER_STOPPED_2,
+                    m_listener.getClass().getName(),
+                    Integer.valueOf(discarded)));
+        }
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+
+        return m_listener.getClass().getName()
+            + " [queued: "
+            + getQueueSize()
+            + ", dispatched: "
+            + getDispatchedCount()
+            + ", coalesced: "
+            + getCoalescedCount()
+            + ", avg. latency: "
+            + String.format("%.2f", Double.valueOf(getAverageLatency()))
+            + " ms, max. latency: "
+            + String.format("%.2f", Double.valueOf(getMaxLatency()))
+            + " ms]";
+    }
+
+    /**
+     * Delivers an event to the listener and updates the statistics.<p>
+     *
+     * @param queuedEvent the event to deliver
+     */
+    private void deliver(QueuedEvent queuedEvent) {
+
+        try {
+            m_listener.cmsEvent(queuedEvent.m_event);
+        } catch (Throwable t) {
+            LOG.error(
+                Messages.get().getBundle().key(
+                    Messages.ERR_CALLING_EVENT_LISTENER_FAILED_2,
+                    m_listener.getClass().getName(),
+                    queuedEvent.m_event.toString()),
+                t);
+        }
+        long latency = System.nanoTime() - queuedEvent.m_time;
+        m_dispatchedCount.incrementAndGet();
+        m_totalLatency.addAndGet(latency);
+        m_maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Takes the events from the queue and delivers them until the dispatcher is shut down.<p>
+     */
+    private void dispatchLoop() {
+
+        while (!m_shutDown) {
+            try {
+                deliver(m_queue.take());
+            } catch (InterruptedException e) {
+                // shut down
+            }
+        }
+    }
+}
@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 
@@ -44,6 +45,10 @@ import org.apache.commons.logging.Log;
  * Events can be used in OpenCms to notify custom event listeners that certain system events have happened.
  * Event listeners have to implement the interface {@link org.opencms.main.I_CmsEventListener}.<p>
  *
+ * Listeners are called synchronously on the thread firing the event, in the order they were registered.
+ * Listeners implementing {@link org.opencms.main.I_CmsAsyncEventListener} instead receive their events
+ * on a dedicated thread through a {@link org.opencms.main.CmsEventDispatcher}.<p>
+ *
  * @since 7.0.0
  *
  * @see org.opencms.main.CmsEvent
@@ -57,6 +62,9 @@ public class CmsEventManager {
     /** The static log object for this class. */
     private static final Log LOG = CmsLog.getLog(CmsEventManager.class);
 
+    /** The dispatchers for the asynchronous event listeners. */
+    private Map<I_CmsAsyncEventListener, CmsEventDispatcher> m_eventDispatchers;
+
     /** Stores the active event listeners. */
     private Map<Integer, List<I_CmsEventListener>> m_eventListeners;
 
@@ -66,6 +74,7 @@ public class CmsEventManager {
     public CmsEventManager() {
 
         m_eventListeners = new HashMap<Integer, List<I_CmsEventListener>>();
+        m_eventDispatchers = new ConcurrentHashMap<I_CmsAsyncEventListener, CmsEventDispatcher>();
     }
 
     /**
@@ -104,6 +113,10 @@ public class CmsEventManager {
                     listeners.add(listener);
                 }
             }
+            if ((listener instanceof I_CmsAsyncEventListener) && !m_eventDispatchers.containsKey(listener)) {
+                I_CmsAsyncEventListener asyncListener = (I_CmsAsyncEventListener)listener;
+                m_eventDispatchers.put(asyncListener, new CmsEventDispatcher(asyncListener));
+            }
         }
     }
 
@@ -139,6 +152,17 @@ public class CmsEventManager {
         fireEvent(new CmsEvent(type, data));
     }
 
+    /**
+     * Returns the dispatchers of all asynchronous event listeners, which provide the queue depth
+     * and dispatch latency of the listeners for monitoring.<p>
+     *
+     * @return the event dispatchers
+     */
+    public List<CmsEventDispatcher> getEventDispatchers() {
+
+        return new ArrayList<CmsEventDispatcher>(m_eventDispatchers.values());
+    }
+
     /**
      * Removes a cms event listener.<p>
      *
@@ -152,9 +176,48 @@ public class CmsEventManager {
                 List<I_CmsEventListener> listeners = m_eventListeners.get(it.next());
                 listeners.remove(listener);
             }
+            if (listener instanceof I_CmsAsyncEventListener) {
+                CmsEventDispatcher dispatcher = m_eventDispatchers.remove(listener);
+                if (dispatcher != null) {
+                    dispatcher.shutDown();
+                }
+            }
         }
     }
 
+    /**
+     * Stops the dispatcher threads of all asynchronous event listeners.<p>
+     */
+    public void shutDown() {
+
+        for (CmsEventDispatcher dispatcher : m_eventDispatchers.values()) {
+            if (CmsLog.INIT.isInfoEnabled()) {
+                CmsLog.INIT.info(
+                    Messages.get().getBundle().key(Messages.INIT_EVENT_DISPATCHER_STATISTICS_1, dispatcher.toString()));
+            }
+            dispatcher.shutDown();
+        }
+        m_eventDispatchers.clear();
+    }
+
+    /**
+     * Delivers an event to a single listener, either directly or through the dispatcher of an asynchronous listener.<p>
+     *
+     * @param listener the listener
+     * @param event the event
+     */
+    protected void fireEvent(I_CmsEventListener listener, CmsEvent event) {
+
+        if (listener instanceof I_CmsAsyncEventListener) {
+            CmsEventDispatcher dispatcher = m_eventDispatchers.get(listener);
+            if (dispatcher != null) {
+                dispatcher.dispatch(event);
+                return;
+            }
+        }
+        listener.cmsEvent(event);
+    }
+
     /**
      * Fires the specified event to a list of event listeners.<p>
      *
@@ -172,7 +235,7 @@ public class CmsEventManager {
                 for (int i = 0; i < list.length; i++) {
                     try {
                         // fire the event
-                        list[i].cmsEvent(event);
+                        fireEvent(list[i], event);
                     } catch (Throwable t) {
                         LOG.error(
                             Messages.get().getBundle().key(
@@ -225,7 +288,7 @@ public class CmsEventManager {
                             event.toString()));
                     try {
                         // fire the event
-                        list[i].cmsEvent(event);
+                        fireEvent(list[i], event);
                     } catch (Throwable t) {
                         LOG.error(
                             Messages.get().getBundle().key(
@@ -248,6 +311,16 @@ public class CmsEventManager {
         }
     }
 
+    /**
+     * Returns the map of dispatchers for the asynchronous event listeners.<p>
+     *
+     * @return the map of dispatchers for the asynchronous event listeners
+     */
+    protected Map<I_CmsAsyncEventListener, CmsEventDispatcher> getEventDispatcherMap() {
+
+        return m_eventDispatchers;
+    }
+
     /**
      * Returns the map of all configured event listeners.<p>
      *
@@ -266,6 +339,7 @@ public class CmsEventManager {
     protected void initialize(CmsEventManager base) {
 
         m_eventListeners = new HashMap<Integer, List<I_CmsEventListener>>(base.getEventListeners());
-
+        m_eventDispatchers = new ConcurrentHashMap<I_CmsAsyncEventListener, CmsEventDispatcher>(
+            base.getEventDispatcherMap());
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.main;
+
+/**
+ * Event listener that receives its events asynchronously.<p>
+ *
+ * Events for listeners implementing this interface are not delivered on the thread that fires the event.
+ * Instead, the event manager queues the events for each asynchronous listener and delivers them
+ * in order on a dedicated dispatcher thread, see {@link CmsEventDispatcher}.
+ * So listeners must not rely on an event being handled when {@link CmsEventManager#fireEvent(CmsEvent)} returns.<p>
+ *
+ * If an event is fired while an equal event (same type and equal event data) is still waiting in the queue
+ * of the listener, the new event is dropped, unless {@link #isCoalescable(CmsEvent)} returns <code>false</code>.
+ * If the queue is full, the thread firing the event waits until the dispatcher has caught up.<p>
+ *
+ * @since 12.0.0
+ */
+public interface I_CmsAsyncEventListener extends I_CmsEventListener {
+
+    /** The default capacity of the event queue of a listener. */
+    int DEFAULT_EVENT_QUEUE_CAPACITY = 1000;
+
+    /**
+     * Returns the maximum number of events queued for this listener.<p>
+     *
+     * @return the maximum number of queued events
+     */
+    default int getEventQueueCapacity() {
+
+        return DEFAULT_EVENT_QUEUE_CAPACITY;
+    }
+
+    /**
+     * Checks if the given event may be dropped if an equal event is already waiting in the queue for this listener.<p>
+     *
+     * @param event the event
+     *
+     * @return true if equal queued events may be coalesced
+     */
+    default boolean isCoalescable(CmsEvent event) {
+
+        return true;
+    }
+}
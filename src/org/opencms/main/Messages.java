@@ -51,6 +51,9 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String ERR_ALREADY_INITIALIZED_0 = "ERR_ALREADY_INITIALIZED_0";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String ERR_BOOT_INTERRUPTED_0 = "ERR_BOOT_INTERRUPTED_0";
+
     /** Message constant for key in the resource bundle. */
     public static final String ERR_CALLING_EVENT_LISTENER_FAILED_2 = "ERR_CALLING_EVENT_LISTENER_FAILED_2";
 
@@ -276,6 +279,12 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String INIT_ADDED_REQUEST_HANDLER_2 = "INIT_ADDED_REQUEST_HANDLER_2";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String INIT_BOOT_PHASE_5 = "INIT_BOOT_PHASE_5";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String INIT_BOOT_REPORT_5 = "INIT_BOOT_REPORT_5";
+
     /** Message constant for key in the resource bundle. */
     public static final String INIT_CURRENT_RUNLEVEL_1 = "INIT_CURRENT_RUNLEVEL_1";
 
@@ -288,6 +297,9 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String INIT_ETHERNET_ADDRESS_1 = "INIT_ETHERNET_ADDRESS_1";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String INIT_EVENT_DISPATCHER_STATISTICS_1 = "INIT_EVENT_DISPATCHER_STATISTICS_1";
+
     /** Message constant for key in the resource bundle. */
     public static final String INIT_FILE_ENCODING_1 = "INIT_FILE_ENCODING_1";
 
@@ -456,6 +468,9 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String LOG_ERROR_WRITING_CONFIG_1 = "LOG_ERROR_WRITING_CONFIG_1";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_EVENT_DISPATCHER_STOPPED_2 = "LOG_EVENT_DISPATCHER_STOPPED_2";
+
     /** Message constant for key in the resource bundle. */
     public static final String LOG_INIT_CMSOBJECT_IN_HANDLER_2 = "LOG_INIT_CMSOBJECT_IN_HANDLER_2";
 
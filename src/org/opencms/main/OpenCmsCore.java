@@ -73,6 +73,7 @@ import org.opencms.i18n.CmsMessageContainer;
 import org.opencms.i18n.CmsSingleTreeLocaleHandler;
 import org.opencms.i18n.CmsVfsBundleManager;
 import org.opencms.importexport.CmsImportExportManager;
+import org.opencms.jsp.CmsJspNavIndex;
 import org.opencms.jsp.jsonpart.CmsJsonPartFilter;
 import org.opencms.jsp.userdata.CmsUserDataRequestManager;
 import org.opencms.letsencrypt.CmsLetsEncryptConfiguration;
@@ -192,9 +193,15 @@ public final class OpenCmsCore {
     /** The static log object for this class. */
     static final Log LOG = CmsLog.getLog(OpenCmsCore.class);
 
+    /** The default number of threads used to initialize the managers. */
+    private static final int DEFAULT_INIT_THREADS = 4;
+
     /** Lock object for synchronization. */
     private static final Object LOCK = new Object();
 
+    /** Key in opencms.properties for the number of threads used to initialize the managers (1 is sequential). */
+    private static final String PARAM_INIT_THREADS = "init.threads";
+
     /** Indicates if the configuration was successfully finished or not. */
     private static CmsMessageContainer m_errorCondition;
 
@@ -1677,53 +1684,68 @@ public final class OpenCmsCore {
         m_configAdminCms = adminCms;
 
         m_repositoryManager.initializeCms(adminCms);
-        // now initialize the other managers
-        try {
-            if (flexCache != null) {
-                flexCache.initializeCms(initCmsObject(adminCms));
+        // now initialize the other managers, those which do not depend on each other are initialized in parallel
+        CmsFlexCache initFlexCache = flexCache;
+        CmsBootSequence boot = new CmsBootSequence(
+            "OpenCmsCore-init",
+            configuration.getInteger(PARAM_INIT_THREADS, DEFAULT_INIT_THREADS));
+        boot.addPhase("flexCache", () -> {
+            if (initFlexCache != null) {
+                initFlexCache.initializeCms(initCmsObject(adminCms));
             }
-
             m_configurationManager.setAdminCms(adminCms);
-
+        });
+        boot.addPhase("scheduler", () -> {
             // initialize the scheduler
             m_scheduleManager.initialize(initCmsObject(adminCms));
-
+        }, "flexCache");
+        boot.addPhase("locales", () -> {
             // initialize the locale manager
             m_localeManager = systemConfiguration.getLocaleManager();
             m_localeManager.initialize(initCmsObject(adminCms));
-
+        }, "scheduler");
+        boot.addPhase("sites", () -> {
             // initialize the site manager
             m_siteManager.initialize(initCmsObject(adminCms));
-
+        }, "locales");
+        boot.addPhase("staticExport", () -> {
             // initialize the static export manager
             m_staticExportManager.initialize(initCmsObject(adminCms));
-
+        }, "sites");
+        boot.addPhase("xmlContentTypes", () -> {
             // initialize the XML content type manager
             m_xmlContentTypeManager.initialize(initCmsObject(adminCms));
-
             m_orgUnitManager.initialize(initCmsObject(adminCms));
-
+        }, "staticExport");
+        boot.addPhase("modules", () -> {
             // initialize the module manager
             m_moduleManager.initialize(initCmsObject(adminCms), m_configurationManager);
-
+        }, "xmlContentTypes");
+        boot.addPhase("resources", () -> {
             // initialize the resource manager
             m_resourceManager.initialize(initCmsObject(adminCms));
-
+        }, "modules");
+        boot.addPhase("publish", () -> {
             // initialize the publish manager
             m_publishManager.setPublishEngine(m_publishEngine);
             m_publishManager.setSecurityManager(m_securityManager);
             m_publishManager.setPublishListRemoveMode(systemConfiguration.getPublishListRemoveMode());
             m_publishManager.initialize(initCmsObject(adminCms));
-
-            // initialize the search manager
-            m_searchManager.initialize(initCmsObject(adminCms));
-
+        }, "resources");
+        boot.addPhase("vfsBundles", () -> {
             // initialize the VFS bundle manager
             m_vfsBundleManager = new CmsVfsBundleManager(adminCms);
-
+        }, "publish");
+        // the following managers only depend on the core managers initialized above
+        boot.addPhase("search", () -> {
+            // initialize the search manager
+            m_searchManager.initialize(initCmsObject(adminCms));
+        }, "vfsBundles");
+        boot.addPhase("workplace", () -> {
             // initialize the workplace manager
             m_workplaceManager.initialize(initCmsObject(adminCms));
-
+        }, "vfsBundles");
+        boot.addPhase("sessions", () -> {
             // initialize the session manager
             m_sessionManager.initialize(sessionStorageProvider, initCmsObject(adminCms));
             m_sessionManager.setUserSessionMode(systemConfiguration.getUserSessionMode(true));
@@ -1731,16 +1753,23 @@ public final class OpenCmsCore {
             // initialize the subscription manager
             m_subscriptionManager.setSecurityManager(m_securityManager);
             m_subscriptionManager.initialize(adminCms);
-
+        }, "vfsBundles");
+        boot.addPhase("formatters", () -> {
             CmsUgcSessionFactory.setAdminCms(adminCms);
 
             // initialize the formatter configuration
             CmsFormatterConfiguration.initialize(adminCms);
+            // initialize the online navigation index
+            CmsJspNavIndex.initialize(adminCms);
+        }, "vfsBundles");
+        boot.addPhase("ade", () -> {
+            // initialize ade manager
+            m_adeManager = new CmsADEManager(initCmsObject(adminCms), m_memoryMonitor, systemConfiguration);
+        }, "vfsBundles");
+        boot.addPhase("apps", () -> {
             CmsPersistentLoginTokenHandler.setAdminCms(initCmsObject(adminCms));
             CmsLoginUI.setAdminCmsObject(initCmsObject(adminCms));
 
-            // initialize ade manager
-            m_adeManager = new CmsADEManager(initCmsObject(adminCms), m_memoryMonitor, systemConfiguration);
             m_workplaceAppManager = new CmsWorkplaceAppManager(initCmsObject(adminCms));
             m_workplaceAppManager.loadApps();
             m_workplaceAppManager.initWorkplaceCssUris(m_moduleManager);
@@ -1779,9 +1808,18 @@ public final class OpenCmsCore {
                     ((I_CmsNeedsAdminCmsObject)requestHandler).setAdminCmsObject(adminCms);
                 }
             }
-
+            for (I_CmsResourceLoader loader : m_resourceManager.getLoaders()) {
+                if (loader instanceof I_CmsNeedsAdminCmsObject) {
+                    ((I_CmsNeedsAdminCmsObject)loader).setAdminCmsObject(adminCms);
+                }
+            }
+        }, "search", "workplace", "sessions", "formatters", "ade");
+        try {
+            boot.run();
         } catch (CmsException e) {
             throw new CmsInitException(Messages.get().container(Messages.ERR_CRITICAL_INIT_MANAGERS_0), e);
+        } finally {
+            boot.logReport();
         }
 
         try {
@@ -2218,6 +2256,14 @@ public final class OpenCmsCore {
                         Messages.get().getBundle().key(Messages.LOG_ERROR_PUBLISH_SHUTDOWN_1, e.getMessage()),
                         e);
                 }
+                try {
+                    // stop the asynchronous event listeners once no more publish events are fired
+                    if (m_eventManager != null) {
+                        m_eventManager.shutDown();
+                    }
+                } catch (Throwable e) {
+                    CmsLog.INIT.error(e.getLocalizedMessage(), e);
+                }
                 try {
                     // search manager must be shut down early since there may be background indexing still ongoing
                     if (m_searchManager != null) {
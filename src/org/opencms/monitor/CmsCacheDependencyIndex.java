@@ -0,0 +1,296 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.monitor;
+
+import org.opencms.util.CmsUUID;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the IDs and root paths the entries of a cache map were derived from,
+ * so that only the dependent entries need to be removed when one of them changes.<p>
+ *
+ * Entries are tagged with {@link #getIdTag(CmsUUID)} for user, group or resource IDs
+ * and with {@link #getPathTag(String)} for root paths. As soon as an entry is cached without any tag,
+ * the index is no longer complete, and callers have to flush the whole cache instead,
+ * until the index is cleared together with the cache.<p>
+ *
+ * Keys of entries that have been evicted from the cache map are removed from the index
+ * once the index grows beyond its maximum size.<p>
+ *
+ * @since 12.0.0
+ */
+public class CmsCacheDependencyIndex {
+
+    /** Prefix for ID tags. */
+    private static final String PREFIX_ID = "id:";
+
+    /** Prefix for path tags. */
+    private static final String PREFIX_PATH = "path:";
+
+    /** The cache map whose entries are indexed. */
+    private final Map<String, ?> m_cache;
+
+    /** Flag indicating whether all cached entries have been tagged. */
+    private volatile boolean m_complete = true;
+
+    /** The cache keys by tag. */
+    private final Map<String, Set<String>> m_keysByTag = new ConcurrentHashMap<String, Set<String>>();
+
+    /** The maximum number of indexed keys before the index is pruned. */
+    private final int m_maxSize;
+
+    /** The path tags, sorted for subtree lookups. */
+    private final NavigableSet<String> m_pathTags = new ConcurrentSkipListSet<String>();
+
+    /** Flag indicating whether the index is currently pruned. */
+    private final AtomicBoolean m_pruning = new AtomicBoolean();
+
+    /** The approximate number of indexed keys. */
+    private final AtomicInteger m_size = new AtomicInteger();
+
+    /**
+     * Creates a new dependency index.<p>
+     *
+     * @param cache the cache map whose entries are indexed
+     * @param maxSize the maximum number of indexed keys before keys no longer in the cache are removed from the index
+     */
+    public CmsCacheDependencyIndex(Map<String, ?> cache, int maxSize) {
+
+        m_cache = cache;
+        m_maxSize = Math.max(maxSize, 1);
+    }
+
+    /**
+     * Returns the tag for entries derived from the user, group or resource with the given ID.<p>
+     *
+     * @param id the ID
+     *
+     * @return the tag
+     */
+    public static String getIdTag(CmsUUID id) {
+
+        return PREFIX_ID + id;
+    }
+
+    /**
+     * Returns the tag for entries derived from the resource with the given root path.<p>
+     *
+     * @param rootPath the root path
+     *
+     * @return the tag
+     */
+    public static String getPathTag(String rootPath) {
+
+        return PREFIX_PATH + rootPath;
+    }
+
+    /**
+     * Adds a cache entry to the index.<p>
+     *
+     * @param key the cache key
+     * @param tags the tags of the entry, if empty the index is no longer complete
+     */
+    public void add(String key, String... tags) {
+
+        if ((tags == null) || (tags.length == 0)) {
+            m_complete = false;
+            return;
+        }
+        for (String tag : tags) {
+            m_keysByTag.compute(tag, (t, keys) -> {
+                Set<String> result = keys != null ? keys : ConcurrentHashMap.<String> newKeySet();
+                if (result.add(key)) {
+                    m_size.incrementAndGet();
+                }
+                return result;
+            });
+            if (tag.startsWith(PREFIX_PATH)) {
+                m_pathTags.add(tag);
+            }
+        }
+        if (m_size.get() > m_maxSize) {
+            prune();
+        }
+    }
+
+    /**
+     * Removes all entries from the index and marks it as complete again.<p>
+     *
+     * This has to be called before the cache map itself is cleared.<p>
+     */
+    public void clear() {
+
+        m_complete = true;
+        m_keysByTag.clear();
+        m_pathTags.clear();
+        m_size.set(0);
+    }
+
+    /**
+     * Removes the cache entries with the given tags from the cache map.<p>
+     *
+     * @param tags the tags
+     *
+     * @return the number of removed cache entries
+     */
+    public int flush(String... tags) {
+
+        Set<String> keys = new HashSet<String>();
+        for (String tag : tags) {
+            removeTag(tag, keys);
+            if (tag.startsWith(PREFIX_PATH)) {
+                m_pathTags.remove(tag);
+            }
+        }
+        return removeFromCache(keys);
+    }
+
+    /**
+     * Removes the cache entries tagged with the given root path or a root path below it from the cache map.<p>
+     *
+     * @param rootPath the root path
+     *
+     * @return the number of removed cache entries
+     */
+    public int flushSubtree(String rootPath) {
+
+        String prefix = getPathTag(rootPath);
+        Set<String> keys = new HashSet<String>();
+        NavigableSet<String> subtree = rootPath.endsWith("/")
+        ? m_pathTags.subSet(prefix, true, prefix + Character.MAX_VALUE, true)
+        : m_pathTags.subSet(prefix, true, prefix, true);
+        for (String tag : subtree) {
+            removeTag(tag, keys);
+            subtree.remove(tag);
+        }
+        return removeFromCache(keys);
+    }
+
+    /**
+     * Returns the keys indexed for the given tag.<p>
+     *
+     * @param tag the tag
+     *
+     * @return the keys indexed for the tag
+     */
+    public Set<String> getKeys(String tag) {
+
+        Set<String> keys = m_keysByTag.get(tag);
+        return keys == null ? Collections.<String> emptySet() : Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * Returns the approximate number of indexed keys.<p>
+     *
+     * @return the number of indexed keys
+     */
+    public int getSize() {
+
+        return m_size.get();
+    }
+
+    /**
+     * Checks if all cached entries have been tagged since the index was last cleared.<p>
+     *
+     * If this returns false, the cache must be flushed completely instead of flushing tagged entries.<p>
+     *
+     * @return true if the index is complete
+     */
+    public boolean isComplete() {
+
+        return m_complete;
+    }
+
+    /**
+     * Removes keys no longer contained in the cache map from the index.<p>
+     */
+    public void prune() {
+
+        if (!m_pruning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            AtomicInteger size = new AtomicInteger();
+            for (String tag : m_keysByTag.keySet()) {
+                m_keysByTag.computeIfPresent(tag, (t, keys) -> {
+                    keys.retainAll(m_cache.keySet());
+                    size.addAndGet(keys.size());
+                    return keys.isEmpty() ? null : keys;
+                });
+                if (!m_keysByTag.containsKey(tag)) {
+                    m_pathTags.remove(tag);
+                }
+            }
+            m_size.set(size.get());
+        } finally {
+            m_pruning.set(false);
+        }
+    }
+
+    /**
+     * Removes the given keys from the cache map.<p>
+     *
+     * @param keys the keys to remove
+     *
+     * @return the number of removed entries
+     */
+    private int removeFromCache(Set<String> keys) {
+
+        int removed = 0;
+        for (String key : keys) {
+            if (m_cache.remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes a tag from the index and collects its keys.<p>
+     *
+     * @param tag the tag
+     * @param keys the set to add the keys of the tag to
+     */
+    private void removeTag(String tag, Set<String> keys) {
+
+        Set<String> tagKeys = m_keysByTag.remove(tag);
+        if (tagKeys != null) {
+            m_size.addAndGet(-tagKeys.size());
+            keys.addAll(tagKeys);
+        }
+    }
+}
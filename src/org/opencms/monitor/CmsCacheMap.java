@@ -0,0 +1,215 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.monitor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ForwardingConcurrentMap;
+
+/**
+ * A thread safe cache map based on the guava cache builder, bounded either by its number of entries
+ * or by the estimated memory size of its entries, which records hit, miss and eviction statistics.<p>
+ *
+ * Other than the maps created by {@link CmsMemoryMonitor#createLRUCacheMap(int)},
+ * reading an entry with {@link #get(Object)} is counted as a hit or miss.<p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ *
+ * @since 12.0.0
+ */
+public class CmsCacheMap<K, V> extends ForwardingConcurrentMap<K, V> {
+
+    /** The concurrency level for the guava caches. */
+    private static final int CONCURRENCY_LEVEL = 8;
+
+    /** Weigher estimating the memory size of an entry. */
+    private static final Weigher<Object, Object> MEMORY_WEIGHER = new Weigher<Object, Object>() {
+
+        public int weigh(Object key, Object value) {
+
+            return (int)Math.min(Integer.MAX_VALUE, getMemorySize(key, value));
+        }
+    };
+
+    /** The underlying guava cache. */
+    private Cache<K, V> m_cache;
+
+    /** The time in seconds after which entries expire, or -1. */
+    private long m_expireAfterWrite;
+
+    /** The map view of the guava cache. */
+    private ConcurrentMap<K, V> m_map;
+
+    /** The maximum estimated memory size in bytes, or -1. */
+    private long m_maxMemory;
+
+    /** The maximum number of entries, or -1. */
+    private long m_maxSize;
+
+    /**
+     * Creates a new cache map.<p>
+     *
+     * @param capacity the maximum number of entries, only used if no memory limit is given
+     * @param maxMemory the maximum estimated memory size of all entries in bytes, or 0 to limit the number of entries
+     * @param expireAfterWrite the time in seconds after which entries expire, or 0 if entries do not expire
+     */
+    @SuppressWarnings("unchecked")
+    public CmsCacheMap(int capacity, long maxMemory, long expireAfterWrite) {
+
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().concurrencyLevel(
+            CONCURRENCY_LEVEL).recordStats();
+        if (maxMemory > 0) {
+            builder.maximumWeight(maxMemory).weigher(MEMORY_WEIGHER);
+            m_maxMemory = maxMemory;
+            m_maxSize = -1;
+        } else {
+            builder.maximumSize(capacity);
+            m_maxMemory = -1;
+            m_maxSize = capacity;
+        }
+        if (expireAfterWrite > 0) {
+            builder.expireAfterWrite(expireAfterWrite, TimeUnit.SECONDS);
+            m_expireAfterWrite = expireAfterWrite;
+        } else {
+            m_expireAfterWrite = -1;
+        }
+        m_cache = (Cache<K, V>)builder.build();
+        m_map = m_cache.asMap();
+    }
+
+    /**
+     * Returns the estimated memory size of a cache entry.<p>
+     *
+     * @param key the key
+     * @param value the value
+     *
+     * @return the estimated memory size in bytes
+     */
+    public static long getMemorySize(Object key, Object value) {
+
+        // wrap the value in a list, so access control lists and flex cache variations are measured by their content
+        return CmsMemoryMonitor.getMemorySize(key) + CmsMemoryMonitor.getValueSize(Collections.singletonList(value), 0);
+    }
+
+    /**
+     * Returns the value for the given key, counting the lookup as a hit or miss.<p>
+     *
+     * @see java.util.Map#get(java.lang.Object)
+     */
+    @Override
+    public V get(Object key) {
+
+        return m_cache.getIfPresent(key);
+    }
+
+    /**
+     * Returns the time in seconds after which entries expire.<p>
+     *
+     * @return the time in seconds after which entries expire, or -1 if entries do not expire
+     */
+    public long getExpireAfterWrite() {
+
+        return m_expireAfterWrite;
+    }
+
+    /**
+     * Returns the limit of this cache as text, the number of entries or the memory size in bytes.<p>
+     *
+     * @return the limit of this cache
+     */
+    public String getLimit() {
+
+        return m_maxMemory > 0 ? m_maxMemory + "b" : Long.toString(m_maxSize);
+    }
+
+    /**
+     * Returns the maximum estimated memory size of all entries.<p>
+     *
+     * @return the maximum memory size in bytes, or -1 if the number of entries is limited instead
+     */
+    public long getMaxMemory() {
+
+        return m_maxMemory;
+    }
+
+    /**
+     * Returns the maximum number of entries.<p>
+     *
+     * @return the maximum number of entries, or -1 if the memory size is limited instead
+     */
+    public long getMaxSize() {
+
+        return m_maxSize;
+    }
+
+    /**
+     * Creates a snapshot of the statistics of this cache.<p>
+     *
+     * The estimated memory size is computed from the current entries, so this should not be called too often.<p>
+     *
+     * @param name the name of the cache
+     *
+     * @return the cache statistics
+     */
+    public CmsCacheStatistics getStatistics(String name) {
+
+        m_cache.cleanUp();
+        long memorySize = 0;
+        for (Map.Entry<K, V> entry : m_map.entrySet()) {
+            memorySize += getMemorySize(entry.getKey(), entry.getValue());
+        }
+        CacheStats stats = m_cache.stats();
+        return new CmsCacheStatistics(
+            name,
+            m_cache.size(),
+            memorySize,
+            m_maxSize,
+            m_maxMemory,
+            m_expireAfterWrite,
+            stats.hitCount(),
+            stats.missCount(),
+            stats.evictionCount());
+    }
+
+    /**
+     * @see com.google.common.collect.ForwardingConcurrentMap#delegate()
+     */
+    @Override
+    protected ConcurrentMap<K, V> delegate() {
+
+        return m_map;
+    }
+}
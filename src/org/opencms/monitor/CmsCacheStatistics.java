@@ -0,0 +1,226 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.monitor;
+
+import java.io.Serializable;
+
+/**
+ * An immutable snapshot of the size and the usage statistics of a cache.<p>
+ *
+ * @since 12.0.0
+ */
+public class CmsCacheStatistics implements Serializable {
+
+    /** The serial version id. */
+    private static final long serialVersionUID = -2873265473092735862L;
+
+    /** The number of evicted entries. */
+    private final long m_evictionCount;
+
+    /** The time in seconds after which entries expire, or -1. */
+    private final long m_expireAfterWrite;
+
+    /** The number of lookups that found an entry. */
+    private final long m_hitCount;
+
+    /** The maximum estimated memory size in bytes, or -1. */
+    private final long m_maxMemory;
+
+    /** The maximum number of entries, or -1. */
+    private final long m_maxSize;
+
+    /** The estimated memory size of the entries in bytes. */
+    private final long m_memorySize;
+
+    /** The number of lookups that found no entry. */
+    private final long m_missCount;
+
+    /** The name of the cache. */
+    private final String m_name;
+
+    /** The number of entries. */
+    private final long m_size;
+
+    /**
+     * Creates a new statistics snapshot.<p>
+     *
+     * @param name the name of the cache
+     * @param size the number of entries
+     * @param memorySize the estimated memory size of the entries in bytes
+     * @param maxSize the maximum number of entries, or -1
+     * @param maxMemory the maximum estimated memory size in bytes, or -1
+     * @param expireAfterWrite the time in seconds after which entries expire, or -1
+     * @param hitCount the number of lookups that found an entry
+     * @param missCount the number of lookups that found no entry
+     * @param evictionCount the number of evicted entries
+     */
+    public CmsCacheStatistics(
+        String name,
+        long size,
+        long memorySize,
+        long maxSize,
+        long maxMemory,
+        long expireAfterWrite,
+        long hitCount,
+        long missCount,
+        long evictionCount) {
+
+        m_name = name;
+        m_size = size;
+        m_memorySize = memorySize;
+        m_maxSize = maxSize;
+        m_maxMemory = maxMemory;
+        m_expireAfterWrite = expireAfterWrite;
+        m_hitCount = hitCount;
+        m_missCount = missCount;
+        m_evictionCount = evictionCount;
+    }
+
+    /**
+     * Returns the number of evicted entries, not counting removed or expired entries.<p>
+     *
+     * @return the number of evicted entries
+     */
+    public long getEvictionCount() {
+
+        return m_evictionCount;
+    }
+
+    /**
+     * Returns the time in seconds after which entries expire.<p>
+     *
+     * @return the time in seconds after which entries expire, or -1 if entries do not expire
+     */
+    public long getExpireAfterWrite() {
+
+        return m_expireAfterWrite;
+    }
+
+    /**
+     * Returns the number of lookups that found an entry.<p>
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+
+        return m_hitCount;
+    }
+
+    /**
+     * Returns the ratio of lookups that found an entry.<p>
+     *
+     * @return the hit rate between 0 and 1, or 1 if there have been no lookups yet
+     */
+    public double getHitRate() {
+
+        long requests = m_hitCount + m_missCount;
+        return requests == 0 ? 1.0 : (double)m_hitCount / requests;
+    }
+
+    /**
+     * Returns the maximum estimated memory size of all entries.<p>
+     *
+     * @return the maximum memory size in bytes, or -1 if the number of entries is limited instead
+     */
+    public long getMaxMemory() {
+
+        return m_maxMemory;
+    }
+
+    /**
+     * Returns the maximum number of entries.<p>
+     *
+     * @return the maximum number of entries, or -1 if the memory size is limited instead
+     */
+    public long getMaxSize() {
+
+        return m_maxSize;
+    }
+
+    /**
+     * Returns the estimated memory size of the entries.<p>
+     *
+     * @return the estimated memory size in bytes
+     */
+    public long getMemorySize() {
+
+        return m_memorySize;
+    }
+
+    /**
+     * Returns the number of lookups that found no entry.<p>
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+
+        return m_missCount;
+    }
+
+    /**
+     * Returns the name of the cache.<p>
+     *
+     * @return the name of the cache
+     */
+    public String getName() {
+
+        return m_name;
+    }
+
+    /**
+     * Returns the number of entries.<p>
+     *
+     * @return the number of entries
+     */
+    public long getSize() {
+
+        return m_size;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+
+        return m_name
+            + ": "
+            + m_size
+            + " entries, "
+            + m_memorySize
+            + " bytes, "
+            + m_hitCount
+            + " hits, "
+            + m_missCount
+            + " misses, "
+            + m_evictionCount
+            + " evictions, hit rate "
+            + Math.round(getHitRate() * 100)
+            + "%";
+    }
+}
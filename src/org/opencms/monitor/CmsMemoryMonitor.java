@@ -240,6 +240,12 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
     /** The memory monitor configuration. */
     private CmsMemoryMonitorConfiguration m_configuration;
 
+    /** The caches recording statistics, by cache type. */
+    private Map<CacheType, CmsCacheMap<String, ?>> m_cacheMaps = new ConcurrentHashMap<>();
+
+    /** The dependency indexes of the caches supporting targeted flushes. */
+    private Map<CacheType, CmsCacheDependencyIndex> m_dependencyIndexes = new ConcurrentHashMap<>();
+
     /** Map to keep track of disabled caches. */
     private Map<CacheType, Boolean> m_disabled = new HashMap<CacheType, Boolean>();
 
@@ -299,7 +305,7 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
      */
     public CmsMemoryMonitor() {
 
-        m_monitoredObjects = new HashMap<String, Object>();
+        m_monitoredObjects = new ConcurrentHashMap<String, Object>();
     }
 
     /**
@@ -650,13 +656,18 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
      *
      * @param key the cache key
      * @param permission the permission check result to cache
+     * @param tags the tags of the IDs and paths the result depends on
      */
-    public void cachePermission(String key, I_CmsPermissionHandler.CmsPermissionCheckResult permission) {
+    public void cachePermission(
+        String key,
+        I_CmsPermissionHandler.CmsPermissionCheckResult permission,
+        String... tags) {
 
         if (m_disabled.get(CacheType.PERMISSION) != null) {
             return;
         }
         m_cachePermission.put(key, permission);
+        addDependencies(CacheType.PERMISSION, key, tags);
     }
 
     /**
@@ -706,13 +717,15 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
      *
      * @param key the cache key
      * @param propertyList the property list to cache
+     * @param tags the tags of the IDs and paths the list depends on
      */
-    public void cachePropertyList(String key, List<CmsProperty> propertyList) {
+    public void cachePropertyList(String key, List<CmsProperty> propertyList, String... tags) {
 
         if (m_disabled.get(CacheType.PROPERTY_LIST) != null) {
             return;
         }
         m_cachePropertyList.put(key, propertyList);
+        addDependencies(CacheType.PROPERTY_LIST, key, tags);
     }
 
     /**
@@ -794,13 +807,15 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
      *
      * @param key the cache key
      * @param hasRole if the user has the given role
+     * @param tags the tags of the IDs and paths the value depends on
      */
-    public void cacheRole(String key, boolean hasRole) {
+    public void cacheRole(String key, boolean hasRole, String... tags) {
 
         if (m_disabled.get(CacheType.HAS_ROLE) != null) {
             return;
         }
         m_cacheHasRoles.put(key, Boolean.valueOf(hasRole));
+        addDependencies(CacheType.HAS_ROLE, key, tags);
     }
 
     /**
@@ -808,13 +823,15 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
      *
      * @param key the cache key
      * @param roles the roles of the user
+     * @param tags the tags of the IDs and paths the value depends on
      */
-    public void cacheRoleList(String key, List<CmsRole> roles) {
+    public void cacheRoleList(String key, List<CmsRole> roles, String... tags) {
 
         if (m_disabled.get(CacheType.ROLE_LIST) != null) {
             return;
         }
         m_cacheRoleLists.put(key, roles);
+        addDependencies(CacheType.ROLE_LIST, key, tags);
     }
 
     /**
@@ -836,13 +853,15 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
      *
      * @param key the cache key
      * @param userGroups the list of user groups to cache
+     * @param tags the tags of the IDs and paths the list depends on
      */
-    public void cacheUserGroups(String key, List<CmsGroup> userGroups) {
+    public void cacheUserGroups(String key, List<CmsGroup> userGroups, String... tags) {
 
         if (m_disabled.get(CacheType.USERGROUPS) != null) {
             return;
         }
         m_cacheUserGroups.put(key, userGroups);
+        addDependencies(CacheType.USERGROUPS, key, tags);
     }
 
     /**
@@ -943,6 +962,29 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         flushCache(CacheType.USER_LIST);
     }
 
+    /**
+     * Clears the cached principal data depending on the given user.<p>
+     *
+     * In contrast to {@link #clearPrincipalsCache()}, this only removes the user itself, and the groups,
+     * roles and permission check results cached for the user. The user lists are flushed completely,
+     * since they can not be assigned to a single user.<p>
+     *
+     * @param userId the id of the user
+     */
+    public void clearPrincipalsCache(CmsUUID userId) {
+
+        CmsUser user = m_cacheUser.get(userId.toString());
+        if (user != null) {
+            uncacheUser(user);
+        }
+        String tag = CmsCacheDependencyIndex.getIdTag(userId);
+        flushCacheEntries(CacheType.PERMISSION, tag);
+        flushCacheEntries(CacheType.HAS_ROLE, tag);
+        flushCacheEntries(CacheType.ROLE_LIST, tag);
+        flushCacheEntries(CacheType.USERGROUPS, tag);
+        flushCache(CacheType.USER_LIST);
+    }
+
     /**
      * Clears all the depending caches when a resource was changed.<p>
      */
@@ -1019,6 +1061,11 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
     public void flushCache(CacheType... types) {
 
         for (CacheType type : types) {
+            CmsCacheDependencyIndex index = m_dependencyIndexes.get(type);
+            if (index != null) {
+                // clear the index first, so entries cached in the meantime are tracked again
+                index.clear();
+            }
             switch (type) {
                 case ACL:
                     m_cacheAccessControlList.clear();
@@ -1101,6 +1148,62 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         }
     }
 
+    /**
+     * Removes the entries tagged with any of the given tags from the given cache.<p>
+     *
+     * Use {@link CmsCacheDependencyIndex#getIdTag(org.opencms.util.CmsUUID)} and
+     * {@link CmsCacheDependencyIndex#getPathTag(String)} to create the tags.
+     * The whole cache is flushed if it does not support targeted flushes,
+     * or if entries have been cached without tags since it was last flushed.<p>
+     *
+     * @param type the cache type
+     * @param tags the tags of the entries to remove
+     */
+    public void flushCacheEntries(CacheType type, String... tags) {
+
+        CmsCacheDependencyIndex index = m_dependencyIndexes.get(type);
+        if ((index == null) || !index.isComplete()) {
+            flushCache(type);
+            return;
+        }
+        int removed = index.flush(tags);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(
+                Messages.get().getBundle().key(
+                    Messages.LOG_MM_FLUSHED_CACHE_ENTRIES_3,
+                    type,
+                    Integer.valueOf(removed),
+                    CmsStringUtil.arrayAsString(tags, ",")));
+        }
+    }
+
+    /**
+     * Removes the entries tagged with the given root path, or with a root path below it, from the given cache.<p>
+     *
+     * The whole cache is flushed if it does not support targeted flushes,
+     * or if entries have been cached without tags since it was last flushed.<p>
+     *
+     * @param type the cache type
+     * @param rootPath the root path of the resource, for folders including the trailing slash
+     */
+    public void flushCacheSubtree(CacheType type, String rootPath) {
+
+        CmsCacheDependencyIndex index = m_dependencyIndexes.get(type);
+        if ((index == null) || !index.isComplete()) {
+            flushCache(type);
+            return;
+        }
+        int removed = index.flushSubtree(rootPath);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(
+                Messages.get().getBundle().key(
+                    Messages.LOG_MM_FLUSHED_CACHE_ENTRIES_3,
+                    type,
+                    Integer.valueOf(removed),
+                    rootPath));
+        }
+    }
+
     /**
      * Flushes the xml content definitions cache.<p>
      *
@@ -1409,6 +1512,36 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         return new ArrayList<CmsPublishJobInfoBean>(m_publishHistory);
     }
 
+    /**
+     * Returns snapshots of the statistics of all caches recording statistics.<p>
+     *
+     * @return the cache statistics, ordered by cache type
+     */
+    public List<CmsCacheStatistics> getCacheStatistics() {
+
+        List<CmsCacheStatistics> result = new ArrayList<CmsCacheStatistics>();
+        for (CacheType type : CacheType.values()) {
+            CmsCacheStatistics statistics = getCacheStatistics(type);
+            if (statistics != null) {
+                result.add(statistics);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the given cache.<p>
+     *
+     * @param type the cache type
+     *
+     * @return the cache statistics, or <code>null</code> if the cache does not record statistics
+     */
+    public CmsCacheStatistics getCacheStatistics(CacheType type) {
+
+        CmsCacheMap<String, ?> cache = m_cacheMaps.get(type);
+        return cache != null ? cache.getStatistics(type.name()) : null;
+    }
+
     /**
      * Returns the ACL cached with the given cache key or <code>null</code> if not found.<p>
      *
@@ -1841,7 +1974,7 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         // create and register all system caches
 
         // temporary xml entities cache
-        m_cacheXmlTemporaryEntity = createLRUCacheMap(128);
+        m_cacheXmlTemporaryEntity = createCacheMap(CacheType.XML_ENTITY_TEMP, 128, cacheSettings);
         register(CmsXmlEntityResolver.class.getName() + ".xmlEntityTemporaryCache", m_cacheXmlTemporaryEntity);
 
         // permanent xml entities cache
@@ -1849,7 +1982,7 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         register(CmsXmlEntityResolver.class.getName() + ".xmlEntityPermanentCache", m_cacheXmlPermanentEntity);
 
         // xml content definitions cache
-        m_cacheContentDefinitions = createLRUCacheMap(64);
+        m_cacheContentDefinitions = createCacheMap(CacheType.CONTENT_DEFINITION, 64, cacheSettings);
         register(CmsXmlEntityResolver.class.getName() + ".contentDefinitionsCache", m_cacheContentDefinitions);
 
         // lock cache
@@ -1861,35 +1994,40 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         register(CmsLocaleManager.class.getName(), m_cacheLocale);
 
         // permissions cache
-        m_cachePermission = createLRUCacheMap(cacheSettings.getPermissionCacheSize());
+        m_cachePermission = createCacheMap(CacheType.PERMISSION, cacheSettings.getPermissionCacheSize(), cacheSettings);
         register(CmsSecurityManager.class.getName(), m_cachePermission);
+        registerDependencyIndex(CacheType.PERMISSION, m_cachePermission, cacheSettings.getPermissionCacheSize());
 
         // user cache
-        m_cacheUser = createLRUCacheMap(cacheSettings.getUserCacheSize());
+        m_cacheUser = createCacheMap(CacheType.USER, cacheSettings.getUserCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".userCache", m_cacheUser);
 
         // user list cache
-        m_cacheUserList = createLRUCacheMap(cacheSettings.getUserCacheSize());
+        m_cacheUserList = createCacheMap(CacheType.USER_LIST, cacheSettings.getUserCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".userListCache", m_cacheUserList);
 
         // group cache
-        m_cacheGroup = createLRUCacheMap(cacheSettings.getGroupCacheSize());
+        m_cacheGroup = createCacheMap(CacheType.GROUP, cacheSettings.getGroupCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".groupCache", m_cacheGroup);
 
         // organizational unit cache
-        m_cacheOrgUnit = createLRUCacheMap(cacheSettings.getOrgUnitCacheSize());
+        m_cacheOrgUnit = createCacheMap(CacheType.ORG_UNIT, cacheSettings.getOrgUnitCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".orgUnitCache", m_cacheOrgUnit);
 
         // user groups list cache
-        m_cacheUserGroups = createLRUCacheMap(cacheSettings.getUserGroupsCacheSize());
+        m_cacheUserGroups = createCacheMap(CacheType.USERGROUPS, cacheSettings.getUserGroupsCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".userGroupsCache", m_cacheUserGroups);
+        registerDependencyIndex(CacheType.USERGROUPS, m_cacheUserGroups, cacheSettings.getUserGroupsCacheSize());
 
         // project cache
-        m_cacheProject = createLRUCacheMap(cacheSettings.getProjectCacheSize());
+        m_cacheProject = createCacheMap(CacheType.PROJECT, cacheSettings.getProjectCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".projectCache", m_cacheProject);
 
         // project resources cache cache
-        m_cacheProjectResources = createLRUCacheMap(cacheSettings.getProjectResourcesCacheSize());
+        m_cacheProjectResources = createCacheMap(
+            CacheType.PROJECT_RESOURCES,
+            cacheSettings.getProjectResourcesCacheSize(),
+            cacheSettings);
         register(CmsDriverManager.class.getName() + ".projectResourcesCache", m_cacheProjectResources);
 
         // publish history
@@ -1904,35 +2042,47 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         register(CmsPublishQueue.class.getName() + ".publishQueue", buffer);
 
         // resource cache
-        m_cacheResource = createLRUCacheMap(cacheSettings.getResourceCacheSize());
+        m_cacheResource = createCacheMap(CacheType.RESOURCE, cacheSettings.getResourceCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".resourceCache", m_cacheResource);
 
         // roles cache
-        m_cacheHasRoles = createLRUCacheMap(cacheSettings.getRolesCacheSize());
+        m_cacheHasRoles = createCacheMap(CacheType.HAS_ROLE, cacheSettings.getRolesCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".rolesCache", m_cacheHasRoles);
+        registerDependencyIndex(CacheType.HAS_ROLE, m_cacheHasRoles, cacheSettings.getRolesCacheSize());
 
         // role lists cache
-        m_cacheRoleLists = createLRUCacheMap(cacheSettings.getRolesCacheSize());
+        m_cacheRoleLists = createCacheMap(CacheType.ROLE_LIST, cacheSettings.getRolesCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".roleListsCache", m_cacheRoleLists);
+        registerDependencyIndex(CacheType.ROLE_LIST, m_cacheRoleLists, cacheSettings.getRolesCacheSize());
 
         // resource list cache
-        m_cacheResourceList = createLRUCacheMap(cacheSettings.getResourcelistCacheSize());
+        m_cacheResourceList = createCacheMap(
+            CacheType.RESOURCE_LIST,
+            cacheSettings.getResourcelistCacheSize(),
+            cacheSettings);
         register(CmsDriverManager.class.getName() + ".resourceListCache", m_cacheResourceList);
 
         // property cache
-        m_cacheProperty = createLRUCacheMap(cacheSettings.getPropertyCacheSize());
+        m_cacheProperty = createCacheMap(CacheType.PROPERTY, cacheSettings.getPropertyCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".propertyCache", m_cacheProperty);
 
         // property list cache
-        m_cachePropertyList = createLRUCacheMap(cacheSettings.getPropertyListsCacheSize());
+        m_cachePropertyList = createCacheMap(
+            CacheType.PROPERTY_LIST,
+            cacheSettings.getPropertyListsCacheSize(),
+            cacheSettings);
         register(CmsDriverManager.class.getName() + ".propertyListCache", m_cachePropertyList);
+        registerDependencyIndex(
+            CacheType.PROPERTY_LIST,
+            m_cachePropertyList,
+            cacheSettings.getPropertyListsCacheSize());
 
         // published resources list cache
-        m_cachePublishedResources = createLRUCacheMap(5);
+        m_cachePublishedResources = createCacheMap(CacheType.PUBLISHED_RESOURCES, 5, cacheSettings);
         register(CmsDriverManager.class.getName() + ".publishedResourcesCache", m_cachePublishedResources);
 
         // acl cache
-        m_cacheAccessControlList = createLRUCacheMap(cacheSettings.getAclCacheSize());
+        m_cacheAccessControlList = createCacheMap(CacheType.ACL, cacheSettings.getAclCacheSize(), cacheSettings);
         register(CmsDriverManager.class.getName() + ".accessControlListCache", m_cacheAccessControlList);
 
         // vfs object cache
@@ -2089,7 +2239,7 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
      */
     public void register(String objectName, Object object) {
 
-        if (enabled()) {
+        if (enabled() && (object != null)) {
             m_monitoredObjects.put(objectName, object);
         }
     }
@@ -2298,6 +2448,21 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         m_cacheXmlTemporaryEntity.remove(key);
     }
 
+    /**
+     * Adds the tags of a cached entry to the dependency index of the given cache.<p>
+     *
+     * @param type the cache type
+     * @param key the cache key
+     * @param tags the tags
+     */
+    protected void addDependencies(CacheType type, String key, String... tags) {
+
+        CmsCacheDependencyIndex index = m_dependencyIndexes.get(type);
+        if (index != null) {
+            index.add(key, tags);
+        }
+    }
+
     /**
      * Clears the OpenCms caches.<p>
      */
@@ -2318,6 +2483,27 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         System.gc();
     }
 
+    /**
+     * Creates a cache map recording statistics for the given cache type.<p>
+     *
+     * The memory limit and expiration time configured for the cache type are applied.<p>
+     *
+     * @param type the cache type
+     * @param capacity the maximum number of entries, used if no memory limit is configured
+     * @param cacheSettings the cache settings
+     *
+     * @return the cache map
+     */
+    protected <V> Map<String, V> createCacheMap(CacheType type, int capacity, CmsCacheSettings cacheSettings) {
+
+        CmsCacheMap<String, V> cache = new CmsCacheMap<String, V>(
+            capacity,
+            cacheSettings.getCacheMaxMemory(type),
+            cacheSettings.getCacheExpireAfterWrite(type));
+        m_cacheMaps.put(type, cache);
+        return cache;
+    }
+
     /**
      * Returns the cache costs of a monitored object.<p>
      *
@@ -2443,6 +2629,9 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         if (obj instanceof LRUMap) {
             return Integer.toString(((LRUMap)obj).maxSize());
         }
+        if (obj instanceof CmsCacheMap) {
+            return ((CmsCacheMap<?, ?>)obj).getLimit();
+        }
 
         return "-";
     }
@@ -2559,6 +2748,12 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         }
         content += "\nTotal size of cache memory monitored: " + totalSize + " (" + (totalSize / 1048576) + ")\n\n";
 
+        content += "Statistics of the caches:\n\n";
+        for (CmsCacheStatistics statistics : getCacheStatistics()) {
+            content += statistics + "\n";
+        }
+        content += "\n";
+
         String from = m_configuration.getEmailSender();
         List<InternetAddress> receivers = new ArrayList<InternetAddress>();
         List<String> receiverEmails = m_configuration.getEmailReceiver();
@@ -2668,6 +2863,9 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
                             form.sprintf(getLimit(obj)),
                             form.sprintf(Long.toString(size))}));
             }
+            for (CmsCacheStatistics statistics : getCacheStatistics()) {
+                LOG.info(Messages.get().getBundle().key(Messages.LOG_MM_CACHE_STATISTICS_1, statistics));
+            }
 
             LOG.info(
                 Messages.get().getBundle().key(
@@ -2733,6 +2931,19 @@ public class CmsMemoryMonitor implements I_CmsScheduledJob {
         }
     }
 
+    /**
+     * Creates a dependency index for the given cache, enabling targeted flushes of its entries.<p>
+     *
+     * @param type the cache type
+     * @param cache the cache map
+     * @param capacity the cache capacity
+     */
+    protected void registerDependencyIndex(CacheType type, Map<String, ?> cache, int capacity) {
+
+        // allow several tags per entry and some evicted keys before pruning the index
+        m_dependencyIndexes.put(type, new CmsCacheDependencyIndex(cache, 4 * capacity));
+    }
+
     /**
      * Updates the memory information of the memory monitor.<p>
      */
@@ -34,9 +34,11 @@ import org.opencms.db.CmsUserSettings;
 import org.opencms.db.I_CmsDbContextFactory;
 import org.opencms.file.CmsDataAccessException;
 import org.opencms.file.CmsObject;
+import org.opencms.file.CmsProject;
 import org.opencms.file.CmsRequestContext;
 import org.opencms.file.CmsResource;
 import org.opencms.file.CmsUser;
+import org.opencms.file.CmsVfsResourceNotFoundException;
 import org.opencms.lock.CmsLockType;
 import org.opencms.main.CmsBroadcast.ContentMode;
 import org.opencms.main.CmsEvent;
@@ -51,16 +53,25 @@ import org.opencms.security.CmsAuthentificationException;
 import org.opencms.security.CmsRole;
 import org.opencms.util.CmsUUID;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.logging.Log;
 
 /**
  * This class is responsible for the publish process.<p>
  *
+ * Up to {@link CmsPublishManager#getMaxParallelJobs()} publish jobs are run concurrently, as long as their
+ * publish lists touch disjoint parts of the repository (see {@link CmsPublishScope}). Jobs which conflict with
+ * a running job or with an earlier waiting job stay in the queue, so conflicting jobs are always published in
+ * the order in which they were enqueued.<p>
+ *
  * @since 6.5.5
  */
 public final class CmsPublishEngine {
@@ -71,9 +82,6 @@ public final class CmsPublishEngine {
     /** The id of the admin user. */
     private CmsUUID m_adminUserId;
 
-    /** The current running publish job. */
-    private CmsPublishThread m_currentPublishThread;
-
     /** The runtime info factory used during publishing. */
     private final I_CmsDbContextFactory m_dbContextFactory;
 
@@ -83,6 +91,21 @@ public final class CmsPublishEngine {
     /** The engine state. */
     private CmsPublishEngineState m_engineState;
 
+    /** Lock used to fire the events of finished publish jobs for one job at a time. */
+    private final Object m_finishEventLock = new Object();
+
+    /** The number of finished publish jobs. */
+    private long m_finishedJobs;
+
+    /** The number of resources published per second by the last finished publish job. */
+    private double m_lastThroughput;
+
+    /** The maximum time a publish job waited in the queue. */
+    private long m_maxQueueWaitTime;
+
+    /** The maximum number of publish jobs which may run concurrently. */
+    private int m_maxParallelJobs = 1;
+
     /** The publish listeners. */
     private final CmsPublishListenerCollection m_listeners;
 
@@ -95,9 +118,27 @@ public final class CmsPublishEngine {
     /** The amount of time the system will wait for a running publish job during shutdown. */
     private int m_publishQueueShutdowntime;
 
+    /** The currently running publish threads, in the order in which they were started. */
+    private final List<CmsPublishThread> m_runningPublishThreads = new CopyOnWriteArrayList<CmsPublishThread>();
+
+    /** Cache for the scopes of enqueued and running publish jobs. */
+    private final Map<CmsPublishJobInfoBean, CmsPublishScope> m_scopes = new WeakHashMap<CmsPublishJobInfoBean, CmsPublishScope>();
+
     /** Is set during shutdown. */
     private boolean m_shuttingDown;
 
+    /** Lock for the publish statistics. */
+    private final Object m_statisticsLock = new Object();
+
+    /** The total number of resources published by finished publish jobs. */
+    private long m_totalPublishedResources;
+
+    /** The total time spent by finished publish jobs. */
+    private long m_totalPublishTime;
+
+    /** The total time finished publish jobs waited in the queue. */
+    private long m_totalQueueWaitTime;
+
     /**
      * Default constructor.<p>
      *
@@ -133,28 +174,60 @@ public final class CmsPublishEngine {
     }
 
     /**
-     * Abandons the given publish thread.<p>
+     * Returns the index of the first waiting publish job which can be started now.<p>
+     *
+     * A waiting job can be started if it neither conflicts with a running job nor with a job which
+     * has been enqueued before it and is still waiting.<p>
+     *
+     * @param runningScopes the scopes of the running publish jobs
+     * @param waitingScopes the scopes of the waiting publish jobs, in queue order
+     *
+     * @return the index of the publish job to start, or -1 if no waiting job can be started
      */
-    public void abandonThread() {
-
-        if (!m_currentPublishThread.isAlive()) {
-            // thread is dead
-            if (LOG.isDebugEnabled()) {
-                LOG.debug(Messages.get().getBundle().key(Messages.LOG_PUBLISH_ENGINE_DEAD_JOB_0));
+    static int getStartableJobIndex(List<CmsPublishScope> runningScopes, List<CmsPublishScope> waitingScopes) {
+
+        List<CmsPublishScope> blockedScopes = new ArrayList<CmsPublishScope>(runningScopes);
+        for (int i = 0; i < waitingScopes.size(); i++) {
+            CmsPublishScope scope = waitingScopes.get(i);
+            boolean conflict = false;
+            for (CmsPublishScope blockedScope : blockedScopes) {
+                if (scope.conflictsWith(blockedScope)) {
+                    conflict = true;
+                    break;
+                }
             }
-        } else {
-            // thread is not dead, and we suppose it hangs :(
-            if (LOG.isWarnEnabled()) {
-                LOG.warn(
-                    Messages.get().getBundle().key(
-                        Messages.LOG_THREADSTORE_PUBLISH_THREAD_INTERRUPT_2,
-                        m_currentPublishThread.getName(),
-                        m_currentPublishThread.getUUID()));
+            if (!conflict) {
+                return i;
             }
-            m_currentPublishThread.interrupt();
+            // later jobs must not overtake this one if they conflict with it
+            blockedScopes.add(scope);
+        }
+        return -1;
+    }
+
+    /**
+     * Abandons the longest running publish thread.<p>
+     */
+    public void abandonThread() {
+
+        if (!m_runningPublishThreads.isEmpty()) {
+            abandonPublishThread(m_runningPublishThreads.get(0));
+        }
+        // and try again
+        checkCurrentPublishJobThread();
+    }
+
+    /**
+     * Abandons the thread running the given publish job.<p>
+     *
+     * @param publishJob the publish job whose thread should be abandoned
+     */
+    public void abandonThread(CmsPublishJobInfoBean publishJob) {
+
+        CmsPublishThread publishThread = getPublishThread(publishJob);
+        if (publishThread != null) {
+            abandonPublishThread(publishThread);
         }
-        // just throw it away
-        m_currentPublishThread = null;
         // and try again
         checkCurrentPublishJobThread();
     }
@@ -187,31 +260,32 @@ public final class CmsPublishEngine {
             return;
         }
 
-        // there is no running publish job
-        if (m_currentPublishThread == null) {
-            // but something is waiting in the queue
-            if (!m_publishQueue.isEmpty()) {
-                // start the next waiting publish job
-                CmsPublishJobInfoBean publishJob = m_publishQueue.next();
-                m_currentPublishThread = new CmsPublishThread(this, publishJob);
-                m_currentPublishThread.start();
-            } else {
-                // nothing to do
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(Messages.get().getBundle().key(Messages.LOG_PUBLISH_ENGINE_NO_RUNNING_JOB_0));
-                }
+        // clean up dead threads
+        for (CmsPublishThread thread : m_runningPublishThreads) {
+            if (!thread.isAlive()) {
+                abandonPublishThread(thread);
             }
-            return;
         }
-        if (m_currentPublishThread.isAlive()) {
-            // normal running
-            // wait until it is finished
-            if (LOG.isDebugEnabled()) {
+
+        // start as many waiting publish jobs as allowed
+        while (m_runningPublishThreads.size() < m_maxParallelJobs) {
+            CmsPublishJobInfoBean publishJob = nextStartableJob();
+            if (publishJob == null) {
+                break;
+            }
+            CmsPublishThread publishThread = new CmsPublishThread(this, publishJob);
+            m_runningPublishThreads.add(publishThread);
+            publishThread.start();
+        }
+
+        if (LOG.isDebugEnabled()) {
+            if (m_runningPublishThreads.isEmpty()) {
+                // nothing to do
+                LOG.debug(Messages.get().getBundle().key(Messages.LOG_PUBLISH_ENGINE_NO_RUNNING_JOB_0));
+            } else {
+                // normal running, wait until the jobs are finished
                 LOG.debug(Messages.get().getBundle().key(Messages.LOG_PUBLISH_ENGINE_WAITING_0));
             }
-        } else {
-            // clean up the dead thread
-            abandonThread();
         }
     }
 
@@ -243,6 +317,10 @@ public final class CmsPublishEngine {
 
         // create the publish job
         CmsPublishJobInfoBean publishJob = new CmsPublishJobInfoBean(cms, publishList, report);
+        if (m_maxParallelJobs > 1) {
+            // compute the scope now, so the database is not read while the engine is locked
+            getPublishScope(publishJob);
+        }
         try {
             // enqueue it and
             m_publishQueue.add(publishJob);
@@ -273,10 +351,11 @@ public final class CmsPublishEngine {
      */
     public CmsPublishJobBase getJobByPublishHistoryId(CmsUUID publishHistoryId) {
 
-        // try current running job
-        if ((m_currentPublishThread != null)
-            && m_currentPublishThread.getPublishJob().getPublishHistoryId().equals(publishHistoryId)) {
-            return new CmsPublishJobRunning(m_currentPublishThread.getPublishJob());
+        // try current running jobs
+        for (CmsPublishThread thread : m_runningPublishThreads) {
+            if (thread.getPublishJob().getPublishHistoryId().equals(publishHistoryId)) {
+                return new CmsPublishJobRunning(thread.getPublishJob());
+            }
         }
         // try enqueued jobs
         Iterator<CmsPublishJobEnqueued> itEnqueuedJobs = getPublishQueue().asList().iterator();
@@ -335,10 +414,10 @@ public final class CmsPublishEngine {
         // prevent new publish jobs are accepted
         m_shuttingDown = true;
 
-        // if a job is currently running,
+        // if jobs are currently running,
         // wait the specified amount of time,
-        // then write an abort message to the report
-        if (m_currentPublishThread != null) {
+        // then write an abort message to the reports
+        if (!m_runningPublishThreads.isEmpty()) {
 
             // if a shutdown time is defined, wait  if a publish process is running
             if (m_publishQueueShutdowntime > 0) {
@@ -351,8 +430,8 @@ public final class CmsPublishEngine {
                 }
             }
 
-            if (m_currentPublishThread != null) {
-                CmsPublishJobInfoBean publishJob = m_currentPublishThread.getPublishJob();
+            for (CmsPublishThread thread : m_runningPublishThreads) {
+                CmsPublishJobInfoBean publishJob = thread.getPublishJob();
                 try {
                     abortPublishJob(m_adminUserId, new CmsPublishJobEnqueued(publishJob), false);
                 } catch (CmsException e) {
@@ -399,9 +478,9 @@ public final class CmsPublishEngine {
         // abort event should be raised before the job is removed implicitly
         m_listeners.fireAbort(userId, publishJob);
 
-        if ((m_currentPublishThread == null)
-            || !publishJob.m_publishJob.equals(m_currentPublishThread.getPublishJob())) {
-            // engine is currently publishing another job or is not publishing
+        CmsPublishThread publishThread = getPublishThread(publishJob.m_publishJob);
+        if (publishThread == null) {
+            // engine is currently publishing other jobs or is not publishing
             if (!m_publishQueue.abortPublishJob(publishJob.m_publishJob)) {
                 // job not found
                 throw new CmsPublishException(
@@ -409,10 +488,10 @@ public final class CmsPublishEngine {
             }
         } else if (!m_shuttingDown) {
             // engine is currently publishing the job to abort
-            m_currentPublishThread.abort();
-        } else if (m_shuttingDown && (m_currentPublishThread != null)) {
-            // aborting the current job during shut down
-            I_CmsReport report = m_currentPublishThread.getReport();
+            publishThread.abort();
+        } else {
+            // aborting a running job during shut down
+            I_CmsReport report = publishThread.getReport();
             report.println();
             report.println();
             report.println(
@@ -460,19 +539,20 @@ public final class CmsPublishEngine {
 
         m_engineState = CmsPublishEngineState.ENGINE_STARTED;
         // start publish job if jobs waiting
-        if ((m_currentPublishThread == null) && !m_publishQueue.isEmpty()) {
+        if ((m_runningPublishThreads.size() < m_maxParallelJobs) && !m_publishQueue.isEmpty()) {
             checkCurrentPublishJobThread();
         }
     }
 
     /**
-     * Returns the current running publish job.<p>
+     * Returns the longest running publish job.<p>
      *
-     * @return the current running publish job
+     * @return the longest running publish job, or <code>null</code> if no publish job is running
      */
     protected CmsPublishThread getCurrentPublishJob() {
 
-        return m_currentPublishThread;
+        List<CmsPublishThread> runningThreads = getRunningPublishThreads();
+        return runningThreads.isEmpty() ? null : runningThreads.get(0);
     }
 
     /**
@@ -541,6 +621,37 @@ public final class CmsPublishEngine {
         return result;
     }
 
+    /**
+     * Returns the currently running publish threads, in the order in which they were started.<p>
+     *
+     * @return the running publish threads
+     */
+    protected List<CmsPublishThread> getRunningPublishThreads() {
+
+        return Collections.unmodifiableList(new ArrayList<CmsPublishThread>(m_runningPublishThreads));
+    }
+
+    /**
+     * Returns a snapshot of the publish statistics.<p>
+     *
+     * @return the publish statistics
+     */
+    protected CmsPublishStatistics getStatistics() {
+
+        int queuedJobs = m_publishQueue.getWaitingJobs().size();
+        synchronized (m_statisticsLock) {
+            return new CmsPublishStatistics(
+                m_runningPublishThreads.size(),
+                queuedJobs,
+                m_finishedJobs,
+                m_totalQueueWaitTime,
+                m_maxQueueWaitTime,
+                m_totalPublishTime,
+                m_totalPublishedResources,
+                m_lastThroughput);
+        }
+    }
+
     /**
      * Returns the user identified by the given id.<p>
      *
@@ -568,10 +679,15 @@ public final class CmsPublishEngine {
      * @param adminCms the admin cms
      * @param publishQueuePersistance flag if the queue is persisted
      * @param publishQueueShutdowntime amount of time to wait for a publish job during shutdown
+     * @param maxParallelJobs the maximum number of publish jobs which may run concurrently
      *
      * @throws CmsException if something goes wrong
      */
-    protected void initialize(CmsObject adminCms, boolean publishQueuePersistance, int publishQueueShutdowntime)
+    protected void initialize(
+        CmsObject adminCms,
+        boolean publishQueuePersistance,
+        int publishQueueShutdowntime,
+        int maxParallelJobs)
     throws CmsException {
 
         // check the driver manager
@@ -580,6 +696,7 @@ public final class CmsPublishEngine {
         }
 
         m_publishQueueShutdowntime = publishQueueShutdowntime;
+        m_maxParallelJobs = Math.max(1, maxParallelJobs);
 
         // initially the engine is stopped, must be restartet after full system initialization
         m_engineState = CmsPublishEngineState.ENGINE_STOPPED;
@@ -599,7 +716,7 @@ public final class CmsPublishEngine {
     protected boolean isRunning() {
 
         return (((m_engineState == CmsPublishEngineState.ENGINE_STARTED) && !m_publishQueue.isEmpty())
-            || (m_currentPublishThread != null));
+            || !m_runningPublishThreads.isEmpty());
     }
 
     /**
@@ -643,6 +760,40 @@ public final class CmsPublishEngine {
             LOG.error(t.getLocalizedMessage(), t);
         }
 
+        // fire the events of concurrently finishing jobs one after another, listeners don't expect overlapping events
+        synchronized (m_finishEventLock) {
+            fireFinishEvents(publishJob);
+        }
+        try {
+            // finish the job
+            publishJob.finish();
+            updateStatistics(publishJob);
+        } catch (Throwable t) {
+            // log failure, most likely a database problem
+            LOG.error(t.getLocalizedMessage(), t);
+        }
+        try {
+            // put the publish job into the history list
+            m_publishHistory.add(publishJob);
+        } catch (Throwable t) {
+            // log failure, most likely a database problem
+            LOG.error(t.getLocalizedMessage(), t);
+        }
+        // wipe the finished thread, only if this thread has not been abandoned
+        removePublishThread(publishJob);
+        // clear the published resources cache
+        OpenCms.getMemoryMonitor().flushCache(CmsMemoryMonitor.CacheType.PUBLISHED_RESOURCES);
+        // try to start a new publish job
+        checkCurrentPublishJobThread();
+    }
+
+    /**
+     * Fires the events signaling that a publish job has finished.<p>
+     *
+     * @param publishJob the finished publish job
+     */
+    protected void fireFinishEvents(CmsPublishJobInfoBean publishJob) {
+
         // trigger the old event mechanism
         CmsDbContext dbc = m_dbContextFactory.getDbContext(publishJob.getCmsObject().getRequestContext());
         try {
@@ -680,28 +831,6 @@ public final class CmsPublishEngine {
             // log failure, most likely a database problem
             LOG.error(t.getLocalizedMessage(), t);
         }
-        try {
-            // finish the job
-            publishJob.finish();
-        } catch (Throwable t) {
-            // log failure, most likely a database problem
-            LOG.error(t.getLocalizedMessage(), t);
-        }
-        try {
-            // put the publish job into the history list
-            m_publishHistory.add(publishJob);
-        } catch (Throwable t) {
-            // log failure, most likely a database problem
-            LOG.error(t.getLocalizedMessage(), t);
-        }
-        if (Thread.currentThread() == m_currentPublishThread) {
-            // wipe the dead thread, only if this thread has not been abandoned
-            m_currentPublishThread = null;
-        }
-        // clear the published resources cache
-        OpenCms.getMemoryMonitor().flushCache(CmsMemoryMonitor.CacheType.PUBLISHED_RESOURCES);
-        // try to start a new publish job
-        checkCurrentPublishJobThread();
     }
 
     /**
@@ -772,7 +901,7 @@ public final class CmsPublishEngine {
         if (m_engineState != CmsPublishEngineState.ENGINE_STARTED) {
             m_engineState = CmsPublishEngineState.ENGINE_STARTED;
             // start publish job if jobs waiting
-            if ((m_currentPublishThread == null) && !m_publishQueue.isEmpty()) {
+            if ((m_runningPublishThreads.size() < m_maxParallelJobs) && !m_publishQueue.isEmpty()) {
                 checkCurrentPublishJobThread();
             }
         }
@@ -813,6 +942,73 @@ public final class CmsPublishEngine {
         }
     }
 
+    /**
+     * Abandons the given publish thread, interrupting it if it is still alive.<p>
+     *
+     * @param publishThread the publish thread to abandon
+     */
+    private void abandonPublishThread(CmsPublishThread publishThread) {
+
+        if (!publishThread.isAlive()) {
+            // thread is dead
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(Messages.get().getBundle().key(Messages.LOG_PUBLISH_ENGINE_DEAD_JOB_0));
+            }
+        } else {
+            // thread is not dead, and we suppose it hangs :(
+            if (LOG.isWarnEnabled()) {
+                LOG.warn(
+                    Messages.get().getBundle().key(
+                        Messages.LOG_THREADSTORE_PUBLISH_THREAD_INTERRUPT_2,
+                        publishThread.getName(),
+                        publishThread.getUUID()));
+            }
+            publishThread.interrupt();
+        }
+        // just throw it away
+        m_runningPublishThreads.remove(publishThread);
+    }
+
+    /**
+     * Returns the scope of the given publish job.<p>
+     *
+     * @param publishJob the publish job
+     *
+     * @return the scope of the publish job
+     */
+    private CmsPublishScope getPublishScope(CmsPublishJobInfoBean publishJob) {
+
+        CmsPublishScope scope;
+        synchronized (m_scopes) {
+            scope = m_scopes.get(publishJob);
+        }
+        if (scope == null) {
+            List<CmsResource> resources = publishJob.getPublishList().getAllResources();
+            scope = new CmsPublishScope(resources, readOnlinePaths(resources));
+            synchronized (m_scopes) {
+                m_scopes.put(publishJob, scope);
+            }
+        }
+        return scope;
+    }
+
+    /**
+     * Returns the running publish thread for the given publish job.<p>
+     *
+     * @param publishJob the publish job
+     *
+     * @return the publish thread running the publish job, or <code>null</code> if the job is not running
+     */
+    private CmsPublishThread getPublishThread(CmsPublishJobInfoBean publishJob) {
+
+        for (CmsPublishThread thread : m_runningPublishThreads) {
+            if (publishJob.equals(thread.getPublishJob())) {
+                return thread;
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns <code>true</code> if the login manager allows login.<p>
      *
@@ -832,4 +1028,126 @@ public final class CmsPublishEngine {
             return false;
         }
     }
+
+    /**
+     * Removes the next publish job which can be started now from the queue.<p>
+     *
+     * @see #getStartableJobIndex(List, List)
+     *
+     * @return the next publish job to start, or <code>null</code> if no waiting job can be started
+     */
+    private CmsPublishJobInfoBean nextStartableJob() {
+
+        if (m_runningPublishThreads.isEmpty()) {
+            // nothing can conflict, so just take the first job
+            return m_publishQueue.next();
+        }
+        List<CmsPublishScope> runningScopes = new ArrayList<CmsPublishScope>();
+        for (CmsPublishThread thread : m_runningPublishThreads) {
+            runningScopes.add(getPublishScope(thread.getPublishJob()));
+        }
+        List<CmsPublishJobInfoBean> waitingJobs = m_publishQueue.getWaitingJobs();
+        List<CmsPublishScope> waitingScopes = new ArrayList<CmsPublishScope>();
+        for (CmsPublishJobInfoBean publishJob : waitingJobs) {
+            waitingScopes.add(getPublishScope(publishJob));
+        }
+        int index = getStartableJobIndex(runningScopes, waitingScopes);
+        if (index < 0) {
+            return null;
+        }
+        CmsPublishJobInfoBean publishJob = waitingJobs.get(index);
+        m_publishQueue.dequeue(publishJob);
+        return publishJob;
+    }
+
+    /**
+     * Reads the online root paths of the moved resources in a publish list.<p>
+     *
+     * If the online paths can not be read, the root folder is used as online path, so that the publish job
+     * conflicts with all other publish jobs.<p>
+     *
+     * @param resources the resources of the publish list
+     *
+     * @return the online root paths of the moved resources, by structure id
+     */
+    private Map<CmsUUID, String> readOnlinePaths(List<CmsResource> resources) {
+
+        Map<CmsUUID, String> result = new HashMap<CmsUUID, String>();
+        CmsDbContext dbc = m_dbContextFactory.getDbContext();
+        try {
+            for (CmsResource resource : resources) {
+                // only changed resources can have been moved
+                if (resource.getState().isChanged()) {
+                    try {
+                        CmsResource onlineResource = m_driverManager.getVfsDriver(dbc).readResource(
+                            dbc,
+                            CmsProject.ONLINE_PROJECT_ID,
+                            resource.getStructureId(),
+                            true);
+                        if (!onlineResource.getRootPath().equals(resource.getRootPath())) {
+                            result.put(resource.getStructureId(), onlineResource.getRootPath());
+                        }
+                    } catch (CmsVfsResourceNotFoundException e) {
+                        // not online yet, so the resource can not have been moved
+                    }
+                }
+            }
+        } catch (CmsException e) {
+            dbc.rollback();
+            LOG.error(e.getLocalizedMessage(), e);
+            for (CmsResource resource : resources) {
+                result.put(resource.getStructureId(), "/");
+            }
+        } finally {
+            dbc.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Removes the thread running the given publish job from the list of running threads.<p>
+     *
+     * @param publishJob the finished publish job
+     */
+    private void removePublishThread(CmsPublishJobInfoBean publishJob) {
+
+        for (CmsPublishThread thread : m_runningPublishThreads) {
+            if ((thread == Thread.currentThread()) && publishJob.equals(thread.getPublishJob())) {
+                m_runningPublishThreads.remove(thread);
+            }
+        }
+        synchronized (m_scopes) {
+            m_scopes.remove(publishJob);
+        }
+    }
+
+    /**
+     * Adds the queue wait time and throughput of a finished publish job to the statistics.<p>
+     *
+     * @param publishJob the finished publish job
+     */
+    private void updateStatistics(CmsPublishJobInfoBean publishJob) {
+
+        long waitTime = Math.max(0, publishJob.getStartTime() - publishJob.getEnqueueTime());
+        long publishTime = Math.max(1, publishJob.getFinishTime() - publishJob.getStartTime());
+        double throughput = (publishJob.getSize() * 1000.0) / publishTime;
+        synchronized (m_statisticsLock) {
+            m_finishedJobs += 1;
+            m_totalQueueWaitTime += waitTime;
+            m_maxQueueWaitTime = Math.max(m_maxQueueWaitTime, waitTime);
+            m_totalPublishTime += publishTime;
+            m_totalPublishedResources += publishJob.getSize();
+            m_lastThroughput = throughput;
+        }
+        if (LOG.isInfoEnabled()) {
+            LOG.info(
+                Messages.get().getBundle().key(
+                    Messages.LOG_PUBLISH_JOB_STATISTICS_4,
+                    new Object[] {
+                        publishJob.getPublishHistoryId(),
+                        Integer.valueOf(publishJob.getSize()),
+                        Long.valueOf(waitTime),
+                        Long.valueOf(Math.round(throughput))}));
+        }
+    }
 }
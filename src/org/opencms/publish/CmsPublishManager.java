@@ -98,6 +98,9 @@ public class CmsPublishManager {
     /** Indicates if the configuration can be modified. */
     private boolean m_frozen;
 
+    /** The maximum number of publish jobs which may run concurrently. */
+    private int m_maxParallelJobs = 1;
+
     /** The underlying publish engine. */
     private CmsPublishEngine m_publishEngine;
 
@@ -163,6 +166,16 @@ public class CmsPublishManager {
         m_publishEngine.abandonThread();
     }
 
+    /**
+     * Abandons the thread of the given running publish job.<p>
+     *
+     * @param publishJob the running publish job
+     */
+    public void abandonThread(CmsPublishJobRunning publishJob) {
+
+        m_publishEngine.abandonThread(publishJob.m_publishJob);
+    }
+
     /**
      * Aborts the given publish job.<p>
      *
@@ -275,14 +288,27 @@ public class CmsPublishManager {
     /**
      * Returns the current running publish job.<p>
      *
+     * If several publish jobs are running concurrently, the one which was started first is returned.<p>
+     *
      * @return the current running publish job
      */
     public CmsPublishJobRunning getCurrentPublishJob() {
 
-        if (m_publishEngine.getCurrentPublishJob() == null) {
+        CmsPublishThread publishThread = m_publishEngine.getCurrentPublishJob();
+        if (publishThread == null) {
             return null;
         }
-        return new CmsPublishJobRunning(m_publishEngine.getCurrentPublishJob().getPublishJob());
+        return new CmsPublishJobRunning(publishThread.getPublishJob());
+    }
+
+    /**
+     * Returns the maximum number of publish jobs which may run concurrently.<p>
+     *
+     * @return the maximum number of concurrent publish jobs
+     */
+    public int getMaxParallelJobs() {
+
+        return m_maxParallelJobs;
     }
 
     /**
@@ -494,6 +520,20 @@ public class CmsPublishManager {
         return m_publishQueueShutdowntime;
     }
 
+    /**
+     * Returns the currently running publish jobs, in the order in which they were started.<p>
+     *
+     * @return the running publish jobs
+     */
+    public List<CmsPublishJobRunning> getRunningPublishJobs() {
+
+        List<CmsPublishJobRunning> result = new ArrayList<CmsPublishJobRunning>();
+        for (CmsPublishThread publishThread : m_publishEngine.getRunningPublishThreads()) {
+            result.add(new CmsPublishJobRunning(publishThread.getPublishJob()));
+        }
+        return result;
+    }
+
     /**
      * Returns a new publish list that contains the unpublished resources related
      * to all resources in the given publish list, the related resources exclude
@@ -541,6 +581,16 @@ public class CmsPublishManager {
         return m_securityManager.getUsersPubList(cms.getRequestContext());
     }
 
+    /**
+     * Returns a snapshot of the publish statistics, i.e. queue wait times and throughput of finished publish jobs.<p>
+     *
+     * @return the publish statistics
+     */
+    public CmsPublishStatistics getStatistics() {
+
+        return m_publishEngine.getStatistics();
+    }
+
     /**
      * Initializes the publish manager and the publish engine finally.<p>
      *
@@ -550,7 +600,7 @@ public class CmsPublishManager {
      */
     public void initialize(CmsObject cms) throws CmsException {
 
-        m_publishEngine.initialize(cms, m_publishQueuePersistance, m_publishQueueShutdowntime);
+        m_publishEngine.initialize(cms, m_publishQueuePersistance, m_publishQueueShutdowntime, m_maxParallelJobs);
         // Ensure publish history gets written to DB regularly,
         OpenCms.getExecutor().scheduleWithFixedDelay(new Runnable() {
 
@@ -766,6 +816,21 @@ public class CmsPublishManager {
 
     }
 
+    /**
+     * Sets the maximum number of publish jobs which may run concurrently.<p>
+     *
+     * Publish jobs only run concurrently if their publish lists don't overlap.<p>
+     *
+     * @param maxParallelJobs the maximum number of concurrent publish jobs, parsed as <code>int</code>
+     */
+    public void setMaxParallelJobs(String maxParallelJobs) {
+
+        if (m_frozen) {
+            throw new CmsRuntimeException(Messages.get().container(Messages.ERR_CONFIG_FROZEN_0));
+        }
+        m_maxParallelJobs = Math.max(1, Integer.parseInt(maxParallelJobs.trim()));
+    }
+
     /**
      * Sets the publish engine during initialization.<p>
      *
@@ -185,6 +185,29 @@ public class CmsPublishQueue {
         return false;
     }
 
+    /**
+     * Removes the given publish job from the queue because it is about to be started.<p>
+     *
+     * @param publishJob the publish job to remove
+     */
+    protected void dequeue(CmsPublishJobInfoBean publishJob) {
+
+        OpenCms.getMemoryMonitor().uncachePublishJob(publishJob);
+    }
+
+    /**
+     * Returns the waiting publish jobs in the order in which they were enqueued.<p>
+     *
+     * @return the waiting publish jobs
+     */
+    protected List<CmsPublishJobInfoBean> getWaitingJobs() {
+
+        if (OpenCms.getMemoryMonitor() == null) {
+            return Collections.emptyList();
+        }
+        return OpenCms.getMemoryMonitor().getAllCachedPublishJobs();
+    }
+
     /**
      * Initializes the internal FIFO queue with publish jobs from the database.<p>
      *
@@ -0,0 +1,157 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH & Co. KG, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.publish;
+
+import org.opencms.file.CmsResource;
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The part of the repository touched by a publish job, used to decide whether two publish jobs may run concurrently.<p>
+ *
+ * The scope consists of the minimal set of root path subtrees which contain all resources of the publish list
+ * (for files the parent folder, for folders the folder itself) and of the structure and resource ids of the
+ * published resources, so that siblings published by different jobs are detected as well. For moved resources,
+ * the subtree of the online path is included too, since publishing the move removes the resource there.<p>
+ *
+ * @since 12.0.0
+ */
+final class CmsPublishScope {
+
+    /** The resource ids of the published resources. */
+    private final Set<CmsUUID> m_resourceIds = new HashSet<CmsUUID>();
+
+    /** The sorted root paths of the subtrees touched by the publish job, none of which is a prefix of another. */
+    private final List<String> m_rootPaths;
+
+    /** The structure ids of the published resources. */
+    private final Set<CmsUUID> m_structureIds = new HashSet<CmsUUID>();
+
+    /**
+     * Creates the scope for the resources of a publish list.<p>
+     *
+     * @param resources the resources of the publish list
+     * @param onlinePaths the online root paths of the moved resources, by structure id
+     */
+    CmsPublishScope(Collection<CmsResource> resources, Map<CmsUUID, String> onlinePaths) {
+
+        TreeSet<String> paths = new TreeSet<String>();
+        for (CmsResource resource : resources) {
+            m_structureIds.add(resource.getStructureId());
+            m_resourceIds.add(resource.getResourceId());
+            paths.add(getScopePath(resource.getRootPath(), resource.isFolder()));
+            String onlinePath = onlinePaths.get(resource.getStructureId());
+            if (onlinePath != null) {
+                paths.add(getScopePath(onlinePath, resource.isFolder()));
+            }
+        }
+        List<String> rootPaths = new ArrayList<String>();
+        String lastRoot = null;
+        for (String path : paths) {
+            // sorted order places every path directly after an ancestor contained in the set
+            if ((lastRoot == null) || !path.startsWith(lastRoot)) {
+                rootPaths.add(path);
+                lastRoot = path;
+            }
+        }
+        m_rootPaths = Collections.unmodifiableList(rootPaths);
+    }
+
+    /**
+     * Returns the folder root path of the subtree touched by publishing a resource with the given root path.<p>
+     *
+     * @param rootPath the root path of the resource
+     * @param isFolder <code>true</code> if the resource is a folder
+     *
+     * @return the folder itself for folders, the parent folder for files
+     */
+    private static String getScopePath(String rootPath, boolean isFolder) {
+
+        return isFolder ? rootPath : CmsResource.getParentFolder(rootPath);
+    }
+
+    /**
+     * Checks whether a sorted list of folder root paths contains the given path, an ancestor or a descendant of it.<p>
+     *
+     * @param rootPaths the sorted folder root paths
+     * @param path the folder root path to check
+     *
+     * @return true if the path overlaps with one of the root paths
+     */
+    private static boolean overlaps(List<String> rootPaths, String path) {
+
+        int pos = Collections.binarySearch(rootPaths, path);
+        if (pos >= 0) {
+            return true;
+        }
+        int insertionPoint = -(pos + 1);
+        // an ancestor sorts directly before the path, a descendant directly after it
+        if ((insertionPoint > 0) && path.startsWith(rootPaths.get(insertionPoint - 1))) {
+            return true;
+        }
+        return (insertionPoint < rootPaths.size()) && rootPaths.get(insertionPoint).startsWith(path);
+    }
+
+    /**
+     * Checks whether this scope conflicts with another one, i.e. whether the two publish jobs must not run concurrently.<p>
+     *
+     * @param other the other scope
+     *
+     * @return true if the scopes conflict
+     */
+    boolean conflictsWith(CmsPublishScope other) {
+
+        CmsPublishScope smaller = m_rootPaths.size() <= other.m_rootPaths.size() ? this : other;
+        CmsPublishScope larger = smaller == this ? other : this;
+        for (String path : smaller.m_rootPaths) {
+            if (overlaps(larger.m_rootPaths, path)) {
+                return true;
+            }
+        }
+        return !Collections.disjoint(smaller.m_structureIds, larger.m_structureIds)
+            || !Collections.disjoint(smaller.m_resourceIds, larger.m_resourceIds);
+    }
+
+    /**
+     * Returns the root paths of the subtrees touched by the publish job.<p>
+     *
+     * @return the root paths
+     */
+    List<String> getRootPaths() {
+
+        return m_rootPaths;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software GmbH & Co. KG, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.publish;
+
+/**
+ * Snapshot of the publish engine statistics, i.e. queue wait times and publish throughput of finished publish jobs.<p>
+ *
+ * @since 12.0.0
+ */
+public final class CmsPublishStatistics {
+
+    /** The number of finished publish jobs. */
+    private final long m_finishedJobs;
+
+    /** The number of resources published by the last finished publish job per second. */
+    private final double m_lastThroughput;
+
+    /** The maximum time a publish job waited in the queue, in milliseconds. */
+    private final long m_maxQueueWaitTime;
+
+    /** The number of waiting publish jobs. */
+    private final int m_queuedJobs;
+
+    /** The number of running publish jobs. */
+    private final int m_runningJobs;
+
+    /** The total number of published resources. */
+    private final long m_totalPublishedResources;
+
+    /** The total time spent publishing, in milliseconds. */
+    private final long m_totalPublishTime;
+
+    /** The total time publish jobs waited in the queue, in milliseconds. */
+    private final long m_totalQueueWaitTime;
+
+    /**
+     * Creates a new statistics snapshot.<p>
+     *
+     * @param runningJobs the number of running publish jobs
+     * @param queuedJobs the number of waiting publish jobs
+     * @param finishedJobs the number of finished publish jobs
+     * @param totalQueueWaitTime the total time publish jobs waited in the queue, in milliseconds
+     * @param maxQueueWaitTime the maximum time a publish job waited in the queue, in milliseconds
+     * @param totalPublishTime the total time spent publishing, in milliseconds
+     * @param totalPublishedResources the total number of published resources
+     * @param lastThroughput the number of resources published by the last finished publish job per second
+     */
+    public CmsPublishStatistics(
+        int runningJobs,
+        int queuedJobs,
+        long finishedJobs,
+        long totalQueueWaitTime,
+        long maxQueueWaitTime,
+        long totalPublishTime,
+        long totalPublishedResources,
+        double lastThroughput) {
+
+        m_runningJobs = runningJobs;
+        m_queuedJobs = queuedJobs;
+        m_finishedJobs = finishedJobs;
+        m_totalQueueWaitTime = totalQueueWaitTime;
+        m_maxQueueWaitTime = maxQueueWaitTime;
+        m_totalPublishTime = totalPublishTime;
+        m_totalPublishedResources = totalPublishedResources;
+        m_lastThroughput = lastThroughput;
+    }
+
+    /**
+     * Returns the average time a finished publish job waited in the queue, in milliseconds.<p>
+     *
+     * @return the average queue wait time
+     */
+    public long getAverageQueueWaitTime() {
+
+        return m_finishedJobs == 0 ? 0 : m_totalQueueWaitTime / m_finishedJobs;
+    }
+
+    /**
+     * Returns the average number of resources published per second over all finished publish jobs.<p>
+     *
+     * @return the average throughput
+     */
+    public double getAverageThroughput() {
+
+        return m_totalPublishTime == 0 ? 0 : (m_totalPublishedResources * 1000.0) / m_totalPublishTime;
+    }
+
+    /**
+     * Returns the number of finished publish jobs.<p>
+     *
+     * @return the number of finished publish jobs
+     */
+    public long getFinishedJobs() {
+
+        return m_finishedJobs;
+    }
+
+    /**
+     * Returns the number of resources published by the last finished publish job per second.<p>
+     *
+     * @return the throughput of the last publish job
+     */
+    public double getLastThroughput() {
+
+        return m_lastThroughput;
+    }
+
+    /**
+     * Returns the maximum time a publish job waited in the queue, in milliseconds.<p>
+     *
+     * @return the maximum queue wait time
+     */
+    public long getMaxQueueWaitTime() {
+
+        return m_maxQueueWaitTime;
+    }
+
+    /**
+     * Returns the number of waiting publish jobs.<p>
+     *
+     * @return the number of waiting publish jobs
+     */
+    public int getQueuedJobs() {
+
+        return m_queuedJobs;
+    }
+
+    /**
+     * Returns the number of running publish jobs.<p>
+     *
+     * @return the number of running publish jobs
+     */
+    public int getRunningJobs() {
+
+        return m_runningJobs;
+    }
+
+    /**
+     * Returns the total number of resources published by finished publish jobs.<p>
+     *
+     * @return the total number of published resources
+     */
+    public long getTotalPublishedResources() {
+
+        return m_totalPublishedResources;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+
+        return "[running="
+            + m_runningJobs
+            + ", queued="
+            + m_queuedJobs
+            + ", finished="
+            + m_finishedJobs
+            + ", avgQueueWait="
+            + getAverageQueueWaitTime()
+            + "ms, maxQueueWait="
+            + m_maxQueueWaitTime
+            + "ms, avgThroughput="
+            + Math.round(getAverageThroughput())
+            + " resources/s]";
+    }
+}
@@ -157,6 +157,9 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String LOG_PUBLISH_JOB_START_0 = "LOG_PUBLISH_JOB_START_0";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String LOG_PUBLISH_JOB_STATISTICS_4 = "LOG_PUBLISH_JOB_STATISTICS_4";
+
     /** Message constant for key in the resource bundle. */
     public static final String LOG_PUBLISH_PROJECT_FAILED_0 = "LOG_PUBLISH_PROJECT_FAILED_0";
 
@@ -28,29 +28,93 @@
 package org.opencms.search;
 
 import org.opencms.db.CmsPublishedResource;
+import org.opencms.file.CmsObject;
 import org.opencms.file.CmsResource;
 import org.opencms.i18n.CmsMessageContainer;
+import org.opencms.main.CmsException;
 import org.opencms.main.CmsLog;
+import org.opencms.main.OpenCms;
+import org.opencms.report.CmsBufferedReport;
 import org.opencms.report.CmsLogReport;
 import org.opencms.report.I_CmsReport;
+import org.opencms.util.CmsFileUtil;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Locale;
 
 import org.apache.commons.logging.Log;
 
 /**
  * Implements the management of indexing threads.<p>
  *
+ * The documents are extracted by up to <code>maxThreads</code> indexing threads in parallel,
+ * while the extracted documents are written to the index by the thread calling this manager.<p>
+ *
  * @since 6.0.0
  */
 public class CmsIndexingThreadManager {
 
+    /**
+     * A document that is extracted by an indexing thread and waits to be written to the index.<p>
+     */
+    private static class PendingDocument {
+
+        /** The time until the indexing thread has to finish. */
+        long m_deadline;
+
+        /** The VFS indexer that created the document. */
+        CmsVfsIndexer m_indexer;
+
+        /** The report collecting the output of the thread, <code>null</code> if it writes to the report directly. */
+        CmsBufferedReport m_report;
+
+        /** The resource to index. */
+        CmsResource m_resource;
+
+        /** The indexing thread. */
+        CmsIndexingThread m_thread;
+
+        /** The index writer to write the document with. */
+        I_CmsIndexWriter m_writer;
+
+        /**
+         * Creates a new pending document.<p>
+         *
+         * @param indexer the VFS indexer that created the document
+         * @param writer the index writer to write the document with
+         * @param resource the resource to index
+         * @param thread the indexing thread
+         * @param report the report collecting the output of the indexing thread, or <code>null</code>
+         * @param deadline the time until the indexing thread has to finish
+         */
+        PendingDocument(
+            CmsVfsIndexer indexer,
+            I_CmsIndexWriter writer,
+            CmsResource resource,
+            CmsIndexingThread thread,
+            CmsBufferedReport report,
+            long deadline) {
+
+            m_indexer = indexer;
+            m_writer = writer;
+            m_resource = resource;
+            m_thread = thread;
+            m_report = report;
+            m_deadline = deadline;
+        }
+    }
+
     /** The log object for this class. */
     private static final Log LOG = CmsLog.getLog(CmsIndexingThreadManager.class);
 
     /** Number of threads abandoned. */
     private int m_abandonedCounter;
 
+    /** The overall size of the indexed resources in bytes. */
+    private long m_indexedBytes;
+
     /** The time the last error was written to the log. */
     private long m_lastLogErrorTime;
 
@@ -60,15 +124,27 @@ public class CmsIndexingThreadManager {
     /** The maximum number of modifications before a commit in the search index is triggered. */
     private int m_maxModificationsBeforeCommit;
 
+    /** The maximum number of indexing threads extracting documents in parallel. */
+    private int m_maxThreads;
+
+    /** The documents extracted by the running indexing threads, in the order the threads were started. */
+    private ArrayDeque<PendingDocument> m_pendingDocuments;
+
     /** Number of thread returned. */
     private int m_returnedCounter;
 
     /** Overall number of threads started. */
     private int m_startedCounter;
 
+    /** The time the first indexing thread was started. */
+    private long m_startTime;
+
     /** Timeout for abandoning threads. */
     private long m_timeout;
 
+    /** Number of documents written to or deleted from the index. */
+    private int m_writtenCounter;
+
     /**
      * Creates and starts a thread manager for indexing threads.<p>
      *
@@ -77,89 +153,89 @@ public class CmsIndexingThreadManager {
      */
     public CmsIndexingThreadManager(long timeout, int maxModificationsBeforeCommit) {
 
+        this(timeout, maxModificationsBeforeCommit, 1);
+    }
+
+    /**
+     * Creates and starts a thread manager for indexing threads.<p>
+     *
+     * @param timeout timeout after a thread is abandoned
+     * @param maxModificationsBeforeCommit the maximum number of modifications before a commit in the search index is triggered
+     * @param maxThreads the maximum number of indexing threads extracting documents in parallel
+     */
+    public CmsIndexingThreadManager(long timeout, int maxModificationsBeforeCommit, int maxThreads) {
+
         m_timeout = timeout;
         m_maxModificationsBeforeCommit = maxModificationsBeforeCommit;
+        m_maxThreads = Math.max(1, maxThreads);
+        m_pendingDocuments = new ArrayDeque<PendingDocument>(m_maxThreads);
     }
 
     /**
      * Creates and starts a new indexing thread for a resource.<p>
      *
-     * After an indexing thread was started, the manager suspends itself
-     * and waits for an amount of time specified by the <code>timeout</code>
-     * value. If the timeout value is reached, the indexing thread is
+     * If the maximum number of indexing threads is already running, the manager suspends itself
+     * until the document of the oldest thread is available, or until this thread reaches
+     * the time specified by the <code>timeout</code> value.
+     * If the timeout value is reached, the indexing thread is
      * aborted by an interrupt signal.<p>
      *
+     * The documents of all finished threads are written to the index before this method returns.<p>
+     *
      * @param indexer the VFS indexer to create the index thread for
      * @param writer the index writer that can update the index
      * @param res the resource
      */
     public void createIndexingThread(CmsVfsIndexer indexer, I_CmsIndexWriter writer, CmsResource res) {
 
+        if (m_startTime == 0) {
+            m_startTime = System.currentTimeMillis();
+        }
         I_CmsReport report = indexer.getReport();
         m_startedCounter++;
+        boolean parallel = m_maxThreads > 1;
+        // parallel threads must not mix up their output in the report
+        CmsBufferedReport threadReport = (parallel && (report != null)) ? new CmsBufferedReport(report) : null;
         CmsIndexingThread thread = new CmsIndexingThread(
-            indexer.getCms(),
+            parallel ? getThreadCms(indexer) : indexer.getCms(),
             res,
             indexer.getIndex(),
             m_startedCounter,
-            report);
+            threadReport != null ? threadReport : report);
         thread.setPriority(Thread.MIN_PRIORITY);
         thread.start();
-        try {
-            thread.join(m_timeout);
-        } catch (InterruptedException e) {
-            // ignore
-        }
-        if (thread.isAlive()) {
-            // the thread has not finished - so it must be marked as an abandoned thread
-            m_abandonedCounter++;
-            thread.interrupt();
-            if (LOG.isWarnEnabled()) {
-                LOG.warn(Messages.get().getBundle().key(Messages.LOG_INDEXING_TIMEOUT_1, res.getRootPath()));
-            }
-            if (report != null) {
-                report.println();
-                report.print(
-                    org.opencms.report.Messages.get().container(org.opencms.report.Messages.RPT_FAILED_0),
-                    I_CmsReport.FORMAT_WARNING);
-                report.println(
-                    Messages.get().container(Messages.RPT_SEARCH_INDEXING_TIMEOUT_1, res.getRootPath()),
-                    I_CmsReport.FORMAT_WARNING);
+        long deadline = m_timeout > 0 ? System.currentTimeMillis() + m_timeout : Long.MAX_VALUE;
+        m_pendingDocuments.add(new PendingDocument(indexer, writer, res, thread, threadReport, deadline));
+
+        // write the documents of the threads that have already finished
+        Iterator<PendingDocument> it = m_pendingDocuments.iterator();
+        while (it.hasNext()) {
+            PendingDocument pending = it.next();
+            if (!pending.m_thread.isAlive()) {
+                it.remove();
+                writeDocument(pending);
             }
-        } else {
-            // the thread finished normally
-            m_returnedCounter++;
         }
-        I_CmsSearchDocument doc = thread.getResult();
-        if (doc != null) {
-            // write the document to the index
-            indexer.updateResource(writer, res.getRootPath(), doc);
-        } else {
-            indexer.deleteResource(writer, new CmsPublishedResource(res));
-        }
-        if ((m_startedCounter % m_maxModificationsBeforeCommit) == 0) {
-            try {
-                writer.commit();
-            } catch (IOException e) {
-                if (LOG.isWarnEnabled()) {
-                    LOG.warn(
-                        Messages.get().getBundle().key(
-                            Messages.LOG_IO_INDEX_WRITER_COMMIT_2,
-                            indexer.getIndex().getName(),
-                            indexer.getIndex().getPath()),
-                        e);
-                }
-            }
+        // wait for the oldest threads if no more threads can be started
+        while (m_pendingDocuments.size() >= m_maxThreads) {
+            writeDocument(m_pendingDocuments.poll());
         }
     }
 
     /**
      * Returns if the indexing manager still have indexing threads.<p>
      *
+     * Before checking, the documents of all indexing threads that have not been written yet
+     * are written to the index, waiting for the threads to finish or reach the timeout.<p>
+     *
      * @return true if the indexing manager still have indexing threads
      */
     public boolean isRunning() {
 
+        while (!m_pendingDocuments.isEmpty()) {
+            writeDocument(m_pendingDocuments.poll());
+        }
+
         if (m_lastLogErrorTime <= 0) {
             m_lastLogErrorTime = System.currentTimeMillis();
             m_lastLogWarnTime = m_lastLogErrorTime;
@@ -221,6 +297,105 @@ public class CmsIndexingThreadManager {
                 // only write to the log if report is not already a log report
                 LOG.info(message.key());
             }
+            if (m_startTime > 0) {
+                double seconds = Math.max(System.currentTimeMillis() - m_startTime, 1) / 1000.0;
+                Locale locale = report.getLocale() != null ? report.getLocale() : Locale.ENGLISH;
+                CmsMessageContainer throughput = Messages.get().container(
+                    Messages.RPT_SEARCH_INDEXING_THROUGHPUT_3,
+                    String.format(locale, "%.1f", Double.valueOf(m_writtenCounter / seconds)),
+                    CmsFileUtil.formatFilesize((long)(m_indexedBytes / seconds), locale),
+                    new Integer(m_maxThreads));
+                report.println(throughput);
+                if (!(report instanceof CmsLogReport) && LOG.isInfoEnabled()) {
+                    LOG.info(throughput.key());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the OpenCms user context for an indexing thread running in parallel to other indexing threads.<p>
+     *
+     * @param indexer the VFS indexer
+     *
+     * @return a copy of the user context of the indexer
+     */
+    private CmsObject getThreadCms(CmsVfsIndexer indexer) {
+
+        try {
+            return OpenCms.initCmsObject(indexer.getCms());
+        } catch (CmsException e) {
+            LOG.warn(e.getLocalizedMessage(), e);
+            return indexer.getCms();
+        }
+    }
+
+    /**
+     * Waits for the indexing thread of the given document to finish or to reach the timeout,
+     * and writes the document to the index.<p>
+     *
+     * @param pending the document to write
+     */
+    private void writeDocument(PendingDocument pending) {
+
+        CmsIndexingThread thread = pending.m_thread;
+        CmsResource res = pending.m_resource;
+        CmsVfsIndexer indexer = pending.m_indexer;
+        I_CmsIndexWriter writer = pending.m_writer;
+        long wait = pending.m_deadline - System.currentTimeMillis();
+        if (wait > 0) {
+            try {
+                thread.join(wait);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        }
+        if (pending.m_report != null) {
+            pending.m_report.flush();
+        }
+        I_CmsReport report = indexer.getReport();
+        if (thread.isAlive()) {
+            // the thread has not finished - so it must be marked as an abandoned thread
+            m_abandonedCounter++;
+            thread.interrupt();
+            if (LOG.isWarnEnabled()) {
+                LOG.warn(Messages.get().getBundle().key(Messages.LOG_INDEXING_TIMEOUT_1, res.getRootPath()));
+            }
+            if (report != null) {
+                report.println();
+                report.print(
+                    org.opencms.report.Messages.get().container(org.opencms.report.Messages.RPT_FAILED_0),
+                    I_CmsReport.FORMAT_WARNING);
+                report.println(
+                    Messages.get().container(Messages.RPT_SEARCH_INDEXING_TIMEOUT_1, res.getRootPath()),
+                    I_CmsReport.FORMAT_WARNING);
+            }
+        } else {
+            // the thread finished normally
+            m_returnedCounter++;
+        }
+        I_CmsSearchDocument doc = thread.getResult();
+        if (doc != null) {
+            // write the document to the index
+            indexer.updateResource(writer, res.getRootPath(), doc);
+        } else {
+            indexer.deleteResource(writer, new CmsPublishedResource(res));
+        }
+        m_indexedBytes += res.getLength();
+        m_writtenCounter++;
+        if ((m_writtenCounter % m_maxModificationsBeforeCommit) == 0) {
+            try {
+                writer.commit();
+            } catch (IOException e) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn(
+                        Messages.get().getBundle().key(
+                            Messages.LOG_IO_INDEX_WRITER_COMMIT_2,
+                            indexer.getIndex().getName(),
+                            indexer.getIndex().getPath()),
+                        e);
+                }
+            }
         }
     }
-}
\ No newline at end of file
+}
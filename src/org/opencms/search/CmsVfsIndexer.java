@@ -28,6 +28,7 @@
 package org.opencms.search;
 
 import org.opencms.db.CmsPublishedResource;
+import org.opencms.db.I_CmsResourceIterator;
 import org.opencms.file.CmsObject;
 import org.opencms.file.CmsProject;
 import org.opencms.file.CmsResource;
@@ -195,10 +196,18 @@ public class CmsVfsIndexer implements I_CmsIndexer {
         while (i.hasNext()) {
             // read the resources from all configured source folders
             String resourceName = i.next();
-            List<CmsResource> resources = null;
-            try {
-                // read all resources (only files) below the given path
-                resources = m_cms.readResources(resourceName, CmsResourceFilter.IGNORE_EXPIRATION.addRequireFile());
+            // read all resources (only files) below the given path, while iterating over them;
+            // on MySQL, the server's net_write_timeout must exceed the indexing timeout, since
+            // the result is streamed and not read while a resource is being indexed
+            try (I_CmsResourceIterator resources = m_cms.readResourceIterator(
+                resourceName,
+                CmsResourceFilter.IGNORE_EXPIRATION.addRequireFile(),
+                true)) {
+                while (resources.hasNext()) {
+                    // now update all the resources individually
+                    CmsResource resource = resources.next();
+                    updateResource(writer, threadManager, resource);
+                }
             } catch (CmsException e) {
                 if (m_report != null) {
                     m_report.println(
@@ -217,15 +226,6 @@ public class CmsVfsIndexer implements I_CmsIndexer {
                         e);
                 }
             }
-            if (resources != null) {
-                // iterate all resources found in the folder
-                Iterator<CmsResource> j = resources.iterator();
-                while (j.hasNext()) {
-                    // now update all the resources individually
-                    CmsResource resource = j.next();
-                    updateResource(writer, threadManager, resource);
-                }
-            }
         }
     }
 
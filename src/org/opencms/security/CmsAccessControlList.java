@@ -60,6 +60,10 @@ public class CmsAccessControlList implements Serializable {
 
     /** The serial version id. */
     private static final long serialVersionUID = -8772251229957990081L;
+
+    /** The lazily computed fingerprint of the permissions, reset on every modification. */
+    private transient String m_fingerprint;
+
     /**
      * Collected permissions of a principal on this resource .
      */
@@ -87,6 +91,7 @@ public class CmsAccessControlList implements Serializable {
             m_permissions.put(entry.getPrincipal(), p);
         }
         p.addPermissions(entry.getPermissions());
+        m_fingerprint = null;
     }
 
     /**
@@ -106,6 +111,38 @@ public class CmsAccessControlList implements Serializable {
         return acl;
     }
 
+    /**
+     * Returns a fingerprint of the permissions in this access control list.<p>
+     *
+     * Two access control lists with the same permissions for the same principals have the same fingerprint,
+     * so the fingerprint can be used as cache key for results that only depend on the effective permissions.
+     * The fingerprint is computed once, so the permission sets must not be modified directly
+     * through {@link #getPermissionMap()} after it has been read.<p>
+     *
+     * @return the fingerprint of the permissions
+     */
+    public String getFingerprint() {
+
+        String result = m_fingerprint;
+        if (result == null) {
+            List<CmsUUID> principals = new ArrayList<CmsUUID>(m_permissions.keySet());
+            Collections.sort(principals);
+            StringBuffer buffer = new StringBuffer(principals.size() * 48);
+            for (CmsUUID principal : principals) {
+                CmsPermissionSetCustom p = m_permissions.get(principal);
+                buffer.append(principal.toString());
+                buffer.append('+');
+                buffer.append(Integer.toHexString(p.getAllowedPermissions()));
+                buffer.append('-');
+                buffer.append(Integer.toHexString(p.getDeniedPermissions()));
+                buffer.append(';');
+            }
+            result = buffer.toString();
+            m_fingerprint = result;
+        }
+        return result;
+    }
+
     /**
      * Returns the permission map of this access control list.<p>
      *
@@ -219,6 +256,7 @@ public class CmsAccessControlList implements Serializable {
             m_permissions.put(entry.getPrincipal(), p);
         }
         p.setPermissions(entry.getAllowedPermissions(), p.getDeniedPermissions());
+        m_fingerprint = null;
     }
 
     /**
@@ -235,5 +273,6 @@ public class CmsAccessControlList implements Serializable {
             m_permissions.put(entry.getPrincipal(), p);
         }
         p.setPermissions(p.getAllowedPermissions(), entry.getDeniedPermissions());
+        m_fingerprint = null;
     }
 }
\ No newline at end of file
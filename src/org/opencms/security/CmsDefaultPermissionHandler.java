@@ -43,6 +43,7 @@ import org.opencms.main.CmsException;
 import org.opencms.main.CmsInitException;
 import org.opencms.main.CmsLog;
 import org.opencms.main.OpenCms;
+import org.opencms.monitor.CmsCacheDependencyIndex;
 
 import java.util.Iterator;
 
@@ -138,12 +139,27 @@ public class CmsDefaultPermissionHandler implements I_CmsPermissionHandler {
         }
 
         CmsPermissionSetCustom permissions;
+        String aclCacheKey = null;
         if (canIgnorePermissions) {
             // if the current user is administrator, anything is allowed
             permissions = new CmsPermissionSetCustom(~0);
         } else {
             // otherwise, get the permissions from the access control list
-            permissions = m_driverManager.getPermissions(dbc, resource, dbc.currentUser());
+            CmsUser user = dbc.currentUser();
+            CmsAccessControlList acl = m_driverManager.getAccessControlList(dbc, resource, false);
+            if (dbc.getProjectId().isNullUUID() && !requiredPermissions.requiresDirectPublishPermission()) {
+                // the result only depends on the effective access control list, so it is shared by all
+                // resources with the same list, e.g. all resources inheriting their permissions from the same folder
+                aclCacheKey = getAclCacheKey(requireVisibleStr, user, denied, requiredPermissions, acl);
+                cacheResult = OpenCms.getMemoryMonitor().getCachedPermission(aclCacheKey);
+                if (cacheResult != null) {
+                    return cacheResult;
+                }
+            }
+            permissions = acl.getPermissions(
+                user,
+                m_driverManager.getGroupsOfUser(dbc, user.getName(), false),
+                m_driverManager.getRolesForUser(dbc, user));
         }
 
         // revoke the denied permissions
@@ -217,8 +233,20 @@ public class CmsDefaultPermissionHandler implements I_CmsPermissionHandler {
                             permissions.getPermissionString()}));
             }
         }
-        if (dbc.getProjectId().isNullUUID()) {
-            OpenCms.getMemoryMonitor().cachePermission(cacheKey, result);
+        if (aclCacheKey != null) {
+            // the result depends on the user and the access control list only, the lock state has been checked above
+            OpenCms.getMemoryMonitor().cachePermission(
+                aclCacheKey,
+                result,
+                CmsCacheDependencyIndex.getIdTag(dbc.currentUser().getId()));
+        } else if (dbc.getProjectId().isNullUUID()) {
+            // the result depends on the user and on the lock state of the resource, its siblings and parent folders
+            OpenCms.getMemoryMonitor().cachePermission(
+                cacheKey,
+                result,
+                CmsCacheDependencyIndex.getIdTag(dbc.currentUser().getId()),
+                CmsCacheDependencyIndex.getIdTag(resource.getResourceId()),
+                CmsCacheDependencyIndex.getPathTag(resource.getRootPath()));
         }
 
         return result;
@@ -246,4 +274,39 @@ public class CmsDefaultPermissionHandler implements I_CmsPermissionHandler {
                 e);
         }
     }
+
+    /**
+     * Returns the cache key for a permission check result that only depends on the effective access control list.<p>
+     *
+     * Group and role changes of the user flush all permission cache entries of the user,
+     * so the user ID stands for the principals of the user in the cache key.<p>
+     *
+     * @param requireVisibleStr "1" if the resource filter requires visibility, "0" otherwise
+     * @param user the current user
+     * @param denied the permissions that are denied independent of the access control list
+     * @param requiredPermissions the required permissions
+     * @param acl the effective access control list of the resource
+     *
+     * @return the cache key
+     */
+    protected String getAclCacheKey(
+        String requireVisibleStr,
+        CmsUser user,
+        int denied,
+        CmsPermissionSet requiredPermissions,
+        CmsAccessControlList acl) {
+
+        StringBuffer cacheBuffer = new StringBuffer(128);
+        cacheBuffer.append("acl_");
+        cacheBuffer.append(requireVisibleStr);
+        cacheBuffer.append('_');
+        cacheBuffer.append(user.getId().toString());
+        cacheBuffer.append('_');
+        cacheBuffer.append(Integer.toHexString(denied));
+        cacheBuffer.append('_');
+        cacheBuffer.append(requiredPermissions.getPermissionString());
+        cacheBuffer.append('_');
+        cacheBuffer.append(acl.getFingerprint());
+        return cacheBuffer.toString();
+    }
 }
@@ -0,0 +1,302 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.site;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable path segment trie for looking up the site of a root path.<p>
+ *
+ * The index is built from the configured sites and the sites generated for alternative site root mappings,
+ * and answers the site lookups of the site manager with a single walk over the segments of the root path,
+ * without creating any intermediate strings.<p>
+ *
+ * If the sites are nested, the site with the shortest site root wins.
+ * Configured sites always take precedence over sites for alternative site root mappings.<p>
+ *
+ * @since 12.0.0
+ */
+public final class CmsSiteRootIndex {
+
+    /**
+     * A node of the trie, with the children sorted by their path segment.<p>
+     */
+    private static final class Node {
+
+        /** The site for the alternative site root mapping with this node as site root. */
+        CmsSite m_alternativeSite;
+
+        /** The child nodes, in the same order as the segment names. */
+        Node[] m_children;
+
+        /** The sorted segment names of the child nodes. */
+        String[] m_names;
+
+        /** The configured site with this node as site root. */
+        CmsSite m_site;
+
+        /**
+         * Returns the child node for the path segment between the given positions, or <code>null</code>.<p>
+         *
+         * @param path the path containing the segment
+         * @param start the start index of the segment (inclusive)
+         * @param end the end index of the segment (exclusive)
+         *
+         * @return the child node for the segment, or <code>null</code>
+         */
+        Node getChild(String path, int start, int end) {
+
+            int low = 0;
+            int high = m_names.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareSegment(m_names[mid], path, start, end);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return m_children[mid];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Mutable node used while building the trie.<p>
+     */
+    private static final class NodeBuilder {
+
+        /** The site for an alternative site root mapping. */
+        CmsSite m_alternativeSite;
+
+        /** The child nodes by segment name. */
+        Map<String, NodeBuilder> m_children = new TreeMap<String, NodeBuilder>();
+
+        /** The configured site. */
+        CmsSite m_site;
+
+        /**
+         * Creates the immutable node for this builder.<p>
+         *
+         * @return the immutable node
+         */
+        Node build() {
+
+            Node result = new Node();
+            result.m_site = m_site;
+            result.m_alternativeSite = m_alternativeSite;
+            result.m_names = m_children.keySet().toArray(new String[m_children.size()]);
+            result.m_children = new Node[m_children.size()];
+            int i = 0;
+            for (NodeBuilder child : m_children.values()) {
+                result.m_children[i++] = child.build();
+            }
+            return result;
+        }
+
+        /**
+         * Returns the node builder for the given site root, creating it if necessary.<p>
+         *
+         * @param siteRoot the site root
+         *
+         * @return the node builder, or <code>null</code> if the site root has no path segments
+         */
+        NodeBuilder getOrCreate(String siteRoot) {
+
+            NodeBuilder node = this;
+            for (String segment : siteRoot.split("/")) {
+                if (segment.length() > 0) {
+                    NodeBuilder child = node.m_children.get(segment);
+                    if (child == null) {
+                        child = new NodeBuilder();
+                        node.m_children.put(segment, child);
+                    }
+                    node = child;
+                }
+            }
+            return node == this ? null : node;
+        }
+    }
+
+    /** The root node of the trie. */
+    private final Node m_root;
+
+    /** The number of indexed site roots. */
+    private final int m_size;
+
+    /**
+     * Creates a new site root index.<p>
+     *
+     * @param sites the configured sites
+     * @param alternativeSites the sites generated for alternative site root mappings
+     */
+    public CmsSiteRootIndex(Collection<CmsSite> sites, Collection<CmsSite> alternativeSites) {
+
+        NodeBuilder root = new NodeBuilder();
+        int size = 0;
+        for (CmsSite site : sites) {
+            NodeBuilder node = root.getOrCreate(site.getSiteRoot());
+            if ((node != null) && (node.m_site == null)) {
+                node.m_site = site;
+                size++;
+            }
+        }
+        for (CmsSite site : alternativeSites) {
+            NodeBuilder node = root.getOrCreate(site.getSiteRoot());
+            if ((node != null) && (node.m_alternativeSite == null)) {
+                node.m_alternativeSite = site;
+                size++;
+            }
+        }
+        m_root = root.build();
+        m_size = size;
+    }
+
+    /**
+     * Compares a segment name with the segment of a path between the given positions,
+     * using the same order as {@link String#compareTo(String)}.<p>
+     *
+     * @param name the segment name
+     * @param path the path
+     * @param start the start index of the segment in the path (inclusive)
+     * @param end the end index of the segment in the path (exclusive)
+     *
+     * @return the comparison result
+     */
+    static int compareSegment(String name, String path, int start, int end) {
+
+        int nameLength = name.length();
+        int segmentLength = end - start;
+        int length = Math.min(nameLength, segmentLength);
+        for (int i = 0; i < length; i++) {
+            char c1 = name.charAt(i);
+            char c2 = path.charAt(start + i);
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return nameLength - segmentLength;
+    }
+
+    /**
+     * Returns the site for the given root path, or <code>null</code> if the path does not belong to any site.<p>
+     *
+     * The root path may be the site root itself, with or without a trailing slash.<p>
+     *
+     * @param rootPath the root path
+     *
+     * @return the site for the root path, or <code>null</code>
+     */
+    public CmsSite getSiteForRootPath(String rootPath) {
+
+        if ((rootPath == null) || (rootPath.length() == 0) || (rootPath.charAt(0) != '/')) {
+            return null;
+        }
+        CmsSite alternativeSite = null;
+        Node node = m_root;
+        int length = rootPath.length();
+        int pos = 1;
+        while (pos < length) {
+            int end = rootPath.indexOf('/', pos);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.getChild(rootPath, pos, end);
+            if (node == null) {
+                break;
+            }
+            if (node.m_site != null) {
+                return node.m_site;
+            }
+            if (alternativeSite == null) {
+                alternativeSite = node.m_alternativeSite;
+            }
+            pos = end + 1;
+        }
+        return alternativeSite;
+    }
+
+    /**
+     * Returns the site root for the given root path, or <code>null</code> if the path does not belong to any site.<p>
+     *
+     * @param rootPath the root path
+     *
+     * @return the site root for the root path, or <code>null</code>
+     */
+    public String getSiteRoot(String rootPath) {
+
+        CmsSite site = getSiteForRootPath(rootPath);
+        return site != null ? site.getSiteRoot() : null;
+    }
+
+    /**
+     * Returns the number of indexed site roots.<p>
+     *
+     * @return the number of indexed site roots
+     */
+    public int getSize() {
+
+        return m_size;
+    }
+
+    /**
+     * Checks whether the given root path is a site root, ignoring a trailing slash.<p>
+     *
+     * @param rootPath the root path
+     *
+     * @return <code>true</code> if the given root path is a site root
+     */
+    public boolean isSiteRoot(String rootPath) {
+
+        if ((rootPath == null) || (rootPath.length() == 0) || (rootPath.charAt(0) != '/')) {
+            return false;
+        }
+        Node node = m_root;
+        int length = rootPath.length();
+        if (rootPath.charAt(length - 1) == '/') {
+            length--;
+        }
+        int pos = 1;
+        while (pos < length) {
+            int end = rootPath.indexOf('/', pos);
+            if ((end < 0) || (end > length)) {
+                end = length;
+            }
+            node = node.getChild(rootPath, pos, end);
+            if (node == null) {
+                return false;
+            }
+            pos = end + 1;
+        }
+        return (node != m_root) && ((node.m_site != null) || (node.m_alternativeSite != null));
+    }
+}
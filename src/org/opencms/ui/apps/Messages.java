@@ -112,6 +112,33 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String GUI_CACHE_CORECACHE_CLEAN_ADMIN_TOOL_NAME_0 = "GUI_CACHE_CORECACHE_CLEAN_ADMIN_TOOL_NAME_0";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_CORE_0 = "GUI_CACHE_CORE_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_CORE_LIST_COLS_ENTRIES_0 = "GUI_CACHE_CORE_LIST_COLS_ENTRIES_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_CORE_LIST_COLS_EVICTIONS_0 = "GUI_CACHE_CORE_LIST_COLS_EVICTIONS_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_CORE_LIST_COLS_HITRATE_0 = "GUI_CACHE_CORE_LIST_COLS_HITRATE_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_CORE_LIST_COLS_HITS_0 = "GUI_CACHE_CORE_LIST_COLS_HITS_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_CORE_LIST_COLS_LIMIT_0 = "GUI_CACHE_CORE_LIST_COLS_LIMIT_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_CORE_LIST_COLS_MEMORY_0 = "GUI_CACHE_CORE_LIST_COLS_MEMORY_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_CORE_LIST_COLS_MISSES_0 = "GUI_CACHE_CORE_LIST_COLS_MISSES_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_CORE_LIST_COLS_NAME_0 = "GUI_CACHE_CORE_LIST_COLS_NAME_0";
+
     /** Message constant for key in the resource bundle. */
     public static final String GUI_CACHE_FLEX_0 = "GUI_CACHE_FLEX_0";
 
@@ -154,6 +181,12 @@ public final class Messages extends A_CmsMessageBundle {
     /** Message constant for key in the resource bundle. */
     public static final String GUI_CACHE_FLEXCACHE_LABEL_MEMORY_MAXSIZE_HELP_0 = "GUI_CACHE_FLEXCACHE_LABEL_MEMORY_MAXSIZE_HELP_0";
 
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_FLEXCACHE_LABEL_OFFHEAP_CURSIZE_0 = "GUI_CACHE_FLEXCACHE_LABEL_OFFHEAP_CURSIZE_0";
+
+    /** Message constant for key in the resource bundle. */
+    public static final String GUI_CACHE_FLEXCACHE_LABEL_OFFHEAP_MAXSIZE_0 = "GUI_CACHE_FLEXCACHE_LABEL_OFFHEAP_MAXSIZE_0";
+
     /** Message constant for key in the resource bundle. */
     public static final String GUI_CACHE_FLEXCACHE_LABEL_STATS_BLOCK_0 = "GUI_CACHE_FLEXCACHE_LABEL_STATS_BLOCK_0";
 
@@ -140,8 +140,13 @@ public class CmsCacheAdminApp extends A_CmsWorkplaceApp {
 
         layout.addComponent(flex);
 
+        Panel core = new Panel();
+        core.setContent(new CmsCacheStatisticsTable());
+        core.setCaption(CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_CORE_0));
+
         outer.addComponent(flush);
         outer.addComponent(layout);
+        outer.addComponent(core);
         outerouter.addStyleName("o-center");
         outerouter.addComponent(outer);
         return outerouter;
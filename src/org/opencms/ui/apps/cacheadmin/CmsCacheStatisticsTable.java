@@ -0,0 +1,121 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.ui.apps.cacheadmin;
+
+import org.opencms.main.OpenCms;
+import org.opencms.monitor.CmsCacheStatistics;
+import org.opencms.ui.CmsVaadinUtils;
+import org.opencms.ui.apps.Messages;
+
+import com.vaadin.v7.data.Item;
+import com.vaadin.v7.data.util.IndexedContainer;
+import com.vaadin.v7.ui.Table;
+
+/**
+ * Table showing the size and usage statistics of the core caches of the memory monitor.<p>
+ */
+public class CmsCacheStatisticsTable extends Table {
+
+    /**The entries property. */
+    protected static final String PROP_ENTRIES = "entries";
+
+    /**The evictions property. */
+    protected static final String PROP_EVICTIONS = "evictions";
+
+    /**The hit rate property. */
+    protected static final String PROP_HITRATE = "hitrate";
+
+    /**The hits property. */
+    protected static final String PROP_HITS = "hits";
+
+    /**The limit property. */
+    protected static final String PROP_LIMIT = "limit";
+
+    /**The memory property. */
+    protected static final String PROP_MEMORY = "memory";
+
+    /**The misses property. */
+    protected static final String PROP_MISSES = "misses";
+
+    /**The name property. */
+    protected static final String PROP_NAME = "name";
+
+    /**vaadin serial id.*/
+    private static final long serialVersionUID = -3370542104356216340L;
+
+    /**Indexed container.*/
+    private IndexedContainer m_container;
+
+    /**
+     * public constructor.<p>
+     */
+    public CmsCacheStatisticsTable() {
+
+        m_container = new IndexedContainer();
+
+        m_container.addContainerProperty(PROP_NAME, String.class, "");
+        m_container.addContainerProperty(PROP_ENTRIES, Long.class, Long.valueOf(0));
+        m_container.addContainerProperty(PROP_LIMIT, String.class, "");
+        m_container.addContainerProperty(PROP_MEMORY, Long.class, Long.valueOf(0));
+        m_container.addContainerProperty(PROP_HITRATE, String.class, "");
+        m_container.addContainerProperty(PROP_HITS, Long.class, Long.valueOf(0));
+        m_container.addContainerProperty(PROP_MISSES, Long.class, Long.valueOf(0));
+        m_container.addContainerProperty(PROP_EVICTIONS, Long.class, Long.valueOf(0));
+
+        for (CmsCacheStatistics statistics : OpenCms.getMemoryMonitor().getCacheStatistics()) {
+            Item item = m_container.addItem(statistics.getName());
+            item.getItemProperty(PROP_NAME).setValue(statistics.getName());
+            item.getItemProperty(PROP_ENTRIES).setValue(Long.valueOf(statistics.getSize()));
+            item.getItemProperty(PROP_LIMIT).setValue(
+                statistics.getMaxMemory() > 0
+                ? statistics.getMaxMemory() + " bytes"
+                : Long.toString(statistics.getMaxSize()));
+            item.getItemProperty(PROP_MEMORY).setValue(Long.valueOf(statistics.getMemorySize()));
+            item.getItemProperty(PROP_HITRATE).setValue(Math.round(statistics.getHitRate() * 100) + "%");
+            item.getItemProperty(PROP_HITS).setValue(Long.valueOf(statistics.getHitCount()));
+            item.getItemProperty(PROP_MISSES).setValue(Long.valueOf(statistics.getMissCount()));
+            item.getItemProperty(PROP_EVICTIONS).setValue(Long.valueOf(statistics.getEvictionCount()));
+        }
+
+        setContainerDataSource(m_container);
+
+        setColumnHeader(PROP_NAME, CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_CORE_LIST_COLS_NAME_0));
+        setColumnHeader(PROP_ENTRIES, CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_CORE_LIST_COLS_ENTRIES_0));
+        setColumnHeader(PROP_LIMIT, CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_CORE_LIST_COLS_LIMIT_0));
+        setColumnHeader(PROP_MEMORY, CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_CORE_LIST_COLS_MEMORY_0));
+        setColumnHeader(PROP_HITRATE, CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_CORE_LIST_COLS_HITRATE_0));
+        setColumnHeader(PROP_HITS, CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_CORE_LIST_COLS_HITS_0));
+        setColumnHeader(PROP_MISSES, CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_CORE_LIST_COLS_MISSES_0));
+        setColumnHeader(
+            PROP_EVICTIONS,
+            CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_CORE_LIST_COLS_EVICTIONS_0));
+
+        setWidth("100%");
+        setPageLength(m_container.size());
+    }
+}
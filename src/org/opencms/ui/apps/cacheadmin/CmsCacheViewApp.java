@@ -197,6 +197,18 @@ public class CmsCacheViewApp extends A_CmsWorkplaceApp {
             CmsFileUtil.formatFilesize(
                 entryLruCache.getObjectCosts(),
                 A_CmsUI.getCmsObject().getRequestContext().getLocale()));
+        if (entryLruCache.getMaxOffHeapCosts() > 0) {
+            infoMap.put(
+                CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_FLEXCACHE_LABEL_OFFHEAP_MAXSIZE_0),
+                CmsFileUtil.formatFilesize(
+                    entryLruCache.getMaxOffHeapCosts(),
+                    A_CmsUI.getCmsObject().getRequestContext().getLocale()));
+            infoMap.put(
+                CmsVaadinUtils.getMessageText(Messages.GUI_CACHE_FLEXCACHE_LABEL_OFFHEAP_CURSIZE_0),
+                CmsFileUtil.formatFilesize(
+                    entryLruCache.getOffHeapCosts(),
+                    A_CmsUI.getCmsObject().getRequestContext().getLocale()));
+        }
         CmsInfoButton info = new CmsInfoButton(infoMap);
         VerticalLayout prog = new VerticalLayout();
         Label label = new Label();
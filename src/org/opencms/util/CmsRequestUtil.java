@@ -82,6 +82,9 @@ public final class CmsRequestUtil {
     /** HTTP Accept-Charset Header for internal requests used during static export. */
     public static final String HEADER_ACCEPT_CHARSET = "Accept-Charset";
 
+    /** The "Accept-Encoding" http header. */
+    public static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+
     /** HTTP Accept-Language Header for internal requests used during static export. */
     public static final String HEADER_ACCEPT_LANGUAGE = "Accept-Language";
 
@@ -94,15 +97,24 @@ public final class CmsRequestUtil {
     /** The "Content-Disposition" http header. */
     public static final String HEADER_CONTENT_DISPOSITION = "Content-Disposition";
 
+    /** The "Content-Encoding" http header. */
+    public static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
     /** The "Content-Type" http header. */
     public static final String HEADER_CONTENT_TYPE = "Content-Type";
 
+    /** The "ETag" http header. */
+    public static final String HEADER_ETAG = "ETag";
+
     /** HTTP Header "Expires". */
     public static final String HEADER_EXPIRES = "Expires";
 
     /** HTTP Header "If-Modified-Since". */
     public static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
 
+    /** HTTP Header "If-None-Match". */
+    public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
     /** The Header that stores the session id (used by OpenCms upload applet). */
     public static final String HEADER_JSESSIONID = "JSESSIONID";
 
@@ -124,6 +136,9 @@ public final class CmsRequestUtil {
     /** HTTP Header "user-agent". */
     public static final String HEADER_USER_AGENT = "user-agent";
 
+    /** HTTP Header value "gzip" (for "Content-Encoding"). */
+    public static final String HEADER_VALUE_GZIP = "gzip";
+
     /** HTTP Header value "max-age=" (for "Cache-Control"). */
     public static final String HEADER_VALUE_MAX_AGE = "max-age=";
 
@@ -136,6 +151,9 @@ public final class CmsRequestUtil {
     /** HTTP Header value "no-store" (for "Cache-Control"). */
     public static final String HEADER_VALUE_NO_STORE = "no-store";
 
+    /** HTTP Header "Vary". */
+    public static final String HEADER_VARY = "Vary";
+
     /** HTTP Header "WWW-Authenticate". */
     public static final String HEADER_WWW_AUTHENTICATE = "WWW-Authenticate";
 
@@ -732,6 +750,52 @@ public final class CmsRequestUtil {
         return session.getAttribute(key);
     }
 
+    /**
+     * Checks if the client accepts the given content encoding, according to the "Accept-Encoding" header
+     * of the request.<p>
+     *
+     * An encoding is accepted if it, or the wildcard <code>*</code>, is listed with a quality value
+     * greater than 0.<p>
+     *
+     * @param request the request to check
+     * @param encoding the content encoding, e.g. <code>gzip</code>
+     *
+     * @return <code>true</code> if the client accepts the given content encoding
+     */
+    public static boolean isEncodingAccepted(HttpServletRequest request, String encoding) {
+
+        String accept = request.getHeader(HEADER_ACCEPT_ENCODING);
+        if (CmsStringUtil.isEmptyOrWhitespaceOnly(accept)) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String part : accept.split(",")) {
+            String[] tokens = part.split(";");
+            String name = tokens[0].trim();
+            boolean matches = name.equalsIgnoreCase(encoding);
+            if (!matches && !"*".equals(name)) {
+                continue;
+            }
+            double quality = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (matches) {
+                // an explicit entry for the encoding overrides the wildcard
+                return quality > 0;
+            }
+            wildcard = quality > 0;
+        }
+        return wildcard;
+    }
+
     /**
      * Parses a request of the form <code>multipart/form-data</code>.
      *
@@ -91,6 +91,9 @@ public abstract class A_CmsXmlDocument implements I_CmsXmlDocument {
     /** Reference for named elements in the document. */
     private Map<String, I_CmsXmlContentValue> m_bookmarks;
 
+    /** Flag which indicates that this document is shared and must not be modified. */
+    private boolean m_readOnly;
+
     /** Cache for temporary data associated with the content. */
     private Map<String, Object> m_tempDataCache = new ConcurrentHashMap<>();
 
@@ -121,6 +124,23 @@ public abstract class A_CmsXmlDocument implements I_CmsXmlDocument {
         return result.toString();
     }
 
+    /**
+     * Ensures that this document may be modified.<p>
+     *
+     * This is also checked by the values of the document before they change the XML.<p>
+     *
+     * @throws CmsRuntimeException if this document has been marked as read-only
+     */
+    public void checkWritable() throws CmsRuntimeException {
+
+        if (m_readOnly) {
+            throw new CmsRuntimeException(
+                Messages.get().container(
+                    Messages.ERR_XML_DOCUMENT_READ_ONLY_1,
+                    m_file != null ? m_file.getRootPath() : null));
+        }
+    }
+
     /**
      * @see org.opencms.xml.I_CmsXmlDocument#copyLocale(java.util.List, java.util.Locale)
      */
@@ -156,6 +176,7 @@ public abstract class A_CmsXmlDocument implements I_CmsXmlDocument {
      */
     public void copyLocale(Locale source, Locale destination) throws CmsXmlException {
 
+        checkWritable();
         if (!hasLocale(source)) {
             throw new CmsXmlException(Messages.get().container(Messages.ERR_LOCALE_NOT_AVAILABLE_1, source));
         }
@@ -203,6 +224,7 @@ public abstract class A_CmsXmlDocument implements I_CmsXmlDocument {
      */
     public CmsFile correctXmlStructure(CmsObject cms) throws CmsXmlException {
 
+        checkWritable();
         // apply XSD schema translation
         Attribute schema = m_document.getRootElement().attribute(
             I_CmsXmlSchemaType.XSI_NAMESPACE_ATTRIBUTE_NO_SCHEMA_LOCATION);
@@ -632,6 +654,7 @@ public abstract class A_CmsXmlDocument implements I_CmsXmlDocument {
      */
     public void initDocument() {
 
+        checkWritable();
         initDocument(m_document, m_encoding, getContentDefinition());
     }
 
@@ -651,6 +674,19 @@ public abstract class A_CmsXmlDocument implements I_CmsXmlDocument {
         return hasValue(path, locale, index);
     }
 
+    /**
+     * Returns <code>true</code> if this document is shared read-only, e.g. because it was taken
+     * from the online XML content cache.<p>
+     *
+     * Use {@link #clone()} on the implementing classes to obtain a modifiable copy.<p>
+     *
+     * @return <code>true</code> if this document is read-only
+     */
+    public boolean isReadOnly() {
+
+        return m_readOnly;
+    }
+
     /**
      * Marshals (writes) the content of the current XML document
      * into a byte array using the selected encoding.<p>
@@ -677,6 +713,7 @@ public abstract class A_CmsXmlDocument implements I_CmsXmlDocument {
      */
     public void removeLocale(Locale locale) throws CmsXmlException {
 
+        checkWritable();
         if (!hasLocale(locale)) {
             throw new CmsXmlException(Messages.get().container(Messages.ERR_LOCALE_NOT_AVAILABLE_1, locale));
         }
@@ -709,6 +746,17 @@ public abstract class A_CmsXmlDocument implements I_CmsXmlDocument {
         m_conversion = conversion;
     }
 
+    /**
+     * Marks this document as read-only.<p>
+     *
+     * Once set, all methods that change the document structure will throw a {@link CmsRuntimeException}.
+     * This is used for documents that are shared between requests.<p>
+     */
+    public void setReadOnly() {
+
+        m_readOnly = true;
+    }
+
     /**
      * @see java.lang.Object#toString()
      */
@@ -35,16 +35,15 @@ import org.opencms.monitor.CmsMemoryMonitor;
 import org.opencms.util.CmsUUID;
 import org.opencms.xml.content.CmsXmlContent;
 
-import java.util.Iterator;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.logging.Log;
 
 /**
  * Cache object instance for simultaneously cache online and offline items.<p>
  *
+ * All cache maps are concurrent maps, so lookups never block and entries are invalidated one key at a time.<p>
+ *
  * @since 7.6
  */
 public final class CmsADECache extends CmsVfsCache {
@@ -64,8 +63,8 @@ public final class CmsADECache extends CmsVfsCache {
     /** Cache for online group containers. */
     private Map<String, CmsXmlGroupContainer> m_groupContainersOnline;
 
-    /** Read-write lock to ensure that the cache maps aren't accessed while we iterate through them to remove invalid entries. */
-    private ReadWriteLock m_lock = new ReentrantReadWriteLock(true);
+    /** Shared cache for parsed online XML contents. */
+    private Map<String, CmsXmlContent> m_xmlContentsOnline;
 
     /**
      * Initializes the cache. Only intended to be called during startup.<p>
@@ -88,15 +87,10 @@ public final class CmsADECache extends CmsVfsCache {
      */
     public void flushContainerPages(boolean online) {
 
-        try {
-            m_lock.writeLock().lock();
-            if (online) {
-                m_containerPagesOnline.clear();
-            } else {
-                m_containerPagesOffline.clear();
-            }
-        } finally {
-            m_lock.writeLock().unlock();
+        if (online) {
+            m_containerPagesOnline.clear();
+        } else {
+            m_containerPagesOffline.clear();
         }
     }
 
@@ -107,18 +101,21 @@ public final class CmsADECache extends CmsVfsCache {
      */
     public void flushGroupContainers(boolean online) {
 
-        try {
-            m_lock.writeLock().lock();
-            if (online) {
-                m_groupContainersOnline.clear();
-            } else {
-                m_groupContainersOffline.clear();
-            }
-        } finally {
-            m_lock.writeLock().unlock();
+        if (online) {
+            m_groupContainersOnline.clear();
+        } else {
+            m_groupContainersOffline.clear();
         }
     }
 
+    /**
+     * Flushes the shared online XML content cache.<p>
+     */
+    public void flushXmlContents() {
+
+        m_xmlContentsOnline.clear();
+    }
+
     /**
      * Returns the cached container page under the given key and for the given project.<p>
      *
@@ -129,49 +126,9 @@ public final class CmsADECache extends CmsVfsCache {
      */
     public CmsXmlContainerPage getCacheContainerPage(String key, boolean online) {
 
-        try {
-            m_lock.readLock().lock();
-            CmsXmlContainerPage retValue;
-            if (online) {
-                retValue = m_containerPagesOnline.get(key);
-                if (LOG.isDebugEnabled()) {
-                    if (retValue == null) {
-                        LOG.debug(
-                            Messages.get().getBundle().key(
-                                Messages.LOG_DEBUG_CACHE_MISSED_ONLINE_1,
-                                new Object[] {key}));
-
-                    } else {
-                        LOG.debug(
-                            Messages.get().getBundle().key(
-                                Messages.LOG_DEBUG_CACHE_MATCHED_ONLINE_2,
-                                new Object[] {key, retValue}));
-                    }
-                }
-            } else {
-                retValue = m_containerPagesOffline.get(key);
-                if (LOG.isDebugEnabled()) {
-                    if (retValue == null) {
-                        LOG.debug(
-                            Messages.get().getBundle().key(
-                                Messages.LOG_DEBUG_CACHE_MISSED_OFFLINE_1,
-                                new Object[] {key}));
-
-                    } else {
-                        LOG.debug(
-                            Messages.get().getBundle().key(
-                                Messages.LOG_DEBUG_CACHE_MATCHED_OFFLINE_2,
-                                new Object[] {key, retValue}));
-                    }
-                }
-            }
-            if (retValue != null) {
-                //System.out.println("got cached page: " + retValue.getFile().getRootPath());
-            }
-            return retValue;
-        } finally {
-            m_lock.readLock().unlock();
-        }
+        CmsXmlContainerPage retValue = online ? m_containerPagesOnline.get(key) : m_containerPagesOffline.get(key);
+        logLookup(key, retValue, online);
+        return retValue;
     }
 
     /**
@@ -184,46 +141,9 @@ public final class CmsADECache extends CmsVfsCache {
      */
     public CmsXmlGroupContainer getCacheGroupContainer(String key, boolean online) {
 
-        try {
-            m_lock.readLock().lock();
-            CmsXmlGroupContainer retValue;
-            if (online) {
-                retValue = m_groupContainersOnline.get(key);
-                if (LOG.isDebugEnabled()) {
-                    if (retValue == null) {
-                        LOG.debug(
-                            Messages.get().getBundle().key(
-                                Messages.LOG_DEBUG_CACHE_MISSED_ONLINE_1,
-                                new Object[] {key}));
-
-                    } else {
-                        LOG.debug(
-                            Messages.get().getBundle().key(
-                                Messages.LOG_DEBUG_CACHE_MATCHED_ONLINE_2,
-                                new Object[] {key, retValue}));
-                    }
-                }
-            } else {
-                retValue = m_groupContainersOffline.get(key);
-                if (LOG.isDebugEnabled()) {
-                    if (retValue == null) {
-                        LOG.debug(
-                            Messages.get().getBundle().key(
-                                Messages.LOG_DEBUG_CACHE_MISSED_OFFLINE_1,
-                                new Object[] {key}));
-
-                    } else {
-                        LOG.debug(
-                            Messages.get().getBundle().key(
-                                Messages.LOG_DEBUG_CACHE_MATCHED_OFFLINE_2,
-                                new Object[] {key, retValue}));
-                    }
-                }
-            }
-            return retValue;
-        } finally {
-            m_lock.readLock().unlock();
-        }
+        CmsXmlGroupContainer retValue = online ? m_groupContainersOnline.get(key) : m_groupContainersOffline.get(key);
+        logLookup(key, retValue, online);
+        return retValue;
     }
 
     /**
@@ -239,6 +159,34 @@ public final class CmsADECache extends CmsVfsCache {
         return structureId.toString() + "_" + keepEncoding;
     }
 
+    /**
+     * Returns the shared read-only online XML content cached under the given key.<p>
+     *
+     * @param key the cache key, see {@link #getXmlContentCacheKey(CmsResource)}
+     *
+     * @return the cached XML content or <code>null</code> if not found
+     */
+    public CmsXmlContent getCacheXmlContent(String key) {
+
+        CmsXmlContent retValue = m_xmlContentsOnline.get(key);
+        logLookup(key, retValue, true);
+        return retValue;
+    }
+
+    /**
+     * Returns the key for the shared online XML content cache.<p>
+     *
+     * The key contains the date of last modification, so a modified resource will never match an outdated entry.<p>
+     *
+     * @param resource the XML content resource
+     *
+     * @return the cache key
+     */
+    public String getXmlContentCacheKey(CmsResource resource) {
+
+        return resource.getStructureId().toString() + "_" + resource.getDateLastModified();
+    }
+
     /**
      * Caches the given container page under the given key and for the given project.<p>
      *
@@ -248,30 +196,12 @@ public final class CmsADECache extends CmsVfsCache {
      */
     public void setCacheContainerPage(String key, CmsXmlContainerPage containerPage, boolean online) {
 
-        try {
-            m_lock.writeLock().lock();
-            //System.out.println("caching page:" + containerPage.getFile().getRootPath());
-
-            if (online) {
-                m_containerPagesOnline.put(key, containerPage);
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(
-                        Messages.get().getBundle().key(
-                            Messages.LOG_DEBUG_CACHE_SET_ONLINE_2,
-                            new Object[] {key, containerPage}));
-                }
-            } else {
-                m_containerPagesOffline.put(key, containerPage);
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(
-                        Messages.get().getBundle().key(
-                            Messages.LOG_DEBUG_CACHE_SET_OFFLINE_2,
-                            new Object[] {key, containerPage}));
-                }
-            }
-        } finally {
-            m_lock.writeLock().unlock();
+        if (online) {
+            m_containerPagesOnline.put(key, containerPage);
+        } else {
+            m_containerPagesOffline.put(key, containerPage);
         }
+        logStore(key, containerPage, online);
     }
 
     /**
@@ -283,28 +213,27 @@ public final class CmsADECache extends CmsVfsCache {
      */
     public void setCacheGroupContainer(String key, CmsXmlGroupContainer groupContainer, boolean online) {
 
-        try {
-            m_lock.writeLock().lock();
-            if (online) {
-                m_groupContainersOnline.put(key, groupContainer);
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(
-                        Messages.get().getBundle().key(
-                            Messages.LOG_DEBUG_CACHE_SET_ONLINE_2,
-                            new Object[] {key, groupContainer}));
-                }
-            } else {
-                m_groupContainersOffline.put(key, groupContainer);
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug(
-                        Messages.get().getBundle().key(
-                            Messages.LOG_DEBUG_CACHE_SET_OFFLINE_2,
-                            new Object[] {key, groupContainer}));
-                }
-            }
-        } finally {
-            m_lock.writeLock().unlock();
+        if (online) {
+            m_groupContainersOnline.put(key, groupContainer);
+        } else {
+            m_groupContainersOffline.put(key, groupContainer);
         }
+        logStore(key, groupContainer, online);
+    }
+
+    /**
+     * Caches the given online XML content under the given key.<p>
+     *
+     * The content is marked as read-only, since it will be shared between requests.<p>
+     *
+     * @param key the cache key, see {@link #getXmlContentCacheKey(CmsResource)}
+     * @param content the XML content to cache
+     */
+    public void setCacheXmlContent(String key, CmsXmlContent content) {
+
+        content.setReadOnly();
+        m_xmlContentsOnline.put(key, content);
+        logStore(key, content, true);
     }
 
     /**
@@ -315,18 +244,7 @@ public final class CmsADECache extends CmsVfsCache {
      */
     public void uncacheContainerPage(CmsUUID structureId, boolean online) {
 
-        try {
-            m_lock.writeLock().lock();
-            if (online) {
-                m_containerPagesOnline.remove(getCacheKey(structureId, true));
-                m_containerPagesOnline.remove(getCacheKey(structureId, false));
-            } else {
-                m_containerPagesOffline.remove(getCacheKey(structureId, true));
-                m_containerPagesOffline.remove(getCacheKey(structureId, false));
-            }
-        } finally {
-            m_lock.writeLock().unlock();
-        }
+        removeByStructureId(structureId, online ? m_containerPagesOnline : m_containerPagesOffline);
     }
 
     /**
@@ -337,18 +255,7 @@ public final class CmsADECache extends CmsVfsCache {
      */
     public void uncacheGroupContainer(CmsUUID structureId, boolean online) {
 
-        try {
-            m_lock.writeLock().lock();
-            if (online) {
-                m_groupContainersOnline.remove(getCacheKey(structureId, true));
-                m_groupContainersOnline.remove(getCacheKey(structureId, false));
-            } else {
-                m_groupContainersOffline.remove(getCacheKey(structureId, true));
-                m_groupContainersOffline.remove(getCacheKey(structureId, false));
-            }
-        } finally {
-            m_lock.writeLock().unlock();
-        }
+        removeByStructureId(structureId, online ? m_groupContainersOnline : m_groupContainersOffline);
     }
 
     /**
@@ -357,12 +264,10 @@ public final class CmsADECache extends CmsVfsCache {
     @Override
     protected void flush(boolean online) {
 
-        try {
-            m_lock.writeLock().lock();
-            flushContainerPages(online);
-            flushGroupContainers(online);
-        } finally {
-            m_lock.writeLock().unlock();
+        flushContainerPages(online);
+        flushGroupContainers(online);
+        if (online) {
+            flushXmlContents();
         }
     }
 
@@ -372,19 +277,14 @@ public final class CmsADECache extends CmsVfsCache {
     @Override
     protected void uncacheResource(CmsResource resource) {
 
-        try {
-            m_lock.writeLock().lock();
-            if (resource == null) {
-                LOG.warn(Messages.get().container(Messages.LOG_WARN_UNCACHE_NULL_0));
-                return;
-            }
-            if (CmsResourceTypeXmlContainerPage.isContainerPage(resource)) {
-                removeCachedContent(resource, m_containerPagesOffline);
-            } else {
-                removeCachedContent(resource, m_groupContainersOffline);
-            }
-        } finally {
-            m_lock.writeLock().unlock();
+        if (resource == null) {
+            LOG.warn(Messages.get().container(Messages.LOG_WARN_UNCACHE_NULL_0));
+            return;
+        }
+        if (CmsResourceTypeXmlContainerPage.isContainerPage(resource)) {
+            removeCachedContent(resource, m_containerPagesOffline);
+        } else {
+            removeCachedContent(resource, m_groupContainersOffline);
         }
     }
 
@@ -409,26 +309,80 @@ public final class CmsADECache extends CmsVfsCache {
 
         m_groupContainersOnline = CmsMemoryMonitor.createLRUCacheMap(cacheSettings.getGroupContainerOnlineSize());
         memMonitor.register(CmsADECache.class.getName() + ".groupContainersOnline", m_groupContainersOnline);
+
+        // shared online xml content cache
+        m_xmlContentsOnline = CmsMemoryMonitor.createLRUCacheMap(cacheSettings.getXmlContentOnlineSize());
+        memMonitor.register(CmsADECache.class.getName() + ".xmlContentsOnline", m_xmlContentsOnline);
+    }
+
+    /**
+     * Writes a debug log message for a cache lookup.<p>
+     *
+     * @param key the cache key
+     * @param value the cached value, or <code>null</code> for a cache miss
+     * @param online if the lookup was made in the online or offline cache
+     */
+    private void logLookup(String key, CmsXmlContent value, boolean online) {
+
+        if (!LOG.isDebugEnabled()) {
+            return;
+        }
+        if (value == null) {
+            LOG.debug(
+                Messages.get().getBundle().key(
+                    online ? Messages.LOG_DEBUG_CACHE_MISSED_ONLINE_1 : Messages.LOG_DEBUG_CACHE_MISSED_OFFLINE_1,
+                    new Object[] {key}));
+        } else {
+            LOG.debug(
+                Messages.get().getBundle().key(
+                    online ? Messages.LOG_DEBUG_CACHE_MATCHED_ONLINE_2 : Messages.LOG_DEBUG_CACHE_MATCHED_OFFLINE_2,
+                    new Object[] {key, value.getFile().getRootPath()}));
+        }
+    }
+
+    /**
+     * Writes a debug log message for a value stored in the cache.<p>
+     *
+     * @param key the cache key
+     * @param value the cached value
+     * @param online if the value was stored in the online or offline cache
+     */
+    private void logStore(String key, CmsXmlContent value, boolean online) {
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(
+                Messages.get().getBundle().key(
+                    online ? Messages.LOG_DEBUG_CACHE_SET_ONLINE_2 : Messages.LOG_DEBUG_CACHE_SET_OFFLINE_2,
+                    new Object[] {key, value.getFile().getRootPath()}));
+        }
+    }
+
+    /**
+     * Removes the cache entries of the resource with the given structure id.<p>
+     *
+     * @param structureId the structure id
+     * @param cache the cache from which to remove the entries
+     */
+    private void removeByStructureId(CmsUUID structureId, Map<String, ? extends CmsXmlContent> cache) {
+
+        cache.remove(getCacheKey(structureId, true));
+        cache.remove(getCacheKey(structureId, false));
     }
 
     /**
      * Removes a cached XML content from the cache if it matches a given resource.<p>
      *
+     * Entries are removed by their key. Only if the resource has siblings, which share the same content,
+     * the cache is searched for entries with the same resource id.<p>
+     *
      * @param resource the resource for which the cached XML content should be removed
      * @param cache the cache from which to remove the XML content
      */
-    private <CONTENT extends CmsXmlContent> void removeCachedContent(CmsResource resource, Map<String, CONTENT> cache) {
-
-        Iterator<Map.Entry<String, CONTENT>> iterator = cache.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<String, CONTENT> entry = iterator.next();
-            CONTENT content = entry.getValue();
-            CmsResource contentFile = content.getFile();
-            if (contentFile.getStructureId().equals(resource.getStructureId())
-                || contentFile.getResourceId().equals(resource.getResourceId())) {
-                iterator.remove();
-            }
-        }
+    private void removeCachedContent(CmsResource resource, Map<String, ? extends CmsXmlContent> cache) {
 
+        removeByStructureId(resource.getStructureId(), cache);
+        if (resource.getSiblingCount() > 1) {
+            cache.values().removeIf(content -> content.getFile().getResourceId().equals(resource.getResourceId()));
+        }
     }
 }
@@ -208,6 +208,7 @@ public class CmsXmlContent extends A_CmsXmlDocument {
      */
     public void addLocale(CmsObject cms, Locale locale) throws CmsXmlException {
 
+        checkWritable();
         if (hasLocale(locale)) {
             throw new CmsXmlException(
                 org.opencms.xml.page.Messages.get().container(
@@ -238,6 +239,7 @@ public class CmsXmlContent extends A_CmsXmlDocument {
     public I_CmsXmlContentValue addValue(CmsObject cms, String path, Locale locale, int index)
     throws CmsIllegalArgumentException, CmsRuntimeException {
 
+        checkWritable();
         // get the schema type of the requested path
         I_CmsXmlSchemaType type = m_contentDefinition.getSchemaType(path);
         if (type == null) {
@@ -399,6 +401,7 @@ public class CmsXmlContent extends A_CmsXmlDocument {
      */
     public void copyLocale(Locale source, Locale destination, Set<String> elements) throws CmsXmlException {
 
+        checkWritable();
         if (!hasLocale(source)) {
             throw new CmsXmlException(
                 Messages.get().container(org.opencms.xml.Messages.ERR_LOCALE_NOT_AVAILABLE_1, source));
@@ -716,6 +719,7 @@ public class CmsXmlContent extends A_CmsXmlDocument {
      */
     public void removeValue(String name, Locale locale, int index) {
 
+        checkWritable();
         // first get the value from the selected locale and index
         I_CmsXmlContentValue value = getValue(name, locale, index);
 
@@ -770,6 +774,7 @@ public class CmsXmlContent extends A_CmsXmlDocument {
      */
     public void synchronizeLocaleIndependentValues(CmsObject cms, Collection<String> skipPaths, Locale sourceLocale) {
 
+        checkWritable();
         if (getContentDefinition().getContentHandler().hasSynchronizedElements() && (getLocales().size() > 1)) {
             for (String elementPath : getContentDefinition().getContentHandler().getSynchronizations()) {
                 synchronizeElement(cms, elementPath, skipPaths, sourceLocale);
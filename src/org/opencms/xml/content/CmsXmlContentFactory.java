@@ -31,6 +31,7 @@ import org.opencms.file.CmsFile;
 import org.opencms.file.CmsObject;
 import org.opencms.file.CmsPropertyDefinition;
 import org.opencms.file.CmsResource;
+import org.opencms.file.history.I_CmsHistoryResource;
 import org.opencms.file.types.CmsResourceTypeXmlContent;
 import org.opencms.i18n.CmsEncoder;
 import org.opencms.loader.CmsLoaderException;
@@ -40,6 +41,8 @@ import org.opencms.xml.CmsXmlContentDefinition;
 import org.opencms.xml.CmsXmlEntityResolver;
 import org.opencms.xml.CmsXmlException;
 import org.opencms.xml.CmsXmlUtils;
+import org.opencms.xml.containerpage.CmsADECache;
+import org.opencms.xml.types.A_CmsXmlContentValue;
 
 import java.io.UnsupportedEncodingException;
 import java.util.Locale;
@@ -262,6 +265,12 @@ public final class CmsXmlContentFactory {
      * Factory method to unmarshal (read) a XML content instance from
      * a resource, using the request attributes as cache.<p>
      *
+     * In the online project, contents read from the VFS are also shared between requests using the
+     * {@link CmsADECache}. These shared contents are read-only, see {@link CmsXmlContent#isReadOnly()},
+     * so callers that need to modify the result must work on a {@link CmsXmlContent#clone()}.
+     * In-memory files given as {@link CmsFile}, historical versions and contents with values stored in an
+     * outdated format, which are converted when read, are never shared.<p>
+     *
      * @param cms the current OpenCms context object
      * @param resource the resource to unmarshal
      * @param req the current request
@@ -288,9 +297,25 @@ public final class CmsXmlContentFactory {
         CmsXmlContent content = (CmsXmlContent)req.getAttribute(rootPath);
 
         if (content == null) {
-            // unmarshal XML structure from the file content
-            CmsFile file = resource instanceof CmsFile ? (CmsFile)resource : cms.readFile(resource);
-            content = unmarshal(cms, file);
+            String sharedKey = null;
+            CmsADECache sharedCache = null;
+            if (!(resource instanceof CmsFile)
+                && !(resource instanceof I_CmsHistoryResource)
+                && cms.getRequestContext().getCurrentProject().isOnlineProject()
+                && (OpenCms.getADEManager() != null)) {
+                // try the cache of parsed online contents shared between requests
+                sharedCache = OpenCms.getADEManager().getCache();
+                sharedKey = sharedCache.getXmlContentCacheKey(resource);
+                content = sharedCache.getCacheXmlContent(sharedKey);
+            }
+            if (content == null) {
+                // unmarshal XML structure from the file content
+                CmsFile file = resource instanceof CmsFile ? (CmsFile)resource : cms.readFile(resource);
+                content = unmarshal(cms, file);
+                if ((sharedKey != null) && isShareable(content)) {
+                    sharedCache.setCacheXmlContent(sharedKey, content);
+                }
+            }
             // store the content as request attribute for future read requests
             req.setAttribute(rootPath, content);
         }
@@ -376,4 +401,24 @@ public final class CmsXmlContentFactory {
 
         return unmarshal(null, xmlData, encoding, resolver);
     }
+
+    /**
+     * Checks if the given content can be shared read-only between requests.<p>
+     *
+     * This is not possible if reading one of the values would change the XML.<p>
+     *
+     * @param content the content to check
+     *
+     * @return <code>true</code> if the content can be shared
+     */
+    private static boolean isShareable(CmsXmlContent content) {
+
+        boolean[] converted = {false};
+        content.visitAllValuesWith(value -> {
+            if ((value instanceof A_CmsXmlContentValue) && ((A_CmsXmlContentValue)value).isConvertedOnRead()) {
+                converted[0] = true;
+            }
+        });
+        return !converted[0];
+    }
 }
\ No newline at end of file
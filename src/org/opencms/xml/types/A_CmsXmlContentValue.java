@@ -35,6 +35,7 @@ import org.opencms.relations.CmsRelationType;
 import org.opencms.util.CmsFileUtil;
 import org.opencms.util.CmsStringUtil;
 import org.opencms.widgets.I_CmsWidgetParameter;
+import org.opencms.xml.A_CmsXmlDocument;
 import org.opencms.xml.CmsXmlContentDefinition;
 import org.opencms.xml.CmsXmlGenericWrapper;
 import org.opencms.xml.CmsXmlUtils;
@@ -461,6 +462,19 @@ public abstract class A_CmsXmlContentValue implements I_CmsXmlContentValue, I_Cm
         return false;
     }
 
+    /**
+     * Checks if the XML of this value is stored in an outdated format which is converted when the value is read.<p>
+     *
+     * Documents containing such values can not be shared read-only between requests.
+     * The default implementation always returns <code>false</code>.<p>
+     *
+     * @return <code>true</code> if reading this value changes its XML
+     */
+    public boolean isConvertedOnRead() {
+
+        return false;
+    }
+
     /**
      * The default implementation always returns <code>true</code>.<p>
      *
@@ -563,6 +577,38 @@ public abstract class A_CmsXmlContentValue implements I_CmsXmlContentValue, I_Cm
         return true;
     }
 
+    /**
+     * Ensures that the document of this value may be modified.<p>
+     *
+     * Must be called by all methods that change the XML of this value.<p>
+     *
+     * @throws CmsRuntimeException if the document has been marked as read-only
+     *
+     * @see A_CmsXmlDocument#checkWritable()
+     */
+    protected void checkWritable() throws CmsRuntimeException {
+
+        if (m_document instanceof A_CmsXmlDocument) {
+            ((A_CmsXmlDocument)m_document).checkWritable();
+        }
+    }
+
+    /**
+     * Returns a detached copy of the given element of this value if the document is read-only,
+     * or the element itself otherwise.<p>
+     *
+     * Reading a link may update its XML, e.g. if the link target has been moved,
+     * which must not change a document shared between requests.<p>
+     *
+     * @param element the element to read
+     *
+     * @return the element to read from
+     */
+    protected Element copyIfReadOnly(Element element) {
+
+        return isReadOnly() ? element.createCopy() : element;
+    }
+
     /**
      * Returns the relation type for the given path.<p>
      *
@@ -583,6 +629,20 @@ public abstract class A_CmsXmlContentValue implements I_CmsXmlContentValue, I_Cm
         return result;
     }
 
+    /**
+     * Returns <code>true</code> if the document of this value is read-only, because it is shared between requests.<p>
+     *
+     * Values computed for the current context, like site relative paths, must not be stored in this case.<p>
+     *
+     * @return <code>true</code> if the document of this value is read-only
+     *
+     * @see A_CmsXmlDocument#isReadOnly()
+     */
+    protected boolean isReadOnly() {
+
+        return (m_document instanceof A_CmsXmlDocument) && ((A_CmsXmlDocument)m_document).isReadOnly();
+    }
+
     /**
      * Moves this XML content element up or down in the XML document.<p>
      *
@@ -592,6 +652,7 @@ public abstract class A_CmsXmlContentValue implements I_CmsXmlContentValue, I_Cm
      */
     protected void moveValue(int step) {
 
+        checkWritable();
         Element e = getElement();
         Element parent = e.getParent();
         List<Element> siblings = CmsXmlGenericWrapper.elements(parent);
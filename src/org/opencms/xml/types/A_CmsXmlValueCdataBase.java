@@ -108,6 +108,7 @@ public abstract class A_CmsXmlValueCdataBase extends A_CmsXmlContentValue {
      */
     public void setStringValue(CmsObject cms, String value) throws CmsIllegalArgumentException {
 
+        checkWritable();
         m_element.clearContent();
         if (CmsStringUtil.isNotEmpty(value)) {
             m_element.addCDATA(value);
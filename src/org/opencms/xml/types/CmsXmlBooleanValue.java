@@ -200,6 +200,7 @@ public class CmsXmlBooleanValue extends A_CmsXmlValueTextBase implements I_CmsJs
     @Override
     public void setStringValue(CmsObject cms, String value) throws CmsIllegalArgumentException {
 
+        checkWritable();
         m_boolean = getBooleanValue(value);
         super.setStringValue(cms, String.valueOf(m_boolean));
     }
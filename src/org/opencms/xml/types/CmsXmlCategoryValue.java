@@ -170,6 +170,7 @@ public class CmsXmlCategoryValue extends A_CmsXmlContentValue {
                     setStringValue(cms, uri);
                 }
             }
+            linkElement = copyIfReadOnly(linkElement);
             CmsLinkUpdateUtil.updateType(linkElement, getRelationType(getPath()));
             CmsLink link = new CmsLink(linkElement);
             link.checkConsistency(cms);
@@ -207,6 +208,10 @@ public class CmsXmlCategoryValue extends A_CmsXmlContentValue {
      */
     public String getStringValue(CmsObject cms) throws CmsRuntimeException {
 
+        if (isReadOnly()) {
+            // the value is site relative, so it can not be stored in a document shared between requests
+            return createStringValue(cms);
+        }
         if (m_stringValue == null) {
             m_stringValue = createStringValue(cms);
         }
@@ -247,6 +252,7 @@ public class CmsXmlCategoryValue extends A_CmsXmlContentValue {
      */
     public void setIdValue(CmsObject cms, CmsUUID id) {
 
+        checkWritable();
         CmsRelationType type = CmsRelationType.CATEGORY;
         CmsLink link = new CmsLink(TYPE_VFS_LINK, type, id, "@", true);
         // link management check
@@ -261,6 +267,7 @@ public class CmsXmlCategoryValue extends A_CmsXmlContentValue {
      */
     public void setStringValue(CmsObject cms, String value) throws CmsIllegalArgumentException {
 
+        checkWritable();
         m_element.clearContent();
         // ensure the String value is re-calculated next time it's needed
         m_stringValue = null;
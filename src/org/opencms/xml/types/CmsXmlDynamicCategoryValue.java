@@ -181,6 +181,7 @@ public class CmsXmlDynamicCategoryValue extends A_CmsXmlContentValue implements
      */
     public void setStringValue(CmsObject cms, String value) throws CmsIllegalArgumentException {
 
+        checkWritable();
         categoryStringElem(true).setText(value);
     }
 
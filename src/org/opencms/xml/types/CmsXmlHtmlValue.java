@@ -164,6 +164,9 @@ public class CmsXmlHtmlValue extends A_CmsXmlContentValue {
     /**
      * Returns the link table of this XML page element.<p>
      *
+     * If the document is shared read-only, the links are created from copies of the link elements,
+     * so they can not change the document.<p>
+     *
      * @return the link table of this XML page element
      */
     public CmsLinkTable getLinkTable() {
@@ -174,7 +177,7 @@ public class CmsXmlHtmlValue extends A_CmsXmlContentValue {
             Iterator<Element> itLinks = CmsXmlGenericWrapper.elementIterator(links, CmsXmlPage.NODE_LINK);
             while (itLinks.hasNext()) {
                 Element lelem = itLinks.next();
-                linkTable.addLink(new CmsLink(lelem));
+                linkTable.addLink(new CmsLink(copyIfReadOnly(lelem)));
             }
         }
         return linkTable;
@@ -186,6 +189,14 @@ public class CmsXmlHtmlValue extends A_CmsXmlContentValue {
     @Override
     public String getPlainText(CmsObject cms) {
 
+        if (isReadOnly()) {
+            // the links are site relative, so the value can not be stored in a document shared between requests
+            try {
+                return CmsHtmlExtractor.extractText(getStringValue(cms), m_document.getEncoding());
+            } catch (Exception exc) {
+                return null;
+            }
+        }
         if (m_plainTextValue == null) {
             try {
                 m_plainTextValue = CmsHtmlExtractor.extractText(getStringValue(cms), m_document.getEncoding());
@@ -216,6 +227,10 @@ public class CmsXmlHtmlValue extends A_CmsXmlContentValue {
      */
     public String getStringValue(CmsObject cms) {
 
+        if (isReadOnly()) {
+            // the links are site relative, so the value can not be stored in a document shared between requests
+            return createStringValue(cms, m_document);
+        }
         if (m_stringValue == null) {
             m_stringValue = createStringValue(cms, m_document);
         }
@@ -231,6 +246,17 @@ public class CmsXmlHtmlValue extends A_CmsXmlContentValue {
         return TYPE_NAME;
     }
 
+    /**
+     * Values stored as plain text instead of as content with a link table are converted when read.<p>
+     *
+     * @see org.opencms.xml.types.A_CmsXmlContentValue#isConvertedOnRead()
+     */
+    @Override
+    public boolean isConvertedOnRead() {
+
+        return m_element.element(CmsXmlPage.NODE_CONTENT) == null;
+    }
+
     /**
      * @see org.opencms.xml.types.A_CmsXmlContentValue#newInstance(java.lang.String, java.lang.String, java.lang.String)
      */
@@ -244,6 +270,7 @@ public class CmsXmlHtmlValue extends A_CmsXmlContentValue {
      */
     public void setStringValue(CmsObject cms, String value) {
 
+        checkWritable();
         Element content = m_element.element(CmsXmlPage.NODE_CONTENT);
         Element links = m_element.element(CmsXmlPage.NODE_LINKS);
         CmsLinkProcessor linkProcessor = null;
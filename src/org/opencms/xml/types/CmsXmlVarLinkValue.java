@@ -139,24 +139,18 @@ public class CmsXmlVarLinkValue extends A_CmsXmlContentValue {
      */
     public CmsLink getLink(CmsObject cms) {
 
+        if (isReadOnly()) {
+            // the link is checked for the current context, so it can not be stored in a document shared between requests
+            CmsLink link = readLink(cms);
+            return link == CmsLink.NULL_LINK ? null : link;
+        }
         if (m_linkValue == null) {
             // need to to calculate link value twice
             Element linkElement = m_element.element(CmsXmlPage.NODE_LINK);
             if (linkElement == null) {
                 setStringValue(cms, m_element.getText());
             } else {
-                CmsLinkUpdateUtil.updateType(linkElement, getRelationType(getPath()));
-                CmsLink link = new CmsLink(linkElement);
-                if (link.isInternal()) {
-                    // link management check
-                    link.checkConsistency(cms);
-                }
-                if (CmsStringUtil.isEmptyOrWhitespaceOnly(link.getTarget())) {
-                    // this may just be an anchor link
-                    m_linkValue = CmsLink.NULL_LINK;
-                } else {
-                    m_linkValue = link;
-                }
+                m_linkValue = readLink(cms);
             }
         }
         if (m_linkValue == CmsLink.NULL_LINK) {
@@ -191,6 +185,10 @@ public class CmsXmlVarLinkValue extends A_CmsXmlContentValue {
      */
     public String getStringValue(CmsObject cms) throws CmsRuntimeException {
 
+        if (isReadOnly()) {
+            // the value is site relative, so it can not be stored in a document shared between requests
+            return createStringValue(cms);
+        }
         if (m_stringValue == null) {
             m_stringValue = createStringValue(cms);
         }
@@ -205,6 +203,18 @@ public class CmsXmlVarLinkValue extends A_CmsXmlContentValue {
         return TYPE_NAME;
     }
 
+    /**
+     * Values stored as plain text instead of as link are converted when read.<p>
+     *
+     * @see org.opencms.xml.types.A_CmsXmlContentValue#isConvertedOnRead()
+     */
+    @Override
+    public boolean isConvertedOnRead() {
+
+        return (m_element.element(CmsXmlPage.NODE_LINK) == null)
+            && CmsStringUtil.isNotEmptyOrWhitespaceOnly(m_element.getText());
+    }
+
     /**
      * @see org.opencms.xml.types.A_CmsXmlContentValue#isSearchable()
      */
@@ -228,6 +238,7 @@ public class CmsXmlVarLinkValue extends A_CmsXmlContentValue {
      */
     public void setStringValue(CmsObject cms, String value) throws CmsIllegalArgumentException {
 
+        checkWritable();
         // element is rebuild from given String value below
         m_element.clearContent();
         // link value is re-calculated below
@@ -318,4 +329,32 @@ public class CmsXmlVarLinkValue extends A_CmsXmlContentValue {
         }
         return content;
     }
+
+    /**
+     * Reads the link from the link element of this value.<p>
+     *
+     * @param cms the current users OpenCms context, can be <code>null</code>
+     *
+     * @return the link, or {@link CmsLink#NULL_LINK} if there is no link target
+     */
+    private CmsLink readLink(CmsObject cms) {
+
+        Element linkElement = m_element.element(CmsXmlPage.NODE_LINK);
+        if (linkElement == null) {
+            // only possible for empty values in read-only documents
+            return CmsLink.NULL_LINK;
+        }
+        linkElement = copyIfReadOnly(linkElement);
+        CmsLinkUpdateUtil.updateType(linkElement, getRelationType(getPath()));
+        CmsLink link = new CmsLink(linkElement);
+        if (link.isInternal()) {
+            // link management check
+            link.checkConsistency(cms);
+        }
+        if (CmsStringUtil.isEmptyOrWhitespaceOnly(link.getTarget())) {
+            // this may just be an anchor link
+            return CmsLink.NULL_LINK;
+        }
+        return link;
+    }
 }
\ No newline at end of file
@@ -172,6 +172,7 @@ public class CmsXmlVfsFileValue extends A_CmsXmlContentValue {
                 return null;
             }
         }
+        linkElement = copyIfReadOnly(linkElement);
         CmsLinkUpdateUtil.updateType(linkElement, getRelationType(getPath()));
         CmsLink link = new CmsLink(linkElement);
         link.checkConsistency(cms);
@@ -207,6 +208,10 @@ public class CmsXmlVfsFileValue extends A_CmsXmlContentValue {
      */
     public String getStringValue(CmsObject cms) throws CmsRuntimeException {
 
+        if (isReadOnly()) {
+            // the value is site relative, so it can not be stored in a document shared between requests
+            return createStringValue(cms);
+        }
         if (m_stringValue == null) {
             m_stringValue = createStringValue(cms);
         }
@@ -221,6 +226,18 @@ public class CmsXmlVfsFileValue extends A_CmsXmlContentValue {
         return TYPE_NAME;
     }
 
+    /**
+     * Values stored as plain path or id instead of as link are converted when read.<p>
+     *
+     * @see org.opencms.xml.types.A_CmsXmlContentValue#isConvertedOnRead()
+     */
+    @Override
+    public boolean isConvertedOnRead() {
+
+        return (m_element.element(CmsXmlPage.NODE_LINK) == null)
+            && CmsStringUtil.isNotEmptyOrWhitespaceOnly(m_element.getText());
+    }
+
     /**
      * @see org.opencms.xml.types.A_CmsXmlContentValue#isSearchable()
      */
@@ -247,6 +264,7 @@ public class CmsXmlVfsFileValue extends A_CmsXmlContentValue {
      */
     public void setIdValue(CmsObject cms, CmsUUID id) {
 
+        checkWritable();
         CmsRelationType type = getRelationType(getPath());
         CmsLink link = new CmsLink(TYPE_VFS_LINK, type, id, "@", true);
         // link management check
@@ -261,6 +279,7 @@ public class CmsXmlVfsFileValue extends A_CmsXmlContentValue {
      */
     public void setStringValue(CmsObject cms, String value) throws CmsIllegalArgumentException {
 
+        checkWritable();
         m_element.clearContent();
         // ensure the String value is re-calculated next time it's needed
         m_stringValue = null;
@@ -227,6 +227,7 @@ public class CmsXmlVfsImageValue extends CmsXmlVfsFileValue {
      */
     public void setDescription(CmsObject cms, String description) {
 
+        checkWritable();
         if (CmsStringUtil.isEmptyOrWhitespaceOnly(description)) {
             m_description = "";
             if (m_element.element(PARAM_DESCRIPTION) != null) {
@@ -247,6 +248,7 @@ public class CmsXmlVfsImageValue extends CmsXmlVfsFileValue {
      */
     public void setFormat(CmsObject cms, String format) {
 
+        checkWritable();
         if (CmsStringUtil.isEmptyOrWhitespaceOnly(format)) {
             m_format = "";
             if (m_element.element(PARAM_FORMAT) != null) {
@@ -266,6 +268,7 @@ public class CmsXmlVfsImageValue extends CmsXmlVfsFileValue {
      */
     public void setScaleOptions(CmsObject cms, String scaleOptions) {
 
+        checkWritable();
         if (CmsStringUtil.isEmptyOrWhitespaceOnly(scaleOptions)) {
             m_scaleOptions = "";
             if (m_element.element(NODE_SCALE) != null) {
@@ -844,6 +844,58 @@ public class TestConfig extends OpenCmsTestCase {
         assertEquals(typeConf2.getTypeName(), resourceTypeConfig.get(0).getTypeName());
     }
 
+    /**
+     * Tests that merged configuration values are shared by all lookups in a configuration cache state
+     * and survive state updates which don't change the configurations they were computed from.<p>
+     *
+     * @throws Exception -
+     */
+    public void testMergedConfigurationShared() throws Exception {
+
+        CmsObject cms = rootCms();
+        CmsConfigurationReader configReader = new CmsConfigurationReader(cms);
+        CmsResource sitemapConfig = cms.readResource("/sites/default/test.config");
+        CmsADEConfigDataInternal moduleData = configReader.parseSitemapConfiguration(
+            "/",
+            cms.readResource("/sites/default/testmod.config"));
+        CmsADEConfigDataInternal sitemapData = configReader.parseSitemapConfiguration("/", sitemapConfig);
+        Map<CmsUUID, CmsADEConfigDataInternal> sitemapConfigs = new HashMap<CmsUUID, CmsADEConfigDataInternal>();
+        sitemapConfigs.put(sitemapConfig.getStructureId(), sitemapData);
+        CmsADEConfigCacheState state = new CmsADEConfigCacheState(
+            cms,
+            sitemapConfigs,
+            list(moduleData),
+            new HashMap<CmsUUID, CmsElementView>());
+
+        // the inherited type is copied from the module configuration only once
+        CmsResourceTypeConfig inherited = createConfigData(state, moduleData, sitemapData).getResourceType(
+            "anothertype");
+        assertNotNull(inherited);
+        assertSame(inherited, createConfigData(state, moduleData, sitemapData).getResourceType("anothertype"));
+        // callers get their own copy of the merged list
+        List<CmsResourceTypeConfig> types = createConfigData(state, moduleData, sitemapData).getResourceTypes();
+        int typeCount = types.size();
+        types.clear();
+        assertEquals(typeCount, createConfigData(state, moduleData, sitemapData).getResourceTypes().size());
+
+        // unrelated updates keep the merged values
+        CmsADEConfigCacheState updated = state.createUpdatedCopy(
+            new HashMap<CmsUUID, CmsADEConfigDataInternal>(),
+            null,
+            null);
+        assertSame(inherited, createConfigData(updated, moduleData, sitemapData).getResourceType("anothertype"));
+
+        // changed configurations are merged again
+        CmsADEConfigDataInternal changedData = configReader.parseSitemapConfiguration("/", sitemapConfig);
+        Map<CmsUUID, CmsADEConfigDataInternal> changes = new HashMap<CmsUUID, CmsADEConfigDataInternal>();
+        changes.put(sitemapConfig.getStructureId(), changedData);
+        CmsADEConfigCacheState changed = state.createUpdatedCopy(changes, null, null);
+        CmsResourceTypeConfig changedType = createConfigData(changed, moduleData, changedData).getResourceType(
+            "anothertype");
+        assertNotNull(changedType);
+        assertNotSame(inherited, changedType);
+    }
+
     /**
      * Tests inheritance of model pages.<p>
      *
@@ -1182,6 +1234,22 @@ public class TestConfig extends OpenCmsTestCase {
         assertEquals(CmsStringUtil.joinPaths("/", path1, "/"), CmsStringUtil.joinPaths("/", path2, "/"));
     }
 
+    /**
+     * Helper method for creating a configuration data object with the given inherited configurations.<p>
+     *
+     * @param state the configuration cache state
+     * @param configs the configurations, starting with the module configuration
+     *
+     * @return the configuration data object for the last configuration
+     */
+    protected CmsADEConfigData createConfigData(CmsADEConfigCacheState state, CmsADEConfigDataInternal... configs) {
+
+        return new CmsADEConfigData(
+            configs[configs.length - 1],
+            state,
+            new CmsADEConfigurationSequence(list(configs)));
+    }
+
     /**
      * Helper method for creating a disabled property configuration.<p>
      *
@@ -44,6 +44,7 @@ import org.opencms.ui.components.CmsExtendedSiteSelector;
 import org.opencms.util.CmsFileUtil;
 import org.opencms.util.CmsStringUtil;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -136,6 +137,67 @@ public class TestLiveConfig extends OpenCmsTestCase {
         return generateSetupTestWrapper(TestLiveConfig.class, "ade-config", "/");
     }
 
+    /**
+     * Tests that reading the configuration through a snapshot gives the same result as reading it from the VFS,
+     * and that changed files are not read from the snapshot.<p>
+     *
+     * @throws Exception -
+     */
+    public void testConfigurationSnapshot() throws Exception {
+
+        CmsObject cms = rootCms();
+        File file = File.createTempFile("sitemap-config", ".snapshot");
+        file.delete();
+        try {
+            CmsConfigurationCache cache = new CmsConfigurationCache(
+                cms,
+                OpenCms.getResourceManager().getResourceType(CmsADEManager.CONFIG_TYPE),
+                OpenCms.getResourceManager().getResourceType(CmsADEManager.MODULE_CONFIG_TYPE),
+                OpenCms.getResourceManager().getResourceType(CmsADEManager.ELEMENT_VIEW_TYPE));
+            CmsConfigurationSnapshot snapshot = CmsConfigurationSnapshot.load("test", file);
+            cache.setSnapshot(snapshot);
+            CmsADEConfigCacheState state = cache.readCompleteConfiguration();
+            assertTrue(file.exists());
+            assertTrue(snapshot.getSize() > 0);
+
+            // read the configuration again, this time from the snapshot file
+            CmsConfigurationSnapshot loaded = CmsConfigurationSnapshot.load("test", file);
+            assertEquals(snapshot.getSize(), loaded.getSize());
+            cache.setSnapshot(loaded);
+            CmsADEConfigCacheState loadedState = cache.readCompleteConfiguration();
+            for (String path : Arrays.asList("/sites/default/today/news", "/sites/default/today/events")) {
+                List<String> expected = new ArrayList<String>();
+                for (CmsResourceTypeConfig typeConfig : state.lookupConfiguration(path).getResourceTypes()) {
+                    expected.add(getAttribute(typeConfig, "foldername"));
+                }
+                List<String> actual = new ArrayList<String>();
+                for (CmsResourceTypeConfig typeConfig : loadedState.lookupConfiguration(path).getResourceTypes()) {
+                    actual.add(getAttribute(typeConfig, "foldername"));
+                }
+                assertFalse(expected.isEmpty());
+                assertEquals(expected, actual);
+            }
+
+            // a changed file must be read from the VFS again
+            String path = "/system/snapshottest.txt";
+            CmsResource res = cms.createResource(path, 1, "first".getBytes(), null);
+            assertEquals("first", new String(loaded.readFile(cms, res).getContents()));
+            CmsFile changed = cms.readFile(res);
+            changed.setContents("second".getBytes());
+            cms.writeFile(changed);
+            res = cms.readResource(path);
+            assertEquals("second", new String(loaded.readFile(cms, res).getContents()));
+            cms.deleteResource(path, CmsResource.DELETE_PRESERVE_SIBLINGS);
+
+            // entries which are not used during a complete reload are removed
+            loaded.beginReload();
+            loaded.endReload();
+            assertEquals(0, loaded.getSize());
+        } finally {
+            file.delete();
+        }
+    }
+
     /**
      * Tests cross-site detail page links.<p>
      *
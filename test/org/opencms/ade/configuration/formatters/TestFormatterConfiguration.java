@@ -249,6 +249,55 @@ public class TestFormatterConfiguration extends OpenCmsTestCase {
 
     }
 
+    /**
+     * Tests that a reload and an incremental update with many formatters, which are parsed in parallel,
+     * produce the same formatters as parsing them one by one.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testManyFormatters() throws Exception {
+
+        CmsObject cms = getCmsObject();
+        cms.getRequestContext().setSiteRoot("");
+        CmsFormatterConfigurationCache cache = new CmsFormatterConfigurationCache(cms, "test formatters");
+        cache.reload();
+        long errors = cache.getLastReloadErrors();
+        Set<String> before = getFormatterNames(cache.getState().getFormatters().values());
+        List<String> paths = new ArrayList<String>();
+        try {
+            Set<String> expected = new HashSet<String>(before);
+            for (int i = 0; i < 50; i++) {
+                String name = "many" + i;
+                String path = "/system/" + name + ".fc";
+                cms.createResource(
+                    path,
+                    getTypeId("formatter_config"),
+                    createFormatterConfigXml("plain", name, true, 100).getBytes("UTF-8"),
+                    new ArrayList<CmsProperty>());
+                paths.add(path);
+                expected.add(name);
+            }
+            cache.reload();
+            assertEquals(expected, getFormatterNames(cache.getState().getFormatters().values()));
+            assertEquals(errors, cache.getLastReloadErrors());
+            assertTrue(cache.getLastReloadDuration() >= 0);
+
+            // incremental update of all changed formatters
+            for (String path : paths) {
+                CmsResource res = cms.readResource(path);
+                cms.deleteResource(path, CmsResource.DELETE_PRESERVE_SIBLINGS);
+                cache.update(res);
+            }
+            paths.clear();
+            cache.performUpdate();
+            assertEquals(before, getFormatterNames(cache.getState().getFormatters().values()));
+        } finally {
+            for (String path : paths) {
+                delete(path);
+            }
+        }
+    }
+
     /**
      * Tests that the formatter cache is updated correctly.
      *
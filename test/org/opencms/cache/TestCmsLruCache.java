@@ -0,0 +1,396 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the LRU cache.<p>
+ */
+public class TestCmsLruCache extends TestCase {
+
+    /**
+     * Simple cache object for testing.<p>
+     */
+    static class CmsTestLruObject implements I_CmsLruCacheObject {
+
+        /** Counts how often the object is currently cached, must be 0 or 1. */
+        AtomicInteger m_cached = new AtomicInteger();
+
+        /** The costs. */
+        int m_costs;
+
+        /** The next object. */
+        I_CmsLruCacheObject m_next;
+
+        /** The off-heap costs. */
+        int m_offHeapCosts;
+
+        /** The previous object. */
+        I_CmsLruCacheObject m_previous;
+
+        /**
+         * Creates a new test object.<p>
+         *
+         * @param costs the costs of the object
+         */
+        CmsTestLruObject(int costs) {
+
+            m_costs = costs;
+        }
+
+        /**
+         * Creates a new test object with off-heap costs.<p>
+         *
+         * @param costs the costs of the object
+         * @param offHeapCosts the off-heap costs of the object
+         */
+        CmsTestLruObject(int costs, int offHeapCosts) {
+
+            m_costs = costs;
+            m_offHeapCosts = offHeapCosts;
+        }
+
+        /**
+         * @see org.opencms.cache.I_CmsLruCacheObject#addToLruCache()
+         */
+        public void addToLruCache() {
+
+            m_cached.incrementAndGet();
+        }
+
+        /**
+         * @see org.opencms.cache.I_CmsLruCacheObject#getLruCacheCosts()
+         */
+        public int getLruCacheCosts() {
+
+            return m_costs;
+        }
+
+        /**
+         * @see org.opencms.cache.I_CmsLruCacheObject#getLruCacheOffHeapCosts()
+         */
+        public int getLruCacheOffHeapCosts() {
+
+            return m_offHeapCosts;
+        }
+
+        /**
+         * @see org.opencms.cache.I_CmsLruCacheObject#getNextLruObject()
+         */
+        public I_CmsLruCacheObject getNextLruObject() {
+
+            return m_next;
+        }
+
+        /**
+         * @see org.opencms.cache.I_CmsLruCacheObject#getPreviousLruObject()
+         */
+        public I_CmsLruCacheObject getPreviousLruObject() {
+
+            return m_previous;
+        }
+
+        /**
+         * @see org.opencms.cache.I_CmsLruCacheObject#getValue()
+         */
+        public Object getValue() {
+
+            return this;
+        }
+
+        /**
+         * @see org.opencms.cache.I_CmsLruCacheObject#removeFromLruCache()
+         */
+        public void removeFromLruCache() {
+
+            m_cached.decrementAndGet();
+        }
+
+        /**
+         * @see org.opencms.cache.I_CmsLruCacheObject#setNextLruObject(org.opencms.cache.I_CmsLruCacheObject)
+         */
+        public void setNextLruObject(I_CmsLruCacheObject theNextObject) {
+
+            m_next = theNextObject;
+        }
+
+        /**
+         * @see org.opencms.cache.I_CmsLruCacheObject#setPreviousLruObject(org.opencms.cache.I_CmsLruCacheObject)
+         */
+        public void setPreviousLruObject(I_CmsLruCacheObject thePreviousObject) {
+
+            m_previous = thePreviousObject;
+        }
+    }
+
+    /**
+     * Tests that concurrent adds, touches and removes keep the cache statistics consistent.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testConcurrentAccess() throws Exception {
+
+        final CmsLruCache cache = new CmsLruCache(5000, 4000, 100);
+        final List<CmsTestLruObject> objects = new ArrayList<CmsTestLruObject>();
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            objects.add(new CmsTestLruObject(1 + random.nextInt(100)));
+        }
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 8; t++) {
+            final int seed = t;
+            threads.add(new Thread() {
+
+                @Override
+                public void run() {
+
+                    try {
+                        Random r = new Random(seed);
+                        for (int i = 0; i < 50000; i++) {
+                            CmsTestLruObject obj = objects.get(r.nextInt(objects.size()));
+                            int op = r.nextInt(10);
+                            if (op < 5) {
+                                cache.touch(obj);
+                            } else if (op < 9) {
+                                cache.add(obj);
+                            } else {
+                                cache.remove(obj);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(error.get());
+
+        int count = 0;
+        int costs = 0;
+        for (CmsTestLruObject obj : objects) {
+            int cached = obj.m_cached.get();
+            assertTrue(cached == 0 || cached == 1);
+            count += cached;
+            costs += cached * obj.m_costs;
+        }
+        assertEquals(count, cache.size());
+        assertEquals(costs, cache.getObjectCosts());
+        assertTrue(cache.getObjectCosts() <= cache.getMaxCacheCosts());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getObjectCosts());
+        for (CmsTestLruObject obj : objects) {
+            assertEquals(0, obj.m_cached.get());
+        }
+    }
+
+    /**
+     * Tests that the max. costs, avg. costs and max. object costs are respected.<p>
+     */
+    public void testCostLimits() {
+
+        CmsLruCache cache = new CmsLruCache(1000, 500, 200);
+        assertFalse(cache.add(new CmsTestLruObject(201)));
+        assertEquals(0, cache.size());
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cache.add(new CmsTestLruObject(100)));
+        }
+        assertEquals(10, cache.size());
+        assertEquals(1000, cache.getObjectCosts());
+
+        // exceeding the max. costs removes objects until the costs are below the avg. costs
+        assertTrue(cache.add(new CmsTestLruObject(100)));
+        assertTrue(cache.getObjectCosts() < 500);
+        assertEquals(cache.getObjectCosts() / 100, cache.size());
+
+        // objects whose costs have grown too high are removed when touched
+        CmsTestLruObject obj = new CmsTestLruObject(100);
+        cache.add(obj);
+        obj.m_costs = 300;
+        assertFalse(cache.touch(obj));
+        assertEquals(0, obj.m_cached.get());
+    }
+
+    /**
+     * Measures the throughput of touching cached objects for different numbers of threads.<p>
+     *
+     * Compares a cache with a single lock stripe, which behaves like a globally synchronized cache,
+     * with a cache using the default number of lock stripes.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testHitThroughput() throws Exception {
+
+        int[] threadCounts = {1, 2, 4, 8, 16, 32, 64};
+        for (int threads : threadCounts) {
+            long single = measureTouchThroughput(new CmsLruCache(Long.MAX_VALUE, Long.MAX_VALUE, -1, 1), threads);
+            long striped = measureTouchThroughput(new CmsLruCache(Long.MAX_VALUE, Long.MAX_VALUE, -1), threads);
+            System.out.println(
+                "LRU cache hit throughput with "
+                    + threads
+                    + " threads: "
+                    + single
+                    + " ops/ms with 1 stripe, "
+                    + striped
+                    + " ops/ms with "
+                    + CmsLruCache.DEFAULT_CONCURRENCY_LEVEL
+                    + " stripes");
+        }
+    }
+
+    /**
+     * Tests that the last recently used objects are removed first.<p>
+     */
+    public void testLruOrder() {
+
+        CmsLruCache cache = new CmsLruCache(300, 250, -1, 1);
+        CmsTestLruObject a = new CmsTestLruObject(100);
+        CmsTestLruObject b = new CmsTestLruObject(100);
+        CmsTestLruObject c = new CmsTestLruObject(100);
+        cache.add(a);
+        cache.add(b);
+        cache.add(c);
+        assertTrue(cache.touch(a));
+
+        // b is the last recently used object now
+        cache.add(new CmsTestLruObject(100));
+        assertEquals(1, a.m_cached.get());
+        assertEquals(0, b.m_cached.get());
+        assertEquals(0, c.m_cached.get());
+        assertFalse(cache.touch(b));
+        assertNull(cache.remove(c));
+        assertSame(a, cache.remove(a));
+        assertEquals(1, cache.size());
+        assertEquals(100, cache.getObjectCosts());
+    }
+
+    /**
+     * Measures the number of touch operations per millisecond on a filled cache.<p>
+     *
+     * @param cache the cache to measure
+     * @param threadCount the number of threads
+     *
+     * @return the number of touch operations per millisecond
+     *
+     * @throws Exception if something goes wrong
+     */
+    private long measureTouchThroughput(final CmsLruCache cache, int threadCount) throws Exception {
+
+        final CmsTestLruObject[] objects = new CmsTestLruObject[10000];
+        for (int i = 0; i < objects.length; i++) {
+            objects[i] = new CmsTestLruObject(1);
+            cache.add(objects[i]);
+        }
+        final int opsPerThread = 200000;
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < threadCount; t++) {
+            final int seed = t;
+            Thread thread = new Thread() {
+
+                @Override
+                public void run() {
+
+                    Random r = new Random(seed);
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < opsPerThread; i++) {
+                        cache.touch(objects[r.nextInt(objects.length)]);
+                    }
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long millis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+        return ((long)opsPerThread * threadCount) / millis;
+    }
+
+    /**
+     * Tests that off-heap costs are counted separately and limited by the off-heap cost limits.<p>
+     */
+    public void testOffHeapCostLimits() {
+
+        CmsLruCache cache = new CmsLruCache(1000, 500, 1500);
+        // without off-heap limits, the off-heap costs are only counted
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.add(new CmsTestLruObject(10, 1000)));
+        }
+        assertEquals(5, cache.size());
+        assertEquals(50, cache.getObjectCosts());
+        assertEquals(5000, cache.getOffHeapCosts());
+        cache.clear();
+        assertEquals(0, cache.getOffHeapCosts());
+
+        cache.setOffHeapCostLimits(1000, 500);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(cache.add(new CmsTestLruObject(10, 100)));
+        }
+        assertEquals(10, cache.size());
+        assertEquals(1000, cache.getOffHeapCosts());
+
+        // exceeding the max. off-heap costs removes objects until the off-heap costs are below the avg.
+        assertTrue(cache.add(new CmsTestLruObject(10, 100)));
+        assertTrue(cache.getOffHeapCosts() < 500);
+        assertEquals(cache.getOffHeapCosts() / 10, cache.getObjectCosts());
+
+        // the max. object costs apply to the sum of heap and off-heap costs
+        assertFalse(cache.add(new CmsTestLruObject(100, 1401)));
+
+        CmsTestLruObject obj = new CmsTestLruObject(10, 100);
+        cache.add(obj);
+        long offHeapCosts = cache.getOffHeapCosts();
+        cache.remove(obj);
+        assertEquals(offHeapCosts - 100, cache.getOffHeapCosts());
+    }
+}
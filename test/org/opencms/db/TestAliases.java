@@ -30,6 +30,8 @@ package org.opencms.db;
 import org.opencms.file.CmsObject;
 import org.opencms.file.CmsResource;
 import org.opencms.file.types.CmsResourceTypePlain;
+import org.opencms.gwt.shared.alias.CmsAliasImportResult;
+import org.opencms.gwt.shared.alias.CmsAliasImportStatus;
 import org.opencms.gwt.shared.alias.CmsAliasMode;
 import org.opencms.main.OpenCms;
 import org.opencms.test.OpenCmsTestCase;
@@ -132,6 +134,34 @@ public class TestAliases extends OpenCmsTestCase {
         assertTrue("At least 3 aliases", aliasManager.getAliasesForSite(cms, "").size() >= 3);
     }
 
+    /**
+     * Tests that an invalid rewrite pattern only fails the import of its own line.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testImportInvalidRewritePattern() throws Exception {
+
+        String siteRoot = "/sites/default";
+        CmsAliasManager aliasManager = OpenCms.getAliasManager();
+        String data = "/foo/(.*);/bar/$1;permanentRedirect;rewrite\n"
+            + "/broken/(.*;/bar/;permanentRedirect;rewrite\n"
+            + "/baz/(.*);/qux/$1;redirect;rewrite\n";
+        try {
+            List<CmsAliasImportResult> results = aliasManager.importAliases(
+                getCmsObject(),
+                data.getBytes("UTF-8"),
+                siteRoot,
+                ";");
+            assertEquals(3, results.size());
+            assertEquals(CmsAliasImportStatus.aliasNew, results.get(0).getStatus());
+            assertEquals(CmsAliasImportStatus.aliasImportError, results.get(1).getStatus());
+            assertEquals(CmsAliasImportStatus.aliasNew, results.get(2).getStatus());
+            assertEquals(2, aliasManager.getRewriteAliases(getCmsObject(), siteRoot).size());
+        } finally {
+            aliasManager.saveRewriteAliases(getCmsObject(), siteRoot, Collections.<CmsRewriteAlias> emptyList());
+        }
+    }
+
     /**
      * Tests reading/writing rewrite aliases.<p>
      *
@@ -0,0 +1,171 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.db;
+
+import org.opencms.gwt.shared.alias.CmsAliasMode;
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the rewrite alias matcher.<p>
+ */
+public class TestCmsRewriteAliasMatcher extends TestCase {
+
+    /**
+     * Tests the computation of literal pattern prefixes.<p>
+     */
+    public void testLiteralPrefix() {
+
+        assertEquals("/foo/", CmsRewriteAliasMatcher.getLiteralPrefix("/foo/(.*)"));
+        assertEquals("/foo/", CmsRewriteAliasMatcher.getLiteralPrefix("^/foo/(.*)"));
+        assertEquals("/fo", CmsRewriteAliasMatcher.getLiteralPrefix("/foo?/bar"));
+        assertEquals("/fo", CmsRewriteAliasMatcher.getLiteralPrefix("/foo*"));
+        assertEquals("/fo", CmsRewriteAliasMatcher.getLiteralPrefix("/foo{2}"));
+        assertEquals("/foo", CmsRewriteAliasMatcher.getLiteralPrefix("/foo+"));
+        assertEquals("/a", CmsRewriteAliasMatcher.getLiteralPrefix("/a\\.html"));
+        assertEquals("", CmsRewriteAliasMatcher.getLiteralPrefix("/foo|/bar"));
+        assertEquals("", CmsRewriteAliasMatcher.getLiteralPrefix("(?i)/foo"));
+        assertEquals("", CmsRewriteAliasMatcher.getLiteralPrefix(".*"));
+    }
+
+    /**
+     * Tests that the first configured alias which matches wins, regardless of prefix grouping.<p>
+     */
+    public void testMatchOrder() {
+
+        List<CmsRewriteAlias> aliases = new ArrayList<CmsRewriteAlias>();
+        aliases.add(createAlias("/news/(.*)\\.html", "/n/$1"));
+        aliases.add(createAlias(".*/special", "/special"));
+        aliases.add(createAlias("/news/special", "/never"));
+        aliases.add(createAlias("/new(s?)/x", "/x$1"));
+        CmsRewriteAliasMatcher matcher = new CmsRewriteAliasMatcher(aliases);
+        assertEquals("/n/a", matcher.match("/news/a.html").getNewPath());
+        assertEquals("/special", matcher.match("/news/special").getNewPath());
+        assertEquals("/xs", matcher.match("/news/x").getNewPath());
+        assertEquals("/x", matcher.match("/new/x").getNewPath());
+        assertNull(matcher.match("/other"));
+        assertNull(matcher.match(""));
+    }
+
+    /**
+     * Tests that aliases with invalid patterns are ignored.<p>
+     */
+    public void testInvalidPattern() {
+
+        List<CmsRewriteAlias> aliases = new ArrayList<CmsRewriteAlias>();
+        aliases.add(createAlias("/broken/(.*", "/b"));
+        aliases.add(createAlias("/broken/(.*)", "/ok/$1"));
+        CmsRewriteAliasMatcher matcher = new CmsRewriteAliasMatcher(aliases);
+        assertEquals("/ok/x", matcher.match("/broken/x").getNewPath());
+        assertNotNull(CmsRewriteAliasMatcher.validatePattern("/broken/(.*"));
+        assertNull(CmsRewriteAliasMatcher.validatePattern("/broken/(.*)"));
+    }
+
+    /**
+     * Compares the matcher with compiling and testing every pattern per request, for 10, 100 and 1000 aliases.<p>
+     */
+    public void testMatchPerformance() {
+
+        for (int count : new int[] {10, 100, 1000}) {
+            List<CmsRewriteAlias> aliases = new ArrayList<CmsRewriteAlias>();
+            for (int i = 0; i < count; i++) {
+                aliases.add(createAlias("/section" + i + "/(.*)\\.html", "/target" + i + "/$1"));
+            }
+            CmsRewriteAliasMatcher matcher = new CmsRewriteAliasMatcher(aliases);
+            List<String> paths = new ArrayList<String>();
+            for (int i = 0; i < 100; i++) {
+                paths.add("/section" + ((i * 7) % count) + "/page" + i + ".html");
+                paths.add("/unmatched/page" + i + ".html");
+            }
+            for (String path : paths) {
+                assertEquals(matchUncompiled(aliases, path), matcher.match(path) != null);
+            }
+            int iterations = 20000 / count;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                for (String path : paths) {
+                    matchUncompiled(aliases, path);
+                }
+            }
+            long uncompiled = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                for (String path : paths) {
+                    matcher.match(path);
+                }
+            }
+            long compiled = System.nanoTime() - start;
+            long matches = (long)iterations * paths.size();
+            System.out.println(
+                count
+                    + " rewrite aliases: "
+                    + (uncompiled / matches)
+                    + " ns/match uncompiled, "
+                    + (compiled / matches)
+                    + " ns/match precompiled");
+        }
+    }
+
+    /**
+     * Creates a rewrite alias for the default site.<p>
+     *
+     * @param pattern the pattern
+     * @param replacement the replacement
+     *
+     * @return the rewrite alias
+     */
+    private CmsRewriteAlias createAlias(String pattern, String replacement) {
+
+        return new CmsRewriteAlias(new CmsUUID(), "/sites/default", pattern, replacement, CmsAliasMode.page);
+    }
+
+    /**
+     * Matches a path the way it was done before patterns were precompiled.<p>
+     *
+     * @param aliases the aliases
+     * @param path the path
+     *
+     * @return true if any alias matched the path
+     */
+    private boolean matchUncompiled(List<CmsRewriteAlias> aliases, String path) {
+
+        for (CmsRewriteAlias alias : aliases) {
+            Matcher matcher = Pattern.compile(alias.getPatternString()).matcher(path);
+            if (matcher.matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
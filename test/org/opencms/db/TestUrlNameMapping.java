@@ -27,6 +27,8 @@
 
 package org.opencms.db;
 
+import org.opencms.db.urlname.CmsUrlNameMappingEntry;
+import org.opencms.db.urlname.CmsUrlNameMappingFilter;
 import org.opencms.file.CmsFile;
 import org.opencms.file.CmsObject;
 import org.opencms.file.CmsProject;
@@ -44,7 +46,11 @@ import org.opencms.xml.content.CmsXmlContent;
 import org.opencms.xml.content.CmsXmlContentFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 import com.google.common.collect.Lists;
 
@@ -312,6 +318,35 @@ public class TestUrlNameMapping extends OpenCmsTestCase {
 
     }
 
+    /**
+     * Tests reading the URL name mappings of several resources with a single filter.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testMultipleIdsFilter() throws Exception {
+
+        CmsObject cms = getCmsObject();
+        String baseName = "testMultipleIdsFilter";
+        CmsResource res1 = createFile();
+        CmsResource res2 = createFile();
+        CmsResource res3 = createFile();
+        String returnedName1 = addMapping(baseName + 1, res1);
+        String returnedName2 = addMapping(baseName + 2, res2);
+        addMapping(baseName + 3, res3);
+        publish();
+        List<CmsUrlNameMappingEntry> entries = cms.readUrlNameMappings(
+            CmsUrlNameMappingFilter.ALL.filterStructureIds(
+                Arrays.asList(res1.getStructureId(), res2.getStructureId())));
+        Set<String> names = new HashSet<String>();
+        for (CmsUrlNameMappingEntry entry : entries) {
+            assertTrue(
+                entry.getStructureId().equals(res1.getStructureId())
+                    || entry.getStructureId().equals(res2.getStructureId()));
+            names.add(entry.getName());
+        }
+        assertEquals(new HashSet<String>(Arrays.asList(returnedName1, returnedName2)), names);
+    }
+
     /**
      * Tests that an URL name that has not been published will be overwritten by a new URL name.<p>
      *
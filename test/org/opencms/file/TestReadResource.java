@@ -33,6 +33,10 @@ import org.opencms.test.OpenCmsTestCase;
 import org.opencms.test.OpenCmsTestProperties;
 import org.opencms.util.CmsUUID;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import junit.extensions.TestSetup;
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -73,6 +77,7 @@ public class TestReadResource extends OpenCmsTestCase {
         suite.addTest(new TestReadResource("testReadAfterExpirationDateIgnore"));
         suite.addTest(new TestReadResource("testReadWithResourceID"));
         suite.addTest(new TestReadResource("testReadWithWrongResourceID"));
+        suite.addTest(new TestReadResource("testReadResourcesByIds"));
         suite.addTest(new TestReadResource("testReadFileWithResourceID"));
 
         TestSetup wrapper = new TestSetup(suite) {
@@ -340,6 +345,43 @@ public class TestReadResource extends OpenCmsTestCase {
         }
     }
 
+    /**
+     * Test reading multiple resources by their structure ids.<p>
+     *
+     * @throws Throwable if something goes wrong
+     */
+    public void testReadResourcesByIds() throws Throwable {
+
+        CmsObject cms = getCmsObject();
+        List<CmsResource> resources = cms.readResources("/", CmsResourceFilter.ALL, true);
+        List<CmsUUID> ids = new ArrayList<CmsUUID>();
+        for (CmsResource resource : resources) {
+            ids.add(resource.getStructureId());
+        }
+        Collections.reverse(ids);
+        // unknown ids and duplicates are ignored
+        ids.add(1, new CmsUUID("a7b5d298-b3ab-11d8-b3e3-514d35713fed"));
+        ids.add(ids.get(0));
+
+        List<CmsResource> result = cms.readResourcesByIds(ids, CmsResourceFilter.ALL);
+        assertEquals(resources.size(), result.size());
+        for (int i = 0; i < result.size(); i++) {
+            CmsResource expected = resources.get(resources.size() - 1 - i);
+            assertEquals(expected.getRootPath(), result.get(i).getRootPath());
+            assertEquals(expected.getState(), result.get(i).getState());
+            assertEquals(expected.getDateLastModified(), result.get(i).getDateLastModified());
+            assertEquals(expected.getSiblingCount(), result.get(i).getSiblingCount());
+        }
+
+        // the filter is applied to the result
+        List<CmsResource> folders = cms.readResourcesByIds(ids, CmsResourceFilter.ALL.addRequireFolder());
+        assertFalse(folders.isEmpty());
+        for (CmsResource folder : folders) {
+            assertTrue(folder.isFolder());
+        }
+        assertTrue(cms.readResourcesByIds(Collections.<CmsUUID> emptyList(), CmsResourceFilter.ALL).isEmpty());
+    }
+
     /**
      * Test readFile with the structure id.<p>
      *
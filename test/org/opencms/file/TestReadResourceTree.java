@@ -27,11 +27,13 @@
 
 package org.opencms.file;
 
+import org.opencms.db.I_CmsResourceIterator;
 import org.opencms.file.types.CmsResourceTypeFolder;
 import org.opencms.test.OpenCmsTestCase;
 import org.opencms.test.OpenCmsTestProperties;
 import org.opencms.test.OpenCmsTestResourceFilter;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import junit.extensions.TestSetup;
@@ -73,6 +75,7 @@ public class TestReadResourceTree extends OpenCmsTestCase {
         suite.addTest(new TestReadResourceTree("testReadResources"));
         suite.addTest(new TestReadResourceTree("testReadModifiedResources"));
         suite.addTest(new TestReadResourceTree("testReadResourcesInTimerange"));
+        suite.addTest(new TestReadResourceTree("testReadResourceIterator"));
 
         TestSetup wrapper = new TestSetup(suite) {
 
@@ -264,6 +267,49 @@ public class TestReadResourceTree extends OpenCmsTestCase {
         assertEquals(m_currentResourceStrorage.size(), i);
     }
 
+    /**
+     * Tests that the resource iterator returns the same resources as the corresponding resource list.<p>
+     *
+     * @throws Throwable if something goes wrong
+     */
+    public void testReadResourceIterator() throws Throwable {
+
+        CmsObject cms = getCmsObject();
+        echo("Testing readResourceIterator");
+
+        cms.getRequestContext().setSiteRoot("/");
+        String path = "/sites/default/";
+
+        CmsResourceFilter[] filters = {
+            CmsResourceFilter.ALL,
+            CmsResourceFilter.DEFAULT.addRequireFile(),
+            CmsResourceFilter.ALL.addRequireFolder()};
+        for (CmsResourceFilter filter : filters) {
+            for (boolean readTree : new boolean[] {true, false}) {
+                List<String> expected = new ArrayList<String>();
+                for (CmsResource resource : cms.readResources(cms.readResource(path), filter, readTree)) {
+                    expected.add(resource.getRootPath());
+                }
+                List<String> actual = new ArrayList<String>();
+                try (I_CmsResourceIterator resources = cms.readResourceIterator(path, filter, readTree)) {
+                    while (resources.hasNext()) {
+                        actual.add(resources.next().getRootPath());
+                    }
+                }
+                assertFalse(expected.isEmpty());
+                assertEquals(expected.size(), actual.size());
+                assertTrue(actual.containsAll(expected));
+            }
+        }
+
+        // closing the iterator before it is exhausted ends the iteration
+        I_CmsResourceIterator resources = cms.readResourceIterator(path, CmsResourceFilter.ALL, true);
+        assertTrue(resources.hasNext());
+        resources.next();
+        resources.close();
+        assertFalse(resources.hasNext());
+    }
+
     /**
      * Test the method that read the direct sub-resources of a folder.<p>
      *
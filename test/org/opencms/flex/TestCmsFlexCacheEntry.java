@@ -29,11 +29,99 @@ package org.opencms.flex;
 
 import org.opencms.test.OpenCmsTestCase;
 
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+
 /**
  * Tests for the CmsFlexCacheEntry.<p>
  */
 public class TestCmsFlexCacheEntry extends OpenCmsTestCase {
 
+    /**
+     * Tests moving the output of a completed entry outside of the Java heap.<p>
+     */
+    public void testMoveToOffHeap() {
+
+        CmsFlexCacheEntry entry = new CmsFlexCacheEntry();
+        entry.add("abc".getBytes());
+        entry.add("/include.jsp", null, null);
+        entry.add("defgh".getBytes());
+
+        // entries that are not completed are left unchanged
+        entry.moveToOffHeap();
+        assertEquals(0, entry.getLruCacheOffHeapCosts());
+
+        entry.complete();
+        int costs = entry.getLruCacheCosts();
+        entry.moveToOffHeap();
+        assertEquals(8, entry.getLruCacheOffHeapCosts());
+        assertTrue(entry.getLruCacheCosts() < costs);
+
+        List<Object> elements = entry.elements();
+        assertEquals(5, elements.size());
+        assertEquals("abc", content(elements.get(0)));
+        assertEquals("/include.jsp", elements.get(1));
+        assertEquals(Collections.emptyMap(), elements.get(2));
+        assertEquals("defgh", content(elements.get(4)));
+        assertTrue(((ByteBuffer)elements.get(0)).isDirect());
+        assertTrue(((ByteBuffer)elements.get(0)).isReadOnly());
+
+        // moving twice does not change the entry
+        entry.moveToOffHeap();
+        assertEquals(8, entry.getLruCacheOffHeapCosts());
+        assertSame(elements, entry.elements());
+    }
+
+    /**
+     * Tests storing a gzip compressed copy of the output of an entry.<p>
+     *
+     * @throws Exception if the test fails
+     */
+    public void testPrecompress() throws Exception {
+
+        StringBuffer content = new StringBuffer();
+        for (int i = 0; i < 200; i++) {
+            content.append("<p>Flex cache output</p>");
+        }
+        byte[] bytes = content.toString().getBytes();
+
+        CmsFlexCacheEntry entry = new CmsFlexCacheEntry();
+        entry.add(bytes);
+        entry.complete();
+        int costs = entry.getLruCacheCosts();
+        entry.precompress();
+        byte[] gzipBytes = entry.getGzipBytes();
+        assertNotNull(gzipBytes);
+        assertTrue(gzipBytes.length < bytes.length);
+        assertEquals(costs + gzipBytes.length, entry.getLruCacheCosts(), 64);
+        byte[] unzipped = IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(gzipBytes)));
+        assertEquals(content.toString(), new String(unzipped));
+
+        // the compressed copy is kept when the output is moved off-heap
+        entry.moveToOffHeap();
+        assertSame(gzipBytes, entry.getGzipBytes());
+        assertEquals(bytes.length, entry.getOutputSize());
+
+        // entries with include calls or small output are not compressed
+        entry = new CmsFlexCacheEntry();
+        entry.add(bytes);
+        entry.add("/include.jsp", null, null);
+        entry.complete();
+        entry.precompress();
+        assertNull(entry.getGzipBytes());
+
+        entry = new CmsFlexCacheEntry();
+        entry.add("small".getBytes());
+        entry.complete();
+        entry.precompress();
+        assertNull(entry.getGzipBytes());
+    }
+
     /**
      * Tests the method getAbsoluteUri.<p>
      */
@@ -53,4 +141,18 @@ public class TestCmsFlexCacheEntry extends OpenCmsTestCase {
 
     }
 
+    /**
+     * Returns the content of an off-heap output element as a String.<p>
+     *
+     * @param element the output element
+     *
+     * @return the content
+     */
+    private String content(Object element) {
+
+        ByteBuffer buffer = ((ByteBuffer)element).duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes);
+    }
 }
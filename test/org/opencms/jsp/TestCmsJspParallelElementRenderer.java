@@ -0,0 +1,343 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+
+package org.opencms.jsp;
+
+import org.opencms.main.CmsRuntimeException;
+import org.opencms.test.OpenCmsTestServletRequest;
+import org.opencms.test.OpenCmsTestServletResponse;
+import org.opencms.util.CmsUUID;
+import org.opencms.xml.containerpage.CmsContainerElementBean;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the {@link CmsJspParallelElementRenderer}.<p>
+ */
+public class TestCmsJspParallelElementRenderer extends TestCase {
+
+    /** The executor used for the rendering tasks. */
+    private ExecutorService m_executor;
+
+    /**
+     * Default JUnit constructor.<p>
+     *
+     * @param arg0 JUnit parameters
+     */
+    public TestCmsJspParallelElementRenderer(String arg0) {
+
+        super(arg0);
+    }
+
+    /**
+     * Tests that a failing element is reported with its result, and that the other elements are still waited for.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testElementFailure() throws Exception {
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+        RuntimeException error = new IllegalStateException("rendering failed");
+        CmsJspParallelElementRenderer.Batch batch = new CmsJspParallelElementRenderer.Batch(m_executor, 10000);
+        CmsContainerElementBean failing = createElement();
+        batch.submit(failing, () -> {
+            throw error;
+        });
+        for (int i = 0; i < 3; i++) {
+            batch.submit(createElement(), () -> render("ok", 100, running, finished));
+        }
+        CmsJspParallelElementRenderer.Result result = batch.take(failing);
+        assertSame(error, result.getError());
+        batch.finish();
+        assertEquals(0, running.get());
+        assertEquals(3, finished.get());
+    }
+
+    /**
+     * Tests that finishing a batch waits for all results which have not been taken, e.g. because the container is full.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testFinishWaitsForUnusedResults() throws Exception {
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+        CmsJspParallelElementRenderer.Batch batch = new CmsJspParallelElementRenderer.Batch(m_executor, 10000);
+        List<CmsContainerElementBean> elements = new ArrayList<CmsContainerElementBean>();
+        for (int i = 0; i < 6; i++) {
+            CmsContainerElementBean element = createElement();
+            elements.add(element);
+            batch.submit(element, () -> render("element", 100, running, finished));
+        }
+        // the container is full after the first element
+        assertEquals("element", batch.take(elements.get(0)).getOutput());
+        batch.finish();
+        assertEquals(0, running.get());
+        assertEquals(6, finished.get());
+        assertNull(batch.take(elements.get(1)));
+    }
+
+    /**
+     * Tests that the request attributes of rendering tasks are isolated from each other and from the page request.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testIsolatedRequestAttributes() throws Exception {
+
+        OpenCmsTestServletRequest page = new OpenCmsTestServletRequest();
+        page.setAttribute("shared", "page");
+        page.setAttribute("removed", "page");
+        Map<String, String[]> params = Collections.singletonMap("param", new String[] {"value"});
+        CmsJspParallelElementRenderer.IsolatedRequest first = new CmsJspParallelElementRenderer.IsolatedRequest(
+            page,
+            null,
+            new HashMap<String, Object>(),
+            params);
+        CmsJspParallelElementRenderer.IsolatedRequest second = new CmsJspParallelElementRenderer.IsolatedRequest(
+            page,
+            null,
+            new HashMap<String, Object>(),
+            params);
+
+        first.setAttribute("shared", "first");
+        first.setAttribute("local", "first");
+        first.removeAttribute("removed");
+        second.setAttribute("shared", "second");
+
+        assertEquals("first", first.getAttribute("shared"));
+        assertEquals("first", first.getAttribute("local"));
+        assertNull(first.getAttribute("removed"));
+        assertEquals("second", second.getAttribute("shared"));
+        assertNull(second.getAttribute("local"));
+        assertEquals("page", second.getAttribute("removed"));
+        assertEquals("page", page.getAttribute("shared"));
+        assertEquals("page", page.getAttribute("removed"));
+        assertNull(page.getAttribute("local"));
+        assertEquals("value", first.getParameter("param"));
+
+        // the attribute of the page request is visible again once it is set in the task
+        first.setAttribute("removed", "first");
+        assertEquals("first", first.getAttribute("removed"));
+    }
+
+    /**
+     * Tests that rendering tasks do not read the state of the page request changed after the task was created.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testIsolatedRequestSnapshot() throws Exception {
+
+        OpenCmsTestServletRequest page = new OpenCmsTestServletRequest();
+        page.setAttribute("shared", "page");
+        CmsJspParallelElementRenderer.IsolatedRequest task = new CmsJspParallelElementRenderer.IsolatedRequest(
+            page,
+            null,
+            Collections.<String, Object> singletonMap("local", "task"),
+            Collections.<String, String[]> emptyMap());
+
+        page.setAttribute("shared", "changed");
+        page.setAttribute("late", "page");
+        page.setAttribute("javax.servlet.include.servlet_path", "/formatter.jsp");
+
+        assertEquals("page", task.getAttribute("shared"));
+        assertEquals("task", task.getAttribute("local"));
+        assertNull(task.getAttribute("late"));
+        // the include attributes of the servlet container are still read from the wrapped request
+        assertEquals("/formatter.jsp", task.getAttribute("javax.servlet.include.servlet_path"));
+        assertNull(task.getSession(true));
+
+        // the test request throws an exception if the encoding is passed on
+        task.setCharacterEncoding("UTF-8");
+        assertEquals("UTF-8", task.getCharacterEncoding());
+    }
+
+    /**
+     * Tests that rendering tasks can not change the response of the servlet container.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testIsolatedResponse() throws Exception {
+
+        // the test response throws an exception on every call passed on
+        CmsJspParallelElementRenderer.IsolatedResponse task = new CmsJspParallelElementRenderer.IsolatedResponse(
+            new OpenCmsTestServletResponse());
+        task.setHeader("Cache-Control", "no-cache");
+        task.addHeader("Vary", "Cookie");
+        task.setDateHeader("Expires", 0);
+        task.setContentType("text/plain");
+        task.setStatus(404);
+        task.flushBuffer();
+        task.reset();
+        try {
+            task.sendRedirect("/other.html");
+            fail("redirect from rendering task should fail");
+        } catch (IOException e) {
+            // expected
+        }
+        try {
+            task.getOutputStream();
+            fail("output stream of rendering task should not be available");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests that the results are returned in document order, independent of the order in which the elements finish.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testResultOrder() throws Exception {
+
+        List<String> finishOrder = Collections.synchronizedList(new ArrayList<String>());
+        CmsJspParallelElementRenderer.Batch batch = new CmsJspParallelElementRenderer.Batch(m_executor, 10000);
+        List<CmsContainerElementBean> elements = new ArrayList<CmsContainerElementBean>();
+        for (int i = 0; i < 4; i++) {
+            CmsContainerElementBean element = createElement();
+            elements.add(element);
+            String output = String.valueOf(i);
+            // later elements finish first
+            long delay = (4 - i) * 100;
+            batch.submit(element, () -> {
+                Thread.sleep(delay);
+                finishOrder.add(output);
+                return new CmsJspParallelElementRenderer.Result("formatter", output);
+            });
+        }
+        StringBuffer page = new StringBuffer();
+        for (CmsContainerElementBean element : elements) {
+            page.append(batch.take(element).getOutput());
+        }
+        batch.finish();
+        assertEquals("0123", page.toString());
+        assertTrue(finishOrder.indexOf("3") < finishOrder.indexOf("0"));
+    }
+
+    /**
+     * Tests that waiting for a result fails hard after the timeout, and that the pending tasks are interrupted.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testTimeout() throws Exception {
+
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CmsJspParallelElementRenderer.Batch batch = new CmsJspParallelElementRenderer.Batch(m_executor, 200);
+        CmsContainerElementBean element = createElement();
+        batch.submit(element, () -> {
+            try {
+                Thread.sleep(60000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return new CmsJspParallelElementRenderer.Result("formatter", "late");
+        });
+        try {
+            batch.finish();
+            fail("Waiting for the element did not time out");
+        } catch (CmsRuntimeException e) {
+            // expected
+        }
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        try {
+            batch.take(element);
+            fail("The batch can still be used after the timeout");
+        } catch (CmsRuntimeException e) {
+            // expected
+        }
+    }
+
+    /**
+     * @see junit.framework.TestCase#setUp()
+     */
+    @Override
+    protected void setUp() {
+
+        m_executor = Executors.newFixedThreadPool(4);
+    }
+
+    /**
+     * @see junit.framework.TestCase#tearDown()
+     */
+    @Override
+    protected void tearDown() {
+
+        m_executor.shutdownNow();
+    }
+
+    /**
+     * Creates a container element.<p>
+     *
+     * @return the container element
+     */
+    private CmsContainerElementBean createElement() {
+
+        return new CmsContainerElementBean(new CmsUUID(), null, null, false);
+    }
+
+    /**
+     * Simulates rendering an element.<p>
+     *
+     * @param output the output
+     * @param delay the rendering time in milliseconds
+     * @param running the counter of running tasks
+     * @param finished the counter of finished tasks
+     *
+     * @return the rendering result
+     *
+     * @throws InterruptedException if the task is interrupted
+     */
+    private CmsJspParallelElementRenderer.Result render(
+        String output,
+        long delay,
+        AtomicInteger running,
+        AtomicInteger finished)
+    throws InterruptedException {
+
+        running.incrementAndGet();
+        try {
+            Thread.sleep(delay);
+        } finally {
+            running.decrementAndGet();
+        }
+        finished.incrementAndGet();
+        return new CmsJspParallelElementRenderer.Result("formatter", output);
+    }
+}
@@ -28,9 +28,13 @@
 package org.opencms.jsp.util;
 
 import org.opencms.file.CmsObject;
+import org.opencms.file.CmsProject;
 import org.opencms.file.CmsProperty;
+import org.opencms.file.CmsPropertyDefinition;
 import org.opencms.file.CmsResource;
+import org.opencms.file.types.CmsResourceTypeFolder;
 import org.opencms.file.types.CmsResourceTypePlain;
+import org.opencms.jsp.CmsJspNavBuilder;
 import org.opencms.jsp.CmsJspNavElement;
 import org.opencms.jsp.CmsJspTagNavigation.Type;
 import org.opencms.main.CmsException;
@@ -73,6 +77,7 @@ public class TestCmsJspNavigationBean extends OpenCmsTestCase {
         suite.setName(TestCmsJspNavigationBean.class.getName());
 
         suite.addTest(new TestCmsJspNavigationBean("testLocaleSpecificNavigation"));
+        suite.addTest(new TestCmsJspNavigationBean("testOnlineNavigationIndex"));
 
         TestSetup wrapper = new TestSetup(suite) {
 
@@ -146,4 +151,50 @@ public class TestCmsJspNavigationBean extends OpenCmsTestCase {
             }
         }
     }
+
+    /**
+     * Tests that the online navigation reflects published changes.<p>
+     *
+     * @throws Exception if the test fails
+     */
+    public void testOnlineNavigationIndex() throws Exception {
+
+        CmsObject cms = getCmsObject();
+        String folder = "/test_navigation_index/";
+        cms.createResource(
+            folder,
+            OpenCms.getResourceManager().getResourceType(CmsResourceTypeFolder.getStaticTypeName()));
+        for (int i = 1; i <= 2; i++) {
+            String path = folder + "page" + i + ".txt";
+            cms.createResource(
+                path,
+                OpenCms.getResourceManager().getResourceType(CmsResourceTypePlain.getStaticTypeName()));
+            cms.writePropertyObject(path, new CmsProperty(CmsPropertyDefinition.PROPERTY_NAVTEXT, "Page " + i, null));
+            cms.writePropertyObject(path, new CmsProperty(CmsPropertyDefinition.PROPERTY_NAVPOS, "" + i, null));
+        }
+        cms.unlockResource(folder);
+        OpenCms.getPublishManager().publishResource(cms, folder);
+        OpenCms.getPublishManager().waitWhileRunning();
+
+        CmsObject onlineCms = OpenCms.initCmsObject(cms);
+        onlineCms.getRequestContext().setCurrentProject(onlineCms.readProject(CmsProject.ONLINE_PROJECT_ID));
+        List<CmsJspNavElement> navigation = new CmsJspNavBuilder(onlineCms).getNavigationForFolder(folder);
+        assertEquals(2, navigation.size());
+        assertEquals("Page 1", navigation.get(0).getNavText());
+        assertEquals("Page 2", navigation.get(1).getNavText());
+
+        // change the navigation text and remove a page, the online navigation must follow after publishing
+        String page1 = folder + "page1.txt";
+        cms.lockResource(folder);
+        cms.writePropertyObject(page1, new CmsProperty(CmsPropertyDefinition.PROPERTY_NAVTEXT, "Changed", null));
+        cms.deleteResource(folder + "page2.txt", CmsResource.DELETE_PRESERVE_SIBLINGS);
+        cms.unlockResource(folder);
+        OpenCms.getPublishManager().publishResource(cms, folder);
+        OpenCms.getPublishManager().waitWhileRunning();
+
+        navigation = new CmsJspNavBuilder(onlineCms).getNavigationForFolder(folder);
+        assertEquals(1, navigation.size());
+        assertEquals("Changed", navigation.get(0).getNavText());
+        assertEquals("Changed", new CmsJspNavBuilder(onlineCms).getNavigationForResource(page1).getNavText());
+    }
 }
@@ -0,0 +1,216 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.loader;
+
+import org.opencms.cache.CmsVfsNameBasedDiskCache;
+import org.opencms.file.CmsResource;
+import org.opencms.file.types.CmsResourceTypeImage;
+import org.opencms.util.CmsFileUtil;
+import org.opencms.util.CmsUUID;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the disk cache handling, "ETag" support and variant presets of the image loader.<p>
+ */
+public class TestCmsImageLoader extends TestCase {
+
+    /**
+     * Tests that the "ETag" only depends on the image variant and not on the cache repository location.<p>
+     *
+     * @throws Exception in case the test fails
+     */
+    public void testETag() throws Exception {
+
+        File base = Files.createTempDirectory("imagecache").toFile();
+        CmsVfsNameBasedDiskCache oldCache = CmsImageLoader.m_vfsDiskCache;
+        try {
+            CmsResource resource = createImageResource(1000);
+            CmsImageScaler scaler = new CmsImageScaler("w:200,h:100,t:1");
+            CmsImageLoader loader = new CmsImageLoader();
+
+            CmsImageLoader.m_vfsDiskCache = new CmsVfsNameBasedDiskCache(base.getAbsolutePath(), "/cache1/");
+            String cacheName = loader.getScaledImageCacheName(resource, scaler);
+            String etag = loader.getETag(cacheName);
+            assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+
+            CmsImageLoader.m_vfsDiskCache = new CmsVfsNameBasedDiskCache(base.getAbsolutePath(), "/cache2/");
+            assertEquals(etag, loader.getETag(loader.getScaledImageCacheName(resource, scaler)));
+
+            // other scaling parameters or a modified resource result in a different "ETag"
+            assertFalse(
+                etag.equals(
+                    loader.getETag(
+                        loader.getScaledImageCacheName(resource, new CmsImageScaler("w:100,h:50,t:1")))));
+            assertFalse(etag.equals(loader.getETag(loader.getScaledImageCacheName(createImageResource(2000), scaler))));
+
+            // the cache file is found after it has been saved
+            cacheName = loader.getScaledImageCacheName(resource, scaler);
+            assertNull(CmsImageLoader.m_vfsDiskCache.getCacheFile(cacheName));
+            byte[] content = new byte[] {1, 2, 3, 4};
+            CmsImageLoader.m_vfsDiskCache.saveCacheFile(cacheName, content);
+            File cacheFile = CmsImageLoader.m_vfsDiskCache.getCacheFile(cacheName);
+            assertNotNull(cacheFile);
+            assertEquals(4, cacheFile.length());
+            // no temporary files are left over
+            assertEquals(1, cacheFile.getParentFile().list().length);
+        } finally {
+            CmsImageLoader.m_vfsDiskCache = oldCache;
+            CmsFileUtil.purgeDirectory(base);
+        }
+    }
+
+    /**
+     * Tests matching of the "If-None-Match" header.<p>
+     */
+    public void testETagMatch() {
+
+        String etag = "\"abc\"";
+        assertFalse(CmsImageLoader.isETagMatch(null, etag));
+        assertFalse(CmsImageLoader.isETagMatch("\"abd\"", etag));
+        assertTrue(CmsImageLoader.isETagMatch("\"abc\"", etag));
+        assertTrue(CmsImageLoader.isETagMatch("W/\"abc\"", etag));
+        assertTrue(CmsImageLoader.isETagMatch("\"xyz\", \"abc\"", etag));
+        assertTrue(CmsImageLoader.isETagMatch("*", etag));
+    }
+
+    /**
+     * Tests that obsolete variants of an image are removed from the disk cache.<p>
+     *
+     * @throws Exception in case the test fails
+     */
+    public void testRemoveObsoleteVariants() throws Exception {
+
+        File base = Files.createTempDirectory("imagecache").toFile();
+        try {
+            CmsVfsNameBasedDiskCache cache = new CmsVfsNameBasedDiskCache(base.getAbsolutePath(), "/cache/");
+            CmsResource oldImage = createImageResource(1000);
+            CmsResource newImage = createImageResource(2000);
+            byte[] content = new byte[] {1};
+            String[] oldNames = {
+                cache.getCacheName(oldImage, null),
+                cache.getCacheName(oldImage, "w:200,h:100,t:1"),
+                cache.getCacheName(oldImage, "w:100,h:50,t:1")};
+            String[] newNames = {cache.getCacheName(newImage, null), cache.getCacheName(newImage, "w:200,h:100,t:1")};
+            for (String name : oldNames) {
+                cache.saveCacheFile(name, content);
+            }
+            for (String name : newNames) {
+                cache.saveCacheFile(name, content);
+            }
+            // variants of another image with a similar name must not be touched
+            String otherName = cache.getCacheName(createImageResource("/sites/default/image_1.jpg", 1000), null);
+            cache.saveCacheFile(otherName, content);
+
+            assertEquals(3, cache.removeObsoleteCacheFiles(oldImage.getRootPath(), newImage));
+            for (String name : oldNames) {
+                assertFalse(new File(name).exists());
+            }
+            for (String name : newNames) {
+                assertTrue(new File(name).exists());
+            }
+            assertTrue(new File(otherName).exists());
+
+            // remove all variants of a deleted image
+            assertEquals(2, cache.removeObsoleteCacheFiles(newImage.getRootPath(), null));
+            assertTrue(new File(otherName).exists());
+        } finally {
+            CmsFileUtil.purgeDirectory(base);
+        }
+    }
+
+    /**
+     * Tests the matching of the image variant presets.<p>
+     *
+     * @throws Exception in case the test fails
+     */
+    public void testVariantPresets() throws Exception {
+
+        CmsImageVariantGenerator generator = new CmsImageVariantGenerator(
+            new CmsImageLoader(),
+            null,
+            " /sites/default/=w:200,h:150,t:2;\n /sites/default/gallery/=w:800,h:600,t:1; /sites/other/=w:200,h:150,t:2 ",
+            1);
+        try {
+            assertEquals(
+                Arrays.asList("w:200,h:150,t:2", "w:800,h:600,t:1"),
+                generator.getPresets("/sites/default/gallery/image.jpg"));
+            assertEquals(Arrays.asList("w:200,h:150,t:2"), generator.getPresets("/sites/default/image.jpg"));
+            assertTrue(generator.getPresets("/shared/image.jpg").isEmpty());
+        } finally {
+            generator.shutdown();
+        }
+    }
+
+    /**
+     * Creates an image resource for testing.<p>
+     *
+     * @param dateLastModified the date of last modification
+     *
+     * @return the image resource
+     */
+    private CmsResource createImageResource(long dateLastModified) {
+
+        return createImageResource("/sites/default/image.jpg", dateLastModified);
+    }
+
+    /**
+     * Creates an image resource for testing.<p>
+     *
+     * @param rootPath the root path of the image
+     * @param dateLastModified the date of last modification
+     *
+     * @return the image resource
+     */
+    private CmsResource createImageResource(String rootPath, long dateLastModified) {
+
+        return new CmsResource(
+            new CmsUUID(),
+            new CmsUUID(),
+            rootPath,
+            CmsResourceTypeImage.getStaticTypeId(),
+            false,
+            0,
+            CmsUUID.getNullUUID(),
+            CmsResource.STATE_UNCHANGED,
+            1000,
+            CmsUUID.getNullUUID(),
+            dateLastModified,
+            CmsUUID.getNullUUID(),
+            0,
+            Long.MAX_VALUE,
+            1,
+            100,
+            dateLastModified,
+            0);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests the dependency ordered execution of the {@link CmsBootSequence}.<p>
+ */
+public class TestCmsBootSequence extends TestCase {
+
+    /**
+     * Default JUnit constructor.<p>
+     *
+     * @param arg0 JUnit parameters
+     */
+    public TestCmsBootSequence(String arg0) {
+
+        super(arg0);
+    }
+
+    /**
+     * Tests that a failing phase stops the sequence and that its error is thrown.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testFailure() throws Exception {
+
+        List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        RuntimeException error = new IllegalStateException("phase failed");
+        CmsBootSequence boot = new CmsBootSequence("test-boot", 2);
+        boot.addPhase("a", () -> executed.add("a"));
+        boot.addPhase("b", () -> {
+            throw error;
+        }, "a");
+        boot.addPhase("c", () -> executed.add("c"), "b");
+        try {
+            boot.run();
+            fail("The error of the failed phase was not thrown");
+        } catch (IllegalStateException e) {
+            assertSame(error, e);
+        }
+        assertEquals(Arrays.asList("a"), executed);
+        assertEquals(1, boot.getFinishedPhases().size());
+    }
+
+    /**
+     * Tests that independent phases run in parallel, and dependent phases only after their dependencies.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testParallel() throws Exception {
+
+        List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch latch = new CountDownLatch(2);
+        CmsBootSequence boot = new CmsBootSequence("test-boot", 4);
+        boot.addPhase("a", () -> executed.add("a"));
+        boot.addPhase("b", () -> {
+            // only passes if "c" is running at the same time
+            latch.countDown();
+            awaitLatch(latch);
+            executed.add("b");
+        }, "a");
+        boot.addPhase("c", () -> {
+            latch.countDown();
+            awaitLatch(latch);
+            executed.add("c");
+        }, "a");
+        boot.addPhase("d", () -> executed.add("d"), "b", "c");
+        boot.run();
+        assertEquals(4, executed.size());
+        assertEquals("a", executed.get(0));
+        assertEquals("d", executed.get(3));
+        assertEquals(4, boot.getFinishedPhases().size());
+        for (CmsBootSequence.Phase phase : boot.getFinishedPhases()) {
+            assertTrue(phase.getThreadName().startsWith("test-boot-"));
+        }
+    }
+
+    /**
+     * Tests that a sequence with a single thread runs the phases in the order they have been added.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testSequential() throws Exception {
+
+        List<String> executed = new ArrayList<String>();
+        CmsBootSequence boot = new CmsBootSequence("test-boot", 1);
+        boot.addPhase("a", () -> executed.add("a"));
+        boot.addPhase("b", () -> executed.add("b"));
+        boot.addPhase("c", () -> executed.add("c"), "a");
+        boot.addPhase("d", () -> executed.add("d"), "b", "c");
+        boot.run();
+        assertEquals(Arrays.asList("a", "b", "c", "d"), executed);
+        for (CmsBootSequence.Phase phase : boot.getFinishedPhases()) {
+            assertEquals(Thread.currentThread().getName(), phase.getThreadName());
+        }
+    }
+
+    /**
+     * Tests that dependencies on phases which have not been added are rejected.<p>
+     */
+    public void testUnknownDependency() {
+
+        CmsBootSequence boot = new CmsBootSequence("test-boot", 2);
+        boot.addPhase("a", () -> {
+            // nothing to do
+        });
+        try {
+            boot.addPhase("b", () -> {
+                // nothing to do
+            }, "c");
+            fail("Unknown dependency was accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Waits for the latch, failing if it does not reach zero in time.<p>
+     *
+     * @param latch the latch
+     */
+    void awaitLatch(CountDownLatch latch) {
+
+        try {
+            assertTrue("Phases did not run in parallel", latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            fail(e.toString());
+        }
+    }
+}
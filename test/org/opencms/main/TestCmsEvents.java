@@ -32,6 +32,10 @@ import org.opencms.file.CmsProject;
 import org.opencms.test.OpenCmsTestCase;
 import org.opencms.test.OpenCmsTestProperties;
 
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import junit.extensions.TestSetup;
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -41,6 +45,37 @@ import junit.framework.TestSuite;
  */
 public class TestCmsEvents extends OpenCmsTestCase {
 
+    /**
+     * Asynchronous event listener that blocks until it is released.<p>
+     */
+    static class CmsTestAsyncEventListener extends CmsTestEventListener implements I_CmsAsyncEventListener {
+
+        /** Released when the listener may handle its events. */
+        CountDownLatch m_release = new CountDownLatch(1);
+
+        /** Released when the listener has started to handle the first event. */
+        CountDownLatch m_started = new CountDownLatch(1);
+
+        /** The thread handling the events. */
+        volatile Thread m_thread;
+
+        /**
+         * @see org.opencms.main.CmsTestEventListener#cmsEvent(org.opencms.main.CmsEvent)
+         */
+        @Override
+        public void cmsEvent(CmsEvent event) {
+
+            m_thread = Thread.currentThread();
+            m_started.countDown();
+            try {
+                m_release.await();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+            super.cmsEvent(event);
+        }
+    }
+
     /**
      * Default JUnit constructor.<p>
      *
@@ -64,6 +99,8 @@ public class TestCmsEvents extends OpenCmsTestCase {
         suite.setName(TestCmsEvents.class.getName());
 
         suite.addTest(new TestCmsEvents("testBeforeAfterPublishEvent"));
+        suite.addTest(new TestCmsEvents("testAsyncEventListener"));
+        suite.addTest(new TestCmsEvents("testAsyncEventListenerFiringEvents"));
 
         TestSetup wrapper = new TestSetup(suite) {
 
@@ -83,6 +120,123 @@ public class TestCmsEvents extends OpenCmsTestCase {
         return wrapper;
     }
 
+    /**
+     * Tests that asynchronous listeners receive their events on a separate thread and that queued duplicate events are coalesced.<p>
+     *
+     * @throws Throwable if the test fails
+     */
+    public void testAsyncEventListener() throws Throwable {
+
+        echo("Testing asynchronous event listeners");
+
+        int eventType = 9999;
+        CmsTestAsyncEventListener asyncHandler = new CmsTestAsyncEventListener();
+        CmsTestEventListener syncHandler = new CmsTestEventListener();
+        OpenCms.addCmsEventListener(asyncHandler, new int[] {eventType});
+        OpenCms.addCmsEventListener(syncHandler, new int[] {eventType});
+        CmsEventDispatcher dispatcher = null;
+        for (CmsEventDispatcher d : OpenCms.getEventManager().getEventDispatchers()) {
+            if (d.getListener() == asyncHandler) {
+                dispatcher = d;
+            }
+        }
+        assertNotNull(dispatcher);
+
+        try {
+            OpenCms.fireCmsEvent(eventType, Collections.<String, Object> singletonMap("key", "1"));
+            assertTrue(asyncHandler.m_started.await(10, TimeUnit.SECONDS));
+            // the first event is being handled, so the second one is queued and the third one is coalesced
+            OpenCms.fireCmsEvent(eventType, Collections.<String, Object> singletonMap("key", "1"));
+            OpenCms.fireCmsEvent(eventType, Collections.<String, Object> singletonMap("key", "1"));
+            // events with different data are not coalesced
+            OpenCms.fireCmsEvent(eventType, Collections.<String, Object> singletonMap("key", "2"));
+
+            // the synchronous listener got all events immediately
+            assertEquals(4, syncHandler.getEvents().size());
+            assertEquals(2, dispatcher.getQueueSize());
+            assertEquals(1, dispatcher.getCoalescedCount());
+            assertNotSame(Thread.currentThread(), asyncHandler.m_thread);
+
+            asyncHandler.m_release.countDown();
+            long timeout = System.currentTimeMillis() + 10000;
+            while ((dispatcher.getDispatchedCount() < 3) && (System.currentTimeMillis() < timeout)) {
+                Thread.sleep(10);
+            }
+            assertEquals(3, dispatcher.getDispatchedCount());
+            assertEquals(3, asyncHandler.getEvents().size());
+            assertEquals(0, dispatcher.getQueueSize());
+            echo("Dispatcher statistics: " + dispatcher);
+        } finally {
+            asyncHandler.m_release.countDown();
+            OpenCms.removeCmsEventListener(asyncHandler);
+            OpenCms.removeCmsEventListener(syncHandler);
+        }
+        assertFalse(OpenCms.getEventManager().getEventDispatchers().contains(dispatcher));
+    }
+
+    /**
+     * Tests that an asynchronous listener can fire events to itself while another thread waits for space in the full queue.<p>
+     *
+     * @throws Throwable if the test fails
+     */
+    public void testAsyncEventListenerFiringEvents() throws Throwable {
+
+        echo("Testing asynchronous event listeners firing events to themselves");
+
+        int eventType = 9999;
+        int nestedEventType = 9998;
+        CmsEventDispatcher[] dispatcherRef = new CmsEventDispatcher[1];
+        CmsTestAsyncEventListener listener = new CmsTestAsyncEventListener() {
+
+            @Override
+            public synchronized void cmsEvent(CmsEvent event) {
+
+                super.cmsEvent(event);
+                if (getEvents().size() == 1) {
+                    // the queue is full and the producer below waits for free space
+                    dispatcherRef[0].dispatch(new CmsEvent(nestedEventType, Collections.<String, Object> emptyMap()));
+                }
+            }
+
+            @Override
+            public int getEventQueueCapacity() {
+
+                return 1;
+            }
+
+            @Override
+            public boolean isCoalescable(CmsEvent event) {
+
+                return false;
+            }
+        };
+        CmsEventDispatcher dispatcher = new CmsEventDispatcher(listener);
+        dispatcherRef[0] = dispatcher;
+        try {
+            dispatcher.dispatch(new CmsEvent(eventType, Collections.<String, Object> emptyMap()));
+            assertTrue(listener.m_started.await(10, TimeUnit.SECONDS));
+            dispatcher.dispatch(new CmsEvent(eventType, Collections.<String, Object> emptyMap()));
+            Thread producer = new Thread(
+                () -> dispatcher.dispatch(new CmsEvent(eventType, Collections.<String, Object> emptyMap())));
+            producer.start();
+            long timeout = System.currentTimeMillis() + 10000;
+            while ((producer.getState() != Thread.State.WAITING) && (System.currentTimeMillis() < timeout)) {
+                Thread.sleep(10);
+            }
+            listener.m_release.countDown();
+            producer.join(10000);
+            assertFalse("Producer is still waiting for the dispatcher", producer.isAlive());
+            while ((dispatcher.getDispatchedCount() < 4) && (System.currentTimeMillis() < timeout)) {
+                Thread.sleep(10);
+            }
+            assertEquals(4, dispatcher.getDispatchedCount());
+            assertTrue(listener.hasRecievedEvent(nestedEventType));
+        } finally {
+            listener.m_release.countDown();
+            dispatcher.shutDown();
+        }
+    }
+
     /**
      * Test the before and after publish event.<p>
      *
@@ -0,0 +1,257 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.monitor;
+
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the cache dependency index.<p>
+ */
+public class TestCmsCacheDependencyIndex extends TestCase {
+
+    /**
+     * Simple resource for the workload simulation.<p>
+     */
+    static class CmsTestResource {
+
+        /** The resource ID. */
+        CmsUUID m_id = new CmsUUID();
+
+        /** True if this is a folder. */
+        boolean m_isFolder;
+
+        /** The root path. */
+        String m_rootPath;
+
+        /**
+         * Creates a new test resource.<p>
+         *
+         * @param rootPath the root path
+         * @param isFolder true if this is a folder
+         */
+        CmsTestResource(String rootPath, boolean isFolder) {
+
+            m_rootPath = rootPath;
+            m_isFolder = isFolder;
+        }
+    }
+
+    /**
+     * Tests removing entries by ID tag.<p>
+     */
+    public void testFlushByTag() {
+
+        Map<String, String> cache = CmsMemoryMonitor.createLRUCacheMap(100);
+        CmsCacheDependencyIndex index = new CmsCacheDependencyIndex(cache, 400);
+        CmsUUID user1 = new CmsUUID();
+        CmsUUID user2 = new CmsUUID();
+        put(cache, index, "a", CmsCacheDependencyIndex.getIdTag(user1));
+        put(cache, index, "b", CmsCacheDependencyIndex.getIdTag(user1));
+        put(cache, index, "c", CmsCacheDependencyIndex.getIdTag(user2));
+
+        assertEquals(2, index.flush(CmsCacheDependencyIndex.getIdTag(user1)));
+        assertFalse(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+        assertTrue(cache.containsKey("c"));
+        assertTrue(index.getKeys(CmsCacheDependencyIndex.getIdTag(user1)).isEmpty());
+        assertEquals(0, index.flush(CmsCacheDependencyIndex.getIdTag(user1)));
+        assertTrue(index.isComplete());
+    }
+
+    /**
+     * Tests removing entries by root path.<p>
+     */
+    public void testFlushSubtree() {
+
+        Map<String, String> cache = CmsMemoryMonitor.createLRUCacheMap(100);
+        CmsCacheDependencyIndex index = new CmsCacheDependencyIndex(cache, 400);
+        put(cache, index, "folder", CmsCacheDependencyIndex.getPathTag("/sites/default/folder/"));
+        put(cache, index, "file", CmsCacheDependencyIndex.getPathTag("/sites/default/folder/file.html"));
+        put(cache, index, "sub", CmsCacheDependencyIndex.getPathTag("/sites/default/folder/sub/index.html"));
+        put(cache, index, "other", CmsCacheDependencyIndex.getPathTag("/sites/default/folder2/index.html"));
+        put(cache, index, "parent", CmsCacheDependencyIndex.getPathTag("/sites/default/"));
+
+        // a file path only matches the file itself
+        assertEquals(1, index.flushSubtree("/sites/default/folder/file.html"));
+        assertFalse(cache.containsKey("file"));
+        assertEquals(4, cache.size());
+
+        // a folder path matches the folder and everything below, but not siblings with the same prefix
+        assertEquals(2, index.flushSubtree("/sites/default/folder/"));
+        assertFalse(cache.containsKey("folder"));
+        assertFalse(cache.containsKey("sub"));
+        assertTrue(cache.containsKey("other"));
+        assertTrue(cache.containsKey("parent"));
+    }
+
+    /**
+     * Tests a mixed read/write workload, comparing the cache hit rate of full and targeted flushes.<p>
+     */
+    public void testHitRateMixedWorkload() {
+
+        List<CmsTestResource> resources = new ArrayList<CmsTestResource>();
+        for (int i = 0; i < 50; i++) {
+            String folder = "/sites/default/folder" + i + "/";
+            resources.add(new CmsTestResource(folder, true));
+            for (int j = 0; j < 40; j++) {
+                resources.add(new CmsTestResource(folder + "file" + j + ".html", false));
+            }
+        }
+        for (int writePercent : new int[] {1, 5, 20}) {
+            double full = runWorkload(resources, writePercent, false);
+            double targeted = runWorkload(resources, writePercent, true);
+            System.out.println(
+                "Hit rate with "
+                    + writePercent
+                    + "% writes: full flush "
+                    + Math.round(full * 100)
+                    + "%, targeted flush "
+                    + Math.round(targeted * 100)
+                    + "%");
+            assertTrue(targeted > full);
+        }
+    }
+
+    /**
+     * Tests that the index is pruned of keys evicted from the cache.<p>
+     */
+    public void testPrune() {
+
+        Map<String, String> cache = CmsMemoryMonitor.createLRUCacheMap(10);
+        CmsCacheDependencyIndex index = new CmsCacheDependencyIndex(cache, 40);
+        List<String> tags = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            String tag = CmsCacheDependencyIndex.getIdTag(new CmsUUID());
+            tags.add(tag);
+            put(cache, index, "key" + i, tag);
+        }
+        assertTrue(index.getSize() <= 41);
+        index.prune();
+        assertTrue(index.getSize() <= cache.size());
+        int indexed = 0;
+        for (String tag : tags) {
+            for (String key : index.getKeys(tag)) {
+                assertTrue(cache.containsKey(key));
+                indexed++;
+            }
+        }
+        assertEquals(index.getSize(), indexed);
+    }
+
+    /**
+     * Tests that the index is no longer complete after an untagged entry has been added.<p>
+     */
+    public void testUntaggedEntries() {
+
+        Map<String, String> cache = CmsMemoryMonitor.createLRUCacheMap(100);
+        CmsCacheDependencyIndex index = new CmsCacheDependencyIndex(cache, 400);
+        put(cache, index, "a", CmsCacheDependencyIndex.getIdTag(new CmsUUID()));
+        assertTrue(index.isComplete());
+        put(cache, index, "b");
+        assertFalse(index.isComplete());
+        index.clear();
+        cache.clear();
+        assertTrue(index.isComplete());
+        assertEquals(0, index.getSize());
+    }
+
+    /**
+     * Caches a value and adds it to the index.<p>
+     *
+     * @param cache the cache
+     * @param index the index
+     * @param key the key
+     * @param tags the tags
+     */
+    private void put(Map<String, String> cache, CmsCacheDependencyIndex index, String key, String... tags) {
+
+        cache.put(key, key);
+        index.add(key, tags);
+    }
+
+    /**
+     * Simulates reading and writing the properties of random resources.<p>
+     *
+     * Reads cache the searched property list of a resource, which depends on the resource and its parent folders,
+     * writes change the properties of a file or folder.<p>
+     *
+     * @param resources the resources
+     * @param writePercent the percentage of write operations
+     * @param targeted true to flush only dependent entries on writes, false to flush the whole cache
+     *
+     * @return the cache hit rate of the reads
+     */
+    private double runWorkload(List<CmsTestResource> resources, int writePercent, boolean targeted) {
+
+        Map<String, String> cache = CmsMemoryMonitor.createLRUCacheMap(resources.size());
+        CmsCacheDependencyIndex index = new CmsCacheDependencyIndex(cache, 4 * resources.size());
+        Random random = new Random(42);
+        int reads = 0;
+        int hits = 0;
+        for (int i = 0; i < 200000; i++) {
+            CmsTestResource resource = resources.get(random.nextInt(resources.size()));
+            if (random.nextInt(100) < writePercent) {
+                if (targeted) {
+                    index.flush(CmsCacheDependencyIndex.getIdTag(resource.m_id));
+                    if (resource.m_isFolder) {
+                        index.flushSubtree(resource.m_rootPath);
+                    }
+                } else {
+                    index.clear();
+                    cache.clear();
+                }
+                // no stale entries for the resource or the resources below may remain
+                for (CmsTestResource other : resources) {
+                    if (other.m_rootPath.startsWith(resource.m_rootPath)) {
+                        assertFalse(cache.containsKey(other.m_rootPath));
+                    }
+                }
+            } else {
+                reads++;
+                if (cache.get(resource.m_rootPath) != null) {
+                    hits++;
+                } else {
+                    put(
+                        cache,
+                        index,
+                        resource.m_rootPath,
+                        CmsCacheDependencyIndex.getIdTag(resource.m_id),
+                        CmsCacheDependencyIndex.getPathTag(resource.m_rootPath));
+                }
+            }
+        }
+        return (double)hits / reads;
+    }
+}
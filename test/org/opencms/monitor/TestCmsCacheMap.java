@@ -0,0 +1,127 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.monitor;
+
+import org.opencms.db.CmsCacheSettings;
+import org.opencms.monitor.CmsMemoryMonitor.CacheType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the statistics recording cache map.<p>
+ */
+public class TestCmsCacheMap extends TestCase {
+
+    /**
+     * Tests parsing the configured cache limits.<p>
+     */
+    public void testCacheSettings() {
+
+        CmsCacheSettings settings = new CmsCacheSettings();
+        settings.addCacheLimit("property_list", "1024", null);
+        settings.addCacheLimit("RESOURCE_LIST", null, "600");
+
+        assertEquals(1024 * 1024, settings.getCacheMaxMemory(CacheType.PROPERTY_LIST));
+        assertEquals(-1, settings.getCacheExpireAfterWrite(CacheType.PROPERTY_LIST));
+        assertEquals(-1, settings.getCacheMaxMemory(CacheType.RESOURCE_LIST));
+        assertEquals(600, settings.getCacheExpireAfterWrite(CacheType.RESOURCE_LIST));
+        assertEquals(
+            Arrays.asList(CacheType.PROPERTY_LIST, CacheType.RESOURCE_LIST),
+            Arrays.asList(settings.getCacheLimitTypes().toArray()));
+    }
+
+    /**
+     * Tests that entries expire.<p>
+     *
+     * @throws Exception if something goes wrong
+     */
+    public void testExpireAfterWrite() throws Exception {
+
+        CmsCacheMap<String, String> cache = new CmsCacheMap<String, String>(100, 0, 1);
+        cache.put("a", "a");
+        assertEquals("a", cache.get("a"));
+        Thread.sleep(1100);
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getExpireAfterWrite());
+    }
+
+    /**
+     * Tests that a cache with a memory limit is bounded by the estimated size of its entries.<p>
+     */
+    public void testMemoryLimit() {
+
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'x');
+        List<String> value = Collections.singletonList(new String(chars));
+        long entrySize = CmsCacheMap.getMemorySize("key0000", value);
+        assertTrue(entrySize > 2000);
+
+        CmsCacheMap<String, List<String>> cache = new CmsCacheMap<String, List<String>>(10000, 100 * 1024, 0);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key" + (1000 + i), value);
+        }
+        CmsCacheStatistics statistics = cache.getStatistics("test");
+        assertTrue(statistics.getSize() < 1000);
+        assertTrue(statistics.getMemorySize() <= (100 * 1024));
+        assertEquals(1000, statistics.getSize() + statistics.getEvictionCount());
+        assertEquals(100 * 1024, statistics.getMaxMemory());
+        assertEquals(-1, statistics.getMaxSize());
+        assertEquals("102400b", cache.getLimit());
+    }
+
+    /**
+     * Tests that lookups are recorded as hits and misses.<p>
+     */
+    public void testStatistics() {
+
+        CmsCacheMap<String, String> cache = new CmsCacheMap<String, String>(2, 0, 0);
+        cache.put("a", "a");
+        cache.put("b", "b");
+        assertEquals("a", cache.get("a"));
+        assertEquals("a", cache.get("a"));
+        assertNull(cache.get("c"));
+        cache.put("c", "c");
+
+        CmsCacheStatistics statistics = cache.getStatistics("test");
+        assertEquals("test", statistics.getName());
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(2.0 / 3, statistics.getHitRate(), 0.001);
+        assertEquals(2, statistics.getSize());
+        assertEquals(1, statistics.getEvictionCount());
+        assertEquals(2, statistics.getMaxSize());
+        assertEquals(-1, statistics.getMaxMemory());
+        // the least recently used entry has been evicted
+        assertTrue(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+    }
+}
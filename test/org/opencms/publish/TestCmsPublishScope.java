@@ -0,0 +1,222 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.publish;
+
+import org.opencms.file.CmsResource;
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the publish scopes used to decide which publish jobs may run concurrently.<p>
+ */
+public class TestCmsPublishScope extends TestCase {
+
+    /**
+     * Tests that resources in disjoint subtrees don't conflict, even if their paths share a prefix.<p>
+     */
+    public void testDisjointScopes() {
+
+        CmsPublishScope a = scope(file("/sites/a/index.html"), folder("/sites/a/news/"));
+        CmsPublishScope b = scope(file("/sites/b/index.html"));
+        CmsPublishScope ab = scope(folder("/sites/ab/"));
+        assertFalse(a.conflictsWith(b));
+        assertFalse(b.conflictsWith(a));
+        assertFalse(a.conflictsWith(ab));
+        assertFalse(ab.conflictsWith(a));
+    }
+
+    /**
+     * Tests that the online path of a moved resource is part of the scope.<p>
+     */
+    public void testMovedResource() {
+
+        CmsResource moved = file("/sites/b/moved.html");
+        CmsPublishScope notMoved = scope(moved);
+        Map<CmsUUID, String> onlinePaths = new HashMap<CmsUUID, String>();
+        onlinePaths.put(moved.getStructureId(), "/sites/a/moved.html");
+        CmsPublishScope movedFromA = new CmsPublishScope(Arrays.asList(moved), onlinePaths);
+        CmsPublishScope a = scope(file("/sites/a/index.html"));
+        assertFalse(notMoved.conflictsWith(a));
+        assertTrue(movedFromA.conflictsWith(a));
+        assertTrue(a.conflictsWith(movedFromA));
+        assertEquals(Arrays.asList("/sites/a/", "/sites/b/"), movedFromA.getRootPaths());
+    }
+
+    /**
+     * Tests that ancestor and descendant subtrees conflict.<p>
+     */
+    public void testNestedScopes() {
+
+        CmsPublishScope folder = scope(folder("/sites/a/"));
+        CmsPublishScope file = scope(file("/sites/a/news/article.html"));
+        CmsPublishScope parentFile = scope(file("/sites/index.html"));
+        assertTrue(folder.conflictsWith(file));
+        assertTrue(file.conflictsWith(folder));
+        assertTrue(parentFile.conflictsWith(folder));
+        assertTrue(scope(file("/sites/a/x.html")).conflictsWith(scope(file("/sites/a/y.html"))));
+    }
+
+    /**
+     * Tests that the minimal set of subtrees is computed.<p>
+     */
+    public void testRootPaths() {
+
+        CmsPublishScope scope = scope(
+            file("/sites/a/news/article.html"),
+            folder("/sites/a/"),
+            file("/sites/b/index.html"),
+            folder("/sites/b/images/"));
+        assertEquals(Arrays.asList("/sites/a/", "/sites/b/"), scope.getRootPaths());
+    }
+
+    /**
+     * Tests that siblings published by different jobs conflict.<p>
+     */
+    public void testSiblings() {
+
+        CmsResource sibling1 = file("/sites/a/index.html");
+        CmsResource sibling2 = new CmsResource(
+            CmsUUID.getConstantUUID("/sites/b/index.html"),
+            sibling1.getResourceId(),
+            "/sites/b/index.html",
+            1,
+            false,
+            0,
+            null,
+            null,
+            0,
+            null,
+            0,
+            null,
+            0,
+            0,
+            0,
+            0,
+            0,
+            0);
+        assertTrue(scope(sibling1).conflictsWith(scope(sibling2)));
+    }
+
+    /**
+     * Tests which waiting publish job the engine starts next.<p>
+     */
+    public void testStartableJobIndex() {
+
+        CmsPublishScope a = scope(file("/sites/a/index.html"));
+        CmsPublishScope a2 = scope(folder("/sites/a/news/"));
+        CmsPublishScope b = scope(file("/sites/b/index.html"));
+        CmsPublishScope ab = scope(file("/sites/a/news/x.html"), file("/sites/b/y.html"));
+        List<CmsPublishScope> none = Collections.emptyList();
+
+        // without running jobs, the first job is started
+        assertEquals(0, CmsPublishEngine.getStartableJobIndex(none, Arrays.asList(a, b)));
+        // a job not overlapping the running ones starts in parallel
+        assertEquals(0, CmsPublishEngine.getStartableJobIndex(Arrays.asList(a), Arrays.asList(b)));
+        // a conflicting job is skipped, the next non-conflicting one is started
+        assertEquals(1, CmsPublishEngine.getStartableJobIndex(Arrays.asList(a), Arrays.asList(a2, b)));
+        // a job must not overtake an earlier waiting job it conflicts with
+        assertEquals(-1, CmsPublishEngine.getStartableJobIndex(Arrays.asList(b), Arrays.asList(ab, a2)));
+        assertEquals(-1, CmsPublishEngine.getStartableJobIndex(Arrays.asList(a), Arrays.asList(a2, ab)));
+        assertEquals(-1, CmsPublishEngine.getStartableJobIndex(Arrays.asList(a), none));
+    }
+
+    /**
+     * Creates a file resource.<p>
+     *
+     * @param path the root path
+     *
+     * @return the resource
+     */
+    private CmsResource file(String path) {
+
+        return resource(path, false);
+    }
+
+    /**
+     * Creates a folder resource.<p>
+     *
+     * @param path the root path
+     *
+     * @return the resource
+     */
+    private CmsResource folder(String path) {
+
+        return resource(path, true);
+    }
+
+    /**
+     * Creates a resource with constant ids derived from the path.<p>
+     *
+     * @param path the root path
+     * @param isFolder true for a folder
+     *
+     * @return the resource
+     */
+    private CmsResource resource(String path, boolean isFolder) {
+
+        return new CmsResource(
+            CmsUUID.getConstantUUID(path),
+            CmsUUID.getConstantUUID("resource:" + path),
+            path,
+            isFolder ? 0 : 1,
+            isFolder,
+            0,
+            null,
+            null,
+            0,
+            null,
+            0,
+            null,
+            0,
+            0,
+            0,
+            0,
+            0,
+            0);
+    }
+
+    /**
+     * Creates the scope of a publish list without moved resources.<p>
+     *
+     * @param resources the resources of the publish list
+     *
+     * @return the scope
+     */
+    private CmsPublishScope scope(CmsResource... resources) {
+
+        return new CmsPublishScope(new ArrayList<CmsResource>(Arrays.asList(resources)), new HashMap<CmsUUID, String>());
+    }
+}
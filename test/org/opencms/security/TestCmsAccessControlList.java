@@ -0,0 +1,89 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.security;
+
+import org.opencms.util.CmsUUID;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the fingerprint of access control lists.<p>
+ */
+public class TestCmsAccessControlList extends TestCase {
+
+    /**
+     * Tests that equal permissions result in equal fingerprints, independent of the order of the entries.<p>
+     */
+    public void testEqualFingerprints() {
+
+        CmsUUID resource1 = new CmsUUID();
+        CmsUUID resource2 = new CmsUUID();
+        CmsUUID group = new CmsUUID();
+        CmsUUID user = new CmsUUID();
+
+        CmsAccessControlList acl1 = new CmsAccessControlList();
+        acl1.add(new CmsAccessControlEntry(resource1, group, "+r+v"));
+        acl1.add(new CmsAccessControlEntry(resource1, user, "+r+w+v-c"));
+
+        CmsAccessControlList acl2 = new CmsAccessControlList();
+        acl2.add(new CmsAccessControlEntry(resource2, user, "+r+w+v-c"));
+        acl2.add(new CmsAccessControlEntry(resource2, group, "+r+v"));
+
+        assertEquals(acl1.getFingerprint(), acl2.getFingerprint());
+        assertEquals(acl1.getFingerprint(), ((CmsAccessControlList)acl1.clone()).getFingerprint());
+        assertEquals(new CmsAccessControlList().getFingerprint(), new CmsAccessControlList().getFingerprint());
+    }
+
+    /**
+     * Tests that the fingerprint changes when the permissions are modified.<p>
+     */
+    public void testModifiedFingerprints() {
+
+        CmsUUID resource = new CmsUUID();
+        CmsUUID group = new CmsUUID();
+        CmsUUID otherGroup = new CmsUUID();
+
+        CmsAccessControlList acl = new CmsAccessControlList();
+        String empty = acl.getFingerprint();
+        acl.add(new CmsAccessControlEntry(resource, group, "+r+v"));
+        String readable = acl.getFingerprint();
+        assertFalse(empty.equals(readable));
+
+        acl.setDeniedPermissions(new CmsAccessControlEntry(resource, group, "-w"));
+        String denied = acl.getFingerprint();
+        assertFalse(readable.equals(denied));
+
+        acl.setAllowedPermissions(new CmsAccessControlEntry(resource, group, "+r"));
+        assertFalse(denied.equals(acl.getFingerprint()));
+
+        // the same permissions for another principal result in another fingerprint
+        CmsAccessControlList other = new CmsAccessControlList();
+        other.add(new CmsAccessControlEntry(resource, otherGroup, "+r+v"));
+        assertFalse(readable.equals(other.getFingerprint()));
+    }
+}
@@ -60,6 +60,7 @@ public final class AllTests {
         //$JUnit-BEGIN$
         suite.addTest(TestCmsSiteConfiguration.suite());
         suite.addTestSuite(TestSiteConfigSerialization.class);
+        suite.addTestSuite(TestCmsSiteRootIndex.class);
         //$JUnit-END$
         return suite;
     }
@@ -0,0 +1,235 @@
+/*
+ * This library is part of OpenCms -
+ * the Open Source Content Management System
+ *
+ * Copyright (c) Alkacon Software GmbH & Co. KG (http://www.alkacon.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * For further information about Alkacon Software, please see the
+ * company website: http://www.alkacon.com
+ *
+ * For further information about OpenCms, please see the
+ * project website: http://www.opencms.org
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package org.opencms.site;
+
+import org.opencms.util.CmsUUID;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the site root index.<p>
+ */
+public class TestCmsSiteRootIndex extends TestCase {
+
+    /**
+     * Tests the lookup of alternative site roots.<p>
+     */
+    public void testAlternativeSites() {
+
+        CmsSite site = createSite("/sites/default");
+        CmsSite alternative = createSite("/shared/default");
+        CmsSite nested = createSite("/sites/default/.alternative");
+        CmsSiteRootIndex index = new CmsSiteRootIndex(
+            Collections.singletonList(site),
+            createList(alternative, nested));
+        assertSame(alternative, index.getSiteForRootPath("/shared/default/a/b.html"));
+        assertEquals("/shared/default", index.getSiteRoot("/shared/default"));
+        assertTrue(index.isSiteRoot("/shared/default/"));
+        // configured sites win over alternative site roots
+        assertSame(site, index.getSiteForRootPath("/sites/default/.alternative/a.html"));
+        assertEquals(3, index.getSize());
+    }
+
+    /**
+     * Compares the index with the previous lookup implementation for a large number of sites,
+     * and prints the time needed by both implementations.<p>
+     */
+    public void testCompareWithLinearLookup() {
+
+        Random random = new Random(42);
+        List<CmsSite> sites = new ArrayList<CmsSite>();
+        for (int i = 0; i < 800; i++) {
+            sites.add(createSite("/sites/site" + i));
+        }
+        for (int i = 0; i < 200; i++) {
+            sites.add(createSite("/extra" + (i % 20) + "/site" + i));
+        }
+        Map<String, CmsSite> siteRootSites = new HashMap<String, CmsSite>();
+        List<String> additionalSiteRoots = new ArrayList<String>();
+        for (CmsSite site : sites) {
+            siteRootSites.put(site.getSiteRoot(), site);
+            if (!site.getSiteRoot().startsWith("/sites/")) {
+                additionalSiteRoots.add(site.getSiteRoot());
+            }
+        }
+        CmsSiteRootIndex index = new CmsSiteRootIndex(sites, Collections.<CmsSite> emptyList());
+
+        String[] paths = new String[10000];
+        for (int i = 0; i < paths.length; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    paths[i] = "/sites/site" + random.nextInt(900) + "/folder/page" + i + ".html";
+                    break;
+                case 1:
+                    paths[i] = "/extra" + random.nextInt(20) + "/site" + random.nextInt(220) + "/page.html";
+                    break;
+                case 2:
+                    paths[i] = "/system/modules/org.opencms.base/formatters/f" + i + ".xml";
+                    break;
+                default:
+                    paths[i] = "/sites/site" + random.nextInt(800);
+                    break;
+            }
+        }
+        for (String path : paths) {
+            assertSame(path, lookupLinear(siteRootSites, additionalSiteRoots, path), index.getSiteForRootPath(path));
+        }
+
+        int rounds = 50;
+        long linearTime = 0;
+        long indexTime = 0;
+        int found = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (String path : paths) {
+                found += lookupLinear(siteRootSites, additionalSiteRoots, path) != null ? 1 : 0;
+            }
+            linearTime += System.nanoTime() - start;
+            start = System.nanoTime();
+            for (String path : paths) {
+                found -= index.getSiteForRootPath(path) != null ? 1 : 0;
+            }
+            indexTime += System.nanoTime() - start;
+        }
+        assertEquals(0, found);
+        System.out.println(
+            "Site lookup for "
+                + (rounds * paths.length)
+                + " paths: linear "
+                + (linearTime / 1000000)
+                + " ms, index "
+                + (indexTime / 1000000)
+                + " ms");
+    }
+
+    /**
+     * Tests the site lookup for simple and nested site roots.<p>
+     */
+    public void testSiteLookup() {
+
+        CmsSite def = createSite("/sites/default");
+        CmsSite other = createSite("/sites/default2/");
+        CmsSite deep = createSite("/data/sites/deep");
+        CmsSite nested = createSite("/sites/default/nested");
+        CmsSiteRootIndex index = new CmsSiteRootIndex(
+            createList(def, other, deep, nested),
+            Collections.<CmsSite> emptyList());
+
+        assertSame(def, index.getSiteForRootPath("/sites/default"));
+        assertSame(def, index.getSiteForRootPath("/sites/default/"));
+        assertSame(def, index.getSiteForRootPath("/sites/default/index.html"));
+        assertSame(other, index.getSiteForRootPath("/sites/default2/a/b/c"));
+        assertSame(deep, index.getSiteForRootPath("/data/sites/deep/x"));
+        // the shortest site root wins for nested sites
+        assertSame(def, index.getSiteForRootPath("/sites/default/nested/x"));
+        assertNull(index.getSiteForRootPath("/sites/defaultx/index.html"));
+        assertNull(index.getSiteForRootPath("/sites/"));
+        assertNull(index.getSiteForRootPath("/data/sites"));
+        assertNull(index.getSiteForRootPath("/"));
+        assertNull(index.getSiteForRootPath(""));
+        assertNull(index.getSiteForRootPath("sites/default/"));
+
+        assertEquals("/sites/default2", index.getSiteRoot("/sites/default2/"));
+        assertNull(index.getSiteRoot("/system/"));
+
+        assertTrue(index.isSiteRoot("/sites/default"));
+        assertTrue(index.isSiteRoot("/sites/default/"));
+        assertTrue(index.isSiteRoot("/sites/default/nested"));
+        assertTrue(index.isSiteRoot("/data/sites/deep/"));
+        assertFalse(index.isSiteRoot("/sites/default/index.html"));
+        assertFalse(index.isSiteRoot("/sites"));
+        assertFalse(index.isSiteRoot("/"));
+        assertFalse(index.isSiteRoot(""));
+    }
+
+    /**
+     * Creates a list of sites.<p>
+     *
+     * @param sites the sites
+     *
+     * @return the list of sites
+     */
+    private List<CmsSite> createList(CmsSite... sites) {
+
+        List<CmsSite> result = new ArrayList<CmsSite>();
+        Collections.addAll(result, sites);
+        return result;
+    }
+
+    /**
+     * Creates a site for the given site root.<p>
+     *
+     * @param siteRoot the site root
+     *
+     * @return the site
+     */
+    private CmsSite createSite(String siteRoot) {
+
+        return new CmsSite(siteRoot, CmsUUID.getNullUUID(), siteRoot);
+    }
+
+    /**
+     * The lookup as previously implemented by the site manager.<p>
+     *
+     * @param siteRootSites the sites by site root
+     * @param additionalSiteRoots the site roots not directly below "/sites/"
+     * @param rootPath the root path
+     *
+     * @return the site, or <code>null</code>
+     */
+    private CmsSite lookupLinear(
+        Map<String, CmsSite> siteRootSites,
+        List<String> additionalSiteRoots,
+        String rootPath) {
+
+        if ((rootPath.length() > 0) && !rootPath.endsWith("/")) {
+            rootPath = rootPath + "/";
+        }
+        int pos = rootPath.indexOf('/', "/sites/".length() + 1);
+        if (pos > 0) {
+            CmsSite result = siteRootSites.get(rootPath.substring(0, pos));
+            if (result != null) {
+                return result;
+            }
+        }
+        for (int i = 0, size = additionalSiteRoots.size(); i < size; i++) {
+            String siteRoot = additionalSiteRoots.get(i);
+            if (rootPath.startsWith(siteRoot + "/")) {
+                return siteRootSites.get(siteRoot);
+            }
+        }
+        return null;
+    }
+}
@@ -75,6 +75,7 @@ public class TestFill extends OpenCmsTestCase {
         suite.addTest(new TestFill("testPermissionsWithOUs"));
         suite.addTest(new TestFill("testResWithProps"));
         suite.addTest(new TestFill("testReadFile"));
+        suite.addTest(new TestFill("testPublishFiles"));
 
         TestSetup wrapper = new TestSetup(suite) {
 
@@ -170,6 +171,29 @@ public class TestFill extends OpenCmsTestCase {
         echo("" + nFiles + " files have been created in " + t + " msecs");
     }
 
+    /**
+     * Performance test for publishing.<p>
+     * 10,000 files will be published in one publish job and 20% of them are binary.<p>
+     *
+     * @throws Throwable if something goes wrong
+     */
+    public void testPublishFiles() throws Throwable {
+
+        CmsObject cms = getCmsObject();
+        String folder = "/testPublishFiles/";
+        cms.createResource(folder, CmsResourceTypeFolder.RESOURCE_TYPE_ID);
+        int nFiles = generateContent(cms, folder, 10000, 0.2);
+
+        long startT = System.currentTimeMillis();
+        OpenCms.getPublishManager().publishProject(cms);
+        OpenCms.getPublishManager().waitWhileRunning();
+        long workT = System.currentTimeMillis() - startT;
+        echo("" + nFiles + " files have been published in " + workT + " msecs");
+
+        // all published resources must be unchanged now
+        assertTrue(cms.readResources(folder, CmsResourceFilter.ALL_MODIFIED).isEmpty());
+    }
+
     /**
      * Performance test for readFile.<p>
      * 10,000 files will be read and 20% of them are binary.<p>
@@ -135,6 +135,7 @@ public class TestCmsXmlContainerPage extends OpenCmsTestCase {
         suite.setName(TestCmsXmlContainerPage.class.getName());
 
         suite.addTest(new TestCmsXmlContainerPage("testUnmarshal"));
+        suite.addTest(new TestCmsXmlContainerPage("testCacheInvalidation"));
         suite.addTest(new TestCmsXmlContainerPage("testContainerBeanIsFromMasterLocaleIfAvailable"));
         suite.addTest(new TestCmsXmlContainerPage("testGetContainerBeanFromDifferentLocaleIfMasterLocaleNotAvailable"));
         suite.addTest(new TestCmsXmlContainerPage("testOverwriteExistingLocales"));
@@ -174,6 +175,42 @@ public class TestCmsXmlContainerPage extends OpenCmsTestCase {
         return cms.readResource(path);
     }
 
+    /**
+     * Tests that cached container pages are shared and are removed from the cache when they or their siblings change.<p>
+     *
+     * @throws Exception if anything goes wrong
+     */
+    public void testCacheInvalidation() throws Exception {
+
+        CmsResource a = createElementResource();
+        CmsObject cms = OpenCms.initCmsObject(getCmsObject());
+        CmsResource formatter = cms.readResource("/containerpage/formatter.jsp");
+        Map<String, Map<String, List<CmsResource>>> locales = new HashMap<String, Map<String, List<CmsResource>>>();
+        Map<String, List<CmsResource>> containersEn = new HashMap<String, List<CmsResource>>();
+        locales.put("en", containersEn);
+        containersEn.put("cnt", Arrays.asList(a));
+        byte[] dataBytes = generateContainerPage(formatter, locales).getBytes("UTF-8");
+        cms.createResource(
+            "/test-cache.html",
+            CmsResourceTypeXmlContainerPage.getContainerPageTypeId(),
+            dataBytes,
+            new ArrayList<CmsProperty>());
+        cms.copyResource("/test-cache.html", "/test-cache-sibling.html", CmsResource.COPY_AS_SIBLING);
+
+        CmsXmlContainerPage page = CmsXmlContainerPageFactory.unmarshal(cms, cms.readResource("/test-cache.html"));
+        assertSame(page, CmsXmlContainerPageFactory.unmarshal(cms, cms.readResource("/test-cache.html")));
+        CmsXmlContainerPage sibling = CmsXmlContainerPageFactory.unmarshal(
+            cms,
+            cms.readResource("/test-cache-sibling.html"));
+        assertSame(sibling, CmsXmlContainerPageFactory.unmarshal(cms, cms.readResource("/test-cache-sibling.html")));
+
+        cms.setDateLastModified("/test-cache.html", System.currentTimeMillis(), false);
+        assertNotSame(page, CmsXmlContainerPageFactory.unmarshal(cms, cms.readResource("/test-cache.html")));
+        assertNotSame(
+            sibling,
+            CmsXmlContainerPageFactory.unmarshal(cms, cms.readResource("/test-cache-sibling.html")));
+    }
+
     /**
      * Tests that the container bean is loaded from the master locale if that locale is present in the XML content.<p>
      *
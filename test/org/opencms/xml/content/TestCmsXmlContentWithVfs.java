@@ -30,6 +30,7 @@ package org.opencms.xml.content;
 import org.opencms.ade.contenteditor.CmsWidgetUtil;
 import org.opencms.file.CmsFile;
 import org.opencms.file.CmsObject;
+import org.opencms.file.CmsProject;
 import org.opencms.file.CmsProperty;
 import org.opencms.file.CmsPropertyDefinition;
 import org.opencms.file.CmsResource;
@@ -38,6 +39,7 @@ import org.opencms.i18n.CmsEncoder;
 import org.opencms.i18n.CmsMessages;
 import org.opencms.i18n.CmsMultiMessages;
 import org.opencms.main.CmsEvent;
+import org.opencms.main.CmsRuntimeException;
 import org.opencms.main.I_CmsEventListener;
 import org.opencms.main.OpenCms;
 import org.opencms.relations.CmsLink;
@@ -47,6 +49,7 @@ import org.opencms.relations.CmsRelationType;
 import org.opencms.staticexport.CmsLinkTable;
 import org.opencms.test.OpenCmsTestCase;
 import org.opencms.test.OpenCmsTestProperties;
+import org.opencms.test.OpenCmsTestServletRequest;
 import org.opencms.util.CmsFileUtil;
 import org.opencms.widgets.CmsCheckboxWidget;
 import org.opencms.widgets.CmsHtmlWidget;
@@ -171,6 +174,9 @@ public class TestCmsXmlContentWithVfs extends OpenCmsTestCase {
         suite.addTest(new TestCmsXmlContentWithVfs("testAddFileReference"));
         suite.addTest(new TestCmsXmlContentWithVfs("testXmlContentCreate"));
         suite.addTest(new TestCmsXmlContentWithVfs("testVarLinkPreservePercentEncodingForSpecialCharacters"));
+        suite.addTest(new TestCmsXmlContentWithVfs("testSharedOnlineContentCache"));
+        suite.addTest(new TestCmsXmlContentWithVfs("testSharedOnlineContentSiteRoots"));
+        suite.addTest(new TestCmsXmlContentWithVfs("testSharedOnlineContentValues"));
 
         TestSetup wrapper = new TestSetup(suite) {
 
@@ -1957,6 +1963,173 @@ public class TestCmsXmlContentWithVfs extends OpenCmsTestCase {
         assertEquals("Der Autor ist JETZT", messagesDEde.key("label.newauthor"));
     }
 
+    /**
+     * Tests the cache of parsed online XML contents shared between requests,
+     * and compares the time needed for rendering style value access with and without the cache.<p>
+     *
+     * @throws Exception in case something goes wrong
+     */
+    public void testSharedOnlineContentCache() throws Exception {
+
+        CmsObject cms = getCmsObject();
+        echo("Testing the shared cache of parsed online XML contents");
+
+        String filename = "/xmlcontent/article_0003.html";
+        CmsObject onlineCms = OpenCms.initCmsObject(cms);
+        onlineCms.getRequestContext().setCurrentProject(cms.readProject(CmsProject.ONLINE_PROJECT_ID));
+        CmsResource resource = onlineCms.readResource(filename);
+
+        CmsXmlContent first = CmsXmlContentFactory.unmarshal(onlineCms, resource, new OpenCmsTestServletRequest());
+        CmsXmlContent second = CmsXmlContentFactory.unmarshal(onlineCms, resource, new OpenCmsTestServletRequest());
+        // the parsed content is shared between requests, but can not be modified
+        assertSame(first, second);
+        assertTrue(first.isReadOnly());
+        try {
+            first.addLocale(onlineCms, Locale.CHINESE);
+            fail("Shared XML content must not be modifiable");
+        } catch (CmsRuntimeException e) {
+            // expected
+        }
+        CmsXmlContent copy = first.clone();
+        assertFalse(copy.isReadOnly());
+        copy.addLocale(onlineCms, Locale.CHINESE);
+        assertFalse(first.hasLocale(Locale.CHINESE));
+
+        // the offline project and in-memory files never use the shared cache
+        CmsXmlContent offline = CmsXmlContentFactory.unmarshal(cms, resource, new OpenCmsTestServletRequest());
+        assertFalse(offline.isReadOnly());
+        CmsFile file = onlineCms.readFile(resource);
+        assertFalse(CmsXmlContentFactory.unmarshal(onlineCms, file, new OpenCmsTestServletRequest()).isReadOnly());
+
+        // publishing flushes the shared cache
+        OpenCms.fireCmsEvent(I_CmsEventListener.EVENT_CLEAR_ONLINE_CACHES, Collections.<String, Object> emptyMap());
+        CmsXmlContent third = CmsXmlContentFactory.unmarshal(onlineCms, resource, new OpenCmsTestServletRequest());
+        assertNotSame(first, third);
+
+        int rounds = 200;
+        int values = 0;
+        long parseTime = 0;
+        long cachedTime = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            CmsXmlContent content = CmsXmlContentFactory.unmarshal(onlineCms, onlineCms.readFile(resource));
+            values += readAllValues(onlineCms, content);
+            parseTime += System.nanoTime() - start;
+            start = System.nanoTime();
+            content = CmsXmlContentFactory.unmarshal(onlineCms, resource, new OpenCmsTestServletRequest());
+            values -= readAllValues(onlineCms, content);
+            cachedTime += System.nanoTime() - start;
+        }
+        assertEquals(0, values);
+        System.out.println(
+            "Formatter value access for "
+                + rounds
+                + " requests: parsed "
+                + (parseTime / 1000000)
+                + " ms, shared cache "
+                + (cachedTime / 1000000)
+                + " ms");
+    }
+
+    /**
+     * Tests that the site dependent values of a shared online XML content are computed for each site.<p>
+     *
+     * @throws Exception in case something goes wrong
+     */
+    public void testSharedOnlineContentSiteRoots() throws Exception {
+
+        CmsObject cms = getCmsObject();
+        echo("Testing the values of shared online XML contents read from different sites");
+
+        String filename = "/xmlcontent/article_siteroots.html";
+        String target = "/xmlcontent/article_0001.html";
+        CmsResource resource = cms.createResource(filename, OpenCmsTestCase.ARTICLE_TYPEID);
+        CmsFile file = cms.readFile(resource);
+        CmsXmlContent content = CmsXmlContentFactory.unmarshal(cms, file);
+        content.addValue(cms, "Homepage", Locale.ENGLISH, 0).setStringValue(cms, target);
+        file.setContents(content.marshal());
+        cms.writeFile(file);
+        OpenCms.getPublishManager().publishResource(cms, filename);
+        OpenCms.getPublishManager().waitWhileRunning();
+
+        CmsObject siteCms = OpenCms.initCmsObject(cms);
+        siteCms.getRequestContext().setCurrentProject(cms.readProject(CmsProject.ONLINE_PROJECT_ID));
+        CmsObject rootCms = OpenCms.initCmsObject(siteCms);
+        rootCms.getRequestContext().setSiteRoot("");
+        resource = siteCms.readResource(filename);
+        String rootTarget = siteCms.getRequestContext().addSiteRoot(target);
+
+        CmsXmlContent siteContent = CmsXmlContentFactory.unmarshal(siteCms, resource, new OpenCmsTestServletRequest());
+        assertTrue(siteContent.isReadOnly());
+        String xml = siteContent.toString();
+        CmsXmlVfsFileValue siteValue = (CmsXmlVfsFileValue)siteContent.getValue("Homepage", Locale.ENGLISH);
+        assertEquals(target, siteValue.getStringValue(siteCms));
+        assertEquals(rootTarget, siteValue.getLink(siteCms).getTarget());
+
+        // the same instance read with the root site must return root paths
+        CmsXmlContent rootContent = CmsXmlContentFactory.unmarshal(rootCms, resource, new OpenCmsTestServletRequest());
+        assertSame(siteContent, rootContent);
+        CmsXmlVfsFileValue rootValue = (CmsXmlVfsFileValue)rootContent.getValue("Homepage", Locale.ENGLISH);
+        assertEquals(rootTarget, rootValue.getStringValue(rootCms));
+        assertEquals(rootTarget, rootValue.getLink(rootCms).getTarget());
+        assertEquals(target, siteValue.getStringValue(siteCms));
+
+        // reading the values must not change the shared XML
+        assertEquals(xml, siteContent.toString());
+    }
+
+    /**
+     * Tests that the values of a shared online XML content can not be modified.<p>
+     *
+     * @throws Exception in case something goes wrong
+     */
+    public void testSharedOnlineContentValues() throws Exception {
+
+        CmsObject cms = getCmsObject();
+        echo("Testing that the values of shared online XML contents can not be modified");
+
+        String filename = "/xmlcontent/article_0003.html";
+        CmsObject onlineCms = OpenCms.initCmsObject(cms);
+        onlineCms.getRequestContext().setCurrentProject(cms.readProject(CmsProject.ONLINE_PROJECT_ID));
+        CmsResource resource = onlineCms.readResource(filename);
+
+        CmsXmlContent shared = CmsXmlContentFactory.unmarshal(onlineCms, resource, new OpenCmsTestServletRequest());
+        assertTrue(shared.isReadOnly());
+        Locale locale = shared.getLocales().get(0);
+        I_CmsXmlContentValue title = shared.getValue("Title", locale);
+        String oldTitle = title.getStringValue(onlineCms);
+        try {
+            title.setStringValue(onlineCms, "Changed title");
+            fail("Values of a shared XML content must not be modifiable");
+        } catch (CmsRuntimeException e) {
+            // expected
+        }
+        try {
+            shared.visitAllValuesWith(new I_CmsXmlContentValueVisitor() {
+
+                public void visit(I_CmsXmlContentValue value) {
+
+                    if (value.isSimpleType()) {
+                        value.setStringValue(onlineCms, "Changed value");
+                    }
+                }
+            });
+            fail("Values of a shared XML content must not be modifiable by a visitor");
+        } catch (CmsRuntimeException e) {
+            // expected
+        }
+        // the shared instance is unchanged for other requests
+        CmsXmlContent next = CmsXmlContentFactory.unmarshal(onlineCms, resource, new OpenCmsTestServletRequest());
+        assertSame(shared, next);
+        assertEquals(oldTitle, next.getValue("Title", locale).getStringValue(onlineCms));
+
+        // a copy can be modified without affecting the shared instance
+        CmsXmlContent copy = shared.clone();
+        copy.getValue("Title", locale).setStringValue(onlineCms, "Changed title");
+        assertEquals("Changed title", copy.getValue("Title", locale).getStringValue(onlineCms));
+        assertEquals(oldTitle, shared.getValue("Title", locale).getStringValue(onlineCms));
+    }
+
     /**
      * Test the validation of the value elements.<p>
      *
@@ -2542,4 +2715,26 @@ public class TestCmsXmlContentWithVfs extends OpenCmsTestCase {
         }
         return m_vfsPrefix;
     }
+
+    /**
+     * Reads the string values of all simple values in all locales of the given content,
+     * like a formatter rendering the content would do.<p>
+     *
+     * @param cms the current OpenCms user context
+     * @param content the XML content
+     *
+     * @return the number of values read
+     */
+    private int readAllValues(CmsObject cms, CmsXmlContent content) {
+
+        int count = 0;
+        for (Locale locale : content.getLocales()) {
+            for (I_CmsXmlContentValue value : content.getValues(locale)) {
+                if (value.isSimpleType() && (value.getStringValue(cms) != null)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
 }